@@ -13,6 +13,8 @@ import com.joyent.manta.client.MantaClient;
 import com.joyent.manta.client.MantaObject;
 import com.joyent.manta.client.MantaObjectInputStream;
 import com.joyent.manta.client.MantaObjectResponse;
+import com.joyent.manta.client.SyncOptions;
+import com.joyent.manta.client.SyncResult;
 import com.joyent.manta.client.crypto.AesCtrCipherDetails;
 import com.joyent.manta.client.crypto.SecretKeyUtils;
 import com.joyent.manta.client.crypto.SupportedCipherDetails;
@@ -44,6 +46,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static com.joyent.manta.config.DefaultsConfigContext.DEFAULT_PRUNE_DEPTH;
@@ -77,7 +80,8 @@ import static com.joyent.manta.config.DefaultsConfigContext.DEFAULT_PRUNE_DEPTH;
              MantaCLI.PutFile.class,
              MantaCLI.DeleteFile.class,
              MantaCLI.ObjectInfo.class,
-             MantaCLI.ValidateKey.class
+             MantaCLI.ValidateKey.class,
+             MantaCLI.Sync.class
          })
 // Documented through CLI annotations
 @SuppressWarnings({"checkstyle:javadocmethod", "checkstyle:javadoctype", "checkstyle:javadocvariable"})
@@ -581,4 +585,79 @@ public final class MantaCLI {
             System.out.println(b.toString());
         }
     }
+
+    @CommandLine.Command(name = "sync",
+                         header = "sync a local directory to Manta",
+                         description = "uploads the files in a local directory tree that are "
+                         + "missing from or differ from a directory in Manta.")
+    public static class Sync extends MantaSubCommand {
+        @SuppressWarnings("unused")
+        @CommandLine.Parameters(index = "0", description = "local directory to sync from")
+        private Path localDir;
+
+        @SuppressWarnings("unused")
+        @CommandLine.Parameters(index = "1", description = "directory in Manta to sync to")
+        private String mantaPath;
+
+        @SuppressWarnings("unused")
+        @CommandLine.Option(names = {"-n", "--dry-run"},
+                description = "show what would be uploaded without making changes")
+        private boolean dryRun;
+
+        @SuppressWarnings("unused")
+        @CommandLine.Option(names = {"-c", "--concurrency"},
+                description = "maximum number of concurrent requests")
+        private Integer concurrency;
+
+        @SuppressWarnings("unused")
+        @CommandLine.Option(names = {"--size-only"},
+                description = "treat files of the same size as unchanged without comparing checksums")
+        private boolean sizeOnly;
+
+        @SuppressWarnings("unused")
+        @CommandLine.Option(names = {"-cse", "--using-encryption"},
+                description = "flag to enable client-side encryption")
+        private boolean usingEncryption;
+
+        @Override
+        public void run() {
+            final StringBuilder b = new StringBuilder();
+            ConfigContext config = buildConfig();
+
+            if (usingEncryption) {
+                config = buildEncryptionConfig();
+            }
+
+            final SyncOptions options = new SyncOptions()
+                    .setConcurrency(concurrency)
+                    .setDryRun(dryRun)
+                    .setCompareChecksums(!sizeOnly);
+
+            try (MantaClient client = new MantaClient(config)) {
+                b.append("Syncing [").append(localDir).append("] to [").append(mantaPath).append("]");
+
+                if (dryRun) {
+                    b.append(" (dry run)");
+                }
+
+                b.append(BR);
+
+                final SyncResult result = client.sync(localDir, mantaPath, options);
+
+                b.append(INDENT).append("Directories created: ").append(result.getDirectoriesCreated()).append(BR);
+                b.append(INDENT).append("Files uploaded: ").append(result.getFilesUploaded()).append(BR);
+                b.append(INDENT).append("Files unchanged: ").append(result.getFilesUnchanged()).append(BR);
+                b.append(INDENT).append("Bytes uploaded: ").append(result.getBytesUploaded()).append(BR);
+
+                for (Map.Entry<String, Exception> failure : result.getFailures().entrySet()) {
+                    b.append(INDENT).append("Failed: ").append(failure.getKey())
+                        .append(" - ").append(failure.getValue().getMessage()).append(BR);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            System.out.println(b.toString());
+        }
+    }
 }
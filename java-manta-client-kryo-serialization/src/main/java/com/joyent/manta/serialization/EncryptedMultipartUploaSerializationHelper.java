@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2017-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -15,6 +15,7 @@ import com.joyent.manta.client.crypto.SupportedCipherDetails;
 import com.joyent.manta.client.crypto.SupportedHmacsLookupMap;
 import com.joyent.manta.client.multipart.AbstractMultipartUpload;
 import com.joyent.manta.client.multipart.EncryptedMultipartUpload;
+import com.joyent.manta.client.multipart.EncryptionState;
 import com.joyent.manta.exception.MantaClientEncryptionCiphertextAuthenticationException;
 import com.joyent.manta.exception.MantaClientEncryptionException;
 import org.bouncycastle.crypto.macs.HMac;
@@ -25,6 +26,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
+import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.util.function.Supplier;
@@ -55,6 +57,12 @@ public class EncryptedMultipartUploaSerializationHelper<WRAPPED extends Abstract
      */
     private static final int ENCRYPTED_MULTIPART_UPLOAD_SERIALIZATION_VERSION = 1;
 
+    /**
+     * Field holding the encryption state of an upload.
+     */
+    private static final Field ENCRYPTION_STATE_FIELD = ReflectionUtils.getField(
+            EncryptedMultipartUpload.class, "encryptionState");
+
     /**
      * Kryo serializer instance.
      */
@@ -109,8 +117,17 @@ public class EncryptedMultipartUploaSerializationHelper<WRAPPED extends Abstract
      *
      * @param upload object to serialize and encrypt
      * @return serialized and encrypted byte array
+     * @throws MantaClientSerializationException thrown when the upload was
+     *         started with <code>initiateConcurrentUpload</code>
      */
     public byte[] serialize(final EncryptedMultipartUpload<WRAPPED> upload) {
+        final EncryptionState encryptionState = (EncryptionState) ReflectionUtils.readField(
+                ENCRYPTION_STATE_FIELD, upload);
+
+        if (encryptionState != null) {
+            EncryptionStateSerializer.rejectConcurrentUpload(encryptionState);
+        }
+
         Cipher cipher = cipherDetails.getCipher();
         byte[] iv = cipherDetails.generateIv();
 
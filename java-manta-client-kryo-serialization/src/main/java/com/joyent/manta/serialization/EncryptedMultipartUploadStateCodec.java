@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.serialization;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.joyent.manta.client.crypto.SupportedCipherDetails;
+import com.joyent.manta.client.multipart.AbstractMultipartUpload;
+import com.joyent.manta.client.multipart.EncryptedMultipartUpload;
+import com.joyent.manta.client.multipart.MultipartUploadStateCodec;
+import com.joyent.manta.client.multipart.ResumableMultipartUploader;
+
+import javax.crypto.SecretKey;
+
+/**
+ * {@link MultipartUploadStateCodec} implementation that persists the cipher
+ * state of {@link EncryptedMultipartUpload} instances using
+ * {@link EncryptedMultipartUploaSerializationHelper}. This allows a
+ * {@link ResumableMultipartUploader} to continue an encrypted multipart
+ * upload after a restart. The encoded state is itself encrypted with the
+ * upload's secret key.
+ *
+ * @since 3.5.1
+ *
+ * @param <WRAPPED> backing implementation of a {@link AbstractMultipartUpload}
+ */
+public class EncryptedMultipartUploadStateCodec<WRAPPED extends AbstractMultipartUpload>
+        implements MultipartUploadStateCodec<EncryptedMultipartUpload<WRAPPED>> {
+    /**
+     * Helper used to serialize and encrypt upload state.
+     */
+    private final EncryptedMultipartUploaSerializationHelper<WRAPPED> helper;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param kryo Kryo serializer instance
+     * @param secretKey secret key used by MPU
+     * @param cipherDetails cipher / mode properties object
+     * @param wrappedMultipartClass multipart class that encrypting mpu class is wrapping
+     */
+    public EncryptedMultipartUploadStateCodec(final Kryo kryo,
+                                              final SecretKey secretKey,
+                                              final SupportedCipherDetails cipherDetails,
+                                              final Class<WRAPPED> wrappedMultipartClass) {
+        this(new EncryptedMultipartUploaSerializationHelper<>(kryo, secretKey,
+                cipherDetails, wrappedMultipartClass));
+    }
+
+    /**
+     * Creates a new instance using an existing serialization helper.
+     *
+     * @param helper helper used to serialize and encrypt upload state
+     */
+    public EncryptedMultipartUploadStateCodec(final EncryptedMultipartUploaSerializationHelper<WRAPPED> helper) {
+        this.helper = helper;
+    }
+
+    @Override
+    public byte[] encode(final EncryptedMultipartUpload<WRAPPED> upload) {
+        return helper.serialize(upload);
+    }
+
+    @Override
+    public EncryptedMultipartUpload<WRAPPED> decode(final byte[] state) {
+        return helper.deserialize(state);
+    }
+}
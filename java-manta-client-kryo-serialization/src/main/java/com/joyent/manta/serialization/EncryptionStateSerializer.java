@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2017-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -40,6 +40,12 @@ import static com.joyent.manta.serialization.ReflectionUtils.writeField;
  * @since 3.0.0
  */
 public class EncryptionStateSerializer extends AbstractManualSerializer<EncryptionState> {
+    /**
+     * Field holding the state of concurrently uploaded parts, which is
+     * never serialized.
+     */
+    private static final Field CONCURRENT_PARTS_FIELD = ReflectionUtils.getField(
+            EncryptionState.class, "concurrentParts");
 
     private Field encryptionContextField = captureField("encryptionContext");
     private Field lastPartNumberField = captureField("lastPartNumber");
@@ -115,6 +121,8 @@ public class EncryptionStateSerializer extends AbstractManualSerializer<Encrypti
     @Override
     @SuppressWarnings("unchecked")
     public void write(final Kryo kryo, final Output output, final EncryptionState object) {
+        rejectConcurrentUpload(object);
+
         kryo.writeClassAndObject(output, readField(encryptionContextField, object));
 
         final int lastPartNumber = (int)readField(lastPartNumberField, object);
@@ -152,6 +160,25 @@ public class EncryptionStateSerializer extends AbstractManualSerializer<Encrypti
         output.flush();
     }
 
+    /**
+     * Verifies that the encryption state can be serialized. The parts of an
+     * upload started with <code>initiateConcurrentUpload</code> are
+     * authenticated as they complete, which depends on state that only
+     * exists in memory, so such an upload can't be resumed elsewhere.
+     *
+     * @param state encryption state to check
+     * @throws MantaClientSerializationException thrown when the upload's parts are uploaded concurrently
+     */
+    static void rejectConcurrentUpload(final EncryptionState state) {
+        if (readField(CONCURRENT_PARTS_FIELD, state) == null) {
+            return;
+        }
+
+        String msg = "The encryption state of a multipart upload started with "
+                + "initiateConcurrentUpload can't be serialized";
+        throw new MantaClientSerializationException(msg);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public EncryptionState read(final Kryo kryo, final Input input, final Class<EncryptionState> type) {
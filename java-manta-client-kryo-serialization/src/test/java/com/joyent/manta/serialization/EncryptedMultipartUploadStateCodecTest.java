@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.serialization;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.joyent.manta.client.crypto.EncryptingEntityHelper;
+import com.joyent.manta.client.crypto.EncryptionContext;
+import com.joyent.manta.client.crypto.SecretKeyUtils;
+import com.joyent.manta.client.crypto.SupportedCipherDetails;
+import com.joyent.manta.client.multipart.EncryptedMultipartUpload;
+import com.joyent.manta.client.multipart.EncryptionState;
+import com.joyent.manta.client.multipart.MultipartOutputStream;
+import com.joyent.manta.client.multipart.ServerSideMultipartUpload;
+import com.joyent.manta.config.DefaultsConfigContext;
+import org.apache.commons.lang3.reflect.ConstructorUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.crypto.SecretKey;
+import java.io.OutputStream;
+import java.util.Base64;
+import java.util.UUID;
+
+@Test
+public class EncryptedMultipartUploadStateCodecTest {
+    private byte[] keyBytes = Base64.getDecoder().decode("qAnCNUmmFjUTtImNGv241Q==");
+    private SupportedCipherDetails cipherDetails = DefaultsConfigContext.DEFAULT_CIPHER;
+    private SecretKey secretKey = SecretKeyUtils.loadKey(keyBytes, cipherDetails);
+    private EncryptedMultipartUploadStateCodec<ServerSideMultipartUpload> codec =
+            new EncryptedMultipartUploadStateCodec<>(new Kryo(), secretKey, cipherDetails,
+                    ServerSideMultipartUpload.class);
+
+    @SuppressWarnings("unchecked")
+    public void canEncodeAndDecodeUpload() throws Exception {
+        final UUID uploadId = UUID.randomUUID();
+        final ServerSideMultipartUpload inner = new ServerSideMultipartUpload(uploadId,
+                "/user/stor/myObject", "/user/uploads/0/" + uploadId);
+        final EncryptionContext encryptionContext = new EncryptionContext(secretKey, cipherDetails, true);
+        final EncryptionState encryptionState = new EncryptionState(encryptionContext);
+        final EncryptedMultipartUpload<ServerSideMultipartUpload> upload =
+                ConstructorUtils.invokeConstructor(EncryptedMultipartUpload.class, inner, encryptionState);
+
+        final MultipartOutputStream multipartStream = new MultipartOutputStream(cipherDetails.getBlockSizeInBytes());
+        final OutputStream cipherStream = EncryptingEntityHelper.makeCipherOutputForStream(
+                multipartStream, encryptionContext);
+        FieldUtils.writeField(ReflectionUtils.getField(EncryptionState.class, "cipherStream"),
+                encryptionState, cipherStream);
+
+        final EncryptedMultipartUpload<ServerSideMultipartUpload> decoded = codec.decode(codec.encode(upload));
+
+        Assert.assertEquals(decoded, upload);
+        Assert.assertEquals(decoded.getId(), uploadId);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void refusesToEncodeConcurrentUpload() throws Exception {
+        final UUID uploadId = UUID.randomUUID();
+        final ServerSideMultipartUpload inner = new ServerSideMultipartUpload(uploadId,
+                "/user/stor/myObject", "/user/uploads/0/" + uploadId);
+        final EncryptionState encryptionState = new EncryptionState(
+                new EncryptionContext(secretKey, cipherDetails, true));
+        EncryptionStateSerializerTest.startConcurrentParts(encryptionState);
+        final EncryptedMultipartUpload<ServerSideMultipartUpload> upload =
+                ConstructorUtils.invokeConstructor(EncryptedMultipartUpload.class, inner, encryptionState);
+
+        Assert.expectThrows(MantaClientSerializationException.class, () -> codec.encode(upload));
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2017-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -25,7 +25,9 @@ import org.testng.annotations.Test;
 import javax.crypto.SecretKey;
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.nio.file.Path;
 import java.util.Base64;
 
 @Test
@@ -66,6 +68,38 @@ public class EncryptionStateSerializerTest {
         }
     }
 
+    public void refusesToSerializeConcurrentUploadState() {
+        final EncryptionState encryptionState = newEncryptionStateInstance();
+        startConcurrentParts(encryptionState);
+
+        try (Output output = new Output(new ByteArrayOutputStream())) {
+            Assert.expectThrows(MantaClientSerializationException.class,
+                    () -> kryo.writeObject(output, encryptionState));
+        }
+    }
+
+    /**
+     * Attaches the state used by uploads started with initiateConcurrentUpload.
+     */
+    static void startConcurrentParts(final EncryptionState encryptionState) {
+        try {
+            final Class<?> concurrentPartsClass = Class.forName(
+                    "com.joyent.manta.client.multipart.ConcurrentPartEncryption");
+            final Constructor<?> constructor = concurrentPartsClass.getDeclaredConstructor(
+                    EncryptionContext.class, long.class, Path.class, int.class);
+            constructor.setAccessible(true);
+
+            final EncryptionContext encryptionContext = (EncryptionContext) ReflectionUtils.readField(
+                    ENCRYPTION_CONTEXT_FIELD, encryptionState);
+            final Object concurrentParts = constructor.newInstance(encryptionContext,
+                    (long) encryptionContext.getCipherDetails().getBlockSizeInBytes(), null, 1);
+
+            FieldUtils.writeField(encryptionState, "concurrentParts", concurrentParts, true);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     private EncryptionState newEncryptionStateInstance() {
         EncryptionContext encryptionContext = new EncryptionContext(secretKey, cipherDetails, true);
         EncryptionState encryptionState = new EncryptionState(encryptionContext);
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Snapshot of the progress of a directory copy or move, as reported to
+ * {@link DirectoryCopyOptions#setProgressListener(java.util.function.Consumer)}.
+ *
+ * @since 3.5.1
+ */
+public class DirectoryCopyProgress {
+    /**
+     * Number of destination directories created.
+     */
+    private final long directoriesCreated;
+
+    /**
+     * Number of source directories listed.
+     */
+    private final long directoriesListed;
+
+    /**
+     * Number of objects linked into the destination.
+     */
+    private final long objectsLinked;
+
+    /**
+     * Total size in bytes of the objects linked.
+     */
+    private final long bytesLinked;
+
+    /**
+     * Flag indicating that all directories and objects have been copied.
+     */
+    private final boolean complete;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param directoriesCreated number of destination directories created
+     * @param directoriesListed number of source directories listed
+     * @param objectsLinked number of objects linked into the destination
+     * @param bytesLinked total size in bytes of the objects linked
+     * @param complete true if all directories and objects have been copied
+     */
+    DirectoryCopyProgress(final long directoriesCreated, final long directoriesListed,
+                          final long objectsLinked, final long bytesLinked,
+                          final boolean complete) {
+        this.directoriesCreated = directoriesCreated;
+        this.directoriesListed = directoriesListed;
+        this.objectsLinked = objectsLinked;
+        this.bytesLinked = bytesLinked;
+        this.complete = complete;
+    }
+
+    public long getDirectoriesCreated() {
+        return directoriesCreated;
+    }
+
+    public long getDirectoriesListed() {
+        return directoriesListed;
+    }
+
+    public long getObjectsLinked() {
+        return objectsLinked;
+    }
+
+    public long getBytesLinked() {
+        return bytesLinked;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("directoriesCreated", directoriesCreated)
+                .append("directoriesListed", directoriesListed)
+                .append("objectsLinked", objectsLinked)
+                .append("bytesLinked", bytesLinked)
+                .append("complete", complete)
+                .toString();
+    }
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import static com.joyent.manta.client.MantaClient.SEPARATOR;
+
+/**
+ * <p>Utility class that copies a directory tree on the server side by
+ * linking every object of the source tree into a new destination tree.</p>
+ *
+ * <p>The destination tree is created one level at a time: the directories
+ * of a level are listed in parallel by a pool of listing workers, which
+ * hand the objects found to a pool of request workers to be linked and
+ * collect the subdirectories found into the next level. Once a level has
+ * been listed, the directories of the next level are created in parallel
+ * and listed in turn, while the links of the previous levels are still
+ * being created. The number of requests waiting for a worker is bounded,
+ * so listing pauses when linking falls behind, and only the directories of
+ * a single level are held in memory.</p>
+ *
+ * <p>The copy stops at the first request that fails. It is not transactional
+ * and may produce inconsistent results if the source is modified while it
+ * is in progress.</p>
+ *
+ * @since 3.5.1
+ */
+final class DirectoryCopyStrategy {
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(DirectoryCopyStrategy.class);
+
+    /**
+     * Number of requests that may wait for a worker per request worker.
+     */
+    private static final int QUEUED_REQUESTS_PER_WORKER = 4;
+
+    /**
+     * Number of workers linking objects and creating directories per worker
+     * listing directories.
+     */
+    private static final int REQUEST_WORKERS_PER_LISTING_WORKER = 3;
+
+    /**
+     * Client used to list, link and create directories.
+     */
+    private final MantaClient client;
+
+    /**
+     * Traversal tracking the listings and requests and their failures.
+     */
+    private final ParallelTraversal traversal = new ParallelTraversal();
+
+    /**
+     * Workers listing source directories.
+     */
+    private final ParallelTraversal.Pool listingWorkers;
+
+    /**
+     * Workers linking objects and creating directories, with a bounded
+     * number of requests waiting for a worker.
+     */
+    private final ParallelTraversal.Pool requestWorkers;
+
+    /**
+     * Number of destination directories created.
+     */
+    private final AtomicLong directoriesCreated = new AtomicLong();
+
+    /**
+     * Number of source directories listed.
+     */
+    private final AtomicLong directoriesListed = new AtomicLong();
+
+    /**
+     * Number of objects linked.
+     */
+    private final AtomicLong objectsLinked = new AtomicLong();
+
+    /**
+     * Total size of the objects linked.
+     */
+    private final AtomicLong bytesLinked = new AtomicLong();
+
+    /**
+     * Callback receiving progress reports or null.
+     */
+    private final Consumer<? super DirectoryCopyProgress> progressListener;
+
+    /**
+     * Minimum time between two progress reports in nanoseconds.
+     */
+    private final long progressIntervalNanos;
+
+    /**
+     * Lock held while reporting progress so that reports are sent one at a time.
+     */
+    private final ReentrantLock reportLock = new ReentrantLock();
+
+    /**
+     * Time of the last progress report as returned by {@link System#nanoTime()}.
+     */
+    private volatile long lastReport = System.nanoTime();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param client client used to list, link and create directories
+     * @param options options of the copy
+     */
+    private DirectoryCopyStrategy(final MantaClient client, final DirectoryCopyOptions options) {
+        this.client = client;
+        this.progressListener = options.getProgressListener();
+        this.progressIntervalNanos = options.getProgressInterval().toNanos();
+
+        final int concurrency;
+
+        if (options.getConcurrency() == null) {
+            concurrency = ConcurrentMappingIterator.defaultConcurrency(client.getContext());
+        } else {
+            concurrency = options.getConcurrency();
+        }
+
+        final int listingThreads = Math.max(1, concurrency / (REQUEST_WORKERS_PER_LISTING_WORKER + 1));
+        final int requestThreads = Math.max(1, concurrency - listingThreads);
+
+        this.listingWorkers = traversal.pool("manta-copy-list-%d", listingThreads);
+        this.requestWorkers = traversal.pool("manta-copy-%d", requestThreads,
+                requestThreads * QUEUED_REQUESTS_PER_WORKER);
+    }
+
+    /**
+     * Copies a directory and everything below it by linking every object into
+     * the destination. The destination and its parents are created if they
+     * don't exist.
+     *
+     * @param client client used to list, link and create directories
+     * @param source path of the directory to copy
+     * @param destination path of the directory to copy to
+     * @param options options of the copy
+     * @return final progress report of the copy
+     * @throws IOException thrown when a listing, link or directory request fails
+     */
+    static DirectoryCopyProgress copy(final MantaClient client, final String source,
+                                      final String destination, final DirectoryCopyOptions options)
+            throws IOException {
+        final DirectoryCopyStrategy strategy = new DirectoryCopyStrategy(client, options);
+
+        try {
+            return strategy.run(source, destination);
+        } finally {
+            strategy.traversal.close();
+        }
+    }
+
+    /**
+     * Copies the tree and waits for completion.
+     *
+     * @param source path of the directory to copy
+     * @param destination path of the directory to copy to
+     * @return final progress report of the copy
+     * @throws IOException thrown when a listing, link or directory request fails
+     */
+    private DirectoryCopyProgress run(final String source, final String destination) throws IOException {
+        final long start = System.nanoTime();
+
+        client.putDirectory(destination, true);
+        directoriesCreated.incrementAndGet();
+
+        List<Directory> level = Collections.singletonList(new Directory(source, destination));
+
+        try {
+            while (!level.isEmpty()) {
+                final Queue<Directory> nextLevel = new ConcurrentLinkedQueue<>();
+                final List<Future<?>> listings = new ArrayList<>(level.size());
+
+                for (Directory directory : level) {
+                    listings.add(traversal.submit(listingWorkers, () -> {
+                        list(directory, nextLevel);
+                        return null;
+                    }));
+                }
+
+                for (Future<?> listing : listings) {
+                    traversal.await(listing);
+                }
+
+                level = new ArrayList<>(nextLevel);
+                createDirectories(level);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while copying " + source);
+        }
+
+        // Wait for the links that are still in progress
+        traversal.await("copying " + source);
+
+        final DirectoryCopyProgress progress = progress(true);
+
+        if (progressListener != null) {
+            reportLock.lock();
+
+            try {
+                progressListener.accept(progress);
+            } finally {
+                reportLock.unlock();
+            }
+        }
+
+        LOG.debug("Finished copying {} to {}: {} in {} ms", source, destination, progress,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        return progress;
+    }
+
+    /**
+     * Lists a source directory, linking its objects into the destination
+     * and collecting its subdirectories.
+     *
+     * @param directory directory to list
+     * @param nextLevel subdirectories to copy once this level has been listed
+     * @throws IOException thrown when the listing fails
+     * @throws InterruptedException thrown when interrupted while waiting for a request worker
+     */
+    private void list(final Directory directory, final Queue<Directory> nextLevel)
+            throws IOException, InterruptedException {
+        try (MantaDirectoryListingIterator itr = client.streamingIterator(directory.source)) {
+            while (!traversal.hasFailed() && itr.hasNext()) {
+                final MantaObject obj = itr.nextObject();
+                final String sourcePath = obj.getPath();
+                final String destinationPath = directory.destination + SEPARATOR
+                        + sourcePath.substring(sourcePath.lastIndexOf(SEPARATOR) + 1);
+
+                if (obj.isDirectory()) {
+                    nextLevel.add(new Directory(sourcePath, destinationPath));
+                } else {
+                    submitRequest(() -> {
+                        client.putSnapLink(destinationPath, sourcePath, null);
+                        objectsLinked.incrementAndGet();
+
+                        final Long size = obj.getContentLength();
+                        if (size != null) {
+                            bytesLinked.addAndGet(size);
+                        }
+
+                        return null;
+                    });
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        directoriesListed.incrementAndGet();
+        reportProgress();
+    }
+
+    /**
+     * Creates the destination directories of a level in parallel and waits
+     * for them to exist.
+     *
+     * @param level directories to create
+     * @throws IOException thrown when a directory can't be created
+     * @throws InterruptedException thrown when interrupted while waiting
+     */
+    private void createDirectories(final List<Directory> level) throws IOException, InterruptedException {
+        final List<Future<?>> created = new ArrayList<>(level.size());
+
+        for (Directory directory : level) {
+            created.add(traversal.submit(requestWorkers, () -> {
+                client.putDirectory(directory.destination);
+                directoriesCreated.incrementAndGet();
+                reportProgress();
+                return null;
+            }));
+        }
+
+        for (Future<?> request : created) {
+            traversal.await(request);
+        }
+
+        reportProgress();
+    }
+
+    /**
+     * Queues a request to a request worker, waiting while too many requests
+     * are queued. Failures are recorded and stop the copy.
+     *
+     * @param request request to execute
+     * @throws IOException thrown when a previous request failed
+     * @throws InterruptedException thrown when interrupted while waiting for a request worker
+     */
+    private void submitRequest(final Callable<?> request) throws IOException, InterruptedException {
+        traversal.execute(requestWorkers, () -> {
+            request.call();
+            reportProgress();
+            return null;
+        });
+
+        traversal.rethrowFailure();
+    }
+
+    /**
+     * Sends a progress report if the listener hasn't received one for the
+     * configured interval and isn't receiving one from another thread.
+     */
+    private void reportProgress() {
+        if (progressListener == null || System.nanoTime() - lastReport < progressIntervalNanos
+                || !reportLock.tryLock()) {
+            return;
+        }
+
+        try {
+            if (System.nanoTime() - lastReport >= progressIntervalNanos) {
+                progressListener.accept(progress(false));
+                lastReport = System.nanoTime();
+            }
+        } finally {
+            reportLock.unlock();
+        }
+    }
+
+    /**
+     * @param complete true if the copy has completed
+     * @return snapshot of the current progress
+     */
+    private DirectoryCopyProgress progress(final boolean complete) {
+        return new DirectoryCopyProgress(directoriesCreated.get(), directoriesListed.get(),
+                objectsLinked.get(), bytesLinked.get(), complete);
+    }
+
+    /**
+     * Source directory and the destination it is copied to.
+     */
+    private static final class Directory {
+        /**
+         * Path of the source directory.
+         */
+        private final String source;
+
+        /**
+         * Path of the destination directory.
+         */
+        private final String destination;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param source path of the source directory
+         * @param destination path of the destination directory
+         */
+        Directory(final String source, final String destination) {
+            this.source = source;
+            this.destination = destination;
+        }
+    }
+}
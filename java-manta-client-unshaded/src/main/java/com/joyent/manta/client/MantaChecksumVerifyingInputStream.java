@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.client.crypto.MantaEncryptedObjectInputStream;
+import com.joyent.manta.exception.MantaChecksumFailedException;
+import com.joyent.manta.util.MantaUtils;
+import com.joyent.manta.util.NotThreadSafe;
+import com.twmacinta.util.FastMD5Digest;
+import org.apache.commons.lang3.Validate;
+import org.bouncycastle.crypto.Digest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * <p>{@link InputStream} implementation that wraps a {@link MantaObjectInputStream}
+ * and calculates a MD5 checksum of the data as it is read. When the end of
+ * the stream is reached, the checksum is compared against the
+ * <code>computed-md5</code> (or <code>content-md5</code>) value sent by the
+ * server and a {@link MantaChecksumFailedException} is thrown if the values
+ * do not match.</p>
+ *
+ * <p>The digest is updated directly from the caller's buffers, so no
+ * additional copies of the data are made while reading. Only complete
+ * (non-ranged) downloads of unencrypted objects can be verified because the
+ * server checksum is calculated over the entire stored object.</p>
+ *
+ * <p><strong>This class is not thread-safe.</strong></p>
+ *
+ * @since 3.5.1
+ */
+@NotThreadSafe
+public class MantaChecksumVerifyingInputStream extends MantaObjectInputStream {
+    private static final long serialVersionUID = 2286335391530233455L;
+
+    /**
+     * End of file marker for streams.
+     */
+    private static final int EOF = -1;
+
+    /**
+     * Size of the scratch buffer used when skipping bytes.
+     */
+    private static final int SKIP_BUFFER_SIZE = 8192;
+
+    /**
+     * Stream that we read data from and digest.
+     */
+    private final transient MantaObjectInputStream wrapped;
+
+    /**
+     * Checksum sent by the server for the object being read.
+     */
+    private final byte[] expectedMd5;
+
+    /**
+     * Incrementally updated digest of all of the bytes read.
+     */
+    private final transient Digest digest;
+
+    /**
+     * Buffer used to store the final digest value.
+     */
+    private final byte[] actualMd5;
+
+    /**
+     * Scratch buffer for {@link #skip(long)}, allocated on first use.
+     */
+    private transient byte[] skipBuffer;
+
+    /**
+     * Flag indicating that the end of the stream was reached and the checksum
+     * was verified.
+     */
+    private boolean verified = false;
+
+    /**
+     * Creates a new instance that verifies the data read from the specified stream.
+     *
+     * @param wrapped stream to read and verify
+     * @throws MantaChecksumFailedException thrown when the server did not send a checksum for the object
+     */
+    public MantaChecksumVerifyingInputStream(final MantaObjectInputStream wrapped)
+            throws MantaChecksumFailedException {
+        super(Validate.notNull(wrapped, "Wrapped stream must not be null"));
+
+        Validate.isTrue(!(wrapped instanceof MantaEncryptedObjectInputStream),
+                "Checksums can't be verified against decrypted plaintext");
+        Validate.isTrue(wrapped.getHttpHeaders() == null || wrapped.getHttpHeaders().getContentRange() == null,
+                "Checksums can't be verified for ranged requests");
+
+        this.wrapped = wrapped;
+        this.expectedMd5 = wrapped.getMd5Bytes();
+
+        if (expectedMd5 == null || expectedMd5.length == 0) {
+            MantaChecksumFailedException e = new MantaChecksumFailedException(
+                    "Server calculated MD5 is missing");
+            e.setContextValue("path", wrapped.getPath());
+            throw e;
+        }
+
+        this.digest = new FastMD5Digest();
+        this.actualMd5 = new byte[digest.getDigestSize()];
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int read = wrapped.read();
+
+        if (read == EOF) {
+            verify();
+        } else {
+            digest.update((byte) read);
+        }
+
+        return read;
+    }
+
+    @Override
+    public int read(final byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        final int read = wrapped.read(b, off, len);
+
+        if (read == EOF) {
+            verify();
+        } else if (read > 0) {
+            digest.update(b, off, read);
+        }
+
+        return read;
+    }
+
+    /**
+     * Skips bytes by reading them, so that they are included in the checksum.
+     *
+     * @param n the number of bytes to be skipped
+     * @return the actual number of bytes skipped
+     * @throws IOException thrown when there is a problem reading or verifying the stream
+     */
+    @Override
+    public long skip(final long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+
+        if (skipBuffer == null) {
+            skipBuffer = new byte[SKIP_BUFFER_SIZE];
+        }
+
+        long remaining = n;
+
+        while (remaining > 0) {
+            final int read = read(skipBuffer, 0, (int) Math.min(remaining, skipBuffer.length));
+
+            if (read == EOF) {
+                break;
+            }
+
+            remaining -= read;
+        }
+
+        return n - remaining;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return wrapped.available();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(final int readlimit) {
+        // mark isn't supported because it would invalidate the running digest
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("mark/reset is not supported by checksum verifying streams");
+    }
+
+    @Override
+    public InputStream getBackingStream() {
+        return wrapped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        wrapped.close();
+    }
+
+    @Override
+    public void abortConnection() throws IOException {
+        wrapped.abortConnection();
+    }
+
+    /**
+     * @return true when the whole stream has been read and its checksum matched
+     */
+    public boolean isVerified() {
+        return verified;
+    }
+
+    /**
+     * Compares the digest of all of the bytes read to the server checksum.
+     * This method only does work the first time the end of the stream is
+     * reached.
+     *
+     * @throws MantaChecksumFailedException thrown when the checksums do not match
+     */
+    private void verify() throws MantaChecksumFailedException {
+        if (verified) {
+            return;
+        }
+
+        digest.doFinal(actualMd5, 0);
+
+        if (!Arrays.equals(expectedMd5, actualMd5)) {
+            String msg = "Client calculated MD5 and server calculated MD5 do not match";
+            MantaChecksumFailedException e = new MantaChecksumFailedException(msg);
+            e.setContextValue("path", getPath());
+            e.setContextValue("requestId", getRequestId());
+            e.setContextValue("serverMd5", MantaUtils.byteArrayAsHexString(expectedMd5));
+            e.setContextValue("clientMd5", MantaUtils.byteArrayAsHexString(actualMd5));
+
+            throw e;
+        }
+
+        verified = true;
+    }
+}
@@ -20,7 +20,6 @@ import com.joyent.manta.config.MantaClientMetricConfiguration;
 import com.joyent.manta.config.MetricReporterMode;
 import com.joyent.manta.exception.MantaClientException;
 import com.joyent.manta.exception.MantaClientHttpResponseException;
-import com.joyent.manta.exception.MantaErrorCode;
 import com.joyent.manta.exception.MantaException;
 import com.joyent.manta.exception.MantaIOException;
 import com.joyent.manta.exception.MantaJobException;
@@ -29,6 +28,7 @@ import com.joyent.manta.exception.OnCloseAggregateException;
 import com.joyent.manta.http.ContentTypeLookup;
 import com.joyent.manta.http.EncryptionHttpHelper;
 import com.joyent.manta.http.HttpHelper;
+import com.joyent.manta.http.HttpRange;
 import com.joyent.manta.http.MantaApacheHttpClientContext;
 import com.joyent.manta.http.MantaConnectionFactory;
 import com.joyent.manta.http.MantaConnectionFactoryConfigurator;
@@ -42,9 +42,12 @@ import com.joyent.manta.util.ConcurrentWeakIdentityHashMap;
 import com.joyent.manta.util.MantaUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
@@ -57,7 +60,6 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpUriRequest;
-import org.apache.http.conn.ConnectionPoolTimeoutException;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.FileEntity;
 import org.apache.http.entity.InputStreamEntity;
@@ -79,14 +81,19 @@ import java.io.Reader;
 import java.io.SequenceInputStream;
 import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.time.temporal.TemporalAmount;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -96,9 +103,8 @@ import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -166,16 +172,26 @@ public class MantaClient implements AutoCloseable {
             = (Collections.newSetFromMap(new ConcurrentWeakIdentityHashMap<>()));
 
     /**
-     * ForkJoinPool used specifically for find() operations because we want
-     * to make sure that the number of concurrent threads will not exceed
-     * the maximum number of available connections.
+     * Reporting agent used when metrics and JMX are enabled.
      */
-    private final ForkJoinPool findForkJoinPool;
+    private final MantaClientAgent agent;
 
     /**
-     * Reporting agent used when metrics and JMX are enabled.
+     * Directories known to exist, used when creating directories recursively,
+     * or null when disabled.
      */
-    private final MantaClientAgent agent;
+    private final KnownDirectoryCache knownDirectories;
+
+    /**
+     * Threads shared by operations that request ranges of an object
+     * concurrently. Each operation limits how many of its requests run at a
+     * time, so the threads are only created as they are needed.
+     */
+    private final ExecutorService rangeExecutor = Executors.newCachedThreadPool(
+            new BasicThreadFactory.Builder()
+                    .namingPattern("manta-range-%d")
+                    .daemon(true)
+                    .build());
 
     /* We preform some sanity checks against the JVM in order to determine if
      * we can actually run on the platform. */
@@ -309,7 +325,15 @@ public class MantaClient implements AutoCloseable {
             this.agent = null;
         }
 
-        this.findForkJoinPool = FindForkJoinPoolFactory.getInstance(config);
+        final Integer directoryCacheSize = this.config.getDirectoryCacheSize();
+        final int directoryCacheTtl = ObjectUtils.firstNonNull(this.config.getDirectoryCacheTtl(),
+                DefaultsConfigContext.DEFAULT_DIRECTORY_CACHE_TTL);
+
+        if (directoryCacheSize != null && directoryCacheSize > 0 && directoryCacheTtl > 0) {
+            this.knownDirectories = new KnownDirectoryCache(directoryCacheSize, directoryCacheTtl);
+        } else {
+            this.knownDirectories = null;
+        }
     }
 
 
@@ -452,158 +476,77 @@ public class MantaClient implements AutoCloseable {
         if (pruneDepth == null || pruneDepth == DEFAULT_PRUNE_DEPTH) {
             LOG.debug("DELETE {}", path);
             httpHelper.httpDelete(path, requestHeaders);
+
+            if (knownDirectories != null) {
+                knownDirectories.remove(StringUtils.stripEnd(rawPath, SEPARATOR));
+            }
         } else {
             PruneEmptyParentDirectoryStrategy.pruneParentDirectories(this, requestHeaders, path, pruneDepth);
+
+            if (knownDirectories != null) {
+                knownDirectories.removeWithParents(StringUtils.stripEnd(rawPath, SEPARATOR));
+            }
         }
    }
 
     /**
-     * Recursively deletes an object in Manta.
+     * <p>Recursively deletes a directory in Manta.</p>
+     *
+     * <p>The tree is deleted in a single pass: each directory is listed once,
+     * objects are deleted concurrently as they are listed and each directory
+     * is deleted as soon as all of its children are gone. The number of
+     * concurrent requests is half of the maximum number of connections.</p>
      *
      * @param path The fully qualified path of the Manta object.
      * @throws IOException If an IO exception has occurred.
      * @throws MantaClientHttpResponseException If a http status code {@literal > 300} is returned.
      */
     public void deleteRecursive(final String path) throws IOException {
+        Validate.notBlank(path, "Path must not be blank");
         LOG.debug("DELETE {} [recursive]", path);
 
-        /* We repetitively run the find() -> delete() stream operation and check
-         * the diretory targeted for deletion by attempting to delete it this
-         * deals with unpredictable directory contents changes that are a result
-         * or concurrent modifications to the contents of the directory path to
-         * be deleted. */
-        int loops = 0;
-
-        /* We record the number of request timeouts where we were unable to get
-         * a HTTP connection from the pool in order to provide feedback to the
-         * consumer of the SDK so that they can better tune their settings.*/
-        final AtomicInteger responseTimeouts = new AtomicInteger(0);
-
-        while (true) {
-            loops++;
-
-            /* Initially, we delete only the file objects returned from the
-             * stream because we don't care what order they are in. */
-            Stream<MantaObject> toDelete = find(path)
-                    .map(obj -> {
-                        if (obj.isDirectory()) {
-                            return obj;
-                        }
-
-                        try {
-                            delete(obj.getPath());
-                        } catch (MantaClientHttpResponseException e) {
-                            if (!e.getServerCode().equals(MantaErrorCode.RESOURCE_NOT_FOUND_ERROR)) {
-                                throw new UncheckedIOException(e);
-                            }
-                        /* This exception can be thrown if the parallelism value
-                         * isn't tuned for the findForkJoinPool in relation to
-                         * the amount of bandwidth available. Essentially, the
-                         * processing thread is waiting too long for a new
-                         * connection from the pool. If this is thrown too often,
-                         * the maximum number of connections can be increased,
-                         * the ConnectionRequestTimeout can be increased, or
-                         * the fork join pool parallelism value can be
-                         * decreased.
-                         * Below we cope with this problem, by skipping the
-                         * deletion of the object and letting it
-                         * get deleted later in the loop when there is less
-                         * contention on the connection pool.
-                         */
-                        } catch (ConnectionPoolTimeoutException e) {
-                            responseTimeouts.incrementAndGet();
-                            LOG.debug("{} for deleting object {}", e.getMessage(), obj.getPath());
-                        } catch (IOException e) {
-                            throw new UncheckedIOException(e);
-                        }
-
-                        obj.getHttpHeaders().put("deleted", true);
-
-                        return obj;
-                    })
-                    /* We then sort the directories (and remaining files) with
-                     * the deepest paths in the filesystem hierarchy first, so
-                     * that we can delete subdirectories and files before
-                     * the parent directories.*/
-                    .sorted(MantaObjectDepthComparator.INSTANCE);
-
-            /* We go through every remaining directory and file attempt to
-             * delete it even though that operation may not be immediately
-             * successful. */
-            toDelete.forEachOrdered(obj -> {
-                for (int i = 0; i < config.getRetries(); i++) {
-                    try {
-                        /* Don't bother deleting the file if it was marked as
-                         * deleted from the map step. */
-                        if (obj.getHttpHeaders().containsKey("deleted")) {
-                            break;
-                        }
-
-                        /* If a file snuck in, we will delete it here. Typically
-                         * this should be an empty directory. */
-                        delete(obj.getPath());
-
-                        LOG.trace("Finished deleting path {}", obj.getPath());
-
-                        break;
-                    } catch (MantaClientHttpResponseException e) {
-                        // If the directory has already gone, we are good to go
-                        if (e.getServerCode().equals(MantaErrorCode.RESOURCE_NOT_FOUND_ERROR)) {
-                            break;
-                        }
-
-                        /* If we get a directory not empty error we try again
-                         * hoping that the next iteration will clean up any
-                         * remaining files. */
-                        if (e.getServerCode().equals(MantaErrorCode.DIRECTORY_NOT_EMPTY_ERROR)) {
-                            continue;
-                        }
-
-                        throw new UncheckedIOException(e);
-                    } catch (ConnectionPoolTimeoutException e) {
-                        responseTimeouts.incrementAndGet();
-                        LOG.debug("{} for deleting object {}", e.getMessage(), obj.getPath());
-                    } catch (IOException e) {
-                        throw new UncheckedIOException(e);
-                    }
-                }
-            });
-
-            /* For each iteration of this loop, we attempt to delete the parent
-             * path. If all subdirectories and files have been deleted, then
-             * this operation will succeed.
-             */
-            try {
-                delete(path);
-                break;
-            } catch (MantaClientHttpResponseException e) {
-                // Somehow our current path has been deleted, so our work is done
-                if (e.getServerCode().equals(MantaErrorCode.RESOURCE_NOT_FOUND_ERROR)) {
-                    break;
-                } else if (e.getServerCode().equals(MantaErrorCode.DIRECTORY_NOT_EMPTY_ERROR)) {
-                    continue;
-                }
+        RecursiveDeleteStrategy.deleteRecursive(this, path, ConcurrentMappingIterator.defaultConcurrency(config));
+    }
 
-                MantaIOException mioe = new MantaIOException("Unable to delete path", e);
-                mioe.setContextValue("path", path);
+    /**
+     * Totals the number of objects, their size and the number of directories
+     * below a directory. See {@link #summarize(String, SummaryOptions)}.
+     *
+     * @param path directory path
+     * @return usage of the directory and of each of its child directories
+     * @throws IOException thrown when a directory can't be listed
+     * @since 3.5.1
+     */
+    public SubtreeSummary summarize(final String path) throws IOException {
+        return summarize(path, new SummaryOptions());
+    }
 
-                throw mioe;
-            }  catch (ConnectionPoolTimeoutException e) {
-                responseTimeouts.incrementAndGet();
-                LOG.debug("{} for deleting root object {}", e.getMessage(), path);
-            }
-        }
+    /**
+     * <p>Totals the number of objects, their size and the number of
+     * directories below a directory, along with the same totals for each of
+     * its child directories and optional histograms of object sizes and
+     * modification times. Directories are listed in parallel by the number of
+     * worker threads set in the options, or half of the maximum number of
+     * connections, and each listing is totalled as it is read, so that the
+     * memory used doesn't grow with the size of the tree.</p>
+     *
+     * <p><strong>WARNING:</strong> this method is not atomic and the totals
+     * may be inconsistent if the tree is modified while it is running.</p>
+     *
+     * @param path directory path
+     * @param options concurrency and histogram options
+     * @return usage of the directory and of each of its child directories
+     * @throws IOException thrown when a directory can't be listed
+     * @since 3.5.1
+     */
+    public SubtreeSummary summarize(final String path, final SummaryOptions options) throws IOException {
+        Validate.notBlank(path, "Path must not be blank");
+        Validate.notNull(options, "Options must not be null");
 
-        LOG.debug("Finished deleting path {}. It took {} loops to delete recursively",
-                path, loops);
+        final String directory = StringUtils.stripEnd(path, SEPARATOR);
+        LOG.debug("Summarizing {} with options {}", directory, options);
 
-        if (responseTimeouts.get() > 0) {
-            LOG.info("Request timeouts were hit [%d] times when attempting to delete "
-                    + "recursively. You may want to adjust the Manta SDK request "
-                    + "timeout config setting, the Manta SDK maximum connections "
-                    + "setting, or the Java system property "
-                    + "[java.util.concurrent.ForkJoinPool.common.parallelism].");
-        }
+        return SubtreeSummaryStrategy.summarize(this, directory, options);
     }
 
     /**
@@ -735,6 +678,154 @@ public class MantaClient implements AutoCloseable {
         }
     }
 
+    /**
+     * <p>Fetches many objects concurrently and returns their contents as they
+     * complete. The number of concurrent requests is bounded by
+     * {@link BulkOptions#getConcurrency()}, which defaults to half of the
+     * maximum connections setting so that the connection pool isn't exhausted.
+     * Paths are only requested when a worker is free and completed results
+     * are buffered in a bounded queue, so a slow consumer applies
+     * backpressure to the requests being made.</p>
+     *
+     * <p>Results are returned in the order that they complete, not the order
+     * of the paths passed. A failure to fetch one object doesn't abort the
+     * batch. Instead, the exception is captured in the result for that path
+     * (see {@link BulkGetResult#getError()}).</p>
+     *
+     * <p>Each object is read fully into memory, so this method is intended for
+     * large numbers of small objects. <strong>Make sure to close the returned
+     * stream if it isn't fully consumed, otherwise the worker threads will
+     * continue to run.</strong></p>
+     *
+     * @param paths fully qualified paths of the objects to fetch
+     * @param options bulk operation options or null to use the defaults
+     * @return unordered stream of results, one per path
+     */
+    public Stream<BulkGetResult> getAll(final Collection<String> paths, final BulkOptions options) {
+        Validate.notNull(paths, "Paths must not be null");
+        Validate.noNullElements(paths, "Paths must not contain null elements");
+
+        if (paths.isEmpty()) {
+            return Stream.empty();
+        }
+
+        final BulkOptions bulkOptions = ObjectUtils.defaultIfNull(options, new BulkOptions());
+        final int concurrency = Math.min(paths.size(), ObjectUtils.defaultIfNull(
+                bulkOptions.getConcurrency(), ConcurrentMappingIterator.defaultConcurrency(config)));
+        final int bufferSize = ObjectUtils.defaultIfNull(bulkOptions.getResultBufferSize(), concurrency);
+
+        final ConcurrentMappingIterator<String, BulkGetResult> itr = new ConcurrentMappingIterator<>(
+                new ArrayList<>(paths).iterator(), path -> getForBulk(path, bulkOptions),
+                concurrency, bufferSize, "manta-bulk-get");
+
+        final Stream<BulkGetResult> stream = itr.stream();
+        danglingStreams.add(stream);
+
+        return stream;
+    }
+
+    /**
+     * Fetches a single object for {@link #getAll(Collection, BulkOptions)},
+     * capturing any failure in the result.
+     *
+     * @param path fully qualified path of the object
+     * @param options bulk operation options
+     * @return result for the object
+     */
+    private BulkGetResult getForBulk(final String path, final BulkOptions options) {
+        try (MantaObjectInputStream in = getAsInputStream(path)) {
+            final long maxObjectSize = options.getMaxObjectSize();
+            final Long contentLength = in.getContentLength();
+
+            if (contentLength != null && contentLength > maxObjectSize) {
+                return BulkGetResult.failure(path, objectTooLarge(path, maxObjectSize));
+            }
+
+            final InputStream source;
+
+            if (options.isVerifyChecksums()) {
+                source = new MantaChecksumVerifyingInputStream(in);
+            } else {
+                source = in;
+            }
+
+            /* We read one byte past the limit so that we can tell when the
+             * object is larger than the limit without a content length. When
+             * the object is within the limit, the end of the stream has been
+             * reached and so its checksum has been verified. */
+            final byte[] data = IOUtils.toByteArray(new BoundedInputStream(source, maxObjectSize + 1));
+
+            if (data.length > maxObjectSize) {
+                return BulkGetResult.failure(path, objectTooLarge(path, maxObjectSize));
+            }
+
+            return BulkGetResult.success(path, new MantaObjectResponse(in.getPath(), in.getHttpHeaders()), data);
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Error fetching object [{}] as part of bulk get", path, e);
+            return BulkGetResult.failure(path, e);
+        }
+    }
+
+    /**
+     * Builds the exception reported when an object is larger than the bulk get limit.
+     *
+     * @param path fully qualified path of the object
+     * @param maxObjectSize maximum size in bytes of an object
+     * @return exception to report
+     */
+    private static MantaIOException objectTooLarge(final String path, final long maxObjectSize) {
+        MantaIOException e = new MantaIOException("Object is larger than the maximum size for bulk get");
+        e.setContextValue("path", path);
+        e.setContextValue("maxObjectSize", maxObjectSize);
+        return e;
+    }
+
+    /**
+     * Reads many byte ranges of a single object using as few requests as
+     * possible. Ranges that overlap or are separated by no more than 64 KiB
+     * are merged and read with a single ranged GET.
+     *
+     * @param rawPath The fully qualified path of the object. i.e. /user/stor/foo/bar/baz
+     * @param ranges ranges to read
+     * @return one read-only buffer per requested range in the order requested
+     * @throws IOException when there is a problem getting the object over the network
+     * @see #readRanges(String, List, long)
+     */
+    public List<ByteBuffer> readRanges(final String rawPath,
+                                       final List<HttpRange.BoundedRequest> ranges) throws IOException {
+        return readRanges(rawPath, ranges, RangeReadStrategy.DEFAULT_MAX_GAP);
+    }
+
+    /**
+     * <p>Reads many byte ranges of a single object using as few requests as
+     * possible. Ranges are sorted and any that overlap or are separated by no
+     * more than <code>maxGap</code> bytes are merged, so that each merged
+     * region is read with a single ranged GET. The merged regions are read
+     * concurrently, using at most half of the maximum connections setting.</p>
+     *
+     * <p>The returned buffers are views of the data read for each merged
+     * region, so overlapping ranges share the same data and nothing is
+     * copied. If the object changes while its ranges are being read, a
+     * {@link MantaIOException} is thrown rather than returning data from
+     * different versions of the object.</p>
+     *
+     * @param rawPath The fully qualified path of the object. i.e. /user/stor/foo/bar/baz
+     * @param ranges ranges to read
+     * @param maxGap maximum number of unrequested bytes between two ranges
+     *               for them to be read with a single request
+     * @return one read-only buffer per requested range in the order requested
+     * @throws IOException when there is a problem getting the object over the network
+     */
+    public List<ByteBuffer> readRanges(final String rawPath,
+                                       final List<HttpRange.BoundedRequest> ranges,
+                                       final long maxGap) throws IOException {
+        Validate.notBlank(rawPath, "rawPath must not be blank");
+        Validate.notNull(ranges, "Ranges must not be null");
+
+        return RangeReadStrategy.read(this, rawPath, ranges, maxGap,
+                ConcurrentMappingIterator.defaultConcurrency(config), rangeExecutor);
+    }
+
     /**
      * Copies Manta object's data to a temporary file on the file system and return
      * a reference to the file using a NIO {@link Path}. This method is memory
@@ -767,6 +858,104 @@ public class MantaClient implements AutoCloseable {
         return getToTempPath(path).toFile();
     }
 
+    /**
+     * <p>Downloads a Manta object to a file on the local file system in a way
+     * that can be resumed if the download is interrupted, even across JVM
+     * restarts. Data is written to a partial file (<code>[target].part</code>)
+     * and the object's etag and the number of bytes completed are periodically
+     * recorded in a sidecar file (<code>[target].part.checkpoint</code>).</p>
+     *
+     * <p>When this method is called again for the same path and target, the
+     * download continues from the last checkpoint using a ranged GET that is
+     * conditional on the recorded etag. If the object has changed in the
+     * meantime, the download starts over from the beginning. Once all of the
+     * bytes have been received, the partial file is moved to the target and
+     * the checkpoint is removed.</p>
+     *
+     * @param rawPath The fully qualified path of the object. i.e. /user/stor/foo/bar/baz
+     * @param target local file to write the object to
+     * @return the number of bytes transferred by this invocation
+     * @throws IOException when there is a problem getting the object over the network or writing it to disk
+     */
+    public long downloadResumable(final String rawPath, final Path target) throws IOException {
+        Validate.notBlank(rawPath, "rawPath must not be blank");
+        Validate.notNull(target, "Target path must not be null");
+
+        return ResumableDownloadStrategy.download(this, rawPath, target);
+    }
+
+    /**
+     * <p>Downloads a Manta object to a file on the local file system using
+     * concurrent ranged GETs, each writing its part of the object directly to
+     * its position in the file. The number of concurrent requests is derived
+     * from the maximum number of connections in the configuration. The object
+     * is written to a temporary file in the same directory as the target, which
+     * replaces any existing file at the target once the download has completed
+     * and been verified. The target is left untouched if the download fails.</p>
+     *
+     * <p>When client-side encryption is enabled, objects encrypted with
+     * AES/CTR are decrypted by the range workers and then authenticated with a
+     * streaming HMAC pass over the downloaded file, unless the encryption
+     * authentication mode is <code>VerificationDisabled</code>. Objects
+     * encrypted with other ciphers are downloaded with a single request.</p>
+     *
+     * @param rawPath The fully qualified path of the object. i.e. /user/stor/foo/bar/baz
+     * @param target local file to write the object to
+     * @return the number of bytes written to the file
+     * @throws IOException when there is a problem getting the object over the network or writing it to disk
+     * @since 3.5.1
+     */
+    public long downloadParallel(final String rawPath, final Path target) throws IOException {
+        return downloadParallel(rawPath, target, ConcurrentMappingIterator.defaultConcurrency(config));
+    }
+
+    /**
+     * Downloads a Manta object to a file on the local file system using up to
+     * the given number of concurrent ranged GETs.
+     *
+     * @see #downloadParallel(String, Path)
+     * @param rawPath The fully qualified path of the object. i.e. /user/stor/foo/bar/baz
+     * @param target local file to write the object to
+     * @param concurrency maximum number of concurrent requests
+     * @return the number of bytes written to the file
+     * @throws IOException when there is a problem getting the object over the network or writing it to disk
+     * @since 3.5.1
+     */
+    public long downloadParallel(final String rawPath, final Path target, final int concurrency) throws IOException {
+        Validate.notBlank(rawPath, "rawPath must not be blank");
+        Validate.notNull(target, "Target path must not be null");
+        Validate.isTrue(concurrency > 0, "Concurrency must be greater than 0");
+
+        final String path = formatPath(rawPath);
+        final Path partial = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID()
+                + ResumableDownloadStrategy.PARTIAL_SUFFIX);
+        boolean completed = false;
+
+        try {
+            final long size;
+
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE_NEW)) {
+                size = httpHelper.httpGetToChannel(path, channel, concurrency, rangeExecutor);
+            }
+
+            /* The target is only replaced once every range has been written
+             * and, for encrypted objects, the download has been authenticated. */
+            try {
+                Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            completed = true;
+            return size;
+        } finally {
+            if (!completed) {
+                Files.deleteIfExists(partial);
+            }
+        }
+    }
+
     /**
      * Get a Manta object's data as an NIO {@link java.nio.channels.SeekableByteChannel}.
      * This method allows you to stream data from the Manta storage service in a
@@ -914,21 +1103,42 @@ public class MantaClient implements AutoCloseable {
      * @return A {@link Iterator} of {@link MantaObjectResponse} listing the contents of the directory.
      */
     public MantaDirectoryListingIterator streamingIterator(final String path, final int pagingSize) {
+        return streamingIterator(path, pagingSize, false);
+    }
+
+    /**
+     * Return a stream of the contents of a directory in Manta as an {@link Iterator}.
+     * In pipelined mode, the next page of the listing is requested in the
+     * background while the current page is consumed and the page size grows
+     * with each page up to 1024 entries. This is useful when iterating over
+     * very large directories.
+     *
+     * @param path The fully qualified path of the directory.
+     * @param pagingSize size of result set requested against the Manta API (2-1024)
+     * @param pipelined true to request the next page while the current one is consumed
+     * @return A {@link Iterator} of {@link MantaObjectResponse} listing the contents of the directory.
+     * @since 3.5.1
+     */
+    public MantaDirectoryListingIterator streamingIterator(final String path, final int pagingSize,
+                                                          final boolean pipelined) {
         MantaDirectoryListingIterator itr =
-            new MantaDirectoryListingIterator(path, httpHelper, pagingSize);
+            new MantaDirectoryListingIterator(path, httpHelper, pagingSize, pipelined);
         danglingStreams.add(itr);
         return itr;
     }
 
     /**
-     * Return a stream of the contents of a directory in Manta.
+     * Return a stream of the contents of a directory in Manta. The listing is
+     * read in pipelined mode, so the next page is requested in the background
+     * while the current one is consumed, and a parallel stream splits off
+     * whole pages to be processed by other threads.
      *
      * @param path The fully qualified path of the directory.
-     * @return A {@link Stream} of {@link MantaObjectResponse} listing the contents of the directory.
+     * @return A {@link Stream} of {@link MantaListingEntry} listing the contents of the directory.
      * @throws IOException thrown when there is a problem getting the listing over the network
      */
     public Stream<MantaObject> listObjects(final String path) throws IOException {
-        final MantaDirectoryListingIterator itr = streamingIterator(path);
+        final MantaDirectoryListingIterator itr = streamingIterator(path, MAX_RESULTS, true);
 
         /* We preemptively check the iterator for a next value because that will
          * trigger an error if the path doesn't exist or is otherwise inaccessible.
@@ -950,15 +1160,11 @@ public class MantaClient implements AutoCloseable {
             }
         }
 
-        final int additionalCharacteristics = Spliterator.CONCURRENT
-                | Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT;
-
-        Stream<Map<String, Object>> backingStream =
-                StreamSupport.stream(Spliterators.spliteratorUnknownSize(
-                        itr, additionalCharacteristics), false);
-
-        Stream<MantaObject> stream = backingStream
-            .map(MantaObjectConversionFunction.INSTANCE)
+        /* Entries are taken from the listing a page at a time and converted
+         * directly from the decoded records, so that no intermediate map is
+         * built per entry and parallel streams can split off whole pages
+         * while the next page is being prefetched. */
+        Stream<MantaObject> stream = StreamSupport.stream(new MantaListingSpliterator(itr, path), false)
             .onClose(itr::close);
 
         danglingStreams.add(stream);
@@ -971,9 +1177,11 @@ public class MantaClient implements AutoCloseable {
      * this method returns a {@link Stream}, consumers can add their own
      * additional filtering based on path, object type or other criteria.</p>
      *
-     * <p>This method will make each request to each subdirectory in parallel.
-     * Parallelism settings are set by JDK system property:
-     * <code>java.util.concurrent.ForkJoinPool.common.parallelism</code></p>
+     * <p>Subdirectories are listed in parallel by a number of worker threads
+     * equal to half of the maximum number of connections. The stream returned
+     * is sequential and lazy: directories are only listed as fast as results
+     * are consumed and the number of results held in memory is bounded.
+     * Closing the stream stops the listing.</p>
      *
      * <p><strong>WARNING:</strong> this method is not atomic and thereby not
      * safe if other operations are performed on the directory structure while
@@ -984,7 +1192,7 @@ public class MantaClient implements AutoCloseable {
      *         instances representing the contents of all subdirectories.
      */
     public Stream<MantaObject> find(final String path) {
-        return find(path, null);
+        return find(path, new FindOptions());
     }
 
     /**
@@ -992,9 +1200,11 @@ public class MantaClient implements AutoCloseable {
      * this method returns a {@link Stream}, consumers can add their own
      * additional filtering based on path, object type or other criteria.</p>
      *
-     * <p>This method will make each request to each subdirectory in parallel.
-     * Parallelism settings are set by JDK system property:
-     * <code>java.util.concurrent.ForkJoinPool.common.parallelism</code></p>
+     * <p>Subdirectories are listed in parallel by a number of worker threads
+     * equal to half of the maximum number of connections. The stream returned
+     * is sequential and lazy: directories are only listed as fast as results
+     * are consumed and the number of results held in memory is bounded.
+     * Closing the stream stops the listing.</p>
      *
      * <p>When using a filter with this method, if the filter matches a directory,
      * then all subdirectory results for that directory will be excluded. If you
@@ -1012,69 +1222,118 @@ public class MantaClient implements AutoCloseable {
      */
     public Stream<MantaObject> find(final String path,
                                     final Predicate<? super MantaObject> filter) {
-        /* We read directly from the iterator here to reduce the total stack
-         * frames and to reduce the amount of abstraction to a minimum.
-         *
-         * Within this loop, we store all of the objects found in memory so
-         * that we can later query find() methods for the directory objects
-         * in parallel. */
-        final Stream.Builder<MantaObject> objectBuilder = Stream.builder();
-        final Stream.Builder<MantaObject> dirBuilder = Stream.builder();
-
-        try (MantaDirectoryListingIterator itr = streamingIterator(path)) {
-            while (itr.hasNext()) {
-                final Map<String, Object> item = itr.next();
-                final MantaObject obj = MantaObjectConversionFunction.INSTANCE.apply(item);
-
-                /* We take a predicate as a method parameter because it allows
-                 * us to filter at the highest level within this iterator. If
-                 * we just passed the stream as is back to the user, then
-                 * they would have to filter the results *after* all of the
-                 * HTTP requests were made. This way the filter can help limit
-                 * the total number of HTTP requests made to Manta. */
-                if (filter == null || filter.test(obj)) {
-                    objectBuilder.accept(obj);
-
-                    if (obj.isDirectory()) {
-                        dirBuilder.accept(obj);
-                    }
-                }
-            }
+        final FindOptions options = new FindOptions();
+
+        if (filter != null) {
+            options.setFilter(filter).setPrune(filter.negate());
         }
 
-        /* All objects within this directory should be included in the results,
-         * so we have a stream stored here that will later be concatenated. */
-        final Stream<MantaObject> objectStream = objectBuilder.build();
-
-        /* Directories are processed in parallel because it is the only unit
-         * within our abstractions that can be properly done in parallel.
-         * MantaDirectoryListingIterator forces all paging of directory
-         * listings to be sequential requests. However, it works fine to
-         * run multiple MantaDirectoryListingIterator instances per request.
-         * That is exactly what we are doing here using streams which is
-         * allowing us to do the recursive calls in a lazy fashion.
-         *
-         * From a HTTP request perspective, this means that only the listing for
-         * this current highly directory is performed and no other listing
-         * will be performed until the stream is read.
-         */
-        try {
-            final Stream<MantaObject> dirStream = findForkJoinPool.submit(() ->
-                    dirBuilder.build().parallel().flatMap(obj -> find(obj.getPath(), filter))).get();
+        return find(path, options);
+    }
 
-        /* Due to the way we concatenate the results will be quite out of order
-         * if a consumer needs sorted results that is their responsibility. */
-            final Stream<MantaObject> stream = Stream.concat(objectStream, dirStream);
+    /**
+     * <p>Finds directories and files recursively under a given path that
+     * match the specified options. Options are applied to each entry as the
+     * directories are listed, so that directories beyond the maximum depth or
+     * matching the prune predicate are never listed and the walk stops as soon
+     * as the limit of results is reached.</p>
+     *
+     * <p>Subdirectories are listed in parallel by the number of worker threads
+     * set in the options, or half of the maximum number of connections. The
+     * stream returned is sequential and lazy. Closing the stream stops the
+     * listing.</p>
+     *
+     * <p><strong>WARNING:</strong> this method is not atomic and thereby not
+     * safe if other operations are performed on the directory structure while
+     * it is running.</p>
+     *
+     * @param path directory path
+     * @param options options deciding which entries are returned and which directories are walked
+     * @return A recursive unsorted {@link Stream} of {@link MantaObject}
+     *         instances matching the options
+     * @since 3.5.1
+     */
+    public Stream<MantaObject> find(final String path, final FindOptions options) {
+        Validate.notBlank(path, "Path must not be blank");
+        Validate.notNull(options, "Find options must not be null");
 
-            danglingStreams.add(stream);
+        final int concurrency;
 
-            return stream;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return Stream.empty();
-        } catch (ExecutionException e) {
-            throw new MantaException(e.getCause());
+        if (options.getConcurrency() != null) {
+            concurrency = options.getConcurrency();
+        } else {
+            concurrency = ConcurrentMappingIterator.defaultConcurrency(config);
         }
+
+        /* Directories are listed by a fixed number of worker threads and
+         * results are handed over through bounded queues, so that memory use
+         * doesn't depend on the size of the tree and the listing requests
+         * are throttled by the rate at which the stream is consumed. */
+        final MantaTreeWalker walker = new MantaTreeWalker(this, path, options, concurrency,
+                MantaTreeWalker.DEFAULT_DIRECTORY_QUEUE_CAPACITY,
+                MantaTreeWalker.DEFAULT_OUTPUT_QUEUE_CAPACITY);
+
+        final Stream<MantaObject> stream = walker.stream();
+
+        danglingStreams.add(stream);
+
+        return stream;
+    }
+
+    /**
+     * Finds directories and files like {@link #find(String, FindOptions)} and
+     * adds their paths and attributes to a compact store, so that very large
+     * trees can be collected without holding a {@link MantaObject} for each
+     * entry.
+     *
+     * @param path directory path
+     * @param options options deciding which entries are added and which directories are walked
+     * @param store store to add the entries to
+     * @return the store passed in
+     * @throws IOException thrown when a directory can't be listed
+     * @since 3.5.1
+     */
+    public MantaPathStore findInto(final String path, final FindOptions options, final MantaPathStore store)
+            throws IOException {
+        Validate.notNull(store, "Path store must not be null");
+
+        try (Stream<MantaObject> found = find(path, options)) {
+            found.forEach(store::add);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return store;
+    }
+
+    /**
+     * <p>Makes a remote directory match a local directory tree by uploading
+     * only the files that are missing or have changed. The remote tree is
+     * listed with {@link #find(String)} and each local file is compared with
+     * the remote object by size and then by MD5 checksum. Missing remote
+     * directories are created concurrently, one level of the tree at a time,
+     * and changed files are uploaded concurrently. Remote objects that don't
+     * exist locally are left in place.</p>
+     *
+     * <p>A failure to sync one file doesn't abort the sync. Instead, the
+     * exception is recorded in the result (see {@link SyncResult#getFailures()}).</p>
+     *
+     * <p><strong>WARNING:</strong> this method is not atomic and thereby not
+     * safe if other operations are performed on the directory structure while
+     * it is running.</p>
+     *
+     * @param localDir local directory to sync from
+     * @param remoteDir remote directory to sync to, created if it doesn't exist
+     * @param options sync options or null to use the defaults
+     * @return summary of the changes made
+     * @throws IOException thrown when the local or remote tree can't be listed
+     */
+    public SyncResult sync(final Path localDir, final String remoteDir, final SyncOptions options)
+            throws IOException {
+        Validate.notNull(localDir, "Local directory must not be null");
+        Validate.notBlank(remoteDir, "Remote directory must not be blank");
+
+        return SyncStrategy.sync(this, localDir, remoteDir, ObjectUtils.defaultIfNull(options, new SyncOptions()));
     }
 
     /**
@@ -1784,7 +2043,12 @@ public class MantaClient implements AutoCloseable {
     }
 
     /**
-     * Creates a directory in Manta.
+     * <p>Creates a directory in Manta.</p>
+     *
+     * <p>When {@code manta.directory_cache_size} is set, directories created
+     * recursively are remembered for {@code manta.directory_cache_ttl}
+     * milliseconds and the parents known to exist aren't sent again.
+     * Concurrent calls creating the same directory share a single request.</p>
      *
      * @param rawPath   The fully qualified path of the Manta directory.
      * @param recursive recursive create all of the directories specified in the path
@@ -1806,9 +2070,10 @@ public class MantaClient implements AutoCloseable {
         final Integer skipDepth = config.getSkipDirectoryDepth();
 
         if (skipDepth != null && 0 < skipDepth) {
-            RecursiveDirectoryCreationStrategy.createWithSkipDepth(this, rawPath, headers, skipDepth);
+            RecursiveDirectoryCreationStrategy.createWithSkipDepth(this, rawPath, headers, skipDepth,
+                    knownDirectories);
         } else {
-            RecursiveDirectoryCreationStrategy.createCompletely(this, rawPath, headers);
+            RecursiveDirectoryCreationStrategy.createCompletely(this, rawPath, headers, knownDirectories);
         }
     }
 
@@ -1889,7 +2154,7 @@ public class MantaClient implements AutoCloseable {
         MantaObjectResponse entry = head(source);
 
         if (entry.isDirectory()) {
-            moveDirectory(source, destination, entry);
+            moveDirectory(source, destination, new DirectoryCopyOptions());
         } else {
             moveFile(source, destination, recursivelyCreateDestinationDirectories);
         }
@@ -1923,50 +2188,95 @@ public class MantaClient implements AutoCloseable {
     }
 
     /**
-     * Moves a directory from one path to another path. This operation is not
-     * transactional and may fail or produce inconsistent result if the source
-     * or the destination is modified while the operation is in progress.
+     * <p>Moves a directory and everything below it from one path to another
+     * path by linking every object into the destination and then deleting
+     * the source. The destination and its parents are created if they don't
+     * exist, and the contents of the source are merged into the destination
+     * if it already exists.</p>
      *
-     * @param source Original path to move from
-     * @param destination Destination path to move to
-     * @param entry Directory supplemental data object
-     * @throws IOException thrown when something goes wrong
+     * <p>The destination directories are created one level at a time and the
+     * objects are linked in parallel by the number of worker threads set in
+     * the options, or half of the maximum number of connections. The source
+     * is only deleted when every object has been linked.</p>
+     *
+     * <p><strong>WARNING:</strong> this operation is not transactional and
+     * may fail or produce inconsistent result if the source or the
+     * destination is modified while it is in progress.</p>
+     *
+     * @param source path of the directory to move
+     * @param destination path to move the directory to
+     * @param options concurrency and progress reporting options
+     * @return final progress report of the copy
+     * @throws IOException thrown when a listing, link, directory or delete request fails
+     * @since 3.5.1
      */
-    private void moveDirectory(final String source, final String destination,
-                               final MantaObjectResponse entry)
+    public DirectoryCopyProgress moveDirectory(final String source, final String destination,
+                                               final DirectoryCopyOptions options)
             throws IOException {
-        putDirectory(destination, true);
-        MantaHttpHeaders sourceHeaders = entry.getHttpHeaders();
-        Long contentsCount = sourceHeaders.getResultSetSize();
-
-        // If we were just copying an empty directory, we just create the
-        // new directory and delete the original
-        if (contentsCount != null && contentsCount == 0L) {
-            delete(source);
-            return;
-        }
+        final DirectoryCopyProgress progress = copyDirectory(source, destination, options);
+        deleteRecursive(StringUtils.stripEnd(source, SEPARATOR));
 
-        MantaObjectResponse destDir = head(destination);
-        String destDirPath = destDir.getPath();
-        String sourceDirPath = entry.getPath();
+        return progress;
+    }
 
-        listObjects(source).forEach(mantaObject -> {
-            try {
-                String sourcePath = mantaObject.getPath();
-                String relPath = sourcePath.substring(sourceDirPath.length());
-                String destFullPath = destDirPath + SEPARATOR + relPath;
+    /**
+     * Copies a directory and everything below it on the server side by
+     * linking every object of the source into the destination. No object data
+     * is transferred and the copies don't use additional storage. See
+     * {@link #copyDirectory(String, String, DirectoryCopyOptions)}.
+     *
+     * @param source path of the directory to copy
+     * @param destination path of the directory to copy to
+     * @return final progress report of the copy
+     * @throws IOException thrown when a listing, link or directory request fails
+     * @since 3.5.1
+     */
+    public DirectoryCopyProgress copyDirectory(final String source, final String destination)
+            throws IOException {
+        return copyDirectory(source, destination, new DirectoryCopyOptions());
+    }
 
-                if (mantaObject.isDirectory()) {
-                    move(mantaObject.getPath(), destFullPath);
-                } else {
-                    putSnapLink(destFullPath, sourcePath, null);
-                }
-            } catch (IOException e) {
-                throw new UncheckedIOException(e);
-            }
-        });
+    /**
+     * <p>Copies a directory and everything below it on the server side by
+     * linking every object of the source into the destination. No object data
+     * is transferred and the copies don't use additional storage. The
+     * destination and its parents are created if they don't exist, and the
+     * contents of the source are merged into the destination if it already
+     * exists.</p>
+     *
+     * <p>The destination directories are created one level at a time and the
+     * objects are linked in parallel by the number of worker threads set in
+     * the options, or half of the maximum number of connections. The copy
+     * stops at the first request that fails.</p>
+     *
+     * <p><strong>WARNING:</strong> this operation is not transactional and
+     * may produce inconsistent result if the source is modified while it is
+     * in progress.</p>
+     *
+     * @param source path of the directory to copy
+     * @param destination path of the directory to copy to
+     * @param options concurrency and progress reporting options
+     * @return final progress report of the copy
+     * @throws IOException thrown when a listing, link or directory request fails
+     * @since 3.5.1
+     */
+    public DirectoryCopyProgress copyDirectory(final String source, final String destination,
+                                               final DirectoryCopyOptions options)
+            throws IOException {
+        Validate.notBlank(source, "Source path must not be empty nor null");
+        Validate.notBlank(destination, "Destination path must not be empty nor null");
+        Validate.notNull(options, "Options must not be null");
+
+        final String sourceDir = StringUtils.stripEnd(source, SEPARATOR);
+        final String destinationDir = StringUtils.stripEnd(destination, SEPARATOR);
+
+        Validate.isTrue(!destinationDir.equals(sourceDir)
+                        && !destinationDir.startsWith(sourceDir + SEPARATOR),
+                "Destination must not be the source directory nor be inside of it");
 
-        deleteRecursive(source);
+        LOG.debug("Copying directory [{}] to [{}]", sourceDir, destinationDir);
+
+        return DirectoryCopyStrategy.copy(this, sourceDir, destinationDir, options);
     }
 
     /* ======================================================================
@@ -2727,6 +3037,8 @@ public class MantaClient implements AutoCloseable {
             }
         }
 
+        this.rangeExecutor.shutdownNow();
+
         try {
             this.httpHelper.close();
         } catch (Exception e) {
@@ -2748,13 +3060,6 @@ public class MantaClient implements AutoCloseable {
             exceptions.add(e);
         }
 
-        // Shut down the ForkJoinPool that may be executing find() operations
-        try {
-            this.findForkJoinPool.shutdownNow();
-        } catch (Exception e) {
-            exceptions.add(e);
-        }
-
         if (!exceptions.isEmpty()) {
             String msg = "At least one exception was thrown when performing close()";
             OnCloseAggregateException exception = new OnCloseAggregateException(msg);
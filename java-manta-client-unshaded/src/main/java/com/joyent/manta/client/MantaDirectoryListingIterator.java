@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015-2017, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2015-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -7,8 +7,6 @@
  */
 package com.joyent.manta.client;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.joyent.manta.domain.ObjectType;
 import com.joyent.manta.exception.MantaIOException;
 import com.joyent.manta.exception.MantaResourceCloseException;
@@ -16,6 +14,7 @@ import com.joyent.manta.exception.MantaUnexpectedObjectTypeException;
 import com.joyent.manta.http.HttpHelper;
 import com.joyent.manta.http.MantaHttpHeaders;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -23,18 +22,24 @@ import org.apache.http.client.methods.HttpGet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.InterruptedIOException;
 import java.io.UncheckedIOException;
 import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -52,6 +57,15 @@ import static com.joyent.manta.util.MantaUtils.formatPath;
  * of records) and a marker (the last seen item in the list). This class
  * automates that process and abstracts out the details of the paging process.</p>
  *
+ * <p>By default the next page is only requested once the current page has
+ * been consumed. In pipelined mode, each page is read completely as soon as
+ * it arrives, which makes the marker for the next page known, and the next
+ * page is requested on a background thread while the consumer processes the
+ * buffered entries. The page size also doubles with each page in that mode,
+ * up to {@link #MAX_RESULTS}. This takes the round trip per page off of the
+ * consumer's critical path at the cost of one additional connection and up
+ * to two pages of entries held in memory.</p>
+ *
  * @author <a href="https://github.com/dekobon">Elijah Zupancic</a>
  */
 public class MantaDirectoryListingIterator implements Iterator<Map<String, Object>>,
@@ -71,6 +85,34 @@ public class MantaDirectoryListingIterator implements Iterator<Map<String, Objec
      */
     private final int pagingSize;
 
+    /**
+     * Flag indicating that pages are buffered and the next page is requested
+     * while the current one is being consumed.
+     */
+    private final boolean pipelined;
+
+    /**
+     * Entries of the current page when running in pipelined mode.
+     */
+    private final Deque<DirectoryListingRecord> buffered = new ArrayDeque<>();
+
+    /**
+     * Page requested in the background when running in pipelined mode or null
+     * if there is no request in flight.
+     */
+    private volatile Future<List<DirectoryListingRecord>> pendingPage;
+
+    /**
+     * Executor requesting pages in the background, created with the first
+     * background request.
+     */
+    private volatile ExecutorService prefetchExecutor;
+
+    /**
+     * Number of entries requested for the most recent page in pipelined mode.
+     */
+    private int lastPageSize;
+
     /**
      * Path to directory in which we will iterate through its contents.
      */
@@ -87,30 +129,25 @@ public class MantaDirectoryListingIterator implements Iterator<Map<String, Objec
     private final AtomicLong lines = new AtomicLong(0);
 
     /**
-     * The next line of data that we haven't iterated to yet.
+     * The next entry that we haven't iterated to yet.
      */
-    private final AtomicReference<String> nextLine = new AtomicReference<>();
+    private final AtomicReference<DirectoryListingRecord> nextRecord = new AtomicReference<>();
 
     /**
      * Flag indicated if we have finished and there is nothing left to iterate.
      */
     private final AtomicBoolean finished = new AtomicBoolean(false);
 
-    /**
-     * Jackson JSON parsing instance.
-     */
-    private final ObjectMapper mapper = MantaObjectMapper.INSTANCE;
-
     /**
      * The last marker we used to request against the Manta API.
      */
     private volatile String lastMarker;
 
     /**
-     * The current {@link BufferedReader} instance that wraps the HTTP response
+     * The current decoder instance that parses the HTTP response
      * {@link java.io.InputStream} from our most recent request to the API.
      */
-    private volatile BufferedReader br;
+    private volatile DirectoryListingDecoder decoder;
 
     /**
      * The most recent response object from the page of data that we are currently
@@ -144,6 +181,23 @@ public class MantaDirectoryListingIterator implements Iterator<Map<String, Objec
     public MantaDirectoryListingIterator(final String path,
                                          final HttpHelper httpHelper,
                                          final int pagingSize) {
+        this(path, httpHelper, pagingSize, false);
+    }
+
+    /**
+     * Create a new instance of a directory list iterator.
+     *
+     * @param path path to directory in which we will iterate through its contents
+     * @param httpHelper HTTP request helper class
+     * @param pagingSize size of result set requested against the Manta API (2-1024).
+     *                   In pipelined mode, this is the size of the first page.
+     * @param pipelined true to request the next page while the current one is consumed
+     * @since 3.5.1
+     */
+    public MantaDirectoryListingIterator(final String path,
+                                         final HttpHelper httpHelper,
+                                         final int pagingSize,
+                                         final boolean pipelined) {
         Validate.notBlank(path, "Path must not be blank");
         Validate.notNull(httpHelper, "HTTP help must not be null");
 
@@ -156,6 +210,105 @@ public class MantaDirectoryListingIterator implements Iterator<Map<String, Objec
         }
 
         this.pagingSize = pagingSize;
+        this.pipelined = pipelined;
+    }
+
+    /**
+     * Makes the listing start after the specified entry instead of at the
+     * beginning of the directory. This allows a listing that was stopped
+     * part of the way through to be resumed without keeping its connection
+     * open. It must be called before iterating.
+     *
+     * @param marker name of the entry to start after
+     * @return this instance
+     */
+    MantaDirectoryListingIterator startAfter(final String marker) {
+        Validate.notNull(marker, "Marker must not be null");
+        Validate.validState(lines.get() == 0 && lastPageSize == 0,
+                "Listing must not have been started");
+
+        this.lastMarker = marker;
+        return this;
+    }
+
+    /**
+     * @return name of the most recent entry returned or the starting marker
+     */
+    String getLastMarker() {
+        return lastMarker;
+    }
+
+    /**
+     * Builds the request for a page of the listing.
+     *
+     * @param marker name of the last entry seen or null for the first page
+     * @param limit maximum number of entries in the page
+     * @return GET request for the page
+     * @throws IOException thrown when the marker can't be encoded
+     */
+    private HttpGet pageRequest(final String marker, final int limit) throws IOException {
+        final StringBuilder uri = new StringBuilder(formatPath(path))
+                .append("?limit=").append(limit);
+
+        if (marker != null) {
+            uri.append("&marker=").append(URLEncoder.encode(marker, "UTF-8"));
+        }
+
+        return httpHelper.getRequestFactory().get(uri.toString());
+    }
+
+    /**
+     * Verifies that the first page of the listing was returned for a directory
+     * and returns its content.
+     *
+     * @param response response to the request for the first page
+     * @return stream containing the listing
+     * @throws IOException thrown when the content can't be read or the path isn't a directory
+     */
+    private InputStream directoryContent(final CloseableHttpResponse response) throws IOException {
+        HttpEntity entity = response.getEntity();
+        String contentType;
+
+        if (entity.getContentType() != null) {
+            contentType = entity.getContentType().getValue();
+        } else {
+            contentType = null;
+        }
+
+        if (!DIRECTORY_RESPONSE_CONTENT_TYPE.equals(contentType)) {
+            String msg = "A file was specified as the directory list path. "
+                    + "Only the contents of directories can be listed.";
+            MantaUnexpectedObjectTypeException e = new MantaUnexpectedObjectTypeException(msg,
+                    ObjectType.DIRECTORY, ObjectType.FILE);
+            e.setContextValue("path", path);
+
+            try {
+                MantaHttpHeaders headers = new MantaHttpHeaders(response.getAllHeaders());
+                e.setResponseHeaders(headers);
+            } catch (RuntimeException re) {
+                LOG.warn("Unable to convert response headers to MantaHttpHeaders", e);
+            }
+
+            throw e;
+        }
+
+        InputStream contentStream = entity.getContent();
+        Objects.requireNonNull(contentStream, "A directory listing without "
+                        + "content is not valid. Content is null.");
+
+        return contentStream;
+    }
+
+    /**
+     * Determines if a response indicates an empty directory.
+     *
+     * @param response response to a request for a page
+     * @return true if Manta reported that there are no results
+     */
+    private static boolean isEmptyResultSet(final CloseableHttpResponse response) {
+        Header resultsHeader = response.getFirstHeader(MantaHttpHeaders.RESULT_SET_SIZE);
+
+        return resultsHeader != null && resultsHeader.getValue().equals("0");
     }
 
     /**
@@ -166,9 +319,10 @@ public class MantaDirectoryListingIterator implements Iterator<Map<String, Objec
      * @throws IOException thrown when we can't successfully open an HTTP connection
      */
     private synchronized void selectReader() throws IOException {
-        if (lastMarker == null) {
-            String query = String.format("?limit=%d", pagingSize);
-            final HttpGet request = httpHelper.getRequestFactory().get(formatPath(path) + query);
+        final boolean continued = lastMarker != null;
+
+        if (!continued) {
+            final HttpGet request = pageRequest(null, pagingSize);
 
             try {
                 if (currentResponse != null) {
@@ -180,79 +334,197 @@ public class MantaDirectoryListingIterator implements Iterator<Map<String, Objec
                 throw mio;
             }
 
+            currentResponse = httpHelper.executeRequest(request, null);
+            decoder = new DirectoryListingDecoder(directoryContent(currentResponse));
+        } else {
+            final HttpGet request = pageRequest(lastMarker, pagingSize);
+
+            closeResources();
+
             currentResponse = httpHelper.executeRequest(request, null);
             HttpEntity entity = currentResponse.getEntity();
-            String contentType;
+            decoder = new DirectoryListingDecoder(entity.getContent());
+        }
+
+        /* If this is an empty directory, we just mark us as done right here
+         * so that no other methods need to do any extra work. */
+        if (isEmptyResultSet(currentResponse)) {
+            finished.set(true);
+            return;
+        }
+
+        if (continued) {
+            nextRecord.set(skipMarker(decoder, lastMarker));
+        } else {
+            nextRecord.set(decoder.next());
+        }
+
+        lines.incrementAndGet();
 
-            if (entity.getContentType() != null) {
-                contentType = entity.getContentType().getValue();
+        // We are done if the first read is a null
+        finished.set(nextRecord.get() == null);
+    }
+
+    /**
+     * Makes sure that the buffer holds entries when running in pipelined mode,
+     * waiting for the next page if the current one has been consumed. Each
+     * time a page is taken, the request for the page after it is started.
+     *
+     * @return true if there are entries left to iterate
+     * @throws IOException thrown when a page can't be requested or read
+     */
+    private synchronized boolean fillBuffer() throws IOException {
+        while (buffered.isEmpty() && !finished.get()) {
+            final List<DirectoryListingRecord> page;
+
+            if (lastPageSize == 0) {
+                lastPageSize = pagingSize;
+                page = fetchPage(lastMarker, lastPageSize);
+            } else if (pendingPage != null) {
+                page = awaitPendingPage();
             } else {
-                contentType = null;
+                page = Collections.emptyList();
             }
 
-            if (!DIRECTORY_RESPONSE_CONTENT_TYPE.equals(contentType)) {
-                String msg = "A file was specified as the directory list path. "
-                        + "Only the contents of directories can be listed.";
-                MantaUnexpectedObjectTypeException e = new MantaUnexpectedObjectTypeException(msg,
-                        ObjectType.DIRECTORY, ObjectType.FILE);
-                e.setContextValue("path", path);
-
-                try {
-                    MantaHttpHeaders headers = new MantaHttpHeaders(currentResponse.getAllHeaders());
-                    e.setResponseHeaders(headers);
-                } catch (RuntimeException re) {
-                    LOG.warn("Unable to convert response headers to MantaHttpHeaders", e);
-                }
+            if (page.isEmpty()) {
+                finished.set(true);
+                break;
+            }
+
+            buffered.addAll(page);
+
+            final String marker = page.get(page.size() - 1).getName();
+            Validate.notNull(marker, "Name must not be null in JSON input");
 
-                throw e;
+            lastPageSize = Math.min(MAX_RESULTS, lastPageSize * 2);
+            final int limit = lastPageSize;
+            pendingPage = prefetchExecutor().submit(() -> fetchPage(marker, limit));
+        }
+
+        return !buffered.isEmpty();
+    }
+
+    /**
+     * Requests a page of the listing and reads all of its entries.
+     *
+     * @param marker name of the last entry seen or null for the first page
+     * @param limit maximum number of entries in the page
+     * @return entries of the page, excluding the marker
+     * @throws IOException thrown when the page can't be requested or read
+     */
+    private List<DirectoryListingRecord> fetchPage(final String marker, final int limit) throws IOException {
+        final HttpGet request = pageRequest(marker, limit);
+
+        try (CloseableHttpResponse response = httpHelper.executeRequest(request, null)) {
+            final InputStream content;
+
+            if (marker == null) {
+                content = directoryContent(response);
+            } else {
+                content = response.getEntity().getContent();
             }
 
-            InputStream contentStream = entity.getContent();
-            Objects.requireNonNull(contentStream, "A directory listing without "
-                            + "content is not valid. Content is null.");
+            if (isEmptyResultSet(response)) {
+                content.close();
+                return new ArrayList<>(0);
+            }
 
-            Reader streamReader = new InputStreamReader(entity.getContent(),
-                    StandardCharsets.UTF_8.name());
-            br = new BufferedReader(streamReader);
-        } else {
-            String query = String.format("?limit=%d&marker=%s",
-                    pagingSize, URLEncoder.encode(lastMarker, "UTF-8"));
-            final HttpGet request = httpHelper.getRequestFactory().get(formatPath(path) + query);
+            try (DirectoryListingDecoder pageDecoder = new DirectoryListingDecoder(content)) {
+                final List<DirectoryListingRecord> records = new ArrayList<>(limit);
+                DirectoryListingRecord record;
 
-            closeResources();
+                if (marker == null) {
+                    record = pageDecoder.next();
+                } else {
+                    record = skipMarker(pageDecoder, marker);
+                }
 
-            currentResponse = httpHelper.executeRequest(request, null);
-            HttpEntity entity = currentResponse.getEntity();
-            Reader streamReader = new InputStreamReader(entity.getContent(),
-                    StandardCharsets.UTF_8.name());
-            br = new BufferedReader(streamReader);
+                for (; record != null; record = pageDecoder.next()) {
+                    records.add(record);
+                }
 
-            // We read one line to clear it because it is our marker
-            br.readLine();
+                return records;
+            }
         }
+    }
 
-        /* If this is an empty directory, we just mark us as done right here
-         * so that no other methods need to do any extra work. */
-        Header resultsHeader = currentResponse.getFirstHeader(MantaHttpHeaders.RESULT_SET_SIZE);
-        if (resultsHeader != null) {
-            String results = resultsHeader.getValue();
+    /**
+     * Reads the first entry of a page requested with a marker, skipping it if
+     * it is the marker itself. The marker is missing from the page when it
+     * was removed after it was listed, in which case the first entry hasn't
+     * been seen yet.
+     *
+     * @param pageDecoder decoder positioned at the start of the page
+     * @param marker name of the last entry seen
+     * @return the first entry after the marker or null if there are none
+     * @throws IOException thrown when the page can't be read
+     */
+    private static DirectoryListingRecord skipMarker(final DirectoryListingDecoder pageDecoder,
+                                                     final String marker) throws IOException {
+        final DirectoryListingRecord first = pageDecoder.next();
 
-            if (results.equals("0")) {
-                finished.set(true);
-                return;
+        if (first != null && marker.equals(first.getName())) {
+            return pageDecoder.next();
+        }
+
+        return first;
+    }
+
+    /**
+     * Waits for the page requested in the background.
+     *
+     * @return entries of the page
+     * @throws IOException thrown when the page couldn't be requested or read
+     * @throws InterruptedIOException thrown when interrupted while waiting
+     */
+    private List<DirectoryListingRecord> awaitPendingPage() throws IOException {
+        try {
+            return pendingPage.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the next page of " + path);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
             }
+
+            MantaIOException mio = new MantaIOException("Unable to read the next page of the listing", cause);
+            mio.setContextValue("path", path);
+            throw mio;
+        } finally {
+            pendingPage = null;
         }
+    }
 
-        nextLine.set(br.readLine());
-        lines.incrementAndGet();
+    /**
+     * @return executor used to request pages in the background
+     */
+    private ExecutorService prefetchExecutor() {
+        if (prefetchExecutor == null) {
+            prefetchExecutor = Executors.newSingleThreadExecutor(new BasicThreadFactory.Builder()
+                    .namingPattern("manta-listing-prefetch-%d")
+                    .daemon(true)
+                    .build());
+        }
 
-        // We are done if the first read is a null
-        finished.set(nextLine.get() == null);
+        return prefetchExecutor;
     }
 
     @Override
     public boolean hasNext() {
-        if (!finished.get() && nextLine.get() == null) {
+        if (pipelined) {
+            try {
+                return fillBuffer();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        if (!finished.get() && nextRecord.get() == null) {
             try {
                 selectReader();
                 return !finished.get();
@@ -265,40 +537,99 @@ public class MantaDirectoryListingIterator implements Iterator<Map<String, Objec
     }
 
     @Override
-    public synchronized Map<String, Object> next() {
+    public Map<String, Object> next() {
+        return nextEntry().toMap(path);
+    }
+
+    /**
+     * Returns the next entry converted directly to a {@link MantaObject},
+     * without building the intermediate map returned by {@link #next()}.
+     *
+     * @return the next entry in the directory
+     */
+    MantaObject nextObject() {
+        return nextEntry().toObject(path);
+    }
+
+    /**
+     * Takes all the entries of the current page that haven't been iterated
+     * yet, requesting the next page first if the current one has been
+     * consumed. In pipelined mode, the page after the one returned is already
+     * being requested in the background. Otherwise, the rest of the page is
+     * read from the response that is currently streaming in.
+     *
+     * @return remaining entries of the current page, empty when there are no more entries
+     */
+    synchronized List<DirectoryListingRecord> nextPage() {
+        if (!hasNext()) {
+            return Collections.emptyList();
+        }
+
+        final List<DirectoryListingRecord> page;
+
+        if (pipelined) {
+            page = new ArrayList<>(buffered);
+            buffered.clear();
+        } else {
+            page = new ArrayList<>();
+
+            try {
+                for (DirectoryListingRecord record = nextRecord.getAndSet(null); record != null;
+                     record = decoder.next()) {
+                    Validate.notNull(record.getName(), "Name must not be null in JSON input");
+                    page.add(record);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        lines.addAndGet(page.size());
+        this.lastMarker = page.get(page.size() - 1).getName();
+
+        return page;
+    }
+
+    /**
+     * Advances to the next entry, requesting the next page when the current
+     * one has been consumed.
+     *
+     * @return the next entry in the directory
+     * @throws NoSuchElementException thrown when there are no more entries
+     */
+    private synchronized DirectoryListingRecord nextEntry() {
         if (!hasNext()) {
             throw new NoSuchElementException();
         }
 
+        if (pipelined) {
+            final DirectoryListingRecord record = buffered.poll();
+            lines.incrementAndGet();
+            this.lastMarker = record.getName();
+            return record;
+        }
+
         try {
-            String line = nextLine.getAndSet(br.readLine());
+            DirectoryListingRecord record = nextRecord.getAndSet(decoder.next());
             lines.incrementAndGet();
 
-            if (line == null) {
+            if (record == null) {
                 selectReader();
 
                 if (finished.get()) {
                     throw new NoSuchElementException();
                 }
 
-                line = nextLine.getAndSet(br.readLine());
+                record = nextRecord.getAndSet(decoder.next());
             }
 
-            final Map<String, Object> lookup = mapper.readValue(line,
-                    new TypeReference<Map<String, Object>>() { });
-            final String name = Objects.toString(lookup.get("name"));
+            final String name = record.getName();
 
             Validate.notNull(name, "Name must not be null in JSON input");
 
-            /* Explicitly set the path of the object here so that we don't need
-             * to create a new instance of MantaObjectConversionFunction per
-             * object being read. */
-            lookup.put("path", path);
-
             this.lastMarker = name;
 
-            return lookup;
-
+            return record;
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -309,6 +640,14 @@ public class MantaDirectoryListingIterator implements Iterator<Map<String, Objec
         finished.set(true);
 
         closeResources();
+
+        if (pendingPage != null) {
+            pendingPage.cancel(true);
+        }
+
+        if (prefetchExecutor != null) {
+            prefetchExecutor.shutdownNow();
+        }
     }
 
     /**
@@ -317,13 +656,13 @@ public class MantaDirectoryListingIterator implements Iterator<Map<String, Objec
      */
     private void closeResources() {
         try {
-            if (br != null) {
-                br.close();
+            if (decoder != null) {
+                decoder.close();
             }
         } catch (IOException e) {
             MantaIOException mio = new MantaResourceCloseException(e);
             HttpHelper.annotateContextedException(mio, null, currentResponse);
-            LOG.error("Unable to close BufferedReader", mio);
+            LOG.error("Unable to close directory listing decoder", mio);
         }
 
         try {
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.http.MantaHttpHeaders;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * <p>Entry of a directory listing as returned by
+ * {@link MantaClient#listObjects(String)} and {@link MantaClient#find(String)}.</p>
+ *
+ * <p>A listing only describes the name, type, modification time, size, etag,
+ * durability and checksum of each entry, so entries keep those in fields
+ * instead of in a {@link MantaHttpHeaders} map. The directory path is shared
+ * by all the entries of a listing and the full path is only built when it is
+ * requested. Headers and metadata are built the first time they are
+ * requested, and contain what the same entry represented as a
+ * {@link MantaObjectResponse} would.</p>
+ *
+ * @since 3.5.1
+ */
+public final class MantaListingEntry implements MantaObject {
+    private static final long serialVersionUID = -2875937203785106474L;
+
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(MantaListingEntry.class);
+
+    /**
+     * Value of the size and durability fields when they weren't listed.
+     */
+    private static final int NOT_LISTED = -1;
+
+    /**
+     * Path of the directory that was listed.
+     */
+    private final String directory;
+
+    /**
+     * Name of the entry within the directory.
+     */
+    private final String name;
+
+    /**
+     * Whether the entry is a directory.
+     */
+    private final boolean dir;
+
+    /**
+     * Modification time as listed.
+     */
+    private final String mtime;
+
+    /**
+     * Content type if it was listed or null.
+     */
+    private final String contentType;
+
+    /**
+     * Etag or null.
+     */
+    private final String etag;
+
+    /**
+     * Size in bytes or {@link #NOT_LISTED}.
+     */
+    private final long size;
+
+    /**
+     * Number of copies or {@link #NOT_LISTED}.
+     */
+    private final int durability;
+
+    /**
+     * Base64 encoded MD5 checksum or null.
+     */
+    private final String contentMd5;
+
+    /**
+     * Full path, built on first use.
+     */
+    private transient String path;
+
+    /**
+     * Headers, built on first use.
+     */
+    private transient MantaHttpHeaders headers;
+
+    /**
+     * Metadata, built on first use.
+     */
+    private transient MantaMetadata metadata;
+
+    /**
+     * Creates a new instance from a decoded listing record.
+     *
+     * @param directory path of the directory that was listed
+     * @param record record of the entry
+     */
+    MantaListingEntry(final String directory, final DirectoryListingRecord record) {
+        Validate.notNull(record.getName(), "Filename is null");
+        Validate.notNull(record.getMtime(), "Modification time is null");
+        Validate.notNull(record.getType(), "File type is null");
+
+        this.directory = directory;
+        this.name = record.getName();
+        this.dir = MANTA_OBJECT_TYPE_DIRECTORY.equals(record.getType());
+        this.mtime = record.getMtime();
+        this.contentType = record.getContentType();
+        this.etag = record.getEtag();
+        this.contentMd5 = record.getContentMd5();
+
+        if (record.getSize() == null) {
+            this.size = NOT_LISTED;
+        } else {
+            this.size = record.getSize();
+        }
+
+        if (record.getDurability() == null) {
+            this.durability = NOT_LISTED;
+        } else {
+            this.durability = record.getDurability();
+        }
+    }
+
+    @Override
+    public String getPath() {
+        String built = path;
+
+        if (built == null) {
+            built = DirectoryListingRecord.childPath(directory, name);
+            path = built;
+        }
+
+        return built;
+    }
+
+    /**
+     * @return name of the entry within the directory that was listed
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Long getContentLength() {
+        if (size == NOT_LISTED) {
+            return null;
+        }
+
+        return size;
+    }
+
+    @Override
+    public String getContentType() {
+        if (contentType == null && dir) {
+            return MantaObjectResponse.DIRECTORY_RESPONSE_CONTENT_TYPE;
+        }
+
+        return contentType;
+    }
+
+    @Override
+    public String getEtag() {
+        return etag;
+    }
+
+    @Override
+    public byte[] getMd5Bytes() {
+        return Base64.decodeBase64(contentMd5);
+    }
+
+    @Override
+    public Date getLastModifiedTime() {
+        try {
+            return Date.from(Instant.parse(mtime));
+        } catch (DateTimeParseException e) {
+            LOG.warn("Error parsing mtime value [{}]: {}", mtime, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public String getMtime() {
+        return mtime;
+    }
+
+    @Override
+    public String getType() {
+        if (getContentType() == null) {
+            return null;
+        }
+
+        if (dir) {
+            return MANTA_OBJECT_TYPE_DIRECTORY;
+        }
+
+        return MANTA_OBJECT_TYPE_OBJECT;
+    }
+
+    @Override
+    public synchronized MantaHttpHeaders getHttpHeaders() {
+        if (headers == null) {
+            final MantaHttpHeaders built = new MantaHttpHeaders();
+            built.setLastModified(mtime);
+
+            if (getContentType() != null) {
+                built.setContentType(getContentType());
+            }
+
+            if (etag != null) {
+                built.setETag(etag);
+            }
+
+            if (size != NOT_LISTED) {
+                built.setContentLength(size);
+            }
+
+            if (durability != NOT_LISTED) {
+                built.setDurabilityLevel(durability);
+            }
+
+            if (contentMd5 != null) {
+                built.setContentMD5(contentMd5);
+            }
+
+            headers = built;
+        }
+
+        return headers;
+    }
+
+    @Override
+    public Object getHeader(final String fieldName) {
+        return getHttpHeaders().get(fieldName);
+    }
+
+    @Override
+    public String getHeaderAsString(final String fieldName) {
+        return getHttpHeaders().getAsString(fieldName);
+    }
+
+    @Override
+    public synchronized MantaMetadata getMetadata() {
+        if (metadata == null) {
+            metadata = new MantaMetadata();
+        }
+
+        return metadata;
+    }
+
+    /**
+     * @return null, since listings aren't made for a single entry
+     */
+    @Override
+    public String getRequestId() {
+        return null;
+    }
+
+    @Override
+    public boolean isDirectory() {
+        return dir;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o instanceof MantaListingEntry) {
+            final MantaListingEntry that = (MantaListingEntry) o;
+            return dir == that.dir
+                    && size == that.size
+                    && durability == that.durability
+                    && Objects.equals(getPath(), that.getPath())
+                    && Objects.equals(mtime, that.mtime)
+                    && Objects.equals(contentType, that.contentType)
+                    && Objects.equals(etag, that.etag)
+                    && Objects.equals(contentMd5, that.contentMd5);
+        } else if (o instanceof MantaObject) {
+            final MantaObject that = (MantaObject) o;
+            return Objects.equals(getContentLength(), that.getContentLength())
+                    && Objects.equals(getContentType(), that.getContentType())
+                    && Objects.equals(getEtag(), that.getEtag())
+                    && Objects.equals(getMtime(), that.getMtime());
+        }
+
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                getContentLength(),
+                getContentType(),
+                getEtag(),
+                getMtime());
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(getClass().getName());
+        sb.append('{');
+        sb.append("path='").append(getPath()).append('\'');
+        sb.append(", contentLength=").append(getContentLength());
+        sb.append(", contentType='").append(getContentType()).append('\'');
+        sb.append(", etag='").append(getEtag()).append('\'');
+        sb.append(", mtime='").append(getMtime()).append('\'');
+        sb.append(", type='").append(getType()).append('\'');
+        sb.append(", directory=").append(isDirectory());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,728 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.exception.MantaClientHttpResponseException;
+import com.joyent.manta.exception.MantaIOException;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.joyent.manta.client.MantaClient.SEPARATOR;
+import static com.joyent.manta.client.MantaTreeIndexEntry.UNKNOWN;
+
+/**
+ * <p>Local index of a remote directory tree that answers questions such as
+ * whether a path exists, what a directory contains or how large a subtree
+ * is without making any requests. The index stores the path, type, size,
+ * modification time and etag of every entry below its root directory. It is
+ * built with {@link MantaClient#find(String, FindOptions)}, can be saved to
+ * and loaded from a local file, and can be brought up to date with
+ * {@link #refresh(MantaClient)}.</p>
+ *
+ * <p>Refreshing only lists the directories whose modification time changed
+ * since they were last listed, which happens when entries are added to them
+ * or removed from them. Because modification times aren't propagated to
+ * parent directories, the subdirectories of an unchanged directory are
+ * checked with a HEAD request each instead of being listed, so refreshing an
+ * unchanged tree costs one small request per directory regardless of the
+ * number of objects. Objects replaced in place don't modify their directory
+ * and are only picked up when it is next listed for another reason.
+ * Modification times are compared to the second, which is the precision of
+ * HEAD responses.</p>
+ *
+ * <p>Queries are thread-safe and may run while the index is refreshed, in
+ * which case they observe a mix of the old and new state.</p>
+ *
+ * @since 3.5.1
+ */
+public final class MantaTreeIndex {
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(MantaTreeIndex.class);
+
+    /**
+     * Value identifying index files, spelling "MTIX".
+     */
+    private static final int FORMAT_MAGIC = 0x4D544958;
+
+    /**
+     * Version of the index file format.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Entry flag set for directories.
+     */
+    private static final int FLAG_DIRECTORY = 1;
+
+    /**
+     * Entry flag set when an etag follows.
+     */
+    private static final int FLAG_ETAG = 2;
+
+    /**
+     * Character sorting immediately after the separator, used to bound the
+     * keys of a subtree.
+     */
+    private static final char AFTER_SEPARATOR = (char) (SEPARATOR.charAt(0) + 1);
+
+    /**
+     * Decoded path of the root directory without a trailing separator.
+     */
+    private final String root;
+
+    /**
+     * Entries keyed by decoded path, including the root directory. The
+     * entries below a directory have consecutive keys.
+     */
+    private final ConcurrentNavigableMap<String, MantaTreeIndexEntry> entries;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param root decoded path of the root directory
+     * @param entries entries keyed by decoded path
+     */
+    private MantaTreeIndex(final String root, final ConcurrentNavigableMap<String, MantaTreeIndexEntry> entries) {
+        this.root = root;
+        this.entries = entries;
+    }
+
+    /**
+     * Builds an index of a remote directory and everything below it.
+     *
+     * @param client client used to walk the directory
+     * @param path path of the root directory of the index
+     * @return new index
+     * @throws IOException thrown when the directory can't be walked
+     */
+    public static MantaTreeIndex build(final MantaClient client, final String path) throws IOException {
+        Validate.notNull(client, "Client must not be null");
+        final String root = normalize(path);
+        final long start = System.nanoTime();
+
+        final MantaObjectResponse head = client.head(root);
+
+        if (!head.isDirectory()) {
+            MantaIOException e = new MantaIOException("Only directories can be indexed");
+            e.setContextValue("path", root);
+            throw e;
+        }
+
+        final ConcurrentNavigableMap<String, MantaTreeIndexEntry> entries = new ConcurrentSkipListMap<>();
+        entries.put(root, MantaTreeIndexEntry.of(root, head));
+
+        /* The modification time of each directory is read from the listing of
+         * its parent, before the directory itself is listed, so anything that
+         * changes in between is listed again by the next refresh. */
+        try (Stream<MantaObject> found = client.find(root, new FindOptions())) {
+            found.forEach(obj -> entries.put(obj.getPath(), MantaTreeIndexEntry.of(obj.getPath(), obj)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        LOG.debug("Indexed {} entries below {} in {} ms", entries.size() - 1, root,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        return new MantaTreeIndex(root, entries);
+    }
+
+    /**
+     * Loads an index saved with {@link #save(Path)}.
+     *
+     * @param file local file to read
+     * @return index read from the file
+     * @throws IOException thrown when the file can't be read or isn't an index
+     */
+    public static MantaTreeIndex load(final Path file) throws IOException {
+        Validate.notNull(file, "File must not be null");
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != FORMAT_MAGIC) {
+                MantaIOException e = new MantaIOException("File is not a Manta tree index");
+                e.setContextValue("file", file);
+                throw e;
+            }
+
+            final int version = in.readInt();
+
+            if (version != FORMAT_VERSION) {
+                MantaIOException e = new MantaIOException("Unsupported Manta tree index version");
+                e.setContextValue("file", file);
+                e.setContextValue("version", version);
+                throw e;
+            }
+
+            final String root = in.readUTF();
+            final long count = in.readLong();
+            final ConcurrentNavigableMap<String, MantaTreeIndexEntry> entries = new ConcurrentSkipListMap<>();
+
+            for (long i = 0; i < count; i++) {
+                final String path = in.readUTF();
+                final int flags = in.readUnsignedByte();
+                final long size = in.readLong();
+                final long mtime = in.readLong();
+                final String etag;
+
+                if ((flags & FLAG_ETAG) != 0) {
+                    etag = in.readUTF();
+                } else {
+                    etag = null;
+                }
+
+                entries.put(path, new MantaTreeIndexEntry(path, (flags & FLAG_DIRECTORY) != 0, size, mtime, etag));
+            }
+
+            return new MantaTreeIndex(root, entries);
+        }
+    }
+
+    /**
+     * Saves the index to a local file. The file is replaced atomically where
+     * the file system supports it, so a reader never sees a partial index.
+     *
+     * @param file local file to write
+     * @throws IOException thrown when the file can't be written
+     */
+    public synchronized void save(final Path file) throws IOException {
+        Validate.notNull(file, "File must not be null");
+
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        final List<MantaTreeIndexEntry> snapshot = new ArrayList<>(entries.values());
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(temp))))) {
+            out.writeInt(FORMAT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(root);
+            out.writeLong(snapshot.size());
+
+            for (MantaTreeIndexEntry entry : snapshot) {
+                int flags = 0;
+
+                if (entry.isDirectory()) {
+                    flags |= FLAG_DIRECTORY;
+                }
+
+                if (entry.getEtag() != null) {
+                    flags |= FLAG_ETAG;
+                }
+
+                out.writeUTF(entry.getPath());
+                out.writeByte(flags);
+                out.writeLong(entry.size());
+                out.writeLong(entry.mtime());
+
+                if (entry.getEtag() != null) {
+                    out.writeUTF(entry.getEtag());
+                }
+            }
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Brings the index up to date with the remote tree, using half of the
+     * maximum connections setting of the client for concurrent requests.
+     *
+     * @param client client used to list and check directories
+     * @throws IOException thrown when a request fails, in which case the index
+     *                     is partially refreshed and can be refreshed again
+     */
+    public void refresh(final MantaClient client) throws IOException {
+        Validate.notNull(client, "Client must not be null");
+        refresh(client, ConcurrentMappingIterator.defaultConcurrency(client.getContext()));
+    }
+
+    /**
+     * Brings the index up to date with the remote tree, listing only the
+     * directories whose modification time changed since they were indexed.
+     *
+     * @param client client used to list and check directories
+     * @param concurrency maximum number of concurrent requests
+     * @throws IOException thrown when a request fails, in which case the index
+     *                     is partially refreshed and can be refreshed again
+     */
+    public synchronized void refresh(final MantaClient client, final int concurrency) throws IOException {
+        Validate.notNull(client, "Client must not be null");
+        Validate.isTrue(concurrency > 0, "Concurrency must be greater than zero");
+
+        final Refresh refresh = new Refresh(client, concurrency);
+
+        try {
+            refresh.run();
+        } finally {
+            refresh.traversal.close();
+        }
+    }
+
+    /**
+     * @return decoded path of the root directory of the index
+     */
+    public String getRoot() {
+        return root;
+    }
+
+    /**
+     * @return number of entries in the index, including the root directory
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @param path decoded path of an object or directory
+     * @return indexed entry or null if the path isn't in the index
+     */
+    public MantaTreeIndexEntry get(final String path) {
+        return entries.get(normalize(path));
+    }
+
+    /**
+     * @param path decoded path of an object or directory
+     * @return true if the path is in the index
+     */
+    public boolean exists(final String path) {
+        return get(path) != null;
+    }
+
+    /**
+     * Lists the entries directly in a directory.
+     *
+     * @param directory decoded path of a directory
+     * @return entries of the directory sorted by path, empty if the directory
+     *         isn't in the index
+     */
+    public Stream<MantaTreeIndexEntry> list(final String directory) {
+        final Iterator<MantaTreeIndexEntry> children = children(normalize(directory));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(children,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Lists the entries whose path starts with a prefix, which may end in the
+     * middle of a name.
+     *
+     * @param prefix decoded path prefix
+     * @return matching entries sorted by path
+     */
+    public Stream<MantaTreeIndexEntry> findByPrefix(final String prefix) {
+        Validate.notEmpty(prefix, "Prefix must not be empty");
+
+        final char last = prefix.charAt(prefix.length() - 1);
+
+        if (last == Character.MAX_VALUE) {
+            return entries.tailMap(prefix).values().stream()
+                    .filter(entry -> entry.getPath().startsWith(prefix));
+        }
+
+        final String end = prefix.substring(0, prefix.length() - 1) + (char) (last + 1);
+        return entries.subMap(prefix, end).values().stream();
+    }
+
+    /**
+     * Totals the entries below a directory.
+     *
+     * @param directory decoded path of a directory
+     * @return number of objects and directories and total size of the objects
+     *         below the directory, all zero if it isn't in the index
+     */
+    public MantaTreeIndexSummary summarize(final String directory) {
+        final String path = normalize(directory);
+        long objects = 0;
+        long directories = 0;
+        long bytes = 0;
+
+        for (MantaTreeIndexEntry entry : subtree(path).values()) {
+            if (entry.isDirectory()) {
+                directories++;
+            } else {
+                objects++;
+
+                if (entry.size() != UNKNOWN) {
+                    bytes += entry.size();
+                }
+            }
+        }
+
+        return new MantaTreeIndexSummary(objects, directories, bytes);
+    }
+
+    /**
+     * @param path decoded path of a directory
+     * @return view of the entries below the directory
+     */
+    private ConcurrentNavigableMap<String, MantaTreeIndexEntry> subtree(final String path) {
+        return entries.subMap(path + SEPARATOR, path + AFTER_SEPARATOR);
+    }
+
+    /**
+     * Removes an entry and everything below it.
+     *
+     * @param path decoded path of the entry
+     */
+    private void removeTree(final String path) {
+        subtree(path).clear();
+        entries.remove(path);
+    }
+
+    /**
+     * Iterates over the entries directly in a directory, jumping over the
+     * entries of each subdirectory.
+     *
+     * @param directory decoded path of a directory
+     * @return iterator of the entries of the directory
+     */
+    private Iterator<MantaTreeIndexEntry> children(final String directory) {
+        final String from = directory + SEPARATOR;
+        final String to = directory + AFTER_SEPARATOR;
+
+        return new Iterator<MantaTreeIndexEntry>() {
+            private Map.Entry<String, MantaTreeIndexEntry> next = child(entries.ceilingEntry(from));
+
+            /**
+             * Skips over entries that are below a child of the directory.
+             *
+             * @param candidate entry following the last child or null
+             * @return next child or null
+             */
+            private Map.Entry<String, MantaTreeIndexEntry> child(
+                    final Map.Entry<String, MantaTreeIndexEntry> candidate) {
+                Map.Entry<String, MantaTreeIndexEntry> entry = candidate;
+
+                while (entry != null && entry.getKey().compareTo(to) < 0) {
+                    final int separator = entry.getKey().indexOf(SEPARATOR, from.length());
+
+                    if (separator < 0) {
+                        return entry;
+                    }
+
+                    entry = entries.ceilingEntry(entry.getKey().substring(0, separator) + AFTER_SEPARATOR);
+                }
+
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            /**
+             * @return next entry of the directory
+             * @throws NoSuchElementException thrown when there are no entries left
+             */
+            @Override
+            public MantaTreeIndexEntry next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+
+                final Map.Entry<String, MantaTreeIndexEntry> current = next;
+                next = child(entries.higherEntry(current.getKey()));
+                return current.getValue();
+            }
+        };
+    }
+
+    /**
+     * @param path path as given by the caller
+     * @return path without trailing separators
+     */
+    private static String normalize(final String path) {
+        Validate.notBlank(path, "Path must not be blank");
+        return StringUtils.stripEnd(path, SEPARATOR);
+    }
+
+    /**
+     * @param obj object read from a listing or a HEAD request
+     * @return modification time in milliseconds since the epoch or {@link MantaTreeIndexEntry#UNKNOWN}
+     */
+    private static long mtime(final MantaObject obj) {
+        final Date lastModified = obj.getLastModifiedTime();
+
+        if (lastModified == null) {
+            return UNKNOWN;
+        }
+
+        return lastModified.getTime();
+    }
+
+    /**
+     * @param indexed modification time in the index
+     * @param current modification time of the remote directory
+     * @return true if both times are known and fall within the same second
+     */
+    private static boolean sameSecond(final long indexed, final long current) {
+        return indexed != UNKNOWN && current != UNKNOWN
+                && TimeUnit.MILLISECONDS.toSeconds(indexed) == TimeUnit.MILLISECONDS.toSeconds(current);
+    }
+
+    /**
+     * <p>Single refresh of the index. Each directory is handled by a task on a
+     * pool of workers, which submits a task for each of its subdirectories,
+     * and the refresh completes when no tasks are left.</p>
+     *
+     * <p>The modification time of a directory in the index is only updated
+     * once its entries have been merged, and new directories are added
+     * without one, so a refresh that fails part way leaves every directory
+     * that wasn't merged to be listed by the next refresh.</p>
+     */
+    private final class Refresh {
+        /**
+         * Client used to list and check directories.
+         */
+        private final MantaClient client;
+
+        /**
+         * Traversal tracking the tasks and their failures.
+         */
+        private final ParallelTraversal traversal = new ParallelTraversal();
+
+        /**
+         * Workers handling directories.
+         */
+        private final ParallelTraversal.Pool workers;
+
+        /**
+         * Number of directories listed.
+         */
+        private final AtomicLong listed = new AtomicLong();
+
+        /**
+         * Number of directories checked with a HEAD request.
+         */
+        private final AtomicLong checked = new AtomicLong();
+
+        /**
+         * Creates a new instance.
+         *
+         * @param client client used to list and check directories
+         * @param concurrency maximum number of concurrent requests
+         */
+        Refresh(final MantaClient client, final int concurrency) {
+            this.client = client;
+            this.workers = traversal.pool("manta-index-%d", concurrency);
+        }
+
+        /**
+         * Refreshes the index and waits for completion.
+         *
+         * @throws IOException thrown when a request fails
+         */
+        void run() throws IOException {
+            final long start = System.nanoTime();
+            final MantaObjectResponse head = client.head(root);
+
+            if (!head.isDirectory()) {
+                MantaIOException e = new MantaIOException("Indexed directory was replaced by an object");
+                e.setContextValue("path", root);
+                throw e;
+            }
+
+            try {
+                submit(() -> {
+                    refreshDirectory(root, mtime(head));
+                    return null;
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while refreshing index of " + root);
+            }
+
+            traversal.await("refreshing index of " + root);
+
+            LOG.debug("Refreshed index of {}: {} directories listed and {} checked in {} ms",
+                    root, listed.get(), checked.get(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+
+        /**
+         * Queues a task to a worker.
+         *
+         * @param task task to run
+         * @throws InterruptedException thrown when interrupted while queuing the task
+         */
+        private void submit(final Callable<?> task) throws InterruptedException {
+            traversal.execute(workers, task);
+        }
+
+        /**
+         * Lists a directory if it changed, or otherwise checks its indexed
+         * subdirectories.
+         *
+         * @param path decoded path of the directory
+         * @param current current modification time of the directory
+         * @throws IOException thrown when the directory can't be listed
+         * @throws InterruptedException thrown when interrupted while queuing a subdirectory
+         */
+        private void refreshDirectory(final String path, final long current)
+                throws IOException, InterruptedException {
+            final MantaTreeIndexEntry indexed = entries.get(path);
+
+            if (indexed == null || !indexed.isDirectory() || !sameSecond(indexed.mtime(), current)) {
+                relist(path, current);
+                return;
+            }
+
+            for (Iterator<MantaTreeIndexEntry> itr = children(path); itr.hasNext();) {
+                final MantaTreeIndexEntry child = itr.next();
+
+                if (child.isDirectory()) {
+                    submit(() -> {
+                        check(child.getPath());
+                        return null;
+                    });
+                }
+            }
+        }
+
+        /**
+         * Checks a subdirectory of an unchanged directory with a HEAD request.
+         *
+         * @param path decoded path of the subdirectory
+         * @throws IOException thrown when the request fails
+         * @throws InterruptedException thrown when interrupted while queuing a subdirectory
+         */
+        private void check(final String path) throws IOException, InterruptedException {
+            final MantaObjectResponse head;
+
+            try {
+                head = client.head(path);
+            } catch (MantaClientHttpResponseException e) {
+                if (ParallelTraversal.isNotFound(e)) {
+                    removeTree(path);
+                    return;
+                }
+
+                throw e;
+            }
+
+            checked.incrementAndGet();
+
+            if (!head.isDirectory()) {
+                removeTree(path);
+                entries.put(path, MantaTreeIndexEntry.of(path, head));
+                return;
+            }
+
+            refreshDirectory(path, mtime(head));
+        }
+
+        /**
+         * Lists a directory, replacing its entries in the index and refreshing
+         * each of its subdirectories.
+         *
+         * @param path decoded path of the directory
+         * @param current current modification time of the directory
+         * @throws IOException thrown when the directory can't be listed
+         * @throws InterruptedException thrown when interrupted while queuing a subdirectory
+         */
+        private void relist(final String path, final long current) throws IOException, InterruptedException {
+            final Set<String> names = new HashSet<>();
+
+            try (MantaDirectoryListingIterator itr = client.streamingIterator(path)) {
+                while (itr.hasNext()) {
+                    if (traversal.hasFailed()) {
+                        return;
+                    }
+
+                    final MantaObject obj = itr.nextObject();
+                    final String childPath = obj.getPath();
+                    final MantaTreeIndexEntry previous = entries.get(childPath);
+
+                    names.add(childPath.substring(path.length() + 1));
+
+                    if (obj.isDirectory()) {
+                        if (previous == null || !previous.isDirectory()) {
+                            removeTree(childPath);
+                            entries.put(childPath, MantaTreeIndexEntry.of(childPath, obj).withMtime(UNKNOWN));
+                        }
+
+                        final long childMtime = mtime(obj);
+                        submit(() -> {
+                            refreshDirectory(childPath, childMtime);
+                            return null;
+                        });
+                    } else {
+                        if (previous != null && previous.isDirectory()) {
+                            removeTree(childPath);
+                        }
+
+                        entries.put(childPath, MantaTreeIndexEntry.of(childPath, obj));
+                    }
+                }
+            } catch (UncheckedIOException e) {
+                // The directory was removed after it was found
+                if (!path.equals(root) && ParallelTraversal.isNotFound(e.getCause())) {
+                    removeTree(path);
+                    return;
+                }
+
+                throw e.getCause();
+            }
+
+            final List<String> removed = new ArrayList<>();
+
+            for (Iterator<MantaTreeIndexEntry> itr = children(path); itr.hasNext();) {
+                final String childPath = itr.next().getPath();
+
+                if (!names.contains(childPath.substring(path.length() + 1))) {
+                    removed.add(childPath);
+                }
+            }
+
+            for (String childPath : removed) {
+                removeTree(childPath);
+            }
+
+            entries.computeIfPresent(path, (k, v) -> v.withMtime(current));
+            listed.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,491 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.exception.MantaException;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>Iterator that walks a directory tree in Manta using a fixed number of
+ * worker threads, each listing one directory at a time. Memory use is
+ * bounded no matter how wide or large the tree is:</p>
+ *
+ * <ul>
+ *     <li>Objects found by the workers are handed to the consumer through a
+ *     bounded queue, so workers block when the consumer falls behind.</li>
+ *     <li>Directories waiting to be listed are shared between workers
+ *     through a bounded queue. When it is full, a worker stops listing its
+ *     current directory after the entries it has already read, remembers
+ *     where it stopped as a listing marker and walks the subdirectories it
+ *     found depth-first before resuming. Each worker therefore holds at most
+ *     one batch of subdirectories per level of the tree.</li>
+ * </ul>
+ *
+ * <p>Entries are matched against {@link FindOptions} as they are read from
+ * each listing, so directories that are pruned or beyond the maximum depth
+ * are never listed, and the walk stops as soon as the limit of results has
+ * been returned.</p>
+ *
+ * <p>Results are returned in no particular order. The first page of the
+ * starting directory is requested when the walker is created, so that a
+ * missing directory or a path that isn't a directory is reported to the
+ * caller right away. Errors that occur later are thrown to the consumer from
+ * {@link #hasNext()}.</p>
+ *
+ * <p>Instances must be closed if they are not consumed fully in order to
+ * stop the worker threads.</p>
+ *
+ * @since 3.5.1
+ */
+final class MantaTreeWalker implements Iterator<MantaObject>, AutoCloseable {
+    /**
+     * Default maximum number of directories waiting to be listed that are
+     * shared between workers.
+     */
+    static final int DEFAULT_DIRECTORY_QUEUE_CAPACITY = 1024;
+
+    /**
+     * Default maximum number of objects found but not yet returned to the consumer.
+     */
+    static final int DEFAULT_OUTPUT_QUEUE_CAPACITY = 4096;
+
+    /**
+     * Number of entries read from a listing between attempts to share the
+     * subdirectories found with other workers.
+     */
+    private static final int BATCH_SIZE = MantaDirectoryListingIterator.MAX_RESULTS;
+
+    /**
+     * Marker placed on the directory queue for each idle worker when the
+     * walk has finished, so that it stops waiting for directories.
+     */
+    private static final Cursor STOP = new Cursor(null, null, 0, null);
+
+    /**
+     * Marker placed on the output queue when the walk has finished.
+     */
+    private static final Object END = new Object();
+
+    /**
+     * Client used to list directories.
+     */
+    private final MantaClient client;
+
+    /**
+     * Options deciding which entries are returned and which directories are walked.
+     */
+    private final FindOptions options;
+
+    /**
+     * Maximum number of results to return.
+     */
+    private final long limit;
+
+    /**
+     * Number of results returned so far.
+     */
+    private long returned = 0;
+
+    /**
+     * Bounded queue of directories waiting to be listed by any worker.
+     */
+    private final BlockingQueue<Cursor> directories;
+
+    /**
+     * Bounded queue of objects found and failures, followed by {@link #END}.
+     */
+    private final BlockingQueue<Object> output;
+
+    /**
+     * Number of worker threads.
+     */
+    private final int concurrency;
+
+    /**
+     * Worker threads.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Number of directory listings, including partially completed listings,
+     * that haven't been completed yet.
+     */
+    private final AtomicLong outstanding = new AtomicLong(1);
+
+    /**
+     * Next result to return or null if it hasn't been taken from the queue.
+     */
+    private Object next;
+
+    /**
+     * Flag indicating that all results have been returned or the walker was closed.
+     */
+    private volatile boolean finished = false;
+
+    /**
+     * Creates a new instance, requests the first page of the starting
+     * directory and starts the worker threads.
+     *
+     * @param client client used to list directories
+     * @param path directory to walk
+     * @param options options deciding which entries are returned and which directories are walked
+     * @param concurrency number of worker threads
+     * @param directoryCapacity maximum number of directories shared between workers
+     * @param outputCapacity maximum number of objects found but not yet returned
+     */
+    MantaTreeWalker(final MantaClient client,
+                    final String path,
+                    final FindOptions options,
+                    final int concurrency,
+                    final int directoryCapacity,
+                    final int outputCapacity) {
+        Validate.notNull(client, "Manta client must not be null");
+        Validate.notBlank(path, "Path must not be blank");
+        Validate.notNull(options, "Find options must not be null");
+        Validate.isTrue(concurrency > 0, "Concurrency must be greater than zero");
+        Validate.isTrue(directoryCapacity > 0, "Directory queue capacity must be greater than zero");
+        Validate.isTrue(outputCapacity > 0, "Output queue capacity must be greater than zero");
+
+        this.client = client;
+        this.options = options;
+        this.concurrency = concurrency;
+
+        if (options.getLimit() == null) {
+            this.limit = Long.MAX_VALUE;
+        } else {
+            this.limit = options.getLimit();
+        }
+
+        this.directories = new ArrayBlockingQueue<>(directoryCapacity);
+        this.output = new ArrayBlockingQueue<>(outputCapacity);
+
+        final MantaDirectoryListingIterator root = client.streamingIterator(path);
+
+        try {
+            root.hasNext();
+        } catch (RuntimeException e) {
+            root.close();
+            throw e;
+        }
+
+        directories.add(new Cursor(path, null, 1, root));
+
+        this.executor = Executors.newFixedThreadPool(concurrency, new BasicThreadFactory.Builder()
+                .namingPattern("manta-find-%d")
+                .daemon(true)
+                .build());
+
+        for (int i = 0; i < concurrency; i++) {
+            executor.execute(this::work);
+        }
+
+        executor.shutdown();
+    }
+
+    /**
+     * Worker loop that lists directories until the walk has finished or the
+     * walker is closed.
+     */
+    private void work() {
+        final Deque<Cursor> local = new ArrayDeque<>();
+
+        try {
+            while (!finished) {
+                /* Hand the shallowest of our pending directories to idle
+                 * workers when there is room, because they are the most
+                 * likely to contain large subtrees. */
+                Cursor shallowest;
+                while ((shallowest = local.peekFirst()) != null && directories.offer(shallowest)) {
+                    local.pollFirst();
+                }
+
+                Cursor cursor = local.pollLast();
+
+                if (cursor == null) {
+                    cursor = directories.take();
+                }
+
+                if (cursor == STOP) {
+                    return;
+                }
+
+                walk(cursor, local);
+
+                if (outstanding.decrementAndGet() == 0) {
+                    /* Nothing is left to list, so every other worker is
+                     * waiting for a directory and must be told to stop. */
+                    for (int i = 1; i < concurrency; i++) {
+                        directories.put(STOP);
+                    }
+
+                    output.put(END);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            /* Results that haven't been returned are discarded to make room
+             * for the failure, because the walk can't be completed. */
+            final Failure failure = new Failure(e);
+
+            while (!finished && !output.offer(failure)) {
+                output.poll();
+            }
+        } finally {
+            for (Cursor cursor : local) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Lists a single directory, sending the objects found to the consumer
+     * and queuing the subdirectories found. If the shared queue of directories
+     * is full, the listing is stopped after the current batch and is queued
+     * locally to be resumed after the subdirectories found have been walked.
+     *
+     * @param cursor directory to list and the position to start at
+     * @param local directories waiting to be listed by this worker
+     * @throws InterruptedException thrown when interrupted while waiting for the consumer
+     */
+    private void walk(final Cursor cursor, final Deque<Cursor> local) throws InterruptedException {
+        final List<Cursor> found = new ArrayList<>();
+        int batch = 0;
+
+        try (MantaDirectoryListingIterator itr = cursor.open(client)) {
+            while (!finished && itr.hasNext()) {
+                final MantaObject obj = itr.nextObject();
+
+                if (options.matches(obj)) {
+                    output.put(obj);
+                }
+
+                if (obj.isDirectory() && options.shouldDescend(obj, cursor.depth)) {
+                    outstanding.incrementAndGet();
+                    found.add(new Cursor(obj.getPath(), null, cursor.depth + 1, null));
+                }
+
+                if (++batch == BATCH_SIZE) {
+                    batch = 0;
+
+                    if (!share(found) && itr.hasNext()) {
+                        outstanding.incrementAndGet();
+                        local.addLast(new Cursor(cursor.path, itr.getLastMarker(), cursor.depth, null));
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (!share(found)) {
+            local.addAll(found);
+        }
+    }
+
+    /**
+     * Moves as many directories as there is room for to the shared queue.
+     *
+     * @param found directories found by a worker, updated to contain the
+     *              directories that weren't moved
+     * @return true if all directories were moved
+     */
+    private boolean share(final List<Cursor> found) {
+        int shared = 0;
+
+        while (shared < found.size() && directories.offer(found.get(shared))) {
+            shared++;
+        }
+
+        found.subList(0, shared).clear();
+
+        return found.isEmpty();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+
+        if (finished) {
+            return false;
+        }
+
+        if (returned >= limit) {
+            close();
+            return false;
+        }
+
+        try {
+            next = output.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new MantaException("Interrupted while waiting for results", e);
+        }
+
+        if (next == END) {
+            next = null;
+            close();
+            return false;
+        }
+
+        if (next instanceof Failure) {
+            final RuntimeException cause = ((Failure) next).cause;
+            next = null;
+            close();
+            throw cause;
+        }
+
+        return true;
+    }
+
+    @Override
+    public MantaObject next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final MantaObject result = (MantaObject) next;
+        next = null;
+        returned++;
+        return result;
+    }
+
+    /**
+     * Stops the worker threads and discards any results that haven't been returned.
+     */
+    @Override
+    public void close() {
+        finished = true;
+        executor.shutdownNow();
+        output.clear();
+
+        Cursor cursor;
+        while ((cursor = directories.poll()) != null) {
+            cursor.close();
+        }
+    }
+
+    /**
+     * @return a sequential stream of the results that closes this walker when it is closed
+     */
+    Stream<MantaObject> stream() {
+        final int characteristics = Spliterator.NONNULL | Spliterator.DISTINCT | Spliterator.CONCURRENT;
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, characteristics), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Directory waiting to be listed along with where to start listing it.
+     */
+    private static final class Cursor {
+        /**
+         * Path of the directory.
+         */
+        private final String path;
+
+        /**
+         * Name of the entry to start after or null to start at the beginning.
+         */
+        private final String marker;
+
+        /**
+         * Depth of the entries of the directory relative to the starting directory.
+         */
+        private final int depth;
+
+        /**
+         * Listing that was already opened or null.
+         */
+        private final MantaDirectoryListingIterator opened;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param path path of the directory
+         * @param marker name of the entry to start after or null to start at the beginning
+         * @param depth depth of the entries of the directory relative to the starting directory
+         * @param opened listing that was already opened or null
+         */
+        Cursor(final String path, final String marker, final int depth,
+               final MantaDirectoryListingIterator opened) {
+            this.path = path;
+            this.marker = marker;
+            this.depth = depth;
+            this.opened = opened;
+        }
+
+        /**
+         * Opens the listing of the directory at the position of this cursor.
+         *
+         * @param client client used to list directories
+         * @return listing of the directory
+         */
+        MantaDirectoryListingIterator open(final MantaClient client) {
+            if (opened != null) {
+                return opened;
+            }
+
+            final MantaDirectoryListingIterator itr = client.streamingIterator(path);
+
+            if (marker != null) {
+                itr.startAfter(marker);
+            }
+
+            return itr;
+        }
+
+        /**
+         * Releases the listing that was already opened, if any.
+         */
+        void close() {
+            if (opened != null) {
+                opened.close();
+            }
+        }
+    }
+
+    /**
+     * Wrapper for an exception thrown while walking the tree.
+     */
+    private static final class Failure {
+        /**
+         * Exception thrown while walking the tree.
+         */
+        private final RuntimeException cause;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param cause exception thrown while walking the tree
+         */
+        Failure(final RuntimeException cause) {
+            this.cause = cause;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.exception.MantaClientHttpResponseException;
+import com.joyent.manta.exception.MantaErrorCode;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>Scaffolding shared by the operations that walk a directory tree with
+ * pools of worker threads, where each task may submit further tasks for the
+ * directories it finds.</p>
+ *
+ * <p>The traversal counts the tasks that haven't completed and records the
+ * first failure. Once a task has failed, tasks that haven't started are
+ * skipped and {@link #await(String)} rethrows the failure to the caller.
+ * Pools may bound the number of tasks waiting for a worker, so that the
+ * tasks submitting them pause when the workers fall behind.</p>
+ *
+ * <p>Instances must be closed to stop the worker threads.</p>
+ *
+ * @since 3.5.1
+ */
+final class ParallelTraversal implements AutoCloseable {
+    /**
+     * Pools created for the traversal.
+     */
+    private final List<Pool> pools = new ArrayList<>();
+
+    /**
+     * Number of tasks submitted that haven't completed.
+     */
+    private final AtomicLong outstanding = new AtomicLong();
+
+    /**
+     * First failure or null.
+     */
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    /**
+     * Creates a pool of workers without a bound on the tasks waiting for a worker.
+     *
+     * @param namingPattern naming pattern of the worker threads
+     * @param threads number of worker threads
+     * @return new pool
+     */
+    Pool pool(final String namingPattern, final int threads) {
+        return pool(namingPattern, threads, 0);
+    }
+
+    /**
+     * Creates a pool of workers. Tasks running on a bounded pool must not
+     * submit tasks to the same pool, as they could wait for each other.
+     *
+     * @param namingPattern naming pattern of the worker threads
+     * @param threads number of worker threads
+     * @param maxQueued maximum number of tasks submitted that haven't
+     *                  completed or 0 for no limit
+     * @return new pool
+     */
+    Pool pool(final String namingPattern, final int threads, final int maxQueued) {
+        Validate.isTrue(threads > 0, "Threads must be greater than zero");
+        Validate.isTrue(maxQueued >= 0, "Maximum queued tasks must not be negative");
+
+        final Pool pool = new Pool(namingPattern, threads, maxQueued);
+
+        synchronized (pools) {
+            pools.add(pool);
+        }
+
+        return pool;
+    }
+
+    /**
+     * Queues a task to a pool, waiting while the pool has too many tasks
+     * queued. The task is skipped if another task has failed by the time it
+     * starts.
+     *
+     * @param pool pool to run the task
+     * @param task task to run
+     * @throws InterruptedException thrown when interrupted while waiting for the pool
+     */
+    void execute(final Pool pool, final Callable<?> task) throws InterruptedException {
+        start(pool, track(pool, task));
+    }
+
+    /**
+     * Queues a task to a pool like {@link #execute(Pool, Callable)} and
+     * returns a future that can be passed to {@link #await(Future)}.
+     * Failures are recorded rather than reported by the future.
+     *
+     * @param pool pool to run the task
+     * @param task task to run
+     * @return future completing when the task has completed or was skipped
+     * @throws InterruptedException thrown when interrupted while waiting for the pool
+     */
+    Future<?> submit(final Pool pool, final Callable<?> task) throws InterruptedException {
+        final FutureTask<Void> future = new FutureTask<>(track(pool, task), null);
+        start(pool, future);
+        return future;
+    }
+
+    /**
+     * @return true if a task has failed
+     */
+    boolean hasFailed() {
+        return failure.get() != null;
+    }
+
+    /**
+     * Records a failure, causing tasks that haven't started to be skipped
+     * and releasing the waiting caller. Only the first failure is kept.
+     *
+     * @param e exception that stopped the traversal
+     */
+    void fail(final Exception e) {
+        if (failure.compareAndSet(null, e)) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until all of the tasks have completed or a task has failed.
+     *
+     * @param action description of the traversal for the interruption message
+     * @throws IOException thrown when a task failed
+     */
+    void await(final String action) throws IOException {
+        synchronized (this) {
+            while (outstanding.get() > 0 && !hasFailed()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while " + action);
+                }
+            }
+        }
+
+        rethrowFailure();
+    }
+
+    /**
+     * Waits for a single task to complete or be skipped.
+     *
+     * @param task future returned when the task was submitted
+     * @throws IOException thrown when a task failed
+     * @throws InterruptedException thrown when interrupted while waiting
+     */
+    void await(final Future<?> task) throws IOException, InterruptedException {
+        try {
+            task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+
+            fail((Exception) e.getCause());
+        }
+
+        rethrowFailure();
+    }
+
+    /**
+     * Rethrows the first failure recorded, if any.
+     *
+     * @throws IOException thrown when a task failed
+     */
+    void rethrowFailure() throws IOException {
+        final Exception e = failure.get();
+
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        } else if (e instanceof IOException) {
+            throw (IOException) e;
+        } else if (e != null) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Stops the worker threads of all of the pools.
+     */
+    @Override
+    public void close() {
+        synchronized (pools) {
+            for (Pool pool : pools) {
+                pool.executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Wraps a task so that it is skipped after a failure, its failure is
+     * recorded and its completion is counted.
+     *
+     * @param pool pool that the task is submitted to
+     * @param task task to run
+     * @return runnable to execute on the pool
+     */
+    private Runnable track(final Pool pool, final Callable<?> task) {
+        return () -> {
+            try {
+                if (!hasFailed()) {
+                    task.call();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                fail(e);
+            } finally {
+                completed(pool);
+            }
+        };
+    }
+
+    /**
+     * Counts a task as outstanding and executes it, waiting while the pool
+     * has too many tasks queued.
+     *
+     * @param pool pool to run the task
+     * @param runnable tracked task
+     * @throws InterruptedException thrown when interrupted while waiting for the pool
+     */
+    private void start(final Pool pool, final Runnable runnable) throws InterruptedException {
+        if (pool.queued != null) {
+            pool.queued.acquire();
+        }
+
+        outstanding.incrementAndGet();
+
+        try {
+            pool.executor.execute(runnable);
+        } catch (RejectedExecutionException e) {
+            completed(pool);
+            throw e;
+        }
+    }
+
+    /**
+     * Records that a task has completed or was skipped.
+     *
+     * @param pool pool that the task was submitted to
+     */
+    private void completed(final Pool pool) {
+        if (pool.queued != null) {
+            pool.queued.release();
+        }
+
+        if (outstanding.decrementAndGet() == 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Determines if a request failed because the path doesn't exist, which
+     * happens when an entry is removed after its directory was listed.
+     *
+     * @param e exception thrown by a request
+     * @return true if the exception indicates that the path doesn't exist
+     */
+    static boolean isNotFound(final Throwable e) {
+        if (!(e instanceof MantaClientHttpResponseException)) {
+            return false;
+        }
+
+        final MantaClientHttpResponseException response = (MantaClientHttpResponseException) e;
+
+        return response.getStatusCode() == HttpStatus.SC_NOT_FOUND
+                || MantaErrorCode.RESOURCE_NOT_FOUND_ERROR.equals(response.getServerCode());
+    }
+
+    /**
+     * Fixed number of worker threads belonging to a traversal.
+     */
+    static final class Pool {
+        /**
+         * Worker threads.
+         */
+        private final ExecutorService executor;
+
+        /**
+         * Permits for tasks that have been submitted but haven't completed
+         * or null for no limit.
+         */
+        private final Semaphore queued;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param namingPattern naming pattern of the worker threads
+         * @param threads number of worker threads
+         * @param maxQueued maximum number of tasks submitted that haven't
+         *                  completed or 0 for no limit
+         */
+        private Pool(final String namingPattern, final int threads, final int maxQueued) {
+            this.executor = Executors.newFixedThreadPool(threads, new BasicThreadFactory.Builder()
+                    .namingPattern(namingPattern)
+                    .daemon(true)
+                    .build());
+
+            if (maxQueued == 0) {
+                this.queued = null;
+            } else {
+                this.queued = new Semaphore(maxQueued);
+            }
+        }
+    }
+}
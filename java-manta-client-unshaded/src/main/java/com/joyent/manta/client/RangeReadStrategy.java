@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.exception.MantaIOException;
+import com.joyent.manta.http.HttpRange;
+import com.joyent.manta.http.MantaHttpHeaders;
+import com.joyent.manta.http.ParallelRangeDownloader;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * <p>Utility class that reads many byte ranges of a single object with as
+ * few requests as possible. Requested ranges are sorted and any ranges that
+ * overlap or are separated by no more than a maximum gap are merged into a
+ * single span. Each span is then read with one ranged GET, with the spans
+ * read concurrently by {@link ParallelRangeDownloader} on an executor
+ * supplied by the caller, and the requested ranges are returned as views of
+ * the span buffers so that no data is copied.</p>
+ *
+ * <p>The etags of all of the responses are compared so that data from
+ * different versions of an object is never mixed.</p>
+ *
+ * @since 3.5.1
+ */
+final class RangeReadStrategy {
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(RangeReadStrategy.class);
+
+    /**
+     * Default maximum number of unrequested bytes between two ranges for them
+     * to be read with a single request. Reading this many extra bytes is
+     * cheaper than an additional round trip.
+     */
+    static final long DEFAULT_MAX_GAP = 64 * 1024;
+
+    /**
+     * Private constructor for class only containing static methods.
+     */
+    private RangeReadStrategy() {
+    }
+
+    /**
+     * Reads byte ranges of an object.
+     *
+     * @param client Manta client used to read the object
+     * @param path fully qualified path of the object
+     * @param ranges ranges to read
+     * @param maxGap maximum number of unrequested bytes between two ranges
+     *               for them to be read with a single request
+     * @param concurrency maximum number of concurrent requests
+     * @param executor executor that runs the concurrent requests
+     * @return one read-only buffer per requested range in the order requested
+     * @throws IOException thrown when a range can't be read in full
+     */
+    static List<ByteBuffer> read(final MantaClient client,
+                                 final String path,
+                                 final List<HttpRange.BoundedRequest> ranges,
+                                 final long maxGap,
+                                 final int concurrency,
+                                 final Executor executor) throws IOException {
+        Validate.isTrue(maxGap >= 0, "Maximum gap must not be negative");
+        Validate.isTrue(concurrency > 0, "Concurrency must be greater than 0");
+        Validate.notNull(executor, "Executor must not be null");
+
+        for (HttpRange.BoundedRequest range : ranges) {
+            Validate.notNull(range, "Ranges must not contain null elements");
+            Validate.isTrue(range.getStartInclusive() >= 0
+                            && range.getEndInclusive() >= range.getStartInclusive()
+                            && range.getEndInclusive() - range.getStartInclusive() < Integer.MAX_VALUE,
+                    "Invalid range: %s", range);
+        }
+
+        if (ranges.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final List<Span> spans = merge(ranges, maxGap);
+        LOG.debug("Reading {} ranges of [{}] with {} requests", ranges.size(), path, spans.size());
+
+        ParallelRangeDownloader.download(path, spans, concurrency, executor, span -> fetch(client, path, span));
+
+        verifySameVersion(path, spans);
+
+        final ByteBuffer[] results = new ByteBuffer[ranges.size()];
+
+        for (Span span : spans) {
+            for (int index : span.members) {
+                final HttpRange.BoundedRequest range = ranges.get(index);
+                final int offset = Math.toIntExact(range.getStartInclusive() - span.start);
+                final int length = Math.toIntExact(range.getEndInclusive() - range.getStartInclusive() + 1);
+
+                results[index] = ByteBuffer.wrap(span.data, offset, length).slice().asReadOnlyBuffer();
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Merges ranges that overlap or are close together into spans.
+     *
+     * @param ranges ranges to merge
+     * @param maxGap maximum number of unrequested bytes between two ranges
+     *               for them to be merged
+     * @return spans covering all of the ranges in ascending order
+     */
+    static List<Span> merge(final List<HttpRange.BoundedRequest> ranges, final long maxGap) {
+        final Integer[] order = new Integer[ranges.size()];
+
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+
+        Arrays.sort(order, Comparator.comparingLong(i -> ranges.get(i).getStartInclusive()));
+
+        final List<Span> spans = new ArrayList<>();
+        Span current = null;
+
+        for (int index : order) {
+            final HttpRange.BoundedRequest range = ranges.get(index);
+            final long start = range.getStartInclusive();
+            final long end = range.getEndInclusive();
+
+            /* Spans are read into a single array, so they are limited in size. */
+            if (current != null
+                    && start - current.end - 1 <= maxGap
+                    && Math.max(current.end, end) - current.start < Integer.MAX_VALUE) {
+                current.end = Math.max(current.end, end);
+                current.members.add(index);
+            } else {
+                current = new Span(start, end);
+                current.members.add(index);
+                spans.add(current);
+            }
+        }
+
+        return spans;
+    }
+
+    /**
+     * Reads a span with a single ranged GET.
+     *
+     * @param client Manta client used to read the object
+     * @param path fully qualified path of the object
+     * @param span span to read, populated with its data and etag
+     * @throws IOException thrown when the span can't be read in full
+     */
+    private static void fetch(final MantaClient client, final String path, final Span span) throws IOException {
+        final MantaHttpHeaders headers = new MantaHttpHeaders();
+        headers.setByteRange(span.start, span.end);
+
+        final byte[] data = new byte[Math.toIntExact(span.end - span.start + 1)];
+
+        try (MantaObjectInputStream in = client.getAsInputStream(path, headers)) {
+            IOUtils.readFully(in, data);
+            span.etag = in.getEtag();
+        }
+
+        span.data = data;
+    }
+
+    /**
+     * Verifies that all spans were read from the same version of the object.
+     *
+     * @param path fully qualified path of the object
+     * @param spans spans read
+     * @throws MantaIOException thrown when the object changed between requests
+     */
+    private static void verifySameVersion(final String path, final List<Span> spans) throws MantaIOException {
+        final String etag = spans.get(0).etag;
+
+        for (Span span : spans) {
+            if (!Objects.equals(etag, span.etag)) {
+                MantaIOException e = new MantaIOException("Object changed while its ranges were being read");
+                e.setContextValue("path", path);
+                e.setContextValue("expectedEtag", etag);
+                e.setContextValue("actualEtag", span.etag);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Contiguous region of an object covering one or more requested ranges.
+     */
+    static final class Span {
+        /**
+         * Position of the first byte of the span.
+         */
+        private final long start;
+
+        /**
+         * Position of the last byte of the span.
+         */
+        private long end;
+
+        /**
+         * Indexes of the requested ranges covered by this span.
+         */
+        private final List<Integer> members = new ArrayList<>();
+
+        /**
+         * Data read for the span or null if it hasn't been read.
+         */
+        private byte[] data;
+
+        /**
+         * Etag of the object when the span was read.
+         */
+        private String etag;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param start position of the first byte of the span
+         * @param end position of the last byte of the span
+         */
+        Span(final long start, final long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        long getStart() {
+            return start;
+        }
+
+        long getEnd() {
+            return end;
+        }
+
+        List<Integer> getMembers() {
+            return members;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.exception.MantaClientHttpResponseException;
+import com.joyent.manta.exception.MantaErrorCode;
+import com.joyent.manta.exception.MantaIOException;
+import org.apache.commons.lang3.Validate;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.joyent.manta.config.DefaultsConfigContext.DEFAULT_PRUNE_DEPTH;
+
+/**
+ * <p>Utility class that deletes a directory tree in a single parallel
+ * post-order pass.</p>
+ *
+ * <p>Each directory is listed once. Objects are deleted as they are read
+ * from the listing by a pool of delete workers, while subdirectories are
+ * queued to be listed by a separate pool of listing workers. Every directory
+ * keeps a count of its children that haven't been deleted yet, and the
+ * directory is deleted by whichever thread deletes its last child, which in
+ * turn counts down its parent. The tree is never sorted and the listing is
+ * never held in memory: the number of deletes waiting for a worker is
+ * bounded, so listing pauses when deleting falls behind, and only one small
+ * record per directory that hasn't been deleted yet is retained.</p>
+ *
+ * <p>If a directory can't be deleted because something was added to it
+ * while it was being deleted, it is listed again, up to the number of
+ * retries configured for the client.</p>
+ *
+ * @since 3.5.1
+ */
+final class RecursiveDeleteStrategy {
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(RecursiveDeleteStrategy.class);
+
+    /**
+     * Number of deletes that may wait for a worker per delete worker.
+     */
+    private static final int QUEUED_DELETES_PER_WORKER = 4;
+
+    /**
+     * Number of workers deleting objects per worker listing directories.
+     */
+    private static final int DELETE_WORKERS_PER_LISTING_WORKER = 3;
+
+    /**
+     * Client used to list and delete.
+     */
+    private final MantaClient client;
+
+    /**
+     * Number of attempts made for a request that fails because of contention
+     * and for a directory that is still not empty.
+     */
+    private final int attempts;
+
+    /**
+     * Traversal tracking the listings and deletes and their failures. It
+     * completes once the starting directory has been deleted, which is done
+     * by the last task to complete.
+     */
+    private final ParallelTraversal traversal = new ParallelTraversal();
+
+    /**
+     * Workers listing directories.
+     */
+    private final ParallelTraversal.Pool listingWorkers;
+
+    /**
+     * Workers deleting objects, with a bounded number of deletes waiting for
+     * a worker.
+     */
+    private final ParallelTraversal.Pool deleteWorkers;
+
+    /**
+     * Number of objects and directories deleted.
+     */
+    private final AtomicLong deleted = new AtomicLong();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param client client used to list and delete
+     * @param concurrency maximum number of concurrent requests
+     */
+    private RecursiveDeleteStrategy(final MantaClient client, final int concurrency) {
+        this.client = client;
+
+        final Integer retries = client.getContext().getRetries();
+
+        if (retries == null || retries < 1) {
+            this.attempts = 1;
+        } else {
+            this.attempts = retries;
+        }
+
+        final int listingThreads = Math.max(1, concurrency / (DELETE_WORKERS_PER_LISTING_WORKER + 1));
+        final int deleteThreads = Math.max(1, concurrency - listingThreads);
+
+        this.listingWorkers = traversal.pool("manta-delete-list-%d", listingThreads);
+        this.deleteWorkers = traversal.pool("manta-delete-%d", deleteThreads,
+                deleteThreads * QUEUED_DELETES_PER_WORKER);
+    }
+
+    /**
+     * Deletes a directory and everything below it.
+     *
+     * @param client client used to list and delete
+     * @param path path of the directory to delete
+     * @param concurrency maximum number of concurrent requests
+     * @throws IOException thrown when a listing or delete request fails
+     */
+    static void deleteRecursive(final MantaClient client, final String path, final int concurrency)
+            throws IOException {
+        Validate.isTrue(concurrency > 0, "Concurrency must be greater than zero");
+
+        final RecursiveDeleteStrategy strategy = new RecursiveDeleteStrategy(client, concurrency);
+
+        try {
+            strategy.run(path);
+        } finally {
+            strategy.traversal.close();
+        }
+    }
+
+    /**
+     * Deletes the tree and waits for completion.
+     *
+     * @param path path of the directory to delete
+     * @throws IOException thrown when a listing or delete request fails
+     */
+    private void run(final String path) throws IOException {
+        final long start = System.nanoTime();
+
+        try {
+            submitListing(new Directory(path, null));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while deleting " + path);
+        }
+
+        traversal.await("deleting " + path);
+
+        LOG.debug("Finished deleting path {}: {} objects and directories deleted in {} ms",
+                path, deleted.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Queues a directory to be listed.
+     *
+     * @param directory directory to list
+     * @throws InterruptedException thrown when interrupted while queuing the listing
+     */
+    private void submitListing(final Directory directory) throws InterruptedException {
+        traversal.execute(listingWorkers, () -> {
+            list(directory);
+            return null;
+        });
+    }
+
+    /**
+     * Lists a directory, deleting its objects and queuing its subdirectories.
+     *
+     * @param directory directory to list
+     * @throws IOException thrown when the listing fails
+     * @throws InterruptedException thrown when interrupted while waiting for a delete worker
+     */
+    private void list(final Directory directory) throws IOException, InterruptedException {
+        try (MantaDirectoryListingIterator itr = client.streamingIterator(directory.path)) {
+            while (!traversal.hasFailed() && itr.hasNext()) {
+                final MantaObject obj = itr.nextObject();
+                directory.remaining.incrementAndGet();
+
+                if (obj.isDirectory()) {
+                    submitListing(new Directory(obj.getPath(), directory));
+                } else {
+                    traversal.execute(deleteWorkers, () -> {
+                        tryDelete(obj.getPath(), DEFAULT_PRUNE_DEPTH);
+                        childDeleted(directory);
+                        return null;
+                    });
+                }
+            }
+        } catch (UncheckedIOException e) {
+            /* A subdirectory that disappeared while it was waiting to be
+             * listed has nothing left to delete. */
+            if (directory.parent == null || !ParallelTraversal.isNotFound(e.getCause())) {
+                throw e.getCause();
+            }
+        }
+
+        // The listing itself is no longer holding the directory back
+        childDeleted(directory);
+    }
+
+    /**
+     * Records that a child of a directory, or the listing of the directory,
+     * has completed, and deletes the directory if it was the last one.
+     *
+     * @param directory directory that the child belonged to
+     * @throws IOException thrown when the directory can't be deleted
+     * @throws InterruptedException thrown when interrupted while queuing the directory to be listed again
+     */
+    private void childDeleted(final Directory directory) throws IOException, InterruptedException {
+        if (directory.remaining.decrementAndGet() != 0 || traversal.hasFailed()) {
+            return;
+        }
+
+        final boolean removed;
+
+        if (directory.parent == null) {
+            // The starting directory is deleted as a regular delete would be
+            removed = tryDelete(directory.path, null);
+        } else {
+            removed = tryDelete(directory.path, DEFAULT_PRUNE_DEPTH);
+        }
+
+        if (!removed) {
+            if (directory.listings.incrementAndGet() > attempts) {
+                MantaIOException e = new MantaIOException("Directory is still not empty after being emptied");
+                e.setContextValue("path", directory.path);
+                e.setContextValue("attempts", attempts);
+                throw e;
+            }
+
+            LOG.debug("Directory {} was modified while it was being deleted, listing it again", directory.path);
+            directory.remaining.set(1);
+            submitListing(directory);
+            return;
+        }
+
+        if (directory.parent != null) {
+            childDeleted(directory.parent);
+        }
+    }
+
+    /**
+     * Deletes an object or directory, retrying when a connection isn't
+     * available. Paths that no longer exist are considered deleted.
+     *
+     * @param path path to delete
+     * @param pruneDepth parent pruning depth or null to use the configured depth
+     * @return false if the path is a directory that isn't empty
+     * @throws IOException thrown when the path can't be deleted
+     */
+    private boolean tryDelete(final String path, final Integer pruneDepth) throws IOException {
+        for (int attempt = 1;; attempt++) {
+            try {
+                if (pruneDepth == null) {
+                    client.delete(path);
+                } else {
+                    client.delete(path, null, pruneDepth);
+                }
+
+                deleted.incrementAndGet();
+                return true;
+            } catch (MantaClientHttpResponseException e) {
+                if (ParallelTraversal.isNotFound(e)) {
+                    return true;
+                }
+
+                if (MantaErrorCode.DIRECTORY_NOT_EMPTY_ERROR.equals(e.getServerCode())) {
+                    return false;
+                }
+
+                throw e;
+            } catch (ConnectionPoolTimeoutException e) {
+                /* Waiting too long for a connection from the pool means that
+                 * other requests are saturating it, so we try again until
+                 * the retries are exhausted. */
+                if (attempt >= attempts) {
+                    throw e;
+                }
+
+                LOG.debug("{} for deleting {}", e.getMessage(), path);
+            }
+        }
+    }
+
+    /**
+     * Directory waiting for its children to be deleted.
+     */
+    private static final class Directory {
+        /**
+         * Path of the directory.
+         */
+        private final String path;
+
+        /**
+         * Parent directory or null for the starting directory.
+         */
+        private final Directory parent;
+
+        /**
+         * Number of children that haven't been deleted, plus one while the
+         * directory is being listed.
+         */
+        private final AtomicInteger remaining = new AtomicInteger(1);
+
+        /**
+         * Number of times the directory was found to be not empty after its
+         * children had been deleted.
+         */
+        private final AtomicInteger listings = new AtomicInteger();
+
+        /**
+         * Creates a new instance.
+         *
+         * @param path path of the directory
+         * @param parent parent directory or null for the starting directory
+         */
+        Directory(final String path, final Directory parent) {
+            this.path = path;
+            this.parent = parent;
+        }
+    }
+}
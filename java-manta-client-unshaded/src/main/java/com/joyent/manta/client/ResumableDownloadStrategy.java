@@ -0,0 +1,434 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.exception.MantaClientHttpResponseException;
+import com.joyent.manta.exception.MantaIOException;
+import com.joyent.manta.http.MantaHttpHeaders;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * <p>Utility class that downloads an object to a local file while recording
+ * its progress in a small sidecar checkpoint file. If the download is
+ * interrupted (even by a JVM restart), calling it again for the same target
+ * continues from the last checkpoint using a ranged GET that is conditional
+ * on the object's etag via <code>If-Match</code>.</p>
+ *
+ * <p>Data is written to <code>[target].part</code> and progress is recorded
+ * in <code>[target].part.checkpoint</code>. The partial file is only renamed
+ * to the target once all bytes have been received.</p>
+ *
+ * @since 3.5.1
+ */
+final class ResumableDownloadStrategy {
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(ResumableDownloadStrategy.class);
+
+    /**
+     * Suffix appended to the target file name for the partially downloaded data.
+     */
+    static final String PARTIAL_SUFFIX = ".part";
+
+    /**
+     * Suffix appended to the partial file name for the checkpoint sidecar.
+     */
+    static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    /**
+     * Number of bytes written between checkpoints.
+     */
+    static final long CHECKPOINT_INTERVAL = 8L * 1024 * 1024;
+
+    /**
+     * Size of the buffer used to copy data from the network to disk.
+     */
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Checkpoint property storing the remote path of the object.
+     */
+    private static final String KEY_PATH = "path";
+
+    /**
+     * Checkpoint property storing the etag of the object being downloaded.
+     */
+    private static final String KEY_ETAG = "etag";
+
+    /**
+     * Checkpoint property storing the total size of the object.
+     */
+    private static final String KEY_CONTENT_LENGTH = "contentLength";
+
+    /**
+     * Checkpoint property storing the number of bytes durably written.
+     */
+    private static final String KEY_BYTES_COMPLETED = "bytesCompleted";
+
+    /**
+     * Utility class with no need for instances.
+     */
+    private ResumableDownloadStrategy() {
+    }
+
+    /**
+     * Downloads the object at the specified path to the target file, resuming
+     * a previously interrupted download when a valid checkpoint is present.
+     *
+     * @param client Manta client used to issue requests
+     * @param path path of the remote object
+     * @param target local file to write to
+     * @return the number of bytes transferred by this invocation
+     * @throws IOException thrown when there is a problem downloading or writing the object
+     */
+    static long download(final MantaClient client,
+                         final String path,
+                         final Path target) throws IOException {
+        Validate.notNull(client, "Manta client must not be null");
+        Validate.notBlank(path, "Path must not be blank");
+        Validate.notNull(target, "Target must not be null");
+
+        final Path partial = target.resolveSibling(target.getFileName() + PARTIAL_SUFFIX);
+        final Path checkpointFile = partial.resolveSibling(partial.getFileName() + CHECKPOINT_SUFFIX);
+
+        final Checkpoint checkpoint = readCheckpoint(checkpointFile, partial, path);
+
+        try {
+            return transfer(client, path, partial, checkpointFile, checkpoint, target);
+        } catch (MantaClientHttpResponseException e) {
+            /* The object changed since the checkpoint was written, so the
+             * bytes on disk are no longer usable and we start over. */
+            if (checkpoint != null && e.getStatusCode() == HttpStatus.SC_PRECONDITION_FAILED) {
+                LOG.info("Object [{}] changed since download checkpoint was written, restarting", path);
+                Files.deleteIfExists(checkpointFile);
+                Files.deleteIfExists(partial);
+
+                return transfer(client, path, partial, checkpointFile, null, target);
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Performs a single GET and copies its body into the partial file.
+     *
+     * @param client Manta client used to issue requests
+     * @param path path of the remote object
+     * @param partial partially downloaded file
+     * @param checkpointFile sidecar checkpoint file
+     * @param checkpoint valid checkpoint to resume from or null to start over
+     * @param target local file to move the completed download to
+     * @return the number of bytes transferred
+     * @throws IOException thrown when there is a problem downloading or writing the object
+     */
+    private static long transfer(final MantaClient client,
+                                 final String path,
+                                 final Path partial,
+                                 final Path checkpointFile,
+                                 final Checkpoint checkpoint,
+                                 final Path target) throws IOException {
+        final long offset;
+
+        if (checkpoint == null) {
+            offset = 0L;
+        } else {
+            offset = checkpoint.bytesCompleted;
+        }
+
+        if (checkpoint != null && checkpoint.contentLength != null && offset == checkpoint.contentLength) {
+            LOG.debug("Download of [{}] was already complete, finalizing", path);
+            finish(partial, checkpointFile, target);
+            return 0L;
+        }
+
+        final MantaHttpHeaders requestHeaders = new MantaHttpHeaders();
+
+        if (checkpoint != null) {
+            requestHeaders.setIfMatch(checkpoint.etag);
+            requestHeaders.setByteRange(offset, null);
+            LOG.debug("Resuming download of [{}] at byte {}", path, offset);
+        }
+
+        final long transferred;
+
+        try (MantaObjectInputStream in = client.getAsInputStream(path, requestHeaders);
+             FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE)) {
+            final Checkpoint progress;
+
+            if (checkpoint == null) {
+                channel.truncate(0);
+                progress = new Checkpoint(path, in.getEtag(), in.getContentLength(), 0L);
+            } else {
+                validateResumedRange(in, path, offset);
+                channel.truncate(offset);
+                progress = checkpoint;
+            }
+
+            channel.position(offset);
+            writeCheckpoint(checkpointFile, progress);
+
+            transferred = copy(in, channel, checkpointFile, progress);
+
+            if (progress.contentLength != null && progress.bytesCompleted != progress.contentLength) {
+                MantaIOException e = new MantaIOException("Download ended before all bytes were received");
+                e.setContextValue("path", path);
+                e.setContextValue("bytesCompleted", progress.bytesCompleted);
+                e.setContextValue("contentLength", progress.contentLength);
+                throw e;
+            }
+
+            channel.force(true);
+        }
+
+        finish(partial, checkpointFile, target);
+
+        return transferred;
+    }
+
+    /**
+     * Copies data from the network to disk, recording a checkpoint every
+     * {@link #CHECKPOINT_INTERVAL} bytes after the data has been flushed.
+     *
+     * @param in stream to read from
+     * @param channel channel positioned at the resume offset
+     * @param checkpointFile sidecar checkpoint file
+     * @param progress checkpoint updated as bytes are written
+     * @return the number of bytes copied
+     * @throws IOException thrown when reading or writing fails
+     */
+    private static long copy(final InputStream in,
+                             final FileChannel channel,
+                             final Path checkpointFile,
+                             final Checkpoint progress) throws IOException {
+        final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        final ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+        long transferred = 0;
+        long sinceCheckpoint = 0;
+        int read;
+
+        while ((read = in.read(buffer)) != -1) {
+            wrapped.clear().limit(read);
+
+            while (wrapped.hasRemaining()) {
+                channel.write(wrapped);
+            }
+
+            transferred += read;
+            sinceCheckpoint += read;
+            progress.bytesCompleted += read;
+
+            if (sinceCheckpoint >= CHECKPOINT_INTERVAL) {
+                channel.force(false);
+                writeCheckpoint(checkpointFile, progress);
+                sinceCheckpoint = 0;
+            }
+        }
+
+        return transferred;
+    }
+
+    /**
+     * Makes sure that the server honored our range request, otherwise we
+     * would be appending the wrong bytes to the partial file.
+     *
+     * @param in response stream
+     * @param path path of the remote object
+     * @param offset byte offset requested
+     * @throws MantaIOException thrown when the response doesn't start at the offset
+     */
+    private static void validateResumedRange(final MantaObjectInputStream in,
+                                             final String path,
+                                             final long offset) throws MantaIOException {
+        final String contentRange = in.getHttpHeaders().getContentRange();
+
+        if (contentRange != null && contentRange.startsWith("bytes " + offset + "-")) {
+            return;
+        }
+
+        MantaIOException e = new MantaIOException("Server did not honor the range request for a resumed download");
+        e.setContextValue("path", path);
+        e.setContextValue("offset", offset);
+        e.setContextValue("contentRange", contentRange);
+        throw e;
+    }
+
+    /**
+     * Moves the completed partial file into place and removes the checkpoint.
+     *
+     * @param partial partially downloaded file
+     * @param checkpointFile sidecar checkpoint file
+     * @param target local file to move the completed download to
+     * @throws IOException thrown when the files can't be moved or deleted
+     */
+    private static void finish(final Path partial,
+                               final Path checkpointFile,
+                               final Path target) throws IOException {
+        try {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        Files.deleteIfExists(checkpointFile);
+    }
+
+    /**
+     * Reads a checkpoint and validates it against the partial file on disk.
+     *
+     * @param checkpointFile sidecar checkpoint file
+     * @param partial partially downloaded file
+     * @param path path of the remote object
+     * @return a usable checkpoint or null when the download must start over
+     */
+    static Checkpoint readCheckpoint(final Path checkpointFile,
+                                     final Path partial,
+                                     final String path) {
+        if (!Files.isRegularFile(checkpointFile) || !Files.isRegularFile(partial)) {
+            return null;
+        }
+
+        final Properties properties = new Properties();
+
+        try (Reader reader = Files.newBufferedReader(checkpointFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+
+            final String etag = properties.getProperty(KEY_ETAG);
+            final String contentLengthProperty = properties.getProperty(KEY_CONTENT_LENGTH);
+            final long bytesCompleted = Long.parseLong(properties.getProperty(KEY_BYTES_COMPLETED, "0"));
+
+            if (!Objects.equals(path, properties.getProperty(KEY_PATH)) || StringUtils.isBlank(etag)) {
+                LOG.debug("Ignoring checkpoint [{}] because it doesn't match [{}]", checkpointFile, path);
+                return null;
+            }
+
+            /* Bytes written after the last checkpoint aren't trusted, but we
+             * can't have completed more than what is actually on disk. */
+            final long usable = Math.min(bytesCompleted, Files.size(partial));
+
+            final Long contentLength;
+
+            if (contentLengthProperty == null) {
+                contentLength = null;
+            } else {
+                contentLength = Long.valueOf(contentLengthProperty);
+            }
+
+            return new Checkpoint(path, etag, contentLength, usable);
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Unable to read download checkpoint [{}]: {}", checkpointFile, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Atomically replaces the checkpoint file with the current progress.
+     *
+     * @param checkpointFile sidecar checkpoint file
+     * @param checkpoint progress to record
+     * @throws IOException thrown when the checkpoint can't be written
+     */
+    private static void writeCheckpoint(final Path checkpointFile,
+                                        final Checkpoint checkpoint) throws IOException {
+        /* Without an etag we can't make the resumed request conditional, so
+         * there is no safe way to continue this download later. */
+        if (checkpoint.etag == null) {
+            return;
+        }
+
+        final Properties properties = new Properties();
+        properties.setProperty(KEY_PATH, checkpoint.path);
+        properties.setProperty(KEY_ETAG, checkpoint.etag);
+        properties.setProperty(KEY_BYTES_COMPLETED, Long.toString(checkpoint.bytesCompleted));
+
+        if (checkpoint.contentLength != null) {
+            properties.setProperty(KEY_CONTENT_LENGTH, Long.toString(checkpoint.contentLength));
+        }
+
+        final Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, "Manta resumable download checkpoint");
+        }
+
+        try {
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Progress of a single resumable download.
+     */
+    static final class Checkpoint {
+        /**
+         * Formatted path of the remote object.
+         */
+        private final String path;
+
+        /**
+         * Etag of the object when the download started.
+         */
+        private final String etag;
+
+        /**
+         * Total size of the object or null if unknown.
+         */
+        private final Long contentLength;
+
+        /**
+         * Number of bytes written to the partial file.
+         */
+        private long bytesCompleted;
+
+        /**
+         * Creates a new checkpoint.
+         *
+         * @param path path of the remote object
+         * @param etag etag of the object
+         * @param contentLength total size of the object or null if unknown
+         * @param bytesCompleted number of bytes written to the partial file
+         */
+        Checkpoint(final String path, final String etag, final Long contentLength, final long bytesCompleted) {
+            this.path = path;
+            this.etag = etag;
+            this.contentLength = contentLength;
+            this.bytesCompleted = bytesCompleted;
+        }
+
+        long getBytesCompleted() {
+            return bytesCompleted;
+        }
+
+        String getEtag() {
+            return etag;
+        }
+    }
+}
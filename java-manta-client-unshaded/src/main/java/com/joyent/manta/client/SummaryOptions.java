@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Options for {@link MantaClient#summarize(String, SummaryOptions)}. Setters
+ * return this instance so that calls can be chained.
+ *
+ * @since 3.5.1
+ */
+public class SummaryOptions {
+    /**
+     * Maximum number of concurrent listing requests or null to derive it
+     * from the maximum connections setting.
+     */
+    private Integer concurrency;
+
+    /**
+     * Ascending bucket boundaries of the object size histogram in bytes or null.
+     */
+    private long[] sizeBuckets;
+
+    /**
+     * Ascending bucket boundaries of the object modification time histogram
+     * in milliseconds since the epoch or null.
+     */
+    private long[] mtimeBuckets;
+
+    public Integer getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @param concurrency maximum number of concurrent listing requests or null
+     *                    to use half of the maximum connections setting
+     * @return this instance
+     */
+    public SummaryOptions setConcurrency(final Integer concurrency) {
+        Validate.isTrue(concurrency == null || concurrency > 0,
+                "Concurrency must be greater than zero");
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * @return copy of the size histogram boundaries or null
+     */
+    public long[] getSizeBuckets() {
+        if (sizeBuckets == null) {
+            return null;
+        }
+
+        return sizeBuckets.clone();
+    }
+
+    /**
+     * Counts objects by size. With boundaries <code>b0 &lt; b1 &lt; ...</code>
+     * the first bucket counts objects smaller than <code>b0</code>, the
+     * second those from <code>b0</code> up to but excluding <code>b1</code>
+     * and the last those of at least the last boundary.
+     *
+     * @param boundaries strictly ascending sizes in bytes, or none to disable
+     *                   the histogram
+     * @return this instance
+     */
+    public SummaryOptions setSizeBuckets(final long... boundaries) {
+        this.sizeBuckets = ascending(boundaries);
+        return this;
+    }
+
+    /**
+     * @return copy of the modification time histogram boundaries or null
+     */
+    public Instant[] getMtimeBuckets() {
+        if (mtimeBuckets == null) {
+            return null;
+        }
+
+        return Arrays.stream(mtimeBuckets).mapToObj(Instant::ofEpochMilli).toArray(Instant[]::new);
+    }
+
+    /**
+     * Counts objects by modification time, bucketed the same way as
+     * {@link #setSizeBuckets(long...)}.
+     *
+     * @param boundaries strictly ascending times, or none to disable the histogram
+     * @return this instance
+     */
+    public SummaryOptions setMtimeBuckets(final Instant... boundaries) {
+        if (boundaries == null) {
+            this.mtimeBuckets = null;
+        } else {
+            this.mtimeBuckets = ascending(Arrays.stream(boundaries).mapToLong(Instant::toEpochMilli).toArray());
+        }
+
+        return this;
+    }
+
+    /**
+     * @return size histogram boundaries without copying them or null
+     */
+    long[] sizeBuckets() {
+        return sizeBuckets;
+    }
+
+    /**
+     * @return modification time histogram boundaries in milliseconds without copying them or null
+     */
+    long[] mtimeBuckets() {
+        return mtimeBuckets;
+    }
+
+    /**
+     * @param boundaries histogram boundaries
+     * @return copy of the boundaries or null if there are none
+     */
+    private static long[] ascending(final long[] boundaries) {
+        if (boundaries == null || boundaries.length == 0) {
+            return null;
+        }
+
+        for (int i = 1; i < boundaries.length; i++) {
+            Validate.isTrue(boundaries[i - 1] < boundaries[i],
+                    "Histogram boundaries must be strictly ascending");
+        }
+
+        return boundaries.clone();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("concurrency", concurrency)
+                .append("sizeBuckets", sizeBuckets)
+                .append("mtimeBuckets", getMtimeBuckets())
+                .toString();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Summary of the changes made by
+ * {@link MantaClient#sync(java.nio.file.Path, String, SyncOptions)}. For a
+ * dry run, the counts describe the changes that would have been made.
+ *
+ * @since 3.5.1
+ */
+public final class SyncResult {
+    /**
+     * Flag indicating that no changes were made.
+     */
+    private final boolean dryRun;
+
+    /**
+     * Number of remote directories created.
+     */
+    private long directoriesCreated;
+
+    /**
+     * Number of files uploaded because they were missing or changed.
+     */
+    private long filesUploaded;
+
+    /**
+     * Number of files skipped because they were unchanged.
+     */
+    private long filesUnchanged;
+
+    /**
+     * Number of bytes uploaded.
+     */
+    private long bytesUploaded;
+
+    /**
+     * Remote paths that couldn't be synced mapped to the reason why.
+     */
+    private final Map<String, Exception> failures = new LinkedHashMap<>();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param dryRun true if no changes are made
+     */
+    SyncResult(final boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    /**
+     * Records a created directory.
+     */
+    void directoryCreated() {
+        directoriesCreated++;
+    }
+
+    /**
+     * Records an uploaded file.
+     *
+     * @param bytes size of the file in bytes
+     */
+    void fileUploaded(final long bytes) {
+        filesUploaded++;
+        bytesUploaded += bytes;
+    }
+
+    /**
+     * Records a file that was skipped because it was unchanged.
+     */
+    void fileUnchanged() {
+        filesUnchanged++;
+    }
+
+    /**
+     * Records a path that couldn't be synced.
+     *
+     * @param remotePath remote path of the file or directory
+     * @param error reason the path couldn't be synced
+     */
+    void failed(final String remotePath, final Exception error) {
+        failures.put(remotePath, error);
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public long getDirectoriesCreated() {
+        return directoriesCreated;
+    }
+
+    public long getFilesUploaded() {
+        return filesUploaded;
+    }
+
+    public long getFilesUnchanged() {
+        return filesUnchanged;
+    }
+
+    public long getBytesUploaded() {
+        return bytesUploaded;
+    }
+
+    /**
+     * @return remote paths that couldn't be synced mapped to the reason why
+     */
+    public Map<String, Exception> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return true if every file and directory was synced
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("dryRun", dryRun)
+                .append("directoriesCreated", directoriesCreated)
+                .append("filesUploaded", filesUploaded)
+                .append("filesUnchanged", filesUnchanged)
+                .append("bytesUploaded", bytesUploaded)
+                .append("failures", failures.size())
+                .toString();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2017-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -29,6 +29,7 @@ import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
 
 /**
  * {@link HttpEntity} implementation that wraps an entity and encrypts its
@@ -74,6 +75,15 @@ public class EncryptingEntity implements HttpEntity {
      */
     private final HttpEntity wrapped;
 
+    /**
+     * Executor used to encrypt the content in parallel or null to encrypt it serially.
+     */
+    private final ExecutorService encryptionExecutor;
+
+    /**
+     * Number of threads of {@link #encryptionExecutor}.
+     */
+    private final int encryptionThreads;
 
     /**
      * Creates a new instance with an known stream size. We initialize an {@link EncryptionContext} here
@@ -89,6 +99,27 @@ public class EncryptingEntity implements HttpEntity {
     public EncryptingEntity(final SecretKey key,
                             final SupportedCipherDetails cipherDetails,
                             final HttpEntity wrapped) {
+        this(key, cipherDetails, wrapped, null, 1);
+    }
+
+    /**
+     * Creates a new instance that encrypts content larger than a single chunk
+     * on several threads when the cipher supports random access (AES/CTR).
+     * Other ciphers are always encrypted serially.
+     *
+     * @param key key to encrypt stream with
+     * @param cipherDetails cipher to encrypt stream with
+     * @param wrapped underlying stream to encrypt
+     * @param encryptionExecutor executor used to encrypt in parallel or null to encrypt serially
+     * @param encryptionThreads number of threads of the executor
+     * @throws MantaClientEncryptionException for wrong plaintext content length
+     * @since 3.5.1
+     */
+    public EncryptingEntity(final SecretKey key,
+                            final SupportedCipherDetails cipherDetails,
+                            final HttpEntity wrapped,
+                            final ExecutorService encryptionExecutor,
+                            final int encryptionThreads) {
         if (originalLength > cipherDetails.getMaximumPlaintextSizeInBytes()) {
             String msg = String.format("Input content length exceeded maximum "
             + "[%d] number of bytes supported by cipher [%s]",
@@ -106,6 +137,8 @@ public class EncryptingEntity implements HttpEntity {
 
         this.originalLength = wrapped.getContentLength();
         this.wrapped = wrapped;
+        this.encryptionExecutor = encryptionExecutor;
+        this.encryptionThreads = encryptionThreads;
     }
 
     @Override
@@ -159,16 +192,28 @@ public class EncryptingEntity implements HttpEntity {
                 encryptionContext.getCipher().getIV(),
                 encryptionContext.requireCloneableCipher());
 
-        OutputStream out = EncryptingEntityHelper.makeCipherOutputForStream(
-                httpOut, encryptionContext);
+        final HMac hmac;
 
-        copyContentToOutputStream(out);
-        /* We don't close quietly because we want the operation to fail if
-         * there is an error closing out the CipherOutputStream. */
-        out.close();
+        if (isEncryptedInParallel()) {
+            hmac = EncryptingEntityHelper.makeHmac(encryptionContext);
+            encryptContentInParallel(httpOut, hmac);
+        } else {
+            OutputStream out = EncryptingEntityHelper.makeCipherOutputForStream(
+                    httpOut, encryptionContext);
+
+            copyContentToOutputStream(out);
+            /* We don't close quietly because we want the operation to fail if
+             * there is an error closing out the CipherOutputStream. */
+            out.close();
+
+            if (out instanceof HmacOutputStream) {
+                hmac = ((HmacOutputStream) out).getHmac();
+            } else {
+                hmac = null;
+            }
+        }
 
-        if (out instanceof HmacOutputStream) {
-            final HMac hmac = ((HmacOutputStream) out).getHmac();
+        if (hmac != null) {
             final int hmacSize = hmac.getMacSize();
             final byte[] hmacBytes = new byte[hmacSize];
             hmac.doFinal(hmacBytes, 0);
@@ -214,13 +259,79 @@ public class EncryptingEntity implements HttpEntity {
             InputStream contentStream = getContent();
             bytesCopied = IOUtils.copy(contentStream, out, bufferSize);
             out.flush();
-            try {
-                contentStream.close();
-            } catch (IOException e) {
-                LOGGER.error("Failed to close content stream in EncryptingEntity.", e);
-            }
+            closeContentStream(contentStream);
+        }
+
+        validateBytesCopied(bytesCopied);
+    }
+
+    /**
+     * Determines whether the content is encrypted by {@link ParallelCtrEncryptor}.
+     * That is the case when an executor was supplied, the cipher supports random
+     * access and the content is larger than a single chunk or of unknown length.
+     *
+     * @return true when the content is encrypted in parallel
+     */
+    private boolean isEncryptedInParallel() {
+        final SupportedCipherDetails cipherDetails = encryptionContext.getCipherDetails();
+
+        return encryptionExecutor != null
+                && encryptionThreads > 1
+                && cipherDetails.supportsRandomAccess()
+                && !cipherDetails.isAEADCipher()
+                && !this.wrapped.getClass().equals(EmbeddedHttpContent.class)
+                && (originalLength == UNKNOWN_LENGTH || originalLength > ParallelCtrEncryptor.CHUNK_SIZE);
+    }
+
+    /**
+     * Encrypts the entity content on {@link #encryptionExecutor} and writes the
+     * ciphertext to the specified output stream in order.
+     *
+     * @param httpOut stream to write the ciphertext to
+     * @param hmac HMAC updated with the plaintext
+     * @throws IOException throw when there is a problem writing to the streams
+     */
+    private void encryptContentInParallel(final OutputStream httpOut, final HMac hmac) throws IOException {
+        final ParallelCtrEncryptor encryptor = new ParallelCtrEncryptor(
+                encryptionContext.getSecretKey(),
+                encryptionContext.getCipherDetails(),
+                encryptionContext.getCipher().getIV(),
+                encryptionExecutor,
+                encryptionThreads);
+
+        final InputStream contentStream = getContent();
+        final long bytesCopied;
+
+        try {
+            bytesCopied = encryptor.encrypt(contentStream, httpOut, hmac);
+        } finally {
+            closeContentStream(contentStream);
+        }
+
+        validateBytesCopied(bytesCopied);
+    }
+
+    /**
+     * Closes the stream of the entity content, logging failures.
+     *
+     * @param contentStream stream to close
+     */
+    private static void closeContentStream(final InputStream contentStream) {
+        try {
+            contentStream.close();
+        } catch (IOException e) {
+            LOGGER.error("Failed to close content stream in EncryptingEntity.", e);
         }
+    }
 
+    /**
+     * Validates that the number of bytes copied is the same as specified in
+     * the original content-length.
+     *
+     * @param bytesCopied number of plaintext bytes copied
+     * @throws MantaIOException thrown when the number of bytes doesn't match
+     */
+    private void validateBytesCopied(final long bytesCopied) throws MantaIOException {
         /* If we don't know the length of the underlying content stream, we
          * count the number of bytes written, so that it is available. */
         if (originalLength == UNKNOWN_LENGTH) {
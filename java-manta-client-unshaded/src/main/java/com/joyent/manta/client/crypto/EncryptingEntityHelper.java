@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2017-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -54,26 +54,35 @@ public final class EncryptingEntityHelper {
      */
     public static OutputStream makeCipherOutputForStream(
             final OutputStream httpOut, final EncryptionContext encryptionContext) {
-        final HMac hmac;
-
-        if (encryptionContext.getCipherDetails().isAEADCipher()) {
-            hmac = null;
-        } else {
-            hmac = encryptionContext.getCipherDetails().getAuthenticationHmac();
-            Validate.notNull(encryptionContext.getSecretKey(),
-                    "Secret key must not be null");
-            hmac.init(new KeyParameter(encryptionContext.getSecretKey().getEncoded()));
-                /* The first bytes of the HMAC are the IV. This is done in order to
-                 * prevent IV collision or spoofing attacks. */
-            final byte[] iv = encryptionContext.getCipher().getIV();
-            hmac.update(iv, 0, iv.length);
-        }
-
         return makeCipherOutputForStream(
                 httpOut,
                 encryptionContext.getCipherDetails(),
                 encryptionContext.getCipher(),
-                hmac);
+                makeHmac(encryptionContext));
+    }
+
+    /**
+     * Creates the HMAC used for EtM authentication of a stream encrypted with
+     * the given context and updates it with the IV.
+     *
+     * @param encryptionContext current encryption running state
+     * @return a new HMAC or null if the cipher/mode is AEAD
+     */
+    public static HMac makeHmac(final EncryptionContext encryptionContext) {
+        if (encryptionContext.getCipherDetails().isAEADCipher()) {
+            return null;
+        }
+
+        final HMac hmac = encryptionContext.getCipherDetails().getAuthenticationHmac();
+        Validate.notNull(encryptionContext.getSecretKey(),
+                "Secret key must not be null");
+        hmac.init(new KeyParameter(encryptionContext.getSecretKey().getEncoded()));
+        /* The first bytes of the HMAC are the IV. This is done in order to
+         * prevent IV collision or spoofing attacks. */
+        final byte[] iv = encryptionContext.getCipher().getIV();
+        hmac.update(iv, 0, iv.length);
+
+        return hmac;
     }
 
     /**
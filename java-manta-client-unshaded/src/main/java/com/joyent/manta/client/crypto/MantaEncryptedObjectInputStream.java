@@ -14,7 +14,9 @@ import com.joyent.manta.exception.MantaIOException;
 import com.joyent.manta.http.MantaHttpHeaders;
 import com.joyent.manta.util.NotThreadSafe;
 import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.exception.ContextedException;
@@ -88,9 +90,49 @@ public class MantaEncryptedObjectInputStream extends MantaObjectInputStream {
 
     /**
      * The stream that wraps the backing stream allowing for streaming decryption.
-     * Somewhere chained in this stream is a {@link CipherInputStream}.
+     * Somewhere chained in this stream is a {@link CipherInputStream}. It is
+     * replaced when the cipher is moved to another position by {@link #skip(long)}.
      */
-    private final InputStream cipherInputStream;
+    private InputStream cipherInputStream;
+
+    /**
+     * Initialization vector of the object.
+     */
+    private byte[] iv;
+
+    /**
+     * Flag indicating that skips can move the cipher to the target position
+     * instead of decrypting the skipped bytes, which is the case for counter
+     * mode ciphers when the ciphertext isn't authenticated.
+     */
+    private final boolean seekable;
+
+    /**
+     * Counts the ciphertext bytes read from the backing stream when the stream
+     * is seekable.
+     */
+    private CountingInputStream ciphertextSource;
+
+    /**
+     * Counts the plaintext bytes returned by {@link #cipherInputStream} when
+     * the stream is seekable.
+     */
+    private CountingInputStream plaintextCounter;
+
+    /**
+     * Plaintext position of the first byte of the backing stream.
+     */
+    private long streamStartPosition;
+
+    /**
+     * Plaintext position at which the current {@link #cipherInputStream} starts.
+     */
+    private long cipherStartPosition;
+
+    /**
+     * Plaintext position past which the stream can't be read.
+     */
+    private long streamEndPosition = Long.MAX_VALUE;
 
     /**
      * The total number of plaintext bytes read.
@@ -197,8 +239,11 @@ public class MantaEncryptedObjectInputStream extends MantaObjectInputStream {
         this.cipher = cipherDetails.getCipher();
         this.secretKey = secretKey;
         this.hmac = findHmac();
+        this.seekable = this.hmac == null && !cipherDetails.isAEADCipher() && cipherDetails.supportsRandomAccess();
 
         this.initialBytesToSkip = initializeCipher();
+        this.streamStartPosition = this.startPosition - this.initialBytesToSkip;
+        this.cipherStartPosition = this.streamStartPosition;
         this.cipherInputStream = createCryptoStream();
         initializeHmac();
     }
@@ -214,8 +259,8 @@ public class MantaEncryptedObjectInputStream extends MantaObjectInputStream {
 
         this.hmac.init(new KeyParameter(secretKey.getEncoded()));
 
-        final byte[] iv = this.cipher.getIV();
-        this.hmac.update(iv, 0, iv.length);
+        final byte[] cipherIv = this.cipher.getIV();
+        this.hmac.update(cipherIv, 0, cipherIv.length);
     }
 
     /**
@@ -233,7 +278,7 @@ public class MantaEncryptedObjectInputStream extends MantaObjectInputStream {
             throw e;
         }
 
-        byte[] iv = Base64.getDecoder().decode(ivString);
+        this.iv = Base64.getDecoder().decode(ivString);
 
         if (LOGGER.isTraceEnabled()) {
             LOGGER.trace("IV: {}", Hex.encodeHexString(iv));
@@ -295,25 +340,53 @@ public class MantaEncryptedObjectInputStream extends MantaObjectInputStream {
             BoundedInputStream bin = new BoundedInputStream(super.getBackingStream(),
                     adjustedContentLength);
             bin.setPropagateClose(false);
-            source = bin;
+
+            if (this.seekable) {
+                this.ciphertextSource = new CountingInputStream(bin);
+                this.streamEndPosition = this.streamStartPosition + adjustedContentLength;
+                source = this.ciphertextSource;
+            } else {
+                source = bin;
+            }
+        }
+
+        if (isRangeRequest) {
+            /* We adjust the maximum number of plaintext bytes that can be returned
+             * as the plaintext length + skipped bytes because the plaintext length
+             * already has the skipped bytes subtracted from it. */
+            this.streamEndPosition = Math.min(this.streamEndPosition,
+                    this.streamStartPosition + this.plaintextRangeLength + this.initialBytesToSkip);
         }
 
-        final CipherInputStream cin = new CipherInputStream(source, this.cipher);
+        return createDecryptingStream(source);
+    }
+
+    /**
+     * Wraps a ciphertext stream positioned at {@link #cipherStartPosition}
+     * with a {@link CipherInputStream} using the current state of the cipher.
+     *
+     * @param source ciphertext stream
+     * @return a decrypting stream
+     */
+    private InputStream createDecryptingStream(final InputStream source) {
+        final InputStream cin = new CipherInputStream(source, this.cipher);
+        final InputStream plaintext;
 
         /* A plaintext value not null indicates that we aren't working with
          * a subset of the total object (byte range), so we can just pass back
          * the ciphertext stream without any limitations on its length. */
-        if (!isRangeRequest) {
-            return cin;
+        if (plaintextRangeLength == null || plaintextRangeLength <= 0L) {
+            plaintext = cin;
+        } else {
+            plaintext = new BoundedInputStream(cin, this.streamEndPosition - this.cipherStartPosition);
         }
 
-        // If we have gotten this far, we are dealing with a byte range
-
-        /* We adjust the maximum number of plaintext bytes that can be returned
-         * as the plaintext length + skipped bytes because the plaintext length
-         * already has the skipped bytes subtracted from it. */
+        if (!this.seekable) {
+            return plaintext;
+        }
 
-        return new BoundedInputStream(cin, this.plaintextRangeLength + this.initialBytesToSkip);
+        this.plaintextCounter = new CountingInputStream(plaintext);
+        return this.plaintextCounter;
     }
 
     /**
@@ -541,29 +614,16 @@ public class MantaEncryptedObjectInputStream extends MantaObjectInputStream {
             return 0;
         }
 
+        if (this.seekable) {
+            return seek(numberOfBytesToSkip);
+        }
+
         /* When using a CipherInputStream with some algorithms, the skip() method
          * is horribly broken and doesn't return the correct number of bytes
          * skipped. In order to accurately report the number of bytes skipped
-         * we use a read() method call, throw away the data and count the
-         * number of successful reads. */
+         * we read the data, throw it away and count the number of bytes read. */
         if (!authenticateCiphertext || cipherDetails.isAEADCipher()) {
-            long skipped = 0L;
-
-            for (long l = 0L; l < numberOfBytesToSkip; l++) {
-                try {
-                    final int read = cipherInputStream.read();
-
-                    if (read > EOF) {
-                        skipped++;
-                    }
-                } catch (IOException e) {
-                    MantaIOException mioe = new MantaIOException("Error reading from cipher stream", e);
-                    annotateException(mioe);
-                    throw mioe;
-                }
-            }
-
-            return skipped;
+            return discardPlaintext(numberOfBytesToSkip);
         }
 
         final int defaultBufferSize = MantaEncryptedObjectInputStream.calculateBufferSize(this.getContentLength(),
@@ -616,6 +676,79 @@ public class MantaEncryptedObjectInputStream extends MantaObjectInputStream {
         return cipherInputStream.available();
     }
 
+    /**
+     * Moves forward in the plaintext of a seekable stream. Bytes already read
+     * from the backing stream are decrypted and discarded. Beyond those, the
+     * ciphertext is skipped without being decrypted and the cipher is
+     * initialized with the counter of the block at the target position.
+     *
+     * @param numberOfBytesToSkip number of plaintext bytes to skip
+     * @return number of plaintext bytes skipped
+     * @throws IOException thrown when the backing stream can't be read
+     */
+    private long seek(final long numberOfBytesToSkip) throws IOException {
+        final long position = this.cipherStartPosition + this.plaintextCounter.getByteCount();
+        final long ciphertextPosition = this.streamStartPosition + this.ciphertextSource.getByteCount();
+        final long target = Math.min(position + Math.min(numberOfBytesToSkip, Long.MAX_VALUE - position),
+                this.streamEndPosition);
+        final int blockSize = this.cipherDetails.getBlockSizeInBytes();
+        final long targetBlock = target - (target % blockSize);
+
+        if (targetBlock <= ciphertextPosition) {
+            return discardPlaintext(target - position);
+        }
+
+        final long wanted = targetBlock - ciphertextPosition;
+        final long skipped;
+
+        try {
+            skipped = IOUtils.skip(this.ciphertextSource, wanted);
+        } catch (IOException e) {
+            MantaIOException mioe = new MantaIOException("Error skipping ciphertext", e);
+            annotateException(mioe);
+            throw mioe;
+        }
+
+        // The ciphertext ended early, so there is nothing left to decrypt
+        final long reached = ciphertextPosition + skipped;
+
+        try {
+            this.cipher.init(Cipher.DECRYPT_MODE, this.secretKey,
+                    this.cipherDetails.getEncryptionParameterSpec(this.iv, reached));
+        } catch (InvalidKeyException | InvalidAlgorithmParameterException e) {
+            String msg = "Error initializing cipher";
+            MantaClientEncryptionException mce = new MantaClientEncryptionException(msg, e);
+            annotateException(mce);
+            throw mce;
+        }
+
+        this.cipherStartPosition = reached;
+        this.cipherInputStream = createDecryptingStream(this.ciphertextSource);
+
+        if (skipped < wanted) {
+            return reached - position;
+        }
+
+        return targetBlock - position + discardPlaintext(target - targetBlock);
+    }
+
+    /**
+     * Reads and discards plaintext bytes.
+     *
+     * @param numberOfBytes number of bytes to discard
+     * @return number of bytes discarded, which is less than requested at the end of the stream
+     * @throws IOException thrown when the cipher stream can't be read
+     */
+    private long discardPlaintext(final long numberOfBytes) throws IOException {
+        try {
+            return IOUtils.skip(cipherInputStream, numberOfBytes);
+        } catch (IOException e) {
+            MantaIOException mioe = new MantaIOException("Error reading from cipher stream", e);
+            annotateException(mioe);
+            throw mioe;
+        }
+    }
+
     /**
      * Skips the initial bytes set to move forward in the plaintext stream.
      * @throws IOException when bytes can't be read from the underlying stream
@@ -624,18 +757,27 @@ public class MantaEncryptedObjectInputStream extends MantaObjectInputStream {
         /* We don't use the CipherInputStream.skip() method because it is
          * unreliable across implementations and won't always skip forward
          * the way we expect. Through testing, we've found this is the most
-         * reliable way of moving the plaintext forward. */
-        while (initialBytesToSkip > 0) {
-            int read = cipherInputStream.read();
+         * reliable way of moving the plaintext forward. The bytes to skip
+         * are always within the first block, so they are read at once. */
+        if (initialBytesToSkip <= 0) {
+            return;
+        }
 
-            if (read > EOF) {
-                initialBytesToSkip--;
-            } else {
-                // We hit the end of the stream, initialBytesToSkip was incorrect, set to 0 and return
-                initialBytesToSkip = 0;
-                return;
+        final byte[] buf = new byte[(int) initialBytesToSkip];
+        int offset = 0;
+
+        while (offset < buf.length) {
+            final int read = cipherInputStream.read(buf, offset, buf.length - offset);
+
+            if (read == EOF) {
+                // We hit the end of the stream, initialBytesToSkip was incorrect
+                break;
             }
+
+            offset += read;
         }
+
+        initialBytesToSkip = 0;
     }
 
     /**
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client.crypto;
+
+import com.joyent.manta.exception.MantaClientEncryptionException;
+import com.joyent.manta.exception.MantaIOException;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+import org.bouncycastle.crypto.macs.HMac;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * <p>Encrypts a stream with a cipher that supports random access (AES/CTR)
+ * on several threads.</p>
+ *
+ * <p>The plaintext is read in chunks of {@link #CHUNK_SIZE} bytes and each
+ * chunk is encrypted by its own cipher instance, initialized with the counter
+ * of the chunk's first block. Because every chunk starts on a block boundary
+ * the ciphertext is identical to encrypting the stream serially. Chunks are
+ * written in order, and the HMAC is updated with the plaintext in stream order
+ * as it is read, just as {@link com.joyent.manta.util.HmacOutputStream} does.
+ * At most {@link #IN_FLIGHT_CHUNKS_PER_THREAD} chunks per thread are held in
+ * memory at a time.</p>
+ *
+ * @since 3.5.1
+ */
+final class ParallelCtrEncryptor {
+    /**
+     * Number of plaintext bytes encrypted by a single task. This is a multiple
+     * of the cipher block size.
+     */
+    static final int CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * Number of chunks that can be read or encrypted per thread while the
+     * oldest chunk is being written.
+     */
+    private static final int IN_FLIGHT_CHUNKS_PER_THREAD = 2;
+
+    /**
+     * Secret key to encrypt with.
+     */
+    private final SecretKey secretKey;
+
+    /**
+     * Cipher used to encrypt.
+     */
+    private final SupportedCipherDetails cipherDetails;
+
+    /**
+     * IV of the encrypted stream.
+     */
+    private final byte[] iv;
+
+    /**
+     * Executor the chunks are encrypted on.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Maximum number of chunks that are read but not yet written.
+     */
+    private final int maxInFlightChunks;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param secretKey secret key to encrypt with
+     * @param cipherDetails cipher to encrypt with, which must support random access
+     * @param iv IV of the encrypted stream
+     * @param executor executor the chunks are encrypted on
+     * @param threads number of threads of the executor
+     */
+    ParallelCtrEncryptor(final SecretKey secretKey,
+                         final SupportedCipherDetails cipherDetails,
+                         final byte[] iv,
+                         final ExecutorService executor,
+                         final int threads) {
+        Validate.notNull(secretKey, "Secret key must not be null");
+        Validate.notNull(cipherDetails, "Cipher details must not be null");
+        Validate.notNull(iv, "Initialization vector must not be null");
+        Validate.notNull(executor, "Executor must not be null");
+        Validate.isTrue(cipherDetails.supportsRandomAccess() && !cipherDetails.isAEADCipher(),
+                "Cipher [%s] can't be encrypted in parallel", cipherDetails.getCipherId());
+        Validate.isTrue(CHUNK_SIZE % cipherDetails.getBlockSizeInBytes() == 0,
+                "Chunk size must be a multiple of the cipher block size");
+        Validate.isTrue(threads > 0, "Threads must be greater than 0");
+
+        this.secretKey = secretKey;
+        this.cipherDetails = cipherDetails;
+        this.iv = iv.clone();
+        this.executor = executor;
+        this.maxInFlightChunks = threads * IN_FLIGHT_CHUNKS_PER_THREAD;
+    }
+
+    /**
+     * Encrypts a stream and writes the ciphertext in order.
+     *
+     * @param plaintext stream to encrypt, which isn't closed
+     * @param out stream the ciphertext is written to, which isn't closed
+     * @param hmac HMAC updated with the plaintext or null for none
+     * @return number of plaintext bytes encrypted
+     * @throws IOException thrown when reading, encrypting or writing fails
+     */
+    long encrypt(final InputStream plaintext, final OutputStream out, final HMac hmac) throws IOException {
+        final Deque<Future<byte[]>> inFlight = new ArrayDeque<>(maxInFlightChunks);
+        final Deque<byte[]> spareBuffers = new ArrayDeque<>(maxInFlightChunks);
+        long position = 0L;
+
+        try {
+            while (true) {
+                byte[] buffer = spareBuffers.poll();
+
+                if (buffer == null) {
+                    buffer = new byte[CHUNK_SIZE];
+                }
+
+                final int length = IOUtils.read(plaintext, buffer);
+
+                if (length == 0) {
+                    break;
+                }
+
+                if (hmac != null) {
+                    hmac.update(buffer, 0, length);
+                }
+
+                final byte[] chunk = buffer;
+                final long chunkPosition = position;
+                inFlight.add(executor.submit(() -> encryptChunk(chunk, length, chunkPosition)));
+                position += length;
+
+                if (inFlight.size() == maxInFlightChunks) {
+                    final byte[] written = writeChunk(inFlight.poll(), out);
+
+                    if (written.length == CHUNK_SIZE) {
+                        spareBuffers.add(written);
+                    }
+                }
+
+                if (length < CHUNK_SIZE) {
+                    break;
+                }
+            }
+
+            while (!inFlight.isEmpty()) {
+                writeChunk(inFlight.poll(), out);
+            }
+        } finally {
+            for (Future<byte[]> pending : inFlight) {
+                pending.cancel(true);
+            }
+        }
+
+        out.flush();
+
+        return position;
+    }
+
+    /**
+     * Encrypts a chunk in place.
+     *
+     * @param chunk buffer holding the plaintext of the chunk
+     * @param length number of plaintext bytes in the buffer
+     * @param position position of the chunk in the plaintext
+     * @return the buffer holding the ciphertext of the chunk
+     */
+    private byte[] encryptChunk(final byte[] chunk, final int length, final long position) {
+        final Cipher cipher = cipherDetails.getCipher();
+
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey, cipherDetails.getEncryptionParameterSpec(iv, position));
+            final int encrypted = cipher.doFinal(chunk, 0, length, chunk, 0);
+
+            Validate.isTrue(encrypted == length,
+                    "Encrypted [%d] bytes but expected [%d] bytes", encrypted, length);
+        } catch (GeneralSecurityException e) {
+            MantaClientEncryptionException mcee = new MantaClientEncryptionException(
+                    "Unable to encrypt chunk", e);
+            mcee.setContextValue("cipherId", cipherDetails.getCipherId());
+            mcee.setContextValue("position", position);
+            throw mcee;
+        }
+
+        return trim(chunk, length);
+    }
+
+    /**
+     * Waits for a chunk to be encrypted and writes it.
+     *
+     * @param encrypted result of encrypting the chunk
+     * @param out stream the ciphertext is written to
+     * @return the buffer of the chunk so that it can be reused
+     * @throws IOException thrown when encrypting or writing fails
+     */
+    private static byte[] writeChunk(final Future<byte[]> encrypted, final OutputStream out) throws IOException {
+        final byte[] chunk;
+
+        try {
+            chunk = encrypted.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a chunk to be encrypted");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new MantaIOException("Unable to encrypt chunk", cause);
+        }
+
+        out.write(chunk);
+
+        return chunk;
+    }
+
+    /**
+     * Returns a copy of a buffer of the given length unless it already has
+     * that length, which is the case for every chunk but the last.
+     *
+     * @param buffer buffer to trim
+     * @param length number of bytes to keep
+     * @return a buffer of the given length
+     */
+    private static byte[] trim(final byte[] buffer, final int length) {
+        if (buffer.length == length) {
+            return buffer;
+        }
+
+        final byte[] trimmed = new byte[length];
+        System.arraycopy(buffer, 0, trimmed, 0, length);
+        return trimmed;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2017-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -32,13 +32,21 @@ import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
- * Multipart upload manager class that wraps another {@link MantaMultipartManager}
- * instance and transparently encrypts the contents of all files uploaded.
+ * <p>Multipart upload manager class that wraps another {@link MantaMultipartManager}
+ * instance and transparently encrypts the contents of all files uploaded.</p>
+ *
+ * <p>Parts of uploads started with {@link #initiateUpload(String, Long, MantaMetadata, MantaHttpHeaders)}
+ * are encrypted by a single cipher stream, so they must be uploaded serially
+ * and in order. Parts of uploads started with
+ * {@link #initiateConcurrentUpload(String, long, MantaMetadata, MantaHttpHeaders)}
+ * have a fixed size and can be uploaded concurrently and in any order.</p>
  *
  * @author <a href="https://github.com/dekobon">Elijah Zupancic</a>
  * @since 3.0.0
@@ -57,6 +65,12 @@ public class EncryptedMultipartManager
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(EncryptedMultipartManager.class);
 
+    /**
+     * Default maximum number of parts of a concurrent upload kept in
+     * temporary files while waiting for the parts before them.
+     */
+    public static final int DEFAULT_MAX_PENDING_PARTS = 16;
+
     /**
      * Secret key used for encryption.
      */
@@ -172,6 +186,108 @@ public class EncryptedMultipartManager
                                                                    final MantaMetadata mantaMetadata,
                                                                    final MantaHttpHeaders httpHeaders)
             throws IOException {
+        return initiateUpload(path, contentLength, mantaMetadata, httpHeaders, null);
+    }
+
+    /**
+     * <p>Initiates an upload whose parts are encrypted and uploaded
+     * concurrently. Every part but the last must be exactly
+     * <code>partSize</code> bytes long, so that the position of each part
+     * within the object, and therefore its keystream offset, is known when it
+     * is uploaded. Parts may be uploaded from several threads and in any
+     * order.</p>
+     *
+     * <p>A part shorter than <code>partSize</code> is the last part. The HMAC
+     * of the object is appended to it, so it must be uploaded after all of the
+     * parts before it have been uploaded. If the size of the object is a
+     * multiple of <code>partSize</code>, the HMAC is uploaded as an additional
+     * part by {@link #complete(EncryptedMultipartUpload, Stream)}.</p>
+     *
+     * <p>The HMAC is computed over the plaintext in order. A part uploaded
+     * right after the parts before it is authenticated while it is encrypted.
+     * A part uploaded ahead of the parts before it has its ciphertext kept in
+     * a temporary file in the directory named by the
+     * <code>java.io.tmpdir</code> system property until they have been
+     * uploaded. Up to {@link #DEFAULT_MAX_PENDING_PARTS} parts are kept at a
+     * time and further parts wait for the parts before them. The state of
+     * these uploads is only kept in memory, so they can't be serialized and
+     * resumed by another client.</p>
+     *
+     * @param path path to the object
+     * @param partSize number of plaintext bytes in every part but the last, which must be
+     *                 a multiple of the cipher block size and at least the minimum part size
+     * @param mantaMetadata metadata to store with the object
+     * @param httpHeaders HTTP headers to store with the object
+     * @return encrypted multipart upload whose parts can be uploaded concurrently
+     * @throws IOException thrown when the upload can't be initiated
+     */
+    public EncryptedMultipartUpload<WRAPPED_UPLOAD> initiateConcurrentUpload(final String path,
+                                                                             final long partSize,
+                                                                             final MantaMetadata mantaMetadata,
+                                                                             final MantaHttpHeaders httpHeaders)
+            throws IOException {
+        return initiateConcurrentUpload(path, partSize, mantaMetadata, httpHeaders,
+                null, DEFAULT_MAX_PENDING_PARTS);
+    }
+
+    /**
+     * <p>Initiates an upload whose parts are encrypted and uploaded
+     * concurrently, keeping the ciphertext of parts uploaded ahead of the
+     * parts before them in the given directory. At most
+     * <code>maxPendingParts</code> parts are kept there at a time. A part that
+     * would exceed that waits until the parts before it have been uploaded, so
+     * the part following the parts uploaded so far must be uploaded by another
+     * thread.</p>
+     *
+     * @see #initiateConcurrentUpload(String, long, MantaMetadata, MantaHttpHeaders)
+     * @param path path to the object
+     * @param partSize number of plaintext bytes in every part but the last, which must be
+     *                 a multiple of the cipher block size and at least the minimum part size
+     * @param mantaMetadata metadata to store with the object
+     * @param httpHeaders HTTP headers to store with the object
+     * @param spoolDirectory directory for the ciphertext of parts uploaded ahead of the parts
+     *                       before them or null for the default temporary-file directory
+     * @param maxPendingParts maximum number of parts kept in the spool directory at a time
+     * @return encrypted multipart upload whose parts can be uploaded concurrently
+     * @throws IOException thrown when the upload can't be initiated
+     */
+    public EncryptedMultipartUpload<WRAPPED_UPLOAD> initiateConcurrentUpload(final String path,
+                                                                             final long partSize,
+                                                                             final MantaMetadata mantaMetadata,
+                                                                             final MantaHttpHeaders httpHeaders,
+                                                                             final Path spoolDirectory,
+                                                                             final int maxPendingParts)
+            throws IOException {
+        Validate.isTrue(maxPendingParts > 0, "Maximum pending parts must be greater than zero");
+        Validate.isTrue(partSize >= getMinimumPartSize(),
+                "Part size [%d] must be at least the minimum part size [%d]", partSize, getMinimumPartSize());
+        Validate.isTrue(partSize % cipherDetails.getBlockSizeInBytes() == 0,
+                "Part size [%d] must be a multiple of the cipher block size [%d]",
+                partSize, cipherDetails.getBlockSizeInBytes());
+
+        return initiateUpload(path, null, mantaMetadata, httpHeaders, context ->
+                new ConcurrentPartEncryption(context, partSize, spoolDirectory, maxPendingParts));
+    }
+
+    /**
+     * Initiates a serial or concurrent upload.
+     *
+     * @param path path to the object
+     * @param contentLength plaintext length of the object or null if unknown
+     * @param mantaMetadata metadata to store with the object
+     * @param httpHeaders HTTP headers to store with the object
+     * @param concurrentParts function creating the state of a concurrent upload from its
+     *                        encryption context or null for a serial upload
+     * @return encrypted multipart upload
+     * @throws IOException thrown when the upload can't be initiated
+     */
+    private EncryptedMultipartUpload<WRAPPED_UPLOAD> initiateUpload(final String path,
+                                                                    final Long contentLength,
+                                                                    final MantaMetadata mantaMetadata,
+                                                                    final MantaHttpHeaders httpHeaders,
+                                                                    final Function<EncryptionContext,
+                                                                            ConcurrentPartEncryption> concurrentParts)
+            throws IOException {
         Validate.notBlank(path, "Path to object must not be blank");
 
         final MantaMetadata metadata;
@@ -235,6 +351,11 @@ public class EncryptedMultipartManager
         WRAPPED_UPLOAD upload = wrapped.initiateUpload(path, metadata, headers);
 
         EncryptionState encryptionState = new EncryptionState(encryptionContext);
+
+        if (concurrentParts != null) {
+            encryptionState.setConcurrentParts(concurrentParts.apply(encryptionContext));
+        }
+
         EncryptedMultipartUpload<WRAPPED_UPLOAD> encryptedUpload =
                 new EncryptedMultipartUpload<>(upload, encryptionState);
 
@@ -268,6 +389,10 @@ public class EncryptedMultipartManager
 
         final HttpContext ctx = buildRequestContext(context);
 
+        if (encryptionState.getConcurrentParts() != null) {
+            return uploadConcurrentPart(upload, partNumber, sourceEntity, ctx, encryptionState.getConcurrentParts());
+        }
+
         encryptionState.getLock().lock();
         try {
             validatePartNumber(partNumber);
@@ -323,6 +448,11 @@ public class EncryptedMultipartManager
 
         encryptionState.getLock().lock();
         try {
+            if (encryptionState.getConcurrentParts() != null) {
+                completeConcurrentUpload(upload, partsStream, encryptionState.getConcurrentParts());
+                return;
+            }
+
             Stream<? extends MantaMultipartUploadTuple> finalPartsStream = partsStream;
             // we need to take a snapshot _before_ calling remainderAndLastPartAuth
             final EncryptionStateSnapshot snapshot = EncryptionStateRecorder.record(encryptionState, upload.getId());
@@ -373,9 +503,85 @@ public class EncryptedMultipartManager
 
     @Override
     public void abort(final EncryptedMultipartUpload<WRAPPED_UPLOAD> upload) throws IOException {
+        if (upload.canUpload() && upload.getEncryptionState().getConcurrentParts() != null) {
+            upload.getEncryptionState().getConcurrentParts().discardPendingParts();
+        }
+
         wrapped.abort(upload.getWrapped());
     }
 
+    /**
+     * Encrypts and uploads a part of a concurrent upload without holding the
+     * lock of the upload's encryption state.
+     *
+     * @param upload multipart upload object
+     * @param partNumber part number to identify relative location in final file
+     * @param sourceEntity entity holding the plaintext of the part
+     * @param context request context
+     * @param concurrentParts state of the concurrently uploaded parts
+     * @return the successfully uploaded part
+     * @throws IOException thrown when the part can't be encrypted or uploaded
+     */
+    private MantaMultipartUploadPart uploadConcurrentPart(final EncryptedMultipartUpload<WRAPPED_UPLOAD> upload,
+                                                          final int partNumber,
+                                                          final HttpEntity sourceEntity,
+                                                          final HttpContext context,
+                                                          final ConcurrentPartEncryption concurrentParts)
+            throws IOException {
+        /* getMaxParts() is one less than the wrapped manager allows, which
+         * reserves a part number for the HMAC even when every part is full. */
+        validatePartNumber(partNumber);
+
+        final ConcurrentPartEncryption.PartEntity entity = concurrentParts.encryptPart(partNumber, sourceEntity);
+
+        try {
+            final MantaMultipartUploadPart part =
+                    wrapped.uploadPart(upload.getWrapped(), partNumber, entity, context);
+            concurrentParts.uploaded(entity);
+            return part;
+        } finally {
+            entity.discard();
+        }
+    }
+
+    /**
+     * Completes a concurrent upload, first uploading the HMAC as an additional
+     * part unless it was appended to the last part.
+     *
+     * WARNING: This method should only be called while holding encryptionState's lock!
+     *
+     * @param upload multipart upload object
+     * @param partsStream stream of the uploaded parts
+     * @param concurrentParts state of the concurrently uploaded parts
+     * @throws IOException thrown when the HMAC can't be uploaded or the upload can't be completed
+     */
+    private void completeConcurrentUpload(final EncryptedMultipartUpload<WRAPPED_UPLOAD> upload,
+                                          final Stream<? extends MantaMultipartUploadTuple> partsStream,
+                                          final ConcurrentPartEncryption concurrentParts)
+            throws IOException {
+        Stream<? extends MantaMultipartUploadTuple> finalPartsStream = partsStream;
+        final byte[] hmacBytes = concurrentParts.remainingAuthentication();
+
+        if (hmacBytes != null) {
+            final int hmacPartNumber = concurrentParts.getNextPartNumber();
+
+            if (hmacPartNumber > wrapped.getMaxParts()) {
+                String msg = "No part number is left to upload the HMAC of the encrypted upload";
+                MantaMultipartException e = new MantaMultipartException(msg);
+                e.setContextValue("hmacPartNumber", hmacPartNumber);
+                e.setContextValue("maxParts", wrapped.getMaxParts());
+                throw e;
+            }
+
+            final MantaMultipartUploadPart hmacPart = wrapped.uploadPart(upload.getWrapped(),
+                    hmacPartNumber, new ByteArrayEntity(hmacBytes), buildRequestContext(null));
+            concurrentParts.authenticationUploaded();
+            finalPartsStream = Stream.concat(partsStream, Stream.of(hmacPart));
+        }
+
+        wrapped.complete(upload.getWrapped(), finalPartsStream);
+    }
+
     /**
      * Builds a new instance of an encryption context based on the state
      * of the current {@link EncryptedMultipartManager} instance.
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2017-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -72,6 +72,12 @@ public class EncryptionState {
      */
     private boolean lastPartAuthWritten = false;
 
+    /**
+     * State of the parts when they are uploaded concurrently or null when
+     * parts are uploaded serially.
+     */
+    private transient ConcurrentPartEncryption concurrentParts = null;
+
     /**
      * Zero argument constructor used for serialization.
      */
@@ -127,6 +133,14 @@ public class EncryptionState {
         this.cipherStream = cipherStream;
     }
 
+    ConcurrentPartEncryption getConcurrentParts() {
+        return concurrentParts;
+    }
+
+    void setConcurrentParts(final ConcurrentPartEncryption concurrentParts) {
+        this.concurrentParts = concurrentParts;
+    }
+
     boolean isLastPartAuthWritten() {
         return lastPartAuthWritten;
     }
@@ -0,0 +1,409 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client.multipart;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * <p>Append-only local journal of the progress of a multipart upload. The
+ * first line of the journal describes the upload along with its encoded
+ * initial state, so that it can be aborted if no part was ever uploaded,
+ * and every following line
+ * records a part that was successfully uploaded along with the encoded
+ * upload state after that part. Each line is forced to disk before the
+ * write returns, so after a crash the journal contains every completed
+ * part with the possible exception of a torn final line, which is
+ * ignored when the journal is read.</p>
+ *
+ * <p>This class is package-private because it is an implementation detail
+ * of {@link ResumableMultipartUploader}.</p>
+ *
+ * @since 3.5.1
+ */
+final class MultipartUploadJournal {
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultipartUploadJournal.class);
+
+    /**
+     * Record type for the journal header.
+     */
+    private static final String UPLOAD_RECORD = "upload";
+
+    /**
+     * Record type for a completed part.
+     */
+    private static final String PART_RECORD = "part";
+
+    /**
+     * Separator between fields in a record.
+     */
+    private static final char SEPARATOR = '\t';
+
+    /**
+     * Number of fields in an upload record.
+     */
+    private static final int UPLOAD_RECORD_FIELDS = 6;
+
+    /**
+     * Number of fields in a part record.
+     */
+    private static final int PART_RECORD_FIELDS = 5;
+
+    /**
+     * Position of the upload id in an upload record.
+     */
+    private static final int UPLOAD_ID_FIELD = 1;
+
+    /**
+     * Position of the source file size in an upload record.
+     */
+    private static final int SOURCE_LENGTH_FIELD = 2;
+
+    /**
+     * Position of the part size in an upload record.
+     */
+    private static final int PART_SIZE_FIELD = 3;
+
+    /**
+     * Position of the encoded initial upload state in an upload record.
+     */
+    private static final int UPLOAD_STATE_FIELD = 4;
+
+    /**
+     * Position of the object path in an upload record. It is last
+     * because the path may contain the separator.
+     */
+    private static final int PATH_FIELD = 5;
+
+    /**
+     * Position of the part number in a part record.
+     */
+    private static final int PART_NUMBER_FIELD = 1;
+
+    /**
+     * Position of the part size in a part record.
+     */
+    private static final int SIZE_FIELD = 2;
+
+    /**
+     * Position of the etag in a part record.
+     */
+    private static final int ETAG_FIELD = 3;
+
+    /**
+     * Position of the encoded upload state in a part record.
+     */
+    private static final int STATE_FIELD = 4;
+
+    /**
+     * Local file storing the journal.
+     */
+    private final Path file;
+
+    /**
+     * Creates a new instance backed by the specified file.
+     *
+     * @param file local file storing the journal
+     */
+    MultipartUploadJournal(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Truncates the journal and writes a new header to it.
+     *
+     * @param header description of the upload being journaled
+     * @throws IOException thrown when the journal can't be written
+     */
+    void begin(final Header header) throws IOException {
+        final String line = UPLOAD_RECORD + SEPARATOR + header.uploadId + SEPARATOR
+                + header.sourceLength + SEPARATOR + header.partSize + SEPARATOR
+                + Base64.getEncoder().encodeToString(header.state) + SEPARATOR
+                + header.path + '\n';
+
+        write(line, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Appends a completed part to the journal.
+     *
+     * @param entry completed part
+     * @throws IOException thrown when the journal can't be written
+     */
+    void append(final Entry entry) throws IOException {
+        final String line = PART_RECORD + SEPARATOR + entry.partNumber + SEPARATOR
+                + entry.size + SEPARATOR + entry.etag + SEPARATOR
+                + Base64.getEncoder().encodeToString(entry.state) + '\n';
+
+        write(line, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Writes a line to the journal and forces it to disk.
+     *
+     * @param line line to write
+     * @param mode either {@link StandardOpenOption#APPEND} or {@link StandardOpenOption#TRUNCATE_EXISTING}
+     * @throws IOException thrown when the journal can't be written
+     */
+    private void write(final String line, final StandardOpenOption mode) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, mode)) {
+            final ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Reads the journal header.
+     *
+     * @return the journal header or null if the journal doesn't exist or is unreadable
+     * @throws IOException thrown when the journal file can't be read
+     */
+    Header readHeader() throws IOException {
+        final List<String> lines = readCompleteLines();
+
+        if (lines.isEmpty()) {
+            return null;
+        }
+
+        final String[] fields = lines.get(0).split(String.valueOf(SEPARATOR), UPLOAD_RECORD_FIELDS);
+
+        if (fields.length != UPLOAD_RECORD_FIELDS || !UPLOAD_RECORD.equals(fields[0])) {
+            LOGGER.warn("Ignoring malformed multipart upload journal: {}", file);
+            return null;
+        }
+
+        try {
+            return new Header(fields[PATH_FIELD], UUID.fromString(fields[UPLOAD_ID_FIELD]),
+                    Long.parseLong(fields[SOURCE_LENGTH_FIELD]), Long.parseLong(fields[PART_SIZE_FIELD]),
+                    Base64.getDecoder().decode(fields[UPLOAD_STATE_FIELD]));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Ignoring malformed multipart upload journal: {}", file);
+            return null;
+        }
+    }
+
+    /**
+     * Reads all of the parts recorded in the journal in the order they were
+     * written. Malformed records, such as a line torn by a crash, are skipped.
+     *
+     * @return list of recorded parts
+     * @throws IOException thrown when the journal file can't be read
+     */
+    List<Entry> readEntries() throws IOException {
+        final List<String> lines = readCompleteLines();
+        final List<Entry> entries = new ArrayList<>(Math.max(lines.size() - 1, 0));
+
+        for (int i = 1; i < lines.size(); i++) {
+            final String[] fields = StringUtils.splitPreserveAllTokens(lines.get(i), SEPARATOR);
+
+            if (fields.length != PART_RECORD_FIELDS || !PART_RECORD.equals(fields[0])) {
+                LOGGER.debug("Skipping malformed journal record on line {}", i + 1);
+                continue;
+            }
+
+            try {
+                entries.add(new Entry(Integer.parseInt(fields[PART_NUMBER_FIELD]),
+                        Long.parseLong(fields[SIZE_FIELD]), fields[ETAG_FIELD],
+                        Base64.getDecoder().decode(fields[STATE_FIELD])));
+            } catch (IllegalArgumentException e) {
+                LOGGER.debug("Skipping malformed journal record on line {}", i + 1);
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Reads all of the newline terminated lines in the journal. A final line
+     * without a terminator was torn by a crash while being written and is
+     * discarded.
+     *
+     * @return list of complete lines or an empty list if the journal doesn't exist
+     * @throws IOException thrown when the journal file can't be read
+     */
+    private List<String> readCompleteLines() throws IOException {
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+
+        final String contents = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        final String[] lines = StringUtils.splitPreserveAllTokens(contents, '\n');
+
+        /* The last token is either empty (the journal ends with a newline) or
+         * a torn record. In both cases it is dropped. */
+        final List<String> complete = new ArrayList<>(lines.length);
+
+        for (int i = 0; i < lines.length - 1; i++) {
+            complete.add(lines[i]);
+        }
+
+        return complete;
+    }
+
+    /**
+     * Deletes the journal file.
+     *
+     * @throws IOException thrown when the file can't be deleted
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * @return local file storing the journal
+     */
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * Description of the upload recorded in a journal.
+     */
+    static final class Header {
+        /**
+         * Path to the final object.
+         */
+        private final String path;
+
+        /**
+         * Multipart upload id.
+         */
+        private final UUID uploadId;
+
+        /**
+         * Size of the local source file.
+         */
+        private final long sourceLength;
+
+        /**
+         * Size of every part except the last.
+         */
+        private final long partSize;
+
+        /**
+         * Encoded upload state before any part was uploaded.
+         */
+        private final byte[] state;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param path path to the final object
+         * @param uploadId multipart upload id
+         * @param sourceLength size of the local source file
+         * @param partSize size of every part except the last
+         * @param state encoded upload state before any part was uploaded
+         */
+        Header(final String path, final UUID uploadId, final long sourceLength, final long partSize,
+               final byte[] state) {
+            this.path = path;
+            this.uploadId = uploadId;
+            this.sourceLength = sourceLength;
+            this.partSize = partSize;
+            this.state = state;
+        }
+
+        String getPath() {
+            return path;
+        }
+
+        UUID getUploadId() {
+            return uploadId;
+        }
+
+        long getSourceLength() {
+            return sourceLength;
+        }
+
+        long getPartSize() {
+            return partSize;
+        }
+
+        byte[] getState() {
+            return state;
+        }
+    }
+
+    /**
+     * Record of a part that was successfully uploaded.
+     */
+    static final class Entry {
+        /**
+         * Part number.
+         */
+        private final int partNumber;
+
+        /**
+         * Number of source bytes in the part.
+         */
+        private final long size;
+
+        /**
+         * Etag returned by the server for the part.
+         */
+        private final String etag;
+
+        /**
+         * Encoded upload state after the part was uploaded.
+         */
+        private final byte[] state;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param partNumber part number
+         * @param size number of source bytes in the part
+         * @param etag etag returned by the server for the part
+         * @param state encoded upload state after the part was uploaded
+         */
+        Entry(final int partNumber, final long size, final String etag, final byte[] state) {
+            this.partNumber = partNumber;
+            this.size = size;
+            this.etag = etag;
+            this.state = state;
+        }
+
+        int getPartNumber() {
+            return partNumber;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        String getEtag() {
+            return etag;
+        }
+
+        byte[] getState() {
+            return state;
+        }
+    }
+}
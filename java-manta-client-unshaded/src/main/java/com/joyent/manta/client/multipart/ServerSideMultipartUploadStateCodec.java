@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client.multipart;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * {@link MultipartUploadStateCodec} implementation for unencrypted
+ * {@link ServerSideMultipartUpload} instances. Server-side uploads are
+ * immutable, so their state is just the upload id, the object path and
+ * the parts directory.
+ *
+ * @since 3.5.1
+ */
+public class ServerSideMultipartUploadStateCodec
+        implements MultipartUploadStateCodec<ServerSideMultipartUpload> {
+    /**
+     * Separator between encoded fields. Paths can't contain newlines.
+     */
+    private static final char SEPARATOR = '\n';
+
+    /**
+     * Number of fields in an encoded upload.
+     */
+    private static final int FIELD_COUNT = 3;
+
+    @Override
+    public byte[] encode(final ServerSideMultipartUpload upload) {
+        Validate.notNull(upload, "Upload must not be null");
+
+        final String encoded = upload.getId().toString() + SEPARATOR
+                + upload.getPath() + SEPARATOR
+                + StringUtils.defaultString(upload.getPartsDirectory());
+
+        return encoded.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public ServerSideMultipartUpload decode(final byte[] state) {
+        Validate.notNull(state, "State must not be null");
+
+        final String[] fields = StringUtils.splitPreserveAllTokens(
+                new String(state, StandardCharsets.UTF_8), SEPARATOR);
+        Validate.isTrue(fields.length == FIELD_COUNT, "Malformed server-side upload state");
+
+        return new ServerSideMultipartUpload(UUID.fromString(fields[0]), fields[1],
+                StringUtils.defaultIfEmpty(fields[2], null));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client.pack;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Immutable index record describing the location of a single entry
+ * within a pack.
+ *
+ * @since 3.5.1
+ */
+public class MantaPackEntry implements Serializable {
+    private static final long serialVersionUID = -2702218862337604420L;
+
+    /**
+     * Name of the entry, unique within a pack.
+     */
+    private final String name;
+
+    /**
+     * Position of the first byte of the entry within the pack.
+     */
+    private final long offset;
+
+    /**
+     * Number of bytes in the entry.
+     */
+    private final long length;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param name name of the entry
+     * @param offset position of the first byte of the entry within the pack
+     * @param length number of bytes in the entry
+     */
+    public MantaPackEntry(final String name, final long offset, final long length) {
+        this.name = name;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MantaPackEntry)) {
+            return false;
+        }
+
+        final MantaPackEntry that = (MantaPackEntry) o;
+        return offset == that.offset
+                && length == that.length
+                && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, offset, length);
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("name", name)
+                .append("offset", offset)
+                .append("length", length)
+                .toString();
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client.pack;
+
+import com.joyent.manta.client.MantaClient;
+import com.joyent.manta.client.MantaObjectInputStream;
+import com.joyent.manta.exception.MantaIOException;
+import com.joyent.manta.http.MantaHttpHeaders;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * <p>Provides random access to the entries of a pack stored in Manta. The
+ * index is loaded when the reader is opened using a single ranged GET of
+ * the end of the object (or two when the index is larger than
+ * {@link #TAIL_READ_SIZE}). Each entry is then read with a single ranged
+ * GET.</p>
+ *
+ * <p>Entry reads are conditional on the etag of the pack at the time the
+ * index was loaded, so reading from a pack that has since been replaced
+ * fails with a <code>412 Precondition Failed</code> error rather than
+ * returning data from the wrong offsets.</p>
+ *
+ * <p>Instances are immutable once opened and are safe to share between
+ * threads.</p>
+ *
+ * @since 3.5.1
+ */
+public final class MantaPackReader {
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(MantaPackReader.class);
+
+    /**
+     * Number of bytes read from the end of the pack when it is opened. Most
+     * indexes fit within this size, so they are loaded with one request.
+     */
+    static final int TAIL_READ_SIZE = 64 * 1024;
+
+    /**
+     * Manta client used to read the pack.
+     */
+    private final MantaClient client;
+
+    /**
+     * Path to the pack.
+     */
+    private final String path;
+
+    /**
+     * Etag of the pack at the time the index was loaded.
+     */
+    private final String etag;
+
+    /**
+     * Entries in the pack in the order they were written.
+     */
+    private final Map<String, MantaPackEntry> entries;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param client Manta client used to read the pack
+     * @param path path to the pack
+     * @param etag etag of the pack at the time the index was loaded
+     * @param entries entries in the pack
+     */
+    private MantaPackReader(final MantaClient client,
+                            final String path,
+                            final String etag,
+                            final Map<String, MantaPackEntry> entries) {
+        this.client = client;
+        this.path = path;
+        this.etag = etag;
+        this.entries = Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * Opens a pack and loads its index.
+     *
+     * @param client Manta client used to read the pack
+     * @param path path to the pack
+     * @return reader for the pack
+     * @throws IOException thrown when the pack can't be read or isn't a valid pack
+     */
+    public static MantaPackReader open(final MantaClient client, final String path) throws IOException {
+        Validate.notNull(client, "Manta client must not be null");
+        Validate.notBlank(path, "Path must not be blank");
+
+        final MantaHttpHeaders tailHeaders = new MantaHttpHeaders();
+        tailHeaders.setByteRange(null, (long) TAIL_READ_SIZE);
+
+        final byte[] tail;
+        final String etag;
+
+        try (MantaObjectInputStream in = client.getAsInputStream(path, tailHeaders)) {
+            tail = IOUtils.toByteArray(in);
+            etag = in.getEtag();
+        }
+
+        final MantaPackFormat.Trailer trailer = MantaPackFormat.readTrailer(path, tail);
+        final int indexAndTrailer = trailer.getIndexLength() + MantaPackFormat.TRAILER_SIZE;
+        final Map<String, MantaPackEntry> entries;
+
+        if (indexAndTrailer <= tail.length) {
+            entries = MantaPackFormat.readIndex(path, trailer, tail, tail.length - indexAndTrailer);
+        } else {
+            LOGGER.debug("Index of pack {} is {} bytes, reading it separately", path, trailer.getIndexLength());
+
+            final byte[] index = readRange(client, path, etag, trailer.getIndexOffset(),
+                    trailer.getIndexLength());
+            entries = MantaPackFormat.readIndex(path, trailer, index, 0);
+        }
+
+        return new MantaPackReader(client, path, etag, entries);
+    }
+
+    /**
+     * @return path to the pack
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return entries in the pack in the order they were written
+     */
+    public Collection<MantaPackEntry> getEntries() {
+        return entries.values();
+    }
+
+    /**
+     * @param name name of the entry
+     * @return index record of the entry or null if there is no such entry
+     */
+    public MantaPackEntry getEntry(final String name) {
+        return entries.get(name);
+    }
+
+    /**
+     * Opens a stream to the contents of an entry using a single ranged GET.
+     * The stream must be closed by the caller.
+     *
+     * @param name name of the entry
+     * @return stream of the entry contents
+     * @throws IOException thrown when the entry can't be read
+     */
+    public InputStream getAsInputStream(final String name) throws IOException {
+        final MantaPackEntry entry = requireEntry(name);
+
+        /* A zero length range can't be expressed in a Range header. */
+        if (entry.getLength() == 0) {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+
+        return client.getAsInputStream(path, rangeHeaders(etag, entry.getOffset(), entry.getLength()));
+    }
+
+    /**
+     * Reads the contents of an entry into memory using a single ranged GET.
+     *
+     * @param name name of the entry
+     * @return entry contents
+     * @throws IOException thrown when the entry can't be read
+     */
+    public byte[] getAsByteArray(final String name) throws IOException {
+        final MantaPackEntry entry = requireEntry(name);
+
+        if (entry.getLength() == 0) {
+            return new byte[0];
+        }
+
+        Validate.isTrue(entry.getLength() <= Integer.MAX_VALUE,
+                "Entry is too large to be read into a byte array: %s", name);
+
+        return readRange(client, path, etag, entry.getOffset(), (int) entry.getLength());
+    }
+
+    /**
+     * Finds an entry or throws an exception if it doesn't exist.
+     *
+     * @param name name of the entry
+     * @return index record of the entry
+     * @throws MantaIOException thrown when there is no such entry
+     */
+    private MantaPackEntry requireEntry(final String name) throws MantaIOException {
+        final MantaPackEntry entry = entries.get(name);
+
+        if (entry == null) {
+            MantaIOException e = new MantaIOException("Entry not found in pack");
+            e.setContextValue("path", path);
+            e.setContextValue("entry", name);
+            throw e;
+        }
+
+        return entry;
+    }
+
+    /**
+     * Reads a range of bytes from the pack.
+     *
+     * @param client Manta client used to read the pack
+     * @param path path to the pack
+     * @param etag etag the pack must match, may be null
+     * @param offset position of the first byte to read
+     * @param length number of bytes to read
+     * @return bytes read
+     * @throws IOException thrown when the range can't be read in full
+     */
+    private static byte[] readRange(final MantaClient client,
+                                    final String path,
+                                    final String etag,
+                                    final long offset,
+                                    final int length) throws IOException {
+        final byte[] buffer = new byte[length];
+
+        try (MantaObjectInputStream in = client.getAsInputStream(path, rangeHeaders(etag, offset, length))) {
+            IOUtils.readFully(in, buffer);
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Builds the headers for a conditional ranged GET.
+     *
+     * @param etag etag the pack must match, may be null
+     * @param offset position of the first byte to read
+     * @param length number of bytes to read, must be positive
+     * @return request headers
+     */
+    private static MantaHttpHeaders rangeHeaders(final String etag, final long offset, final long length) {
+        final MantaHttpHeaders headers = new MantaHttpHeaders();
+        headers.setByteRange(offset, offset + length - 1);
+
+        if (etag != null) {
+            headers.setIfMatch(etag);
+        }
+
+        return headers;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client.pack;
+
+import com.joyent.manta.exception.MantaIOException;
+import com.joyent.manta.util.NotThreadSafe;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.lang3.Validate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>Writes entries sequentially to a pack. Entry data is copied directly to
+ * the underlying stream and the index and trailer are written when the
+ * writer is closed, so a pack of any size can be written with a single
+ * streaming PUT:</p>
+ *
+ * <pre>
+ * try (MantaPackWriter writer = new MantaPackWriter(client.putAsOutputStream(path))) {
+ *     writer.add("a.json", bytes);
+ *     writer.add("b.json", inputStream);
+ * }
+ * </pre>
+ *
+ * <p>If an entry can't be written, the writer is broken: no more entries
+ * can be added and closing it closes the underlying stream without writing
+ * an index, so that the partial pack can't be mistaken for a valid one.</p>
+ *
+ * <p><strong>This class is not thread-safe.</strong></p>
+ *
+ * @since 3.5.1
+ */
+@NotThreadSafe
+public class MantaPackWriter implements Closeable {
+    /**
+     * Stream that the pack is written to.
+     */
+    private final CountingOutputStream out;
+
+    /**
+     * Entries written so far in the order they were written.
+     */
+    private final Map<String, MantaPackEntry> entries = new LinkedHashMap<>();
+
+    /**
+     * Flag indicating that the index has been written.
+     */
+    private boolean closed = false;
+
+    /**
+     * Flag indicating that an entry failed to be written.
+     */
+    private boolean broken = false;
+
+    /**
+     * Creates a new instance that writes to the specified stream. The stream
+     * is closed when the writer is closed.
+     *
+     * @param out stream to write the pack to
+     */
+    public MantaPackWriter(final OutputStream out) {
+        Validate.notNull(out, "Output stream must not be null");
+        this.out = new CountingOutputStream(out);
+    }
+
+    /**
+     * Adds an entry to the pack.
+     *
+     * @param name name of the entry, unique within the pack
+     * @param data entry contents
+     * @return index record of the entry
+     * @throws IOException thrown when the entry can't be written
+     */
+    public MantaPackEntry add(final String name, final byte[] data) throws IOException {
+        Validate.notNull(data, "Data must not be null");
+        final long offset = start(name);
+
+        try {
+            out.write(data);
+        } catch (IOException | RuntimeException e) {
+            broken = true;
+            throw e;
+        }
+
+        return finish(name, offset);
+    }
+
+    /**
+     * Adds an entry to the pack by copying a stream until it is exhausted.
+     * The stream is not closed.
+     *
+     * @param name name of the entry, unique within the pack
+     * @param in stream to copy the entry contents from
+     * @return index record of the entry
+     * @throws IOException thrown when the entry can't be read or written
+     */
+    public MantaPackEntry add(final String name, final InputStream in) throws IOException {
+        Validate.notNull(in, "Input stream must not be null");
+        final long offset = start(name);
+
+        try {
+            IOUtils.copyLarge(in, out);
+        } catch (IOException | RuntimeException e) {
+            broken = true;
+            throw e;
+        }
+
+        return finish(name, offset);
+    }
+
+    /**
+     * Validates a new entry and returns its offset.
+     *
+     * @param name name of the entry
+     * @return position of the first byte of the entry
+     */
+    private long start(final String name) {
+        Validate.validState(!closed, "Pack writer is closed");
+        Validate.validState(!broken, "Pack writer is broken because an entry failed to be written");
+        Validate.notEmpty(name, "Entry name must not be empty");
+        Validate.isTrue(MantaPackFormat.encodedNameLength(name) <= MantaPackFormat.MAX_NAME_BYTES,
+                "Entry name must not be longer than %d bytes encoded", MantaPackFormat.MAX_NAME_BYTES);
+        Validate.isTrue(!entries.containsKey(name), "Duplicate entry name: %s", name);
+
+        return out.getByteCount();
+    }
+
+    /**
+     * Records a completed entry in the index.
+     *
+     * @param name name of the entry
+     * @param offset position of the first byte of the entry
+     * @return index record of the entry
+     */
+    private MantaPackEntry finish(final String name, final long offset) {
+        final MantaPackEntry entry = new MantaPackEntry(name, offset, out.getByteCount() - offset);
+        entries.put(name, entry);
+
+        return entry;
+    }
+
+    /**
+     * @return number of entries written so far
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the index and trailer and closes the underlying stream. If an
+     * entry failed to be written, the stream is closed without an index.
+     *
+     * @throws IOException thrown when the index can't be written or the writer is broken
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        if (broken) {
+            out.close();
+            throw new MantaIOException("Pack was closed without an index because an entry failed to be written");
+        }
+
+        try (OutputStream closing = out) {
+            final long indexOffset = out.getByteCount();
+            final byte[] index = MantaPackFormat.writeIndex(entries.values());
+
+            closing.write(index);
+            closing.write(MantaPackFormat.writeTrailer(indexOffset, index));
+        }
+    }
+}
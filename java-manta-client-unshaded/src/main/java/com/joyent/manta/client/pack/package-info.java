@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+/**
+ * <p>Package containing classes for storing many small files as a single
+ * Manta object (a pack) and reading individual files back.</p>
+ *
+ * <p>A pack is written sequentially using {@link com.joyent.manta.client.pack.MantaPackWriter},
+ * typically on top of the stream returned by
+ * {@link com.joyent.manta.client.MantaClient#putAsOutputStream(String)}. The
+ * entry data is followed by an index of entry names, offsets and lengths and
+ * a fixed size trailer that locates the index. A
+ * {@link com.joyent.manta.client.pack.MantaPackReader} loads the index with
+ * a single ranged GET of the end of the object and then reads each entry
+ * with a single ranged GET of its bytes.</p>
+ *
+ * @since 3.5.1
+ */
+package com.joyent.manta.client.pack;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017-2019, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2017-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -448,6 +448,33 @@ public class AuthAwareConfigContext
         return this;
     }
 
+    @Override
+    public AuthAwareConfigContext setDirectoryCacheSize(final Integer size) {
+        synchronized (lock) {
+            super.setDirectoryCacheSize(size);
+        }
+
+        return this;
+    }
+
+    @Override
+    public AuthAwareConfigContext setDirectoryCacheTtl(final Integer ttl) {
+        synchronized (lock) {
+            super.setDirectoryCacheTtl(ttl);
+        }
+
+        return this;
+    }
+
+    @Override
+    public AuthAwareConfigContext setEncryptionThreads(final Integer threads) {
+        synchronized (lock) {
+            super.setEncryptionThreads(threads);
+        }
+
+        return this;
+    }
+
     @Override
     public AuthAwareConfigContext setDownloadContinuations(final Integer continuation) {
         synchronized (lock) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2019-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -134,6 +134,22 @@ public abstract class BaseChainedConfigContext implements SettableConfigContext<
      */
     private volatile Integer pruneEmptyParentDepth;
 
+    /**
+     * Maximum number of directories known to exist remembered when creating
+     * directories recursively.
+     */
+    private volatile Integer directoryCacheSize;
+
+    /**
+     * Number of milliseconds that a directory known to exist is remembered.
+     */
+    private volatile Integer directoryCacheTtl;
+
+    /**
+     * Number of threads used to encrypt the content of a single object.
+     */
+    private volatile Integer encryptionThreads;
+
     /**
      * Whether or not we can attempt to resume a download automatically.
      */
@@ -325,6 +341,21 @@ public abstract class BaseChainedConfigContext implements SettableConfigContext<
         return this.pruneEmptyParentDepth;
     }
 
+    @Override
+    public Integer getDirectoryCacheSize() {
+        return this.directoryCacheSize;
+    }
+
+    @Override
+    public Integer getDirectoryCacheTtl() {
+        return this.directoryCacheTtl;
+    }
+
+    @Override
+    public Integer getEncryptionThreads() {
+        return this.encryptionThreads;
+    }
+
     @Override
     public Integer downloadContinuations() {
         return this.downloadContinuations;
@@ -536,6 +567,18 @@ public abstract class BaseChainedConfigContext implements SettableConfigContext<
             this.pruneEmptyParentDepth = context.getPruneEmptyParentDepth();
         }
 
+        if (context.getDirectoryCacheSize() != null) {
+            this.directoryCacheSize = context.getDirectoryCacheSize();
+        }
+
+        if (context.getDirectoryCacheTtl() != null) {
+            this.directoryCacheTtl = context.getDirectoryCacheTtl();
+        }
+
+        if (context.getEncryptionThreads() != null) {
+            this.encryptionThreads = context.getEncryptionThreads();
+        }
+
         if (context.downloadContinuations() != null) {
             this.downloadContinuations = context.downloadContinuations();
         }
@@ -713,6 +756,18 @@ public abstract class BaseChainedConfigContext implements SettableConfigContext<
             this.pruneEmptyParentDepth = context.getPruneEmptyParentDepth();
         }
 
+        if (this.directoryCacheSize == null) {
+            this.directoryCacheSize = context.getDirectoryCacheSize();
+        }
+
+        if (this.directoryCacheTtl == null) {
+            this.directoryCacheTtl = context.getDirectoryCacheTtl();
+        }
+
+        if (this.encryptionThreads == null) {
+            this.encryptionThreads = context.getEncryptionThreads();
+        }
+
         if (this.downloadContinuations == null) {
             this.downloadContinuations = context.downloadContinuations();
         }
@@ -933,6 +988,27 @@ public abstract class BaseChainedConfigContext implements SettableConfigContext<
         return this;
     }
 
+    @Override
+    public BaseChainedConfigContext setDirectoryCacheSize(final Integer size) {
+        this.directoryCacheSize = size;
+
+        return this;
+    }
+
+    @Override
+    public BaseChainedConfigContext setDirectoryCacheTtl(final Integer ttl) {
+        this.directoryCacheTtl = ttl;
+
+        return this;
+    }
+
+    @Override
+    public BaseChainedConfigContext setEncryptionThreads(final Integer threads) {
+        this.encryptionThreads = threads;
+
+        return this;
+    }
+
     @Override
     public BaseChainedConfigContext setDownloadContinuations(final Integer continuation) {
         this.downloadContinuations = continuation;
@@ -1050,6 +1126,9 @@ public abstract class BaseChainedConfigContext implements SettableConfigContext<
                 && Objects.equals(uploadBufferSize, that.uploadBufferSize)
                 && Objects.equals(skipDirectoryDepth, that.skipDirectoryDepth)
                 && Objects.equals(pruneEmptyParentDepth, that.pruneEmptyParentDepth)
+                && Objects.equals(directoryCacheSize, that.directoryCacheSize)
+                && Objects.equals(directoryCacheTtl, that.directoryCacheTtl)
+                && Objects.equals(encryptionThreads, that.encryptionThreads)
                 && Objects.equals(downloadContinuations, that.downloadContinuations)
                 && Objects.equals(metricReporterMode, that.metricReporterMode)
                 && Objects.equals(metricReporterOutputInterval, that.metricReporterOutputInterval)
@@ -1072,6 +1151,8 @@ public abstract class BaseChainedConfigContext implements SettableConfigContext<
                 tcpSocketTimeout, connectionRequestTimeout, expectContinueTimeout,
                 verifyUploads, uploadBufferSize,
                 skipDirectoryDepth,
+                directoryCacheSize, directoryCacheTtl,
+                encryptionThreads,
                 downloadContinuations,
                 metricReporterMode,
                 metricReporterOutputInterval,
@@ -176,6 +176,24 @@ public interface ConfigContext extends MantaMBeanable {
      */
     Integer getPruneEmptyParentDepth();
 
+    /**
+     * @return the maximum number of directories known to exist that are remembered
+     *         when creating directories recursively. 0 disables the cache.
+     */
+    Integer getDirectoryCacheSize();
+
+    /**
+     * @return number of milliseconds that a directory known to exist is remembered
+     *         when creating directories recursively. 0 disables the cache.
+     */
+    Integer getDirectoryCacheTtl();
+
+    /**
+     * @return number of threads used to encrypt the content of a single
+     *         object when the cipher supports it. 1 encrypts serially.
+     */
+    Integer getEncryptionThreads();
+
     /**
      * Whether unbounded (-1) or bounded (positive integer) download continuations are enabled.
      * @return if download continuation is enabled
@@ -290,6 +308,9 @@ public interface ConfigContext extends MantaMBeanable {
         sb.append(", uploadBufferSize=").append(context.getUploadBufferSize());
         sb.append(", skipDirectoryDepth=").append(context.getSkipDirectoryDepth());
         sb.append(", pruneEmptyParentDepth=").append(context.getPruneEmptyParentDepth());
+        sb.append(", directoryCacheSize=").append(context.getDirectoryCacheSize());
+        sb.append(", directoryCacheTtl=").append(context.getDirectoryCacheTtl());
+        sb.append(", encryptionThreads=").append(context.getEncryptionThreads());
         sb.append(", downloadContinuations=").append(context.downloadContinuations());
         sb.append(", metricReporterMode=").append(context.getMetricReporterMode());
         sb.append(", metricReporterOutputInterval=").append(context.getMetricReporterOutputInterval());
@@ -370,6 +391,18 @@ public interface ConfigContext extends MantaMBeanable {
             failureMessages.add("Manta prune empty parent depth must be -1 or greater");
         }
 
+        if (config.getDirectoryCacheSize() != null && config.getDirectoryCacheSize() < 0) {
+            failureMessages.add("Manta directory cache size must be 0 or greater");
+        }
+
+        if (config.getDirectoryCacheTtl() != null && config.getDirectoryCacheTtl() < 0) {
+            failureMessages.add("Manta directory cache TTL must be 0 or greater");
+        }
+
+        if (config.getEncryptionThreads() != null && config.getEncryptionThreads() < 1) {
+            failureMessages.add("Manta encryption threads must be 1 or greater");
+        }
+
         if (config.getMetricReporterMode() != null) {
             if (MetricReporterMode.SLF4J.equals(config.getMetricReporterMode())) {
                 if (config.getMetricReporterOutputInterval() == null) {
@@ -594,6 +627,15 @@ public interface ConfigContext extends MantaMBeanable {
             case MapConfigContext.MANTA_SKIP_DIRECTORY_DEPTH_KEY:
             case EnvVarConfigContext.MANTA_SKIP_DIRECTORY_DEPTH_ENV_KEY:
                 return config.getSkipDirectoryDepth();
+            case MapConfigContext.MANTA_DIRECTORY_CACHE_SIZE_KEY:
+            case EnvVarConfigContext.MANTA_DIRECTORY_CACHE_SIZE_ENV_KEY:
+                return config.getDirectoryCacheSize();
+            case MapConfigContext.MANTA_DIRECTORY_CACHE_TTL_KEY:
+            case EnvVarConfigContext.MANTA_DIRECTORY_CACHE_TTL_ENV_KEY:
+                return config.getDirectoryCacheTtl();
+            case MapConfigContext.MANTA_ENCRYPTION_THREADS_KEY:
+            case EnvVarConfigContext.MANTA_ENCRYPTION_THREADS_ENV_KEY:
+                return config.getEncryptionThreads();
             case MapConfigContext.MANTA_DOWNLOAD_CONTINUATIONS_KEY:
             case EnvVarConfigContext.MANTA_DOWNLOAD_CONTINUATIONS_ENV_KEY:
                 return config.downloadContinuations();
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2016-2019, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2016-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -156,6 +156,18 @@ public class ConfigContextMBean implements DynamicMBean {
                         Integer.class.getName(),
                         "The depth of parent directories to delete when empty",
                         true, this.isSettable, false),
+                new MBeanAttributeInfo(MapConfigContext.MANTA_DIRECTORY_CACHE_SIZE_KEY,
+                        Integer.class.getName(),
+                        "The number of directories known to exist to remember when creating directories recursively",
+                        true, this.isSettable, false),
+                new MBeanAttributeInfo(MapConfigContext.MANTA_DIRECTORY_CACHE_TTL_KEY,
+                        Integer.class.getName(),
+                        "Time in milliseconds to remember a directory known to exist",
+                        true, this.isSettable, false),
+                new MBeanAttributeInfo(MapConfigContext.MANTA_ENCRYPTION_THREADS_KEY,
+                        Integer.class.getName(),
+                        "The number of threads used to encrypt the content of a single object",
+                        true, this.isSettable, false),
                 new MBeanAttributeInfo(MapConfigContext.MANTA_DOWNLOAD_CONTINUATIONS_KEY,
                             Integer.class.getName(),
                             "Maximum number of continuations in downloads for one request",
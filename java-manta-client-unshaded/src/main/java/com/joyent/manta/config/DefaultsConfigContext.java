@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2019-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -148,6 +148,21 @@ public class DefaultsConfigContext implements ConfigContext {
      */
     public static final int DEFAULT_DOWNLOAD_CONTINUATIONS = DOWNLOAD_CONTINUATIONS_DISABLED;
 
+    /**
+     * The directory cache is disabled by default.
+     */
+    public static final int DEFAULT_DIRECTORY_CACHE_SIZE = 0;
+
+    /**
+     * Default time to remember a directory known to exist (1 minute).
+     */
+    public static final int DEFAULT_DIRECTORY_CACHE_TTL = 60_000;
+
+    /**
+     * Content is encrypted serially by default.
+     */
+    public static final int DEFAULT_ENCRYPTION_THREADS = 1;
+
     static {
         // Don't even bother setting a default key path if it doesn't exist
         String defaultKeyPath = String.format("%s/.ssh/id_rsa",
@@ -278,6 +293,21 @@ public class DefaultsConfigContext implements ConfigContext {
         return null;
     }
 
+    @Override
+    public Integer getDirectoryCacheSize() {
+        return DEFAULT_DIRECTORY_CACHE_SIZE;
+    }
+
+    @Override
+    public Integer getDirectoryCacheTtl() {
+        return DEFAULT_DIRECTORY_CACHE_TTL;
+    }
+
+    @Override
+    public Integer getEncryptionThreads() {
+        return DEFAULT_ENCRYPTION_THREADS;
+    }
+
     @Override
     public Integer downloadContinuations() {
         return DEFAULT_DOWNLOAD_CONTINUATIONS;
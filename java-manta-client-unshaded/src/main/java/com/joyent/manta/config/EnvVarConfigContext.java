@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015-2019, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2015-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -130,6 +130,21 @@ public class EnvVarConfigContext implements ConfigContext {
      */
     public static final String MANTA_PRUNE_EMPTY_PARENT_DEPTH_ENV_KEY = "MANTA_PRUNE_EMPTY_PARENT_DEPTH";
 
+    /**
+     * Environment variable for setting the number of directories known to exist to remember.
+     */
+    public static final String MANTA_DIRECTORY_CACHE_SIZE_ENV_KEY = "MANTA_DIRECTORY_CACHE_SIZE";
+
+    /**
+     * Environment variable for setting the time in milliseconds to remember a directory known to exist.
+     */
+    public static final String MANTA_DIRECTORY_CACHE_TTL_ENV_KEY = "MANTA_DIRECTORY_CACHE_TTL";
+
+    /**
+     * Environment variable for setting the number of threads used to encrypt a single object.
+     */
+    public static final String MANTA_ENCRYPTION_THREADS_ENV_KEY = "MANTA_ENCRYPTION_THREADS";
+
     /**
      * Environment variable for setting whether download continuation is enabled.
      */
@@ -207,6 +222,9 @@ public class EnvVarConfigContext implements ConfigContext {
             MANTA_UPLOAD_BUFFER_SIZE_ENV_KEY,
             MANTA_SKIP_DIRECTORY_DEPTH_ENV_KEY,
             MANTA_PRUNE_EMPTY_PARENT_DEPTH_ENV_KEY,
+            MANTA_DIRECTORY_CACHE_SIZE_ENV_KEY,
+            MANTA_DIRECTORY_CACHE_TTL_ENV_KEY,
+            MANTA_ENCRYPTION_THREADS_ENV_KEY,
             MANTA_DOWNLOAD_CONTINUATIONS_ENV_KEY,
             MANTA_METRIC_REPORTER_MODE_ENV_KEY,
             MANTA_METRIC_REPORTER_OUTPUT_INTERVAL_ENV_KEY,
@@ -357,6 +375,21 @@ public class EnvVarConfigContext implements ConfigContext {
         return MantaUtils.parseIntegerOrNull(getEnv(MANTA_PRUNE_EMPTY_PARENT_DEPTH_ENV_KEY));
     }
 
+    @Override
+    public Integer getDirectoryCacheSize() {
+        return MantaUtils.parseIntegerOrNull(getEnv(MANTA_DIRECTORY_CACHE_SIZE_ENV_KEY));
+    }
+
+    @Override
+    public Integer getDirectoryCacheTtl() {
+        return MantaUtils.parseIntegerOrNull(getEnv(MANTA_DIRECTORY_CACHE_TTL_ENV_KEY));
+    }
+
+    @Override
+    public Integer getEncryptionThreads() {
+        return MantaUtils.parseIntegerOrNull(getEnv(MANTA_ENCRYPTION_THREADS_ENV_KEY));
+    }
+
 
     @Override
     public Integer downloadContinuations() {
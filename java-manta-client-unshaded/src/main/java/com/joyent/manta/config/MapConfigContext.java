@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2019-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -133,6 +133,21 @@ public class MapConfigContext implements ConfigContext {
      */
     public static final String MANTA_PRUNE_EMPTY_PARENT_DEPTH_KEY = "manta.prune_empty_parent_depth";
 
+    /**
+     * Property key for setting the number of directories known to exist to remember.
+     */
+    public static final String MANTA_DIRECTORY_CACHE_SIZE_KEY = "manta.directory_cache_size";
+
+    /**
+     * Property key for setting the time in milliseconds to remember a directory known to exist.
+     */
+    public static final String MANTA_DIRECTORY_CACHE_TTL_KEY = "manta.directory_cache_ttl";
+
+    /**
+     * Property key for setting the number of threads used to encrypt a single object.
+     */
+    public static final String MANTA_ENCRYPTION_THREADS_KEY = "manta.encryption_threads";
+
     /**
      * Property key for setting the number of directories to assume exist when creating directories recursively.
      */
@@ -218,6 +233,9 @@ public class MapConfigContext implements ConfigContext {
             MANTA_CONNECTION_REQUEST_TIMEOUT_KEY,
             MANTA_SKIP_DIRECTORY_DEPTH_KEY,
             MANTA_PRUNE_EMPTY_PARENT_DEPTH_KEY,
+            MANTA_DIRECTORY_CACHE_SIZE_KEY,
+            MANTA_DIRECTORY_CACHE_TTL_KEY,
+            MANTA_ENCRYPTION_THREADS_KEY,
             MANTA_DOWNLOAD_CONTINUATIONS_KEY,
             MANTA_METRIC_REPORTER_MODE_KEY,
             MANTA_METRIC_REPORTER_OUTPUT_INTERVAL_KEY,
@@ -455,6 +473,39 @@ public class MapConfigContext implements ConfigContext {
         return MantaUtils.parseIntegerOrNull(backingMap.get(MANTA_PRUNE_EMPTY_PARENT_DEPTH_ENV_KEY));
     }
 
+    @Override
+    public Integer getDirectoryCacheSize() {
+        final Integer mapValue = MantaUtils.parseIntegerOrNull(backingMap.get(MANTA_DIRECTORY_CACHE_SIZE_KEY));
+
+        if (mapValue != null) {
+            return mapValue;
+        }
+
+        return MantaUtils.parseIntegerOrNull(backingMap.get(MANTA_DIRECTORY_CACHE_SIZE_ENV_KEY));
+    }
+
+    @Override
+    public Integer getDirectoryCacheTtl() {
+        final Integer mapValue = MantaUtils.parseIntegerOrNull(backingMap.get(MANTA_DIRECTORY_CACHE_TTL_KEY));
+
+        if (mapValue != null) {
+            return mapValue;
+        }
+
+        return MantaUtils.parseIntegerOrNull(backingMap.get(MANTA_DIRECTORY_CACHE_TTL_ENV_KEY));
+    }
+
+    @Override
+    public Integer getEncryptionThreads() {
+        final Integer mapValue = MantaUtils.parseIntegerOrNull(backingMap.get(MANTA_ENCRYPTION_THREADS_KEY));
+
+        if (mapValue != null) {
+            return mapValue;
+        }
+
+        return MantaUtils.parseIntegerOrNull(backingMap.get(MANTA_ENCRYPTION_THREADS_ENV_KEY));
+    }
+
     @Override
     public Integer downloadContinuations() {
         final Integer mapValue = MantaUtils.parseIntegerOrNull(backingMap.get(MANTA_DOWNLOAD_CONTINUATIONS_KEY));
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2019-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -197,6 +197,32 @@ public interface SettableConfigContext<T> extends ConfigContext {
      */
     T setPruneEmptyParentDepth(Integer depth);
 
+    /**
+     * Sets the maximum number of directories known to exist that are remembered
+     * when creating directories recursively.
+     *
+     * @param size number of directories to remember, 0 to disable the cache
+     * @return the current instance of {@link T}
+     */
+    T setDirectoryCacheSize(Integer size);
+
+    /**
+     * Sets the time that a directory known to exist is remembered.
+     *
+     * @param ttl number of milliseconds to remember a directory
+     * @return the current instance of {@link T}
+     */
+    T setDirectoryCacheTtl(Integer ttl);
+
+    /**
+     * Sets the number of threads used to encrypt the content of a single
+     * object when the cipher supports it.
+     *
+     * @param threads number of threads, 1 to encrypt serially
+     * @return the current instance of {@link T}
+     */
+    T setEncryptionThreads(Integer threads);
+
     /**
      * Sets whether download continuation is enabled.
      *
@@ -382,6 +408,18 @@ public interface SettableConfigContext<T> extends ConfigContext {
             case EnvVarConfigContext.MANTA_PRUNE_EMPTY_PARENT_DEPTH_ENV_KEY:
                 config.setPruneEmptyParentDepth(MantaUtils.parseIntegerOrNull(value));
                 break;
+            case MapConfigContext.MANTA_DIRECTORY_CACHE_SIZE_KEY:
+            case EnvVarConfigContext.MANTA_DIRECTORY_CACHE_SIZE_ENV_KEY:
+                config.setDirectoryCacheSize(MantaUtils.parseIntegerOrNull(value));
+                break;
+            case MapConfigContext.MANTA_DIRECTORY_CACHE_TTL_KEY:
+            case EnvVarConfigContext.MANTA_DIRECTORY_CACHE_TTL_ENV_KEY:
+                config.setDirectoryCacheTtl(MantaUtils.parseIntegerOrNull(value));
+                break;
+            case MapConfigContext.MANTA_ENCRYPTION_THREADS_KEY:
+            case EnvVarConfigContext.MANTA_ENCRYPTION_THREADS_ENV_KEY:
+                config.setEncryptionThreads(MantaUtils.parseIntegerOrNull(value));
+                break;
             case MapConfigContext.MANTA_METRIC_REPORTER_MODE_KEY:
             case EnvVarConfigContext.MANTA_METRIC_REPORTER_MODE_ENV_KEY:
                 final String metricReporterModeStr = Objects.toString(value);
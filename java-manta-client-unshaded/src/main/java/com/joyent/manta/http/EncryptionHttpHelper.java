@@ -22,12 +22,18 @@ import com.joyent.manta.client.crypto.SupportedHmacsLookupMap;
 import com.joyent.manta.config.ConfigContext;
 import com.joyent.manta.config.DefaultsConfigContext;
 import com.joyent.manta.config.EncryptionAuthenticationMode;
+import com.joyent.manta.exception.MantaClientEncryptionCiphertextAuthenticationException;
 import com.joyent.manta.exception.MantaClientEncryptionException;
 import com.joyent.manta.exception.MantaIOException;
+import com.joyent.manta.http.entity.EmbeddedHttpContent;
+import com.joyent.manta.http.entity.ExposedByteArrayEntity;
 import com.joyent.manta.http.entity.NoContentEntity;
 import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
@@ -37,10 +43,13 @@ import org.apache.http.HttpStatus;
 import org.apache.http.NameValuePair;
 import org.apache.http.StatusLine;
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.AbstractHttpEntity;
 import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.message.BasicNameValuePair;
 import org.bouncycastle.crypto.macs.HMac;
@@ -52,19 +61,29 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.SecretKey;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.spec.AlgorithmParameterSpec;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 
 /**
@@ -91,6 +110,13 @@ public class EncryptionHttpHelper extends StandardHttpHelper {
     private static final String CIPHERTEXT_CONTENT_TYPE =
             ContentType.APPLICATION_OCTET_STREAM.toString();
 
+    /**
+     * Maximum number of plaintext bytes of an entity of unknown length that
+     * are buffered in memory in order to find its length before uploading it,
+     * when its plaintext length can't be calculated from its ciphertext length.
+     */
+    static final int PLAINTEXT_LENGTH_BUFFER_SIZE = 1024 * 1024;
+
     /**
      * The unique identifier of the key used for encryption.
      */
@@ -116,6 +142,17 @@ public class EncryptionHttpHelper extends StandardHttpHelper {
      */
     private final SupportedCipherDetails cipherDetails;
 
+    /**
+     * Number of threads used to encrypt the content of a single object.
+     */
+    private final int encryptionThreads;
+
+    /**
+     * Executor used to encrypt content in parallel or null when content is
+     * encrypted serially.
+     */
+    private final ExecutorService encryptionExecutor;
+
     /**
      * Creates a new instance of the helper class.
      * @param connectionContext saved context used between requests to the Manta client
@@ -174,6 +211,20 @@ public class EncryptionHttpHelper extends StandardHttpHelper {
                 SupportedCiphersLookupMap.INSTANCE.getWithCaseInsensitiveKey(
                         config.getEncryptionAlgorithm()), DefaultsConfigContext.DEFAULT_CIPHER);
 
+        this.encryptionThreads = ObjectUtils.firstNonNull(
+                config.getEncryptionThreads(),
+                DefaultsConfigContext.DEFAULT_ENCRYPTION_THREADS);
+
+        if (this.encryptionThreads > 1 && this.cipherDetails.supportsRandomAccess()) {
+            this.encryptionExecutor = Executors.newFixedThreadPool(encryptionThreads,
+                    new BasicThreadFactory.Builder()
+                            .namingPattern("manta-encrypt-%d")
+                            .daemon(true)
+                            .build());
+        } else {
+            this.encryptionExecutor = null;
+        }
+
         if (config.getEncryptionPrivateKeyPath() != null) {
             Path keyPath = Paths.get(config.getEncryptionPrivateKeyPath());
 
@@ -223,8 +274,21 @@ public class EncryptionHttpHelper extends StandardHttpHelper {
             httpHeaders = headers;
         }
 
+        /* When the plaintext size can't be calculated from the ciphertext size,
+         * we buffer small entities of unknown length so that the plaintext
+         * size is sent with the object instead of in a second request. */
+        final HttpEntity entity;
+
+        if (originalEntity.getContentLength() < 0
+                && cipherDetails.plaintextSizeCalculationIsAnEstimate()
+                && !originalEntity.getClass().equals(EmbeddedHttpContent.class)) {
+            entity = bufferToFindLength(originalEntity);
+        } else {
+            entity = originalEntity;
+        }
+
         EncryptingEntity encryptingEntity = new EncryptingEntity(
-                secretKey, cipherDetails, originalEntity);
+                secretKey, cipherDetails, entity, encryptionExecutor, encryptionThreads);
 
         final MantaMetadata metadata;
 
@@ -236,7 +300,7 @@ public class EncryptionHttpHelper extends StandardHttpHelper {
 
         /* We rewrite in the content-type so that from the perspective of the API consumer,
          * they are seeing the object written as if it wasn't encrypted. */
-        String contentType = findOriginalContentType(originalEntity, httpHeaders);
+        String contentType = findOriginalContentType(entity, httpHeaders);
 
         // Only add the wrapped content type if it isn't explicitly set
         if (contentType != null && !metadata.containsKey(MantaHttpHeaders.ENCRYPTED_CONTENT_TYPE)) {
@@ -261,7 +325,8 @@ public class EncryptionHttpHelper extends StandardHttpHelper {
         response.setContentType(contentType);
 
         /* If we sent over an entity where it was impossible to know the original size until
-         * we finished streaming, then we do an additional call to update the metadata of the
+         * we finished streaming (one larger than PLAINTEXT_LENGTH_BUFFER_SIZE or
+         * written through an OutputStream), then we do an additional call to update the metadata of the
          * object so that the plaintext size is stored.
          *
          * Having this data available allows MantaEncryptedObjectInputStream.getContentLength()
@@ -276,7 +341,7 @@ public class EncryptionHttpHelper extends StandardHttpHelper {
          */
 
         // content-length of -1 means we are sending in chunked mode
-        if (originalEntity.getContentLength() < 0 && cipherDetails.plaintextSizeCalculationIsAnEstimate()) {
+        if (entity.getContentLength() < 0 && cipherDetails.plaintextSizeCalculationIsAnEstimate()) {
             appendPlaintextContentLength(path, encryptingEntity, metadata, response);
         }
 
@@ -404,6 +469,224 @@ public class EncryptionHttpHelper extends StandardHttpHelper {
         }
     }
 
+    /**
+     * <p>Downloads an object to a file with concurrent ranged GETs. Objects
+     * encrypted with a cipher that supports random access (AES/CTR) are
+     * decrypted by the range workers. Each range is translated to a ciphertext
+     * range with {@link SupportedCipherDetails#translateByteRange(long, long)}
+     * and decrypted by its own cipher starting at the counter of its first
+     * block.</p>
+     *
+     * <p>Unless the authentication mode is
+     * {@link EncryptionAuthenticationMode#VerificationDisabled}, the object is
+     * then authenticated by computing its HMAC over the plaintext written to
+     * the file in a single streaming pass and comparing it with the HMAC stored
+     * at the end of the ciphertext. This is why parallel downloads are allowed
+     * in {@link EncryptionAuthenticationMode#Mandatory} mode even though
+     * range requests aren't. VerificationDisabled mode skips that pass and is
+     * the unauthenticated fast mode.</p>
+     *
+     * <p>Objects encrypted with other ciphers are downloaded and authenticated
+     * with a single GET.</p>
+     */
+    @Override
+    protected long httpGetToChannel(final String path,
+                                    final MantaObjectResponse object,
+                                    final HttpHead head,
+                                    final HttpResponse headResponse,
+                                    final FileChannel target,
+                                    final int concurrency,
+                                    final Executor executor) throws IOException {
+        final String cipherId = object.getHeaderAsString(MantaHttpHeaders.ENCRYPTION_CIPHER);
+
+        if (cipherId == null) {
+            if (permitUnencryptedDownloads) {
+                return super.httpGetToChannel(path, object, head, headResponse, target, concurrency, executor);
+            }
+
+            String msg = "Unable to download a unencrypted file when "
+                    + "client-side encryption is enabled unless the "
+                    + "permit unencrypted downloads configuration setting "
+                    + "is enabled";
+            MantaClientEncryptionException mcee = new MantaClientEncryptionException(msg);
+            HttpHelper.annotateContextedException(mcee, head, headResponse);
+            throw mcee;
+        }
+
+        enforceCipherAndMode(cipherId, head, headResponse);
+
+        if (!cipherDetails.supportsRandomAccess() || cipherDetails.isAEADCipher()) {
+            final HttpGet get = getRequestFactory().get(path);
+
+            try (MantaObjectInputStream in = httpRequestAsInputStream(get, null)) {
+                return ParallelRangeDownloader.copy(in, target, 0L);
+            }
+        }
+
+        final String ivBase64 = object.getHeaderAsString(MantaHttpHeaders.ENCRYPTION_IV);
+        final String hmacId = object.getHeaderAsString(MantaHttpHeaders.ENCRYPTION_HMAC_TYPE);
+        final Supplier<HMac> hmacSupplier;
+
+        if (hmacId == null) {
+            hmacSupplier = null;
+        } else {
+            hmacSupplier = SupportedHmacsLookupMap.INSTANCE.get(hmacId);
+        }
+
+        if (ivBase64 == null || hmacSupplier == null) {
+            String msg = "Encrypted object is missing a valid IV or HMAC type";
+            MantaClientEncryptionException mcee = new MantaClientEncryptionException(msg);
+            HttpHelper.annotateContextedException(mcee, head, headResponse);
+            mcee.setContextValue("hmacType", hmacId);
+            throw mcee;
+        }
+
+        final byte[] iv = Base64.getDecoder().decode(ivBase64);
+        final HMac hmac = hmacSupplier.get();
+        final long ciphertextSize = object.getContentLength();
+        final long plaintextSize = ciphertextSize - hmac.getMacSize();
+        final String etag = object.getEtag();
+
+        Validate.isTrue(plaintextSize >= 0,
+                "Ciphertext size [%d] is smaller than the HMAC", ciphertextSize);
+
+        ParallelRangeDownloader.download(path, plaintextSize, concurrency, executor,
+                (start, end) -> decryptRangeToChannel(path, etag, iv, start, end, target));
+
+        if (!encryptionAuthenticationMode.equals(EncryptionAuthenticationMode.VerificationDisabled)) {
+            authenticateDownload(path, etag, iv, hmac, plaintextSize, target);
+        }
+
+        return plaintextSize;
+    }
+
+    /**
+     * Downloads a range of an object encrypted with a cipher that supports
+     * random access, decrypts it and writes the plaintext to a file at the
+     * same position.
+     *
+     * @param path path of the object
+     * @param etag etag of the object
+     * @param iv IV the object was encrypted with
+     * @param startInclusive plaintext position of the first byte, which must be on a block boundary
+     * @param endInclusive plaintext position of the last byte
+     * @param target file to write the plaintext to
+     * @throws IOException thrown when the range can't be downloaded, decrypted or written
+     */
+    private void decryptRangeToChannel(final String path,
+                                       final String etag,
+                                       final byte[] iv,
+                                       final long startInclusive,
+                                       final long endInclusive,
+                                       final FileChannel target) throws IOException {
+        final ByteRangeConversion range = cipherDetails.translateByteRange(startInclusive, endInclusive);
+
+        Validate.isTrue(range.getPlaintextBytesToSkipInitially() == 0,
+                "Range must start on a cipher block boundary");
+
+        /* The ciphertext range ends on a block boundary, which for the last
+         * range can be in the HMAC. Since CTR ciphertext is as long as the
+         * plaintext we stop at the last byte of the plaintext instead. */
+        final long ciphertextStart = range.getCiphertextStartPositionInclusive();
+        final long ciphertextEnd = Math.min(range.getCiphertextEndPositionInclusive(),
+                ciphertextStart + (endInclusive - startInclusive));
+
+        final Cipher cipher = cipherDetails.getCipher();
+        final byte[] ciphertext = new byte[ParallelRangeDownloader.COPY_BUFFER_SIZE];
+        long position = startInclusive;
+
+        try (InputStream in = httpRangeAsInputStream(path, etag, ciphertextStart, ciphertextEnd)) {
+            cipher.init(Cipher.DECRYPT_MODE, secretKey,
+                    cipherDetails.getEncryptionParameterSpec(iv, ciphertextStart));
+            final byte[] plaintext = new byte[cipher.getOutputSize(ciphertext.length)];
+            int read;
+
+            while ((read = in.read(ciphertext)) != -1) {
+                final int decrypted = cipher.update(ciphertext, 0, read, plaintext, 0);
+                ParallelRangeDownloader.write(target, position, plaintext, decrypted);
+                position += decrypted;
+            }
+
+            final int decrypted = cipher.doFinal(plaintext, 0);
+            ParallelRangeDownloader.write(target, position, plaintext, decrypted);
+            position += decrypted;
+        } catch (GeneralSecurityException e) {
+            MantaClientEncryptionException mcee = new MantaClientEncryptionException(
+                    "Unable to decrypt range", e);
+            mcee.setContextValue("path", path);
+            mcee.setContextValue("ciphertextStart", ciphertextStart);
+            mcee.setContextValue("ciphertextEnd", ciphertextEnd);
+            throw mcee;
+        }
+
+        ParallelRangeDownloader.validateLength(startInclusive, endInclusive - startInclusive + 1,
+                position - startInclusive);
+    }
+
+    /**
+     * Authenticates a downloaded object by computing the HMAC of the plaintext
+     * written to a file and comparing it with the HMAC stored at the end of the
+     * object.
+     *
+     * @param path path of the object
+     * @param etag etag of the object
+     * @param iv IV the object was encrypted with
+     * @param hmac uninitialized HMAC of the type the object was encrypted with
+     * @param plaintextSize number of plaintext bytes in the file
+     * @param target file the plaintext was written to
+     * @throws IOException thrown when the HMAC can't be read or doesn't match
+     */
+    private void authenticateDownload(final String path,
+                                      final String etag,
+                                      final byte[] iv,
+                                      final HMac hmac,
+                                      final long plaintextSize,
+                                      final FileChannel target) throws IOException {
+        initHmac(secretKey, hmac);
+        hmac.update(iv, 0, iv.length);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(ParallelRangeDownloader.COPY_BUFFER_SIZE);
+        long position = 0L;
+
+        while (position < plaintextSize) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), plaintextSize - position));
+
+            final int read = target.read(buffer, position);
+
+            if (read < 0) {
+                MantaIOException e = new MantaIOException("Downloaded file is shorter than the object");
+                e.setContextValue("path", path);
+                e.setContextValue("plaintextSize", plaintextSize);
+                e.setContextValue("fileSize", position);
+                throw e;
+            }
+
+            hmac.update(buffer.array(), 0, read);
+            position += read;
+        }
+
+        final byte[] checksum = new byte[hmac.getMacSize()];
+        hmac.doFinal(checksum, 0);
+
+        final byte[] expected = new byte[hmac.getMacSize()];
+
+        try (InputStream in = httpRangeAsInputStream(path, etag, plaintextSize,
+                plaintextSize + expected.length - 1)) {
+            final int read = IOUtils.read(in, expected);
+            ParallelRangeDownloader.validateLength(plaintextSize, expected.length, read);
+        }
+
+        if (!MessageDigest.isEqual(expected, checksum)) {
+            final MantaClientEncryptionCiphertextAuthenticationException e =
+                    new MantaClientEncryptionCiphertextAuthenticationException();
+            e.setContextValue("path", path);
+            e.setContextValue("expected", Hex.encodeHexString(expected));
+            e.setContextValue("checksum", Hex.encodeHexString(checksum));
+            throw e;
+        }
+    }
+
     /**
      * Calculates the skip bytes and plaintext length for a encrypted ranged
      * request.
@@ -960,6 +1243,36 @@ public class EncryptionHttpHelper extends StandardHttpHelper {
                 entityContentType);
     }
 
+    /**
+     * Reads up to {@link #PLAINTEXT_LENGTH_BUFFER_SIZE} bytes of an entity of
+     * unknown length into memory. If the entity ends within that many bytes,
+     * the bytes read are returned as an entity of known length. Otherwise, the
+     * returned entity streams the bytes read followed by the rest of the
+     * original entity and its length remains unknown.
+     *
+     * @param originalEntity entity of unknown length
+     * @return entity with the same content and content type
+     * @throws IOException thrown when the entity can't be read
+     */
+    private static HttpEntity bufferToFindLength(final HttpEntity originalEntity) throws IOException {
+        final InputStream content = originalEntity.getContent();
+        final byte[] buffered = IOUtils.toByteArray(
+                new BoundedInputStream(content, PLAINTEXT_LENGTH_BUFFER_SIZE + 1L));
+        final AbstractHttpEntity entity;
+
+        if (buffered.length <= PLAINTEXT_LENGTH_BUFFER_SIZE) {
+            content.close();
+            entity = new ExposedByteArrayEntity(buffered, null);
+        } else {
+            entity = new InputStreamEntity(new SequenceInputStream(
+                    new ByteArrayInputStream(buffered), content));
+        }
+
+        entity.setContentType(originalEntity.getContentType());
+
+        return entity;
+    }
+
     /**
      * <p>Performs a conditional call to update the metadata for an object to add the
      * <code>m-encrypt-plaintext-content-length</code> header to the object. This
@@ -1181,4 +1494,13 @@ public class EncryptionHttpHelper extends StandardHttpHelper {
     public SecretKey getSecretKey() {
         return secretKey;
     }
+
+    @Override
+    public void close() throws IOException {
+        if (encryptionExecutor != null) {
+            encryptionExecutor.shutdownNow();
+        }
+
+        super.close();
+    }
 }
@@ -25,6 +25,8 @@ import org.slf4j.MDC;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 import static com.joyent.manta.http.MantaHttpHeaders.REQUEST_ID;
@@ -113,6 +115,25 @@ public interface HttpHelper extends AutoCloseable, HttpConnectionAware {
     MantaObjectInputStream httpRequestAsInputStream(
             HttpUriRequest request, MantaHttpHeaders headers) throws IOException;
 
+    /**
+     * Downloads an object to a file with up to <code>concurrency</code>
+     * concurrent ranged GETs. Every range is conditional on the etag the
+     * object had when the download started, so the download fails instead
+     * of mixing two versions of the object.
+     *
+     * @param path The fully qualified path of the object. i.e. /user/stor/foo/bar/baz
+     * @param target file to write the object to, starting at position 0
+     * @param concurrency maximum number of ranges requested at a time
+     * @param executor executor that runs the concurrent requests
+     * @return number of bytes written to the file
+     * @throws IOException when there is a problem getting the object over the network or writing it
+     * @since 3.5.1
+     */
+    long httpGetToChannel(String path,
+                          FileChannel target,
+                          int concurrency,
+                          Executor executor) throws IOException;
+
     /**
      * Executes an HTTP PUT against the remote Manta API.
      *
@@ -253,11 +253,17 @@ public abstract class HttpRange {
         this.size = size;
     }
 
-    long getStartInclusive() {
+    /**
+     * @return inclusive byte range start offset
+     */
+    public long getStartInclusive() {
         return this.startInclusive;
     }
 
-    Long getEndInclusive() {
+    /**
+     * @return inclusive byte range end offset or null if the range is unbounded
+     */
+    public Long getEndInclusive() {
         return this.endInclusive;
     }
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2016-2017, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2016-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -57,9 +57,11 @@ import javax.management.ReflectionException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 import static com.joyent.manta.config.DefaultsConfigContext.DOWNLOAD_CONTINUATIONS_DISABLED;
@@ -405,6 +407,114 @@ public class StandardHttpHelper implements HttpHelper {
     public MantaObjectInputStream httpRequestAsInputStream(final HttpUriRequest request,
                                                            final MantaHttpHeaders requestHeaders)
             throws IOException {
+        return requestAsInputStream(request, requestHeaders);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The object is split into ranges of
+     * {@link ParallelRangeDownloader#RANGE_SIZE} bytes.</p>
+     */
+    @Override
+    public long httpGetToChannel(final String path,
+                                 final FileChannel target,
+                                 final int concurrency,
+                                 final Executor executor) throws IOException {
+        Validate.notNull(path, "Path must not be null");
+        Validate.notNull(target, "Target must not be null");
+        Validate.isTrue(concurrency > 0, "Concurrency must be greater than 0");
+
+        final HttpHead head = requestFactory.head(path);
+        final HttpResponse response = executeAndCloseRequest(head, "HEAD   {} response [{}] {} ");
+        final MantaObjectResponse object = new MantaObjectResponse(path,
+                new MantaHttpHeaders(response.getAllHeaders()));
+
+        if (object.isDirectory()) {
+            final String msg = "Directories do not have data, so they can't be downloaded.";
+            final MantaUnexpectedObjectTypeException exception =
+                    new MantaUnexpectedObjectTypeException(msg, ObjectType.FILE, ObjectType.DIRECTORY);
+            exception.setContextValue("path", path);
+            throw exception;
+        }
+
+        Validate.notNull(object.getContentLength(), "Manta should always return a content-size");
+
+        return httpGetToChannel(path, object, head, response, target, concurrency, executor);
+    }
+
+    /**
+     * Downloads an object whose headers have been fetched to a file with
+     * concurrent ranged GETs.
+     *
+     * @param path path of the object
+     * @param object headers of the object
+     * @param head HEAD request the headers were fetched with
+     * @param headResponse response to the HEAD request
+     * @param target file to write the object to, starting at position 0
+     * @param concurrency maximum number of ranges requested at a time
+     * @param executor executor that runs the concurrent requests
+     * @return number of bytes written to the file
+     * @throws IOException thrown when the object can't be downloaded or written
+     */
+    protected long httpGetToChannel(final String path,
+                                    final MantaObjectResponse object,
+                                    final HttpHead head,
+                                    final HttpResponse headResponse,
+                                    final FileChannel target,
+                                    final int concurrency,
+                                    final Executor executor) throws IOException {
+        final String etag = object.getEtag();
+        final long size = object.getContentLength();
+
+        ParallelRangeDownloader.download(path, size, concurrency, executor, (start, end) -> {
+            try (InputStream in = httpRangeAsInputStream(path, etag, start, end)) {
+                final long copied = ParallelRangeDownloader.copy(in, target, start);
+                ParallelRangeDownloader.validateLength(start, end - start + 1, copied);
+            }
+        });
+
+        return size;
+    }
+
+    /**
+     * Requests a range of the bytes stored for an object, without any of the
+     * processing done by subclasses to the response.
+     *
+     * @param path path of the object
+     * @param etag etag the object must have or null
+     * @param startInclusive position of the first byte
+     * @param endInclusive position of the last byte
+     * @return stream of the bytes in the range
+     * @throws IOException thrown when the request fails
+     */
+    protected final MantaObjectInputStream httpRangeAsInputStream(final String path,
+                                                                  final String etag,
+                                                                  final long startInclusive,
+                                                                  final long endInclusive)
+            throws IOException {
+        final HttpGet get = requestFactory.get(path);
+        final MantaHttpHeaders headers = new MantaHttpHeaders();
+        headers.setByteRange(startInclusive, endInclusive);
+
+        if (etag != null) {
+            headers.setIfMatch(etag);
+        }
+
+        return requestAsInputStream(get, headers);
+    }
+
+    /**
+     * Executes a request and returns the response as a stream.
+     *
+     * @param request request to execute
+     * @param requestHeaders headers added to the request or null
+     * @return stream of the response body
+     * @throws IOException thrown when the request fails
+     */
+    private MantaObjectInputStream requestAsInputStream(final HttpUriRequest request,
+                                                        final MantaHttpHeaders requestHeaders)
+            throws IOException {
         if (requestHeaders != null) {
             MantaHttpRequestFactory.addHeaders(request, requestHeaders.asApacheHttpHeaders());
         }
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.config.StandardConfigContext;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class ConcurrentMappingIteratorTest {
+
+    public void neverExceedsConcurrency() {
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        final List<Integer> inputs = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+
+        final ConcurrentMappingIterator<Integer, Integer> itr = new ConcurrentMappingIterator<>(
+                inputs.iterator(), i -> {
+                    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(2);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    active.decrementAndGet();
+                    return i * 2;
+                }, 3, 2, "test-mapper");
+
+        final Set<Integer> results;
+
+        try (Stream<Integer> stream = itr.stream()) {
+            results = stream.collect(Collectors.toSet());
+        }
+
+        assertEquals(results.size(), inputs.size());
+        assertTrue(results.contains(98));
+        assertTrue(maxActive.get() <= 3, "Concurrency exceeded: " + maxActive.get());
+    }
+
+    public void rethrowsUnexpectedExceptions() {
+        final ConcurrentMappingIterator<Integer, Integer> itr = new ConcurrentMappingIterator<>(
+                IntStream.range(0, 5).boxed().iterator(), i -> {
+                    throw new IllegalStateException("unexpected");
+                }, 2, 2, "test-mapper");
+
+        try (Stream<Integer> stream = itr.stream()) {
+            expectThrows(IllegalStateException.class, () -> stream.forEach(i -> { }));
+        }
+    }
+
+    public void defaultConcurrencyReservesHalfOfConnections() {
+        assertEquals(ConcurrentMappingIterator.defaultConcurrency(
+                new StandardConfigContext().setMaximumConnections(24)), 12);
+        assertEquals(ConcurrentMappingIterator.defaultConcurrency(
+                new StandardConfigContext().setMaximumConnections(1)), 1);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class DirectoryCopyStrategyTest {
+    private static final String SOURCE = "/user/stor/source";
+
+    private static final String DESTINATION = "/user/stor/backups/copy";
+
+    private static FakeMantaTree sourceTree() {
+        final FakeMantaTree tree = new FakeMantaTree();
+        tree.add(SOURCE, true);
+        tree.add("/user/stor/backups", true);
+
+        for (int i = 0; i < 12; i++) {
+            final String dir = SOURCE + "/d" + i;
+            tree.add(dir, true);
+            tree.add(dir + "/sub", true);
+            tree.add(dir + "/sub/leaf.txt", false);
+
+            for (int j = 0; j < 120; j++) {
+                tree.add(dir + "/f" + j, false);
+            }
+        }
+
+        tree.add(SOURCE + "/top.txt", false);
+        tree.add(SOURCE + "/empty", true);
+
+        return tree;
+    }
+
+    public void copiesTreeAndReportsProgress() throws IOException {
+        final FakeMantaTree tree = sourceTree();
+        final List<DirectoryCopyProgress> reports = Collections.synchronizedList(new ArrayList<>());
+        final DirectoryCopyOptions options = new DirectoryCopyOptions()
+                .setConcurrency(8)
+                .setProgressInterval(Duration.ZERO)
+                .setProgressListener(reports::add);
+
+        final DirectoryCopyProgress progress = DirectoryCopyStrategy.copy(tree.client(), SOURCE, DESTINATION, options);
+
+        for (int i = 0; i < 12; i++) {
+            assertTrue(tree.exists(DESTINATION + "/d" + i + "/f119"));
+            assertTrue(tree.exists(DESTINATION + "/d" + i + "/sub/leaf.txt"));
+        }
+
+        assertTrue(tree.exists(DESTINATION + "/top.txt"));
+        assertTrue(tree.exists(DESTINATION + "/empty"));
+        assertTrue(tree.exists(SOURCE + "/d3/f7"));
+
+        assertTrue(progress.isComplete());
+        assertEquals(progress.getObjectsLinked(), 12 * 121 + 1);
+        assertEquals(tree.getLinks(), 12 * 121 + 1);
+        assertEquals(progress.getBytesLinked(), 3L * progress.getObjectsLinked());
+        assertEquals(progress.getDirectoriesListed(), 1 + 12 * 2 + 1);
+        assertEquals(progress.getDirectoriesCreated(), progress.getDirectoriesListed());
+
+        assertTrue(reports.size() > 1);
+        assertTrue(reports.get(reports.size() - 1).isComplete());
+        for (DirectoryCopyProgress report : reports.subList(0, reports.size() - 1)) {
+            assertFalse(report.isComplete());
+        }
+    }
+
+    public void stopsAtFirstFailedLink() throws IOException {
+        final FakeMantaTree tree = sourceTree();
+        tree.breakPath(SOURCE + "/d4/f60");
+
+        final IOException e = expectThrows(IOException.class, () ->
+                DirectoryCopyStrategy.copy(tree.client(), SOURCE, DESTINATION,
+                        new DirectoryCopyOptions().setConcurrency(4)));
+
+        assertTrue(e.getMessage().contains("/d4/f60"), e.getMessage());
+        assertTrue(tree.getLinks() < 12 * 121 + 1);
+    }
+
+    public void moveDeletesSourceOnlyAfterCopying() throws IOException {
+        final FakeMantaTree tree = sourceTree();
+        final MantaClient client = tree.client();
+        when(client.moveDirectory(anyString(), anyString(), any())).thenCallRealMethod();
+        when(client.copyDirectory(anyString(), anyString(), any())).thenCallRealMethod();
+        doAnswer(invocation -> {
+            RecursiveDeleteStrategy.deleteRecursive(client, invocation.getArgument(0), 4);
+            return null;
+        }).when(client).deleteRecursive(anyString());
+
+        client.moveDirectory(SOURCE + "/", DESTINATION, new DirectoryCopyOptions());
+
+        assertFalse(tree.exists(SOURCE));
+        assertTrue(tree.exists(DESTINATION + "/d11/sub/leaf.txt"));
+
+        final FakeMantaTree broken = sourceTree();
+        broken.breakPath(SOURCE + "/d0/sub/leaf.txt");
+        final MantaClient failing = broken.client();
+        when(failing.moveDirectory(anyString(), anyString(), any())).thenCallRealMethod();
+        when(failing.copyDirectory(anyString(), anyString(), any())).thenCallRealMethod();
+        doAnswer(invocation -> {
+            RecursiveDeleteStrategy.deleteRecursive(failing, invocation.getArgument(0), 4);
+            return null;
+        }).when(failing).deleteRecursive(anyString());
+
+        expectThrows(IOException.class, () ->
+                failing.moveDirectory(SOURCE, DESTINATION, new DirectoryCopyOptions()));
+        assertTrue(broken.exists(SOURCE + "/d5/f5"));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.exception.MantaIOException;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class DirectoryListingDecoderTest {
+
+    private static DirectoryListingDecoder decoder(final String listing) throws IOException {
+        return new DirectoryListingDecoder(new ByteArrayInputStream(listing.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public void decodesEntriesIntoObjects() throws IOException {
+        final String listing = "{\"name\":\"subdir\",\"type\":\"directory\",\"mtime\":\"2017-04-13T23:07:17.151Z\"}\n"
+                + "{\"name\":\"file a.txt\",\"etag\":\"5d7e2b10\",\"size\":5000000000,\"type\":\"object\","
+                + "\"mtime\":\"2017-04-13T23:07:17.153Z\",\"durability\":2,"
+                + "\"contentMD5\":\"7QTv5JzUH0Xp2h2QTbnVRQ==\",\"contentType\":\"text/plain\"}\n";
+
+        try (DirectoryListingDecoder decoder = decoder(listing)) {
+            final MantaObject dir = decoder.next().toObject("/user/stor/dir/");
+            assertEquals(dir.getPath(), "/user/stor/dir/subdir");
+            assertTrue(dir.isDirectory());
+
+            final MantaObject file = decoder.next().toObject("/user/stor/dir");
+            assertEquals(file.getPath(), "/user/stor/dir/file a.txt");
+            assertEquals(file.getContentLength().longValue(), 5_000_000_000L);
+            assertEquals(file.getEtag(), "5d7e2b10");
+            assertEquals(file.getContentType(), "text/plain");
+            assertEquals(file.getHttpHeaders().getDurabilityLevel().intValue(), 2);
+            assertEquals(file.getHttpHeaders().getContentMD5(), "7QTv5JzUH0Xp2h2QTbnVRQ==");
+
+            assertNull(decoder.next());
+        }
+    }
+
+    public void retainsUnknownPropertiesInMaps() throws IOException {
+        final String listing = "{\"name\":\"a\",\"type\":\"object\",\"size\":12,\"extra\":{\"nested\":[1,2]},"
+                + "\"mtime\":\"2017-04-13T23:07:17.153Z\",\"etag\":null}";
+
+        try (DirectoryListingDecoder decoder = decoder(listing)) {
+            final Map<String, Object> map = decoder.next().toMap("/user/stor");
+
+            assertEquals(map.get("name"), "a");
+            assertEquals(map.get("size"), 12);
+            assertEquals(map.get("path"), "/user/stor");
+            assertTrue(map.get("extra") instanceof Map);
+            assertTrue(!map.containsKey("etag"));
+        }
+    }
+
+    public void rejectsMalformedListing() throws IOException {
+        try (DirectoryListingDecoder decoder = decoder("[{\"name\":\"a\"}]")) {
+            expectThrows(MantaIOException.class, decoder::next);
+        }
+    }
+
+    public void joinsChildPaths() {
+        assertEquals(DirectoryListingRecord.childPath("/user/stor/", "/a"), "/user/stor/a");
+        assertEquals(DirectoryListingRecord.childPath("/user/stor", "a"), "/user/stor/a");
+    }
+}
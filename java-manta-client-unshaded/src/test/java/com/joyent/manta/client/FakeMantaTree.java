@@ -0,0 +1,421 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.config.BaseChainedConfigContext;
+import com.joyent.manta.config.StandardConfigContext;
+import com.joyent.manta.exception.MantaClientHttpResponseException;
+import com.joyent.manta.exception.MantaErrorCode;
+import com.joyent.manta.http.HttpHelper;
+import com.joyent.manta.http.MantaHttpHeaders;
+import com.joyent.manta.http.MantaHttpRequestFactory;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicStatusLine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static com.joyent.manta.util.UnitTestConstants.UNIT_TEST_URL;
+import static org.apache.http.HttpHeaders.CONTENT_TYPE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * In-memory directory tree served through a mocked {@link MantaClient}. The
+ * client lists directories using real {@link MantaDirectoryListingIterator}
+ * instances backed by a mocked {@link HttpHelper} that honours the limit and
+ * marker parameters. Deletes, directories and snaplinks are applied to the
+ * tree with Manta's error semantics.
+ */
+class FakeMantaTree {
+    /**
+     * Entries keyed by directory path and then by name, with a flag
+     * indicating if the entry is a directory.
+     */
+    private final Map<String, TreeMap<String, Boolean>> tree = new ConcurrentHashMap<>();
+
+    private final Set<String> broken = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger listings = new AtomicInteger();
+
+    /**
+     * Directories in the order their pages were requested.
+     */
+    private final List<String> listed = Collections.synchronizedList(new ArrayList<>());
+
+    private final AtomicInteger deletes = new AtomicInteger();
+
+    private final AtomicInteger links = new AtomicInteger();
+
+    private final AtomicInteger heads = new AtomicInteger();
+
+    /**
+     * Modification times of entries. A directory is modified when an entry is
+     * added to it or removed from it, and every modification advances the
+     * clock by one second.
+     */
+    private final Map<String, Long> mtimes = new ConcurrentHashMap<>();
+
+    private final AtomicLong clock = new AtomicLong(1492384812393L);
+
+    /**
+     * Sizes of objects that aren't three bytes long.
+     */
+    private final Map<String, Long> sizes = new ConcurrentHashMap<>();
+
+    private volatile Consumer<String> beforeDelete = path -> { };
+
+    FakeMantaTree add(final String path, final boolean directory) {
+        final int separator = path.lastIndexOf('/');
+        final TreeMap<String, Boolean> parent = tree.computeIfAbsent(path.substring(0, separator),
+                k -> new TreeMap<>());
+
+        synchronized (parent) {
+            parent.put(path.substring(separator + 1), directory);
+        }
+
+        if (directory) {
+            tree.computeIfAbsent(path, k -> new TreeMap<>());
+        }
+
+        final long now = clock.addAndGet(1000);
+        mtimes.put(path, now);
+        mtimes.put(path.substring(0, separator), now);
+
+        return this;
+    }
+
+    FakeMantaTree add(final String path, final long size) {
+        sizes.put(path, size);
+        return add(path, false);
+    }
+
+    Instant mtime(final String path) {
+        return Instant.ofEpochMilli(mtimes.get(path));
+    }
+
+    /**
+     * Replaces the contents of an object, which doesn't modify its directory.
+     */
+    FakeMantaTree overwrite(final String path) {
+        mtimes.put(path, clock.addAndGet(1000));
+        return this;
+    }
+
+    /**
+     * Makes requests for the specified path fail.
+     */
+    FakeMantaTree breakPath(final String path) {
+        broken.add(path);
+        return this;
+    }
+
+    /**
+     * Registers a callback invoked with the path of each delete request
+     * before it is applied.
+     */
+    FakeMantaTree beforeDelete(final Consumer<String> callback) {
+        this.beforeDelete = callback;
+        return this;
+    }
+
+    /**
+     * Makes requests for the specified path succeed again.
+     */
+    FakeMantaTree repairPath(final String path) {
+        broken.remove(path);
+        return this;
+    }
+
+    boolean exists(final String path) {
+        if (tree.containsKey(path)) {
+            return true;
+        }
+
+        final int separator = path.lastIndexOf('/');
+        final TreeMap<String, Boolean> parent = tree.get(path.substring(0, separator));
+
+        if (parent == null) {
+            return false;
+        }
+
+        synchronized (parent) {
+            return parent.containsKey(path.substring(separator + 1));
+        }
+    }
+
+    int getListings() {
+        return listings.get();
+    }
+
+    /**
+     * @return distinct directories listed since the specified number of
+     *         listing requests had been made
+     */
+    Set<String> listedSince(final int requests) {
+        synchronized (listed) {
+            return new TreeSet<>(listed.subList(requests, listed.size()));
+        }
+    }
+
+    int getDeletes() {
+        return deletes.get();
+    }
+
+    int getLinks() {
+        return links.get();
+    }
+
+    int getHeads() {
+        return heads.get();
+    }
+
+    MantaClient client() throws IOException {
+        final HttpHelper httpHelper = mock(HttpHelper.class);
+        final Header contentType = new BasicHeader(CONTENT_TYPE, MantaObjectResponse.DIRECTORY_RESPONSE_CONTENT_TYPE);
+
+        when(httpHelper.getRequestFactory()).thenReturn(new MantaHttpRequestFactory(UNIT_TEST_URL));
+        when(httpHelper.executeRequest(any(), any())).thenAnswer(invocation -> {
+            final HttpGet request = invocation.getArgument(0);
+            return list(request, contentType);
+        });
+
+        final BaseChainedConfigContext config = new StandardConfigContext()
+                .setRetries(3)
+                .setMaximumConnections(8);
+
+        final MantaClient client = mock(MantaClient.class);
+        when(client.getContext()).thenReturn(config);
+        when(client.streamingIterator(anyString())).thenAnswer(invocation ->
+                new MantaDirectoryListingIterator(invocation.getArgument(0), httpHelper, 100));
+        doAnswer(invocation -> {
+            delete(invocation.getArgument(0));
+            return null;
+        }).when(client).delete(anyString());
+        doAnswer(invocation -> {
+            delete(invocation.getArgument(0));
+            return null;
+        }).when(client).delete(anyString(), isNull(), anyInt());
+        when(client.putDirectory(anyString())).thenAnswer(invocation ->
+                putDirectory(invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            final String path = invocation.getArgument(0);
+
+            for (int i = path.indexOf('/', 1); i > 0; i = path.indexOf('/', i + 1)) {
+                putDirectory(path.substring(0, i));
+            }
+
+            putDirectory(path);
+            return null;
+        }).when(client).putDirectory(anyString(), anyBoolean());
+        doAnswer(invocation -> {
+            putSnapLink(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(client).putSnapLink(anyString(), anyString(), isNull());
+        when(client.head(anyString())).thenAnswer(invocation -> head(invocation.getArgument(0)));
+        when(client.find(anyString(), any(FindOptions.class))).thenAnswer(invocation ->
+                new MantaTreeWalker(client, invocation.getArgument(0), invocation.getArgument(1), 4, 16, 64).stream());
+
+        return client;
+    }
+
+    private CloseableHttpResponse list(final HttpGet request, final Header contentType) throws IOException {
+        final String dir = request.getURI().getPath();
+        listings.incrementAndGet();
+        listed.add(dir);
+
+        if (broken.contains(dir)) {
+            throw new IOException("listing failed for " + dir);
+        }
+
+        final TreeMap<String, Boolean> entries = tree.get(dir);
+
+        if (entries == null) {
+            throw error(dir, MantaErrorCode.RESOURCE_NOT_FOUND_ERROR);
+        }
+
+        int limit = 0;
+        String marker = "";
+
+        for (NameValuePair param : URLEncodedUtils.parse(request.getURI(), StandardCharsets.UTF_8)) {
+            if (param.getName().equals("limit")) {
+                limit = Integer.parseInt(param.getValue());
+            } else if (param.getName().equals("marker")) {
+                marker = param.getValue();
+            }
+        }
+
+        final StringBuilder page = new StringBuilder();
+
+        synchronized (entries) {
+            int count = 0;
+
+            for (Map.Entry<String, Boolean> entry : entries.tailMap(marker, true).entrySet()) {
+                if (count++ == limit) {
+                    break;
+                }
+
+                final String type;
+                if (entry.getValue()) {
+                    type = "directory";
+                } else {
+                    type = "object";
+                }
+
+                final String mtime = Instant.ofEpochMilli(mtimes.get(dir + "/" + entry.getKey())).toString();
+                page.append("{\"name\":\"").append(entry.getKey()).append("\",\"type\":\"").append(type)
+                        .append("\",\"mtime\":\"").append(mtime).append("\",\"size\":")
+                        .append(sizes.getOrDefault(dir + "/" + entry.getKey(), 3L)).append("}\n");
+            }
+        }
+
+        final CloseableHttpResponse response = mock(CloseableHttpResponse.class);
+        final HttpEntity entity = mock(HttpEntity.class);
+        when(response.getEntity()).thenReturn(entity);
+        when(entity.getContentType()).thenReturn(contentType);
+        when(entity.getContent()).thenReturn(IOUtils.toInputStream(page, StandardCharsets.UTF_8));
+
+        return response;
+    }
+
+    private MantaObjectResponse head(final String path) throws IOException {
+        heads.incrementAndGet();
+
+        if (!exists(path)) {
+            throw error(path, MantaErrorCode.RESOURCE_NOT_FOUND_ERROR);
+        }
+
+        final MantaHttpHeaders headers = new MantaHttpHeaders();
+        headers.setLastModified(DateUtils.formatDate(new Date(mtimes.get(path))));
+
+        if (tree.containsKey(path)) {
+            headers.setContentType(MantaObjectResponse.DIRECTORY_RESPONSE_CONTENT_TYPE);
+        } else {
+            headers.setContentLength(sizes.getOrDefault(path, 3L));
+        }
+
+        return new MantaObjectResponse(path, headers);
+    }
+
+    private boolean putDirectory(final String path) throws IOException {
+        final String parent = path.substring(0, Math.max(0, path.lastIndexOf('/')));
+
+        if (!parent.isEmpty() && !tree.containsKey(parent)) {
+            throw error(path, MantaErrorCode.DIRECTORY_DOES_NOT_EXIST_ERROR);
+        }
+
+        final boolean created = !tree.containsKey(path);
+        add(path, true);
+        return created;
+    }
+
+    private void putSnapLink(final String link, final String object) throws IOException {
+        if (broken.contains(object)) {
+            throw new IOException("link failed for " + object);
+        }
+
+        if (!exists(object)) {
+            throw error(object, MantaErrorCode.SOURCE_OBJECT_NOT_FOUND_ERROR);
+        }
+
+        if (!tree.containsKey(link.substring(0, link.lastIndexOf('/')))) {
+            throw error(link, MantaErrorCode.DIRECTORY_DOES_NOT_EXIST_ERROR);
+        }
+
+        links.incrementAndGet();
+        add(link, false);
+    }
+
+    private void delete(final String path) throws IOException {
+        deletes.incrementAndGet();
+        beforeDelete.accept(path);
+
+        if (broken.contains(path)) {
+            throw new IOException("delete failed for " + path);
+        }
+
+        final TreeMap<String, Boolean> children = tree.get(path);
+
+        if (children != null) {
+            synchronized (children) {
+                if (!children.isEmpty()) {
+                    throw error(path, MantaErrorCode.DIRECTORY_NOT_EMPTY_ERROR);
+                }
+            }
+
+            tree.remove(path);
+        }
+
+        final int separator = path.lastIndexOf('/');
+        final TreeMap<String, Boolean> parent = tree.get(path.substring(0, separator));
+        final Boolean removed;
+
+        if (parent == null) {
+            removed = null;
+        } else {
+            synchronized (parent) {
+                removed = parent.remove(path.substring(separator + 1));
+            }
+        }
+
+        if (removed == null && children == null) {
+            throw error(path, MantaErrorCode.RESOURCE_NOT_FOUND_ERROR);
+        }
+
+        mtimes.remove(path);
+        mtimes.put(path.substring(0, separator), clock.addAndGet(1000));
+    }
+
+    private static MantaClientHttpResponseException error(final String path, final MantaErrorCode code) {
+        final int status;
+
+        switch (code) {
+            case RESOURCE_NOT_FOUND_ERROR:
+            case DIRECTORY_DOES_NOT_EXIST_ERROR:
+            case SOURCE_OBJECT_NOT_FOUND_ERROR:
+                status = HttpStatus.SC_NOT_FOUND;
+                break;
+            default:
+                status = HttpStatus.SC_BAD_REQUEST;
+        }
+
+        final MantaClientHttpResponseException e = new MantaClientHttpResponseException(code.name() + ": " + path);
+        e.setServerCode(code);
+        e.setStatusLine(new BasicStatusLine(HttpVersion.HTTP_1_1, status, code.name()));
+        return e;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.http.MantaHttpHeaders;
+import org.apache.http.client.utils.DateUtils;
+import org.testng.annotations.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class FindOptionsTest {
+
+    private static MantaObject object(final String path, final long size, final Instant mtime) {
+        final MantaHttpHeaders headers = new MantaHttpHeaders();
+        headers.setContentLength(size);
+        headers.setLastModified(DateUtils.formatDate(Date.from(mtime)));
+        return new MantaObjectResponse(path, headers);
+    }
+
+    private static MantaObject directory(final String path) {
+        final MantaHttpHeaders headers = new MantaHttpHeaders();
+        headers.setContentType(MantaObjectResponse.DIRECTORY_RESPONSE_CONTENT_TYPE);
+        headers.setLastModified(DateUtils.formatDate(new Date()));
+        return new MantaObjectResponse(path, headers);
+    }
+
+    public void convertsGlobsToPatterns() {
+        final Pattern images = FindOptions.globToPattern("img_??.{jpg,png}");
+        assertTrue(images.matcher("img_01.jpg").matches());
+        assertTrue(images.matcher("img_ab.png").matches());
+        assertFalse(images.matcher("img_1.jpg").matches());
+        assertFalse(images.matcher("img_01.gif").matches());
+
+        final Pattern classes = FindOptions.globToPattern("[!a-c]*\\*");
+        assertTrue(classes.matcher("dz*").matches());
+        assertFalse(classes.matcher("az*").matches());
+        assertFalse(classes.matcher("dz").matches());
+
+        assertTrue(FindOptions.globToPattern("a+b (1).txt").matcher("a+b (1).txt").matches());
+        expectThrows(IllegalArgumentException.class, () -> FindOptions.globToPattern("[abc"));
+    }
+
+    public void convertsClassesStartingWithBrackets() {
+        final Pattern bracket = FindOptions.globToPattern("[]a]");
+        assertTrue(bracket.matcher("]").matches());
+        assertTrue(bracket.matcher("a").matches());
+        assertFalse(bracket.matcher("b").matches());
+
+        final Pattern negated = FindOptions.globToPattern("[^]^]x");
+        assertTrue(negated.matcher("ax").matches());
+        assertFalse(negated.matcher("]x").matches());
+        assertFalse(negated.matcher("^x").matches());
+
+        assertTrue(FindOptions.globToPattern("[!]]").matcher("a").matches());
+        expectThrows(IllegalArgumentException.class, () -> FindOptions.globToPattern("[]"));
+    }
+
+    public void rejectsInvalidSizes() {
+        expectThrows(IllegalArgumentException.class, () -> new FindOptions().setMinSize(-1L));
+        expectThrows(IllegalArgumentException.class, () -> new FindOptions().setMaxSize(-1L));
+        expectThrows(IllegalArgumentException.class, () -> new FindOptions().setMinSize(10L).setMaxSize(9L));
+        expectThrows(IllegalArgumentException.class, () -> new FindOptions().setMaxSize(9L).setMinSize(10L));
+        new FindOptions().setMinSize(10L).setMaxSize(10L).setMinSize(null).setMaxSize(0L);
+    }
+
+    public void matchesNameTimeAndSize() {
+        final Instant now = Instant.now();
+        final FindOptions options = new FindOptions()
+                .setNameGlob("*.log")
+                .setModifiedAfter(now.minusSeconds(3600))
+                .setMinSize(10L)
+                .setMaxSize(100L);
+
+        assertTrue(options.matches(object("/user/stor/logs/app.log", 50, now)));
+        assertFalse(options.matches(object("/user/stor/logs/app.txt", 50, now)));
+        assertFalse(options.matches(object("/user/stor/logs/app.log", 5, now)));
+        assertFalse(options.matches(object("/user/stor/logs/app.log", 500, now)));
+        assertFalse(options.matches(object("/user/stor/logs/app.log", 50, now.minusSeconds(7200))));
+        assertFalse(options.matches(directory("/user/stor/logs/dir.log")));
+    }
+
+    public void descendsWithinDepthUnlessPruned() {
+        final FindOptions options = new FindOptions()
+                .setMaxDepth(2)
+                .setPrune(obj -> obj.getPath().endsWith("/.git"));
+
+        assertTrue(options.shouldDescend(directory("/user/stor/a"), 1));
+        assertFalse(options.shouldDescend(directory("/user/stor/a/b"), 2));
+        assertFalse(options.shouldDescend(directory("/user/stor/.git"), 1));
+        assertTrue(new FindOptions().matches(directory("/user/stor/a")));
+    }
+}
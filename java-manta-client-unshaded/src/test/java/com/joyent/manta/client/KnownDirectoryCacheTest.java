@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.exception.MantaClientHttpResponseException;
+import com.joyent.manta.exception.MantaErrorCode;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class KnownDirectoryCacheTest {
+    private static final String DIR = "/user/stor/ingest/2020/05/20";
+
+    public void evictsLeastRecentlyUsedDirectories() {
+        final KnownDirectoryCache cache = new KnownDirectoryCache(2, 60_000);
+
+        cache.add("/user/stor/a");
+        cache.add("/user/stor/b");
+        assertTrue(cache.contains("/user/stor/a"));
+        cache.add("/user/stor/c");
+
+        assertTrue(cache.contains("/user/stor/a"));
+        assertFalse(cache.contains("/user/stor/b"));
+        assertTrue(cache.contains("/user/stor/c"));
+        assertEquals(cache.size(), 2);
+    }
+
+    public void forgetsExpiredDirectories() throws InterruptedException {
+        final KnownDirectoryCache cache = new KnownDirectoryCache(10, 1);
+
+        cache.add("/user/stor/a");
+        Thread.sleep(5);
+
+        assertFalse(cache.contains("/user/stor/a"));
+        assertEquals(cache.size(), 0);
+    }
+
+    public void findsDeepestKnownParent() {
+        final KnownDirectoryCache cache = new KnownDirectoryCache(10, 60_000);
+        final String[] paths = {"/user/stor/a", "/user/stor/a/b", "/user/stor/a/b/c"};
+
+        assertEquals(cache.knownPrefixes(paths), 0);
+        cache.add("/user/stor/a/b");
+        assertEquals(cache.knownPrefixes(paths), 2);
+        cache.add("/user/stor/a/b/c");
+        assertEquals(cache.knownPrefixes(paths), 3);
+
+        cache.removeWithParents("/user/stor/a/b/c");
+        assertEquals(cache.knownPrefixes(paths), 0);
+    }
+
+    public void skipsKnownParents() throws IOException {
+        final MantaClient client = mock(MantaClient.class);
+        final KnownDirectoryCache cache = new KnownDirectoryCache(100, 60_000);
+
+        RecursiveDirectoryCreationStrategy.createCompletely(client, DIR, null, cache);
+        RecursiveDirectoryCreationStrategy.createCompletely(client, DIR + "/00", null, cache);
+        RecursiveDirectoryCreationStrategy.createCompletely(client, DIR + "/00", null, cache);
+        RecursiveDirectoryCreationStrategy.createCompletely(client, DIR + "/01", null, cache);
+
+        verify(client, times(1)).putDirectory("/user/stor/ingest", null);
+        verify(client, times(1)).putDirectory(DIR, null);
+        verify(client, times(1)).putDirectory(DIR + "/00", null);
+        verify(client, times(1)).putDirectory(DIR + "/01", null);
+    }
+
+    public void skipsKnownParentsBelowSkipDepth() throws IOException {
+        final MantaClient client = mock(MantaClient.class);
+        final KnownDirectoryCache cache = new KnownDirectoryCache(100, 60_000);
+
+        RecursiveDirectoryCreationStrategy.createWithSkipDepth(client, DIR, null, 2, cache);
+        RecursiveDirectoryCreationStrategy.createWithSkipDepth(client, DIR + "/00", null, 2, cache);
+
+        verify(client, never()).putDirectory("/user/stor/ingest", null);
+        verify(client, times(1)).putDirectory("/user/stor/ingest/2020/05", null);
+        verify(client, times(1)).putDirectory(DIR, null);
+        verify(client, times(1)).putDirectory(DIR + "/00", null);
+    }
+
+    public void recreatesParentsRemovedByOthers() throws IOException {
+        final MantaClient client = mock(MantaClient.class);
+        final KnownDirectoryCache cache = new KnownDirectoryCache(100, 60_000);
+        final MantaClientHttpResponseException missing = new MantaClientHttpResponseException("missing");
+        missing.setServerCode(MantaErrorCode.DIRECTORY_DOES_NOT_EXIST_ERROR);
+
+        RecursiveDirectoryCreationStrategy.createCompletely(client, DIR, null, cache);
+        when(client.putDirectory(DIR + "/00", null)).thenThrow(missing).thenReturn(true);
+
+        RecursiveDirectoryCreationStrategy.createCompletely(client, DIR + "/00", null, cache);
+
+        verify(client, times(2)).putDirectory("/user/stor/ingest", null);
+        verify(client, times(2)).putDirectory(DIR, null);
+        verify(client, times(2)).putDirectory(DIR + "/00", null);
+        assertTrue(cache.contains(DIR + "/00"));
+    }
+
+    public void coalescesConcurrentCreation() throws Exception {
+        final MantaClient client = mock(MantaClient.class);
+        final KnownDirectoryCache cache = new KnownDirectoryCache(100, 60_000);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        final AtomicInteger puts = new AtomicInteger();
+
+        when(client.putDirectory(anyString(), isNull())).thenAnswer(invocation -> {
+            puts.incrementAndGet();
+            threads.add(Thread.currentThread().getName());
+            started.countDown();
+            release.await();
+            return true;
+        });
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            final Future<?> first = executor.submit(() -> cache.putDirectory(client, DIR, null));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            final Future<?>[] followers = new Future<?>[7];
+            for (int i = 0; i < followers.length; i++) {
+                followers[i] = executor.submit(() -> cache.putDirectory(client, DIR, null));
+            }
+
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals(first.get(5, TimeUnit.SECONDS), true);
+            for (Future<?> follower : followers) {
+                assertEquals(follower.get(5, TimeUnit.SECONDS), false);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(puts.get(), 1);
+        assertEquals(threads.size(), 1);
+        assertTrue(cache.contains(DIR));
+    }
+}
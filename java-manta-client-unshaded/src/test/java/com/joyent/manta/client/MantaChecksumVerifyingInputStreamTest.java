@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.exception.MantaChecksumFailedException;
+import com.joyent.manta.http.MantaHttpHeaders;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.Base64;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class MantaChecksumVerifyingInputStreamTest {
+
+    private static MantaObjectInputStream objectStream(final byte[] content, final byte[] md5) {
+        final MantaHttpHeaders headers = new MantaHttpHeaders();
+
+        if (md5 != null) {
+            headers.put(MantaHttpHeaders.COMPUTED_MD5, Base64.getEncoder().encodeToString(md5));
+        }
+
+        final MantaObjectResponse response = new MantaObjectResponse("/user/stor/object", headers);
+        return new MantaObjectInputStream(response, null, new ByteArrayInputStream(content));
+    }
+
+    public void verifiesMatchingChecksumAtEndOfStream() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(50_000);
+
+        try (MantaChecksumVerifyingInputStream in = new MantaChecksumVerifyingInputStream(
+                objectStream(content, DigestUtils.md5(content)))) {
+            assertEquals(in.read(), content[0] & 0xff);
+            assertEquals(in.skip(100), 100L);
+            final byte[] rest = IOUtils.toByteArray(in);
+
+            assertEquals(rest.length, content.length - 101);
+            assertTrue(in.isVerified());
+        }
+    }
+
+    public void throwsOnMismatchedChecksum() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(1024);
+        final byte[] wrongMd5 = DigestUtils.md5(RandomUtils.nextBytes(1024));
+
+        try (MantaChecksumVerifyingInputStream in = new MantaChecksumVerifyingInputStream(
+                objectStream(content, wrongMd5))) {
+            expectThrows(MantaChecksumFailedException.class, () -> IOUtils.toByteArray(in));
+            assertFalse(in.isVerified());
+        }
+    }
+
+    public void throwsWhenServerChecksumIsMissing() {
+        expectThrows(MantaChecksumFailedException.class, () ->
+                new MantaChecksumVerifyingInputStream(objectStream(new byte[0], null)));
+    }
+
+    public void rejectsRangedResponses() {
+        final MantaObjectInputStream ranged = objectStream(new byte[10], DigestUtils.md5(new byte[10]));
+        ranged.getHttpHeaders().setContentRange("bytes 0-9/100");
+
+        expectThrows(IllegalArgumentException.class, () ->
+                new MantaChecksumVerifyingInputStream(ranged));
+    }
+}
@@ -1,23 +1,45 @@
 package com.joyent.manta.client;
 
 import com.joyent.manta.config.TestConfigContext;
+import com.joyent.manta.exception.MantaIOException;
 import com.joyent.manta.http.HttpHelper;
 import com.joyent.manta.http.MantaHttpHeaders;
+import org.apache.commons.io.FileUtils;
 import org.mockito.Mockito;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.joyent.manta.client.MantaClient.SEPARATOR;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
 
 @Test
 public class MantaClientTest {
@@ -35,7 +57,7 @@ public class MantaClientTest {
 
         final MantaClient client = new MantaClient(new TestConfigContext());
         final MantaClient clientSpy = spy(client);
-        doReturn(iteratorMock).when(clientSpy).streamingIterator(anyString());
+        doReturn(iteratorMock).when(clientSpy).streamingIterator(anyString(), anyInt(), anyBoolean());
 
         final Stream<MantaObject> listing = clientSpy.listObjects(SEPARATOR);
         listing.close();
@@ -51,7 +73,7 @@ public class MantaClientTest {
 
         final MantaClient client = new MantaClient(new TestConfigContext());
         final MantaClient clientSpy = spy(client);
-        doReturn(iteratorMock).when(clientSpy).streamingIterator(anyString());
+        doReturn(iteratorMock).when(clientSpy).streamingIterator(anyString(), anyInt(), anyBoolean());
 
         final Stream<MantaObject> listing = clientSpy.listObjects(SEPARATOR);
         listing.close();
@@ -70,4 +92,82 @@ public class MantaClientTest {
 
         verify(helper).httpDelete(anyString(), argThat(h -> etag.equals(h.getIfMatch())));
     }
+
+    public void getAllCapturesPerItemErrors() throws IOException {
+        final MantaClient client = new MantaClient(new TestConfigContext());
+        final MantaClient clientSpy = spy(client);
+
+        for (String path : Arrays.asList("/test/stor/a", "/test/stor/b")) {
+            final MantaObjectInputStream in = new MantaObjectInputStream(
+                    new MantaObjectResponse(path, new MantaHttpHeaders()), null,
+                    new ByteArrayInputStream(path.getBytes(StandardCharsets.UTF_8)));
+            doReturn(in).when(clientSpy).getAsInputStream(path);
+        }
+
+        doThrow(new MantaIOException("not found")).when(clientSpy).getAsInputStream("/test/stor/missing");
+
+        final Map<String, BulkGetResult> results;
+
+        try (Stream<BulkGetResult> stream = clientSpy.getAll(
+                Arrays.asList("/test/stor/a", "/test/stor/missing", "/test/stor/b"),
+                new BulkOptions().setConcurrency(2))) {
+            results = stream.collect(Collectors.toMap(BulkGetResult::getPath, Function.identity()));
+        }
+
+        assertEquals(results.size(), 3);
+        assertEquals(results.get("/test/stor/a").getData(), "/test/stor/a".getBytes(StandardCharsets.UTF_8));
+        assertTrue(results.get("/test/stor/b").isSuccessful());
+        assertFalse(results.get("/test/stor/missing").isSuccessful());
+        assertTrue(results.get("/test/stor/missing").getError() instanceof MantaIOException);
+    }
+
+    public void downloadParallelReplacesTargetOnSuccess() throws IOException {
+        final HttpHelper helper = mock(HttpHelper.class);
+        final byte[] data = "downloaded".getBytes(StandardCharsets.UTF_8);
+        when(helper.httpGetToChannel(anyString(), any(), anyInt(), any())).thenAnswer(invocation -> {
+            final FileChannel channel = invocation.getArgument(1);
+            channel.write(ByteBuffer.wrap(data), 0);
+            return (long) data.length;
+        });
+
+        final MantaClient client = new MantaClient(new TestConfigContext(), null, helper, null);
+        final Path dir = Files.createTempDirectory("download-parallel");
+        final Path target = Files.write(dir.resolve("object"), "previous".getBytes(StandardCharsets.UTF_8));
+
+        try {
+            assertEquals(client.downloadParallel("/test/stor/object", target, 2), data.length);
+            assertEquals(Files.readAllBytes(target), data);
+            assertEquals(listFileNames(dir), Collections.singletonList("object"));
+        } finally {
+            FileUtils.deleteDirectory(dir.toFile());
+        }
+    }
+
+    public void downloadParallelLeavesTargetUntouchedOnFailure() throws IOException {
+        final HttpHelper helper = mock(HttpHelper.class);
+        when(helper.httpGetToChannel(anyString(), any(), anyInt(), any())).thenAnswer(invocation -> {
+            final FileChannel channel = invocation.getArgument(1);
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}), 0);
+            throw new MantaIOException("range failed");
+        });
+
+        final MantaClient client = new MantaClient(new TestConfigContext(), null, helper, null);
+        final Path dir = Files.createTempDirectory("download-parallel");
+        final byte[] previous = "previous".getBytes(StandardCharsets.UTF_8);
+        final Path target = Files.write(dir.resolve("object"), previous);
+
+        try {
+            expectThrows(MantaIOException.class, () -> client.downloadParallel("/test/stor/object", target, 2));
+            assertEquals(Files.readAllBytes(target), previous);
+            assertEquals(listFileNames(dir), Collections.singletonList("object"));
+        } finally {
+            FileUtils.deleteDirectory(dir.toFile());
+        }
+    }
+
+    private static List<String> listFileNames(final Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString()).collect(Collectors.toList());
+        }
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2017-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -257,4 +257,37 @@ public class MantaClientValidationTest {
                 client.move("/foo/stor/bar", " ");
             });
     }
+
+    public void copyDirectoryTest() throws Exception {
+        Assert.assertThrows(NullPointerException.class, () -> {
+                client.copyDirectory(null, "/foo/stor/bar");
+            });
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+                client.copyDirectory("/foo/stor/bar", " ");
+            });
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+                client.copyDirectory("/foo/stor/bar", "/foo/stor/bar/baz");
+            });
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+                client.copyDirectory("/foo/stor/bar/", "/foo/stor/bar");
+            });
+    }
+
+    public void summarizeTest() throws Exception {
+        Assert.assertThrows(NullPointerException.class, () -> {
+                client.summarize(null);
+            });
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+                client.summarize(" ");
+            });
+        Assert.assertThrows(NullPointerException.class, () -> {
+                client.summarize("/foo/stor/bar", null);
+            });
+    }
+
+    public void findIntoTest() throws Exception {
+        Assert.assertThrows(NullPointerException.class, () -> {
+                client.findInto("/foo/stor/bar", new FindOptions(), null);
+            });
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2018-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -13,7 +13,10 @@ import com.joyent.manta.http.MantaHttpRequestFactory;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.NameValuePair;
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.URLEncodedUtils;
 import org.apache.http.entity.ContentType;
 import org.apache.http.message.BasicHeader;
 import org.mockito.Mock;
@@ -25,13 +28,21 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static com.joyent.manta.client.MantaDirectoryListingIterator.MAX_RESULTS;
 import static com.joyent.manta.util.UnitTestConstants.UNIT_TEST_URL;
 import static org.apache.http.HttpHeaders.CONTENT_TYPE;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @Test
@@ -106,4 +117,128 @@ public class MantaDirectoryListingIteratorTest {
                 new MantaDirectoryListingIterator(dirPath, httpHelper, MAX_RESULTS).hasNext());
     }
 
+    public void pipelinedModeRequestsNextPageAhead() throws Exception {
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            names.add(String.format("object-%03d", i));
+        }
+
+        final List<Integer> limits = Collections.synchronizedList(new ArrayList<>());
+        final Header contentTypeHeader = new BasicHeader(CONTENT_TYPE,
+                MantaObjectResponse.DIRECTORY_RESPONSE_CONTENT_TYPE);
+
+        when(httpHelper.executeRequest(any(), any())).thenAnswer(invocation -> {
+            final HttpGet request = invocation.getArgument(0);
+            final List<NameValuePair> params = URLEncodedUtils.parse(request.getURI(), StandardCharsets.UTF_8);
+            int limit = 0;
+            String marker = null;
+
+            for (NameValuePair param : params) {
+                if (param.getName().equals("limit")) {
+                    limit = Integer.parseInt(param.getValue());
+                } else if (param.getName().equals("marker")) {
+                    marker = param.getValue();
+                }
+            }
+
+            limits.add(limit);
+
+            final int start;
+            if (marker == null) {
+                start = 0;
+            } else {
+                start = names.indexOf(marker);
+            }
+
+            final StringBuilder page = new StringBuilder();
+            for (int i = start; i < Math.min(names.size(), start + limit); i++) {
+                page.append("{\"name\":\"").append(names.get(i))
+                        .append("\",\"type\":\"object\",\"mtime\":\"2017-04-16T23:20:12.393Z\"}\n");
+            }
+
+            final CloseableHttpResponse pageResponse = mock(CloseableHttpResponse.class);
+            final HttpEntity pageEntity = mock(HttpEntity.class);
+            when(pageResponse.getEntity()).thenReturn(pageEntity);
+            when(pageEntity.getContentType()).thenReturn(contentTypeHeader);
+            when(pageEntity.getContent()).thenReturn(IOUtils.toInputStream(page, StandardCharsets.UTF_8));
+
+            return pageResponse;
+        });
+
+        try (MantaDirectoryListingIterator itr = new MantaDirectoryListingIterator(
+                "/usr/stor/dir", httpHelper, 10, true)) {
+            Assert.assertEquals(itr.next().get("name"), "object-000");
+
+            /* The second page is requested while the first is being consumed. */
+            verify(httpHelper, timeout(5000).times(2)).executeRequest(any(), any());
+
+            final List<String> listed = new ArrayList<>();
+            listed.add("object-000");
+            while (itr.hasNext()) {
+                listed.add(itr.nextObject().getPath().substring("/usr/stor/dir/".length()));
+            }
+
+            Assert.assertEquals(listed, names);
+            Assert.assertEquals(itr.getLines(), 100L);
+        }
+
+        Assert.assertEquals(limits.subList(0, 5), Arrays.asList(10, 20, 40, 80, 160));
+    }
+
+    public void keepsFirstEntryWhenMarkerWasRemoved() throws Exception {
+        final List<String> names = new CopyOnWriteArrayList<>(
+                Arrays.asList("a", "b", "c", "d", "e", "f", "g"));
+        final Header contentTypeHeader = new BasicHeader(CONTENT_TYPE,
+                MantaObjectResponse.DIRECTORY_RESPONSE_CONTENT_TYPE);
+
+        when(httpHelper.executeRequest(any(), any())).thenAnswer(invocation -> {
+            final HttpGet request = invocation.getArgument(0);
+            int limit = 0;
+            String marker = "";
+
+            for (NameValuePair param : URLEncodedUtils.parse(request.getURI(), StandardCharsets.UTF_8)) {
+                if (param.getName().equals("limit")) {
+                    limit = Integer.parseInt(param.getValue());
+                } else if (param.getName().equals("marker")) {
+                    marker = param.getValue();
+                }
+            }
+
+            final StringBuilder page = new StringBuilder();
+            int count = 0;
+            for (String name : names) {
+                if (name.compareTo(marker) >= 0 && count++ < limit) {
+                    page.append("{\"name\":\"").append(name)
+                            .append("\",\"type\":\"object\",\"mtime\":\"2017-04-16T23:20:12.393Z\"}\n");
+                }
+            }
+
+            final CloseableHttpResponse pageResponse = mock(CloseableHttpResponse.class);
+            final HttpEntity pageEntity = mock(HttpEntity.class);
+            when(pageResponse.getEntity()).thenReturn(pageEntity);
+            when(pageEntity.getContentType()).thenReturn(contentTypeHeader);
+            when(pageEntity.getContent()).thenReturn(IOUtils.toInputStream(page, StandardCharsets.UTF_8));
+
+            return pageResponse;
+        });
+
+        for (boolean pipelined : new boolean[] {false, true}) {
+            final List<String> remaining = new CopyOnWriteArrayList<>(names);
+            final List<String> listed = new ArrayList<>();
+
+            try (MantaDirectoryListingIterator itr = new MantaDirectoryListingIterator(
+                    "/usr/stor/dir", httpHelper, 3, pipelined)) {
+                while (itr.hasNext()) {
+                    final String name = itr.nextObject().getPath().substring("/usr/stor/dir/".length());
+                    listed.add(name);
+                    /* Entries are removed as they are listed, as a recursive
+                     * delete does, so markers are gone from later pages. */
+                    names.remove(name);
+                }
+            }
+
+            Assert.assertEquals(listed, remaining);
+            names.addAll(remaining);
+        }
+    }
 }
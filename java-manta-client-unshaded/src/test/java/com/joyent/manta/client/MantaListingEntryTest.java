@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.http.MantaHttpHeaders;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.SerializationUtils;
+import org.testng.annotations.Test;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static com.joyent.manta.util.MantaUtils.formatPath;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class MantaListingEntryTest {
+    private static final String DIR = "/user/stor/dir";
+
+    private static final String MTIME = "2017-04-16T23:20:12.393Z";
+
+    private static DirectoryListingRecord file(final String name) {
+        final DirectoryListingRecord record = new DirectoryListingRecord();
+        record.setName(name);
+        record.setMtime(MTIME);
+        record.setType(MantaObject.MANTA_OBJECT_TYPE_OBJECT);
+        record.setContentType("text/plain");
+        record.setEtag("e346dce6-30e4-11e7-a7d5-2b7e8b9dc1a2");
+        record.setSize(12L);
+        record.setDurability(2);
+        record.setContentMd5(Base64.encodeBase64String(DigestUtils.md5("hello world!")));
+        return record;
+    }
+
+    private static DirectoryListingRecord directory(final String name) {
+        final DirectoryListingRecord record = new DirectoryListingRecord();
+        record.setName(name);
+        record.setMtime(MTIME);
+        record.setType(MantaObject.MANTA_OBJECT_TYPE_DIRECTORY);
+        return record;
+    }
+
+    public void exposesListedAttributes() {
+        final MantaListingEntry entry = file("file with spaces.txt").toObject(DIR + "/");
+
+        assertEquals(entry.getPath(), DIR + "/file with spaces.txt");
+        assertSame(entry.getPath(), entry.getPath());
+        assertEquals(entry.getName(), "file with spaces.txt");
+        assertFalse(entry.isDirectory());
+        assertEquals(entry.getType(), MantaObject.MANTA_OBJECT_TYPE_OBJECT);
+        assertEquals(entry.getContentType(), "text/plain");
+        assertEquals(entry.getContentLength(), Long.valueOf(12L));
+        assertEquals(entry.getMd5Bytes(), DigestUtils.md5("hello world!"));
+        assertEquals(entry.getMtime(), MTIME);
+        assertEquals(entry.getLastModifiedTime(), Date.from(Instant.parse(MTIME)));
+        assertNull(entry.getRequestId());
+        assertTrue(entry.getMetadata().isEmpty());
+    }
+
+    public void fillsInDirectoryContentType() {
+        final MantaListingEntry entry = directory("sub").toObject(DIR);
+
+        assertTrue(entry.isDirectory());
+        assertEquals(entry.getType(), MantaObject.MANTA_OBJECT_TYPE_DIRECTORY);
+        assertEquals(entry.getContentType(), MantaObjectResponse.DIRECTORY_RESPONSE_CONTENT_TYPE);
+        assertNull(entry.getContentLength());
+        assertNull(entry.getEtag());
+        assertNull(entry.getMd5Bytes());
+    }
+
+    public void buildsHeadersLikeObjectResponse() {
+        final MantaListingEntry entry = file("file.txt").toObject(DIR);
+        final MantaHttpHeaders headers = entry.getHttpHeaders();
+
+        assertSame(entry.getHttpHeaders(), headers);
+        assertEquals(headers.getLastModified(), MTIME);
+        assertEquals(headers.getContentType(), "text/plain");
+        assertEquals(headers.getETag(), "e346dce6-30e4-11e7-a7d5-2b7e8b9dc1a2");
+        assertEquals(headers.getContentLength(), Long.valueOf(12L));
+        assertEquals(headers.getDurabilityLevel(), Integer.valueOf(2));
+        assertEquals(entry.getHeaderAsString(MantaHttpHeaders.HTTP_DURABILITY_LEVEL), "2");
+
+        final MantaObjectResponse response = new MantaObjectResponse(formatPath(entry.getPath()), headers);
+
+        assertEquals(entry, response);
+        assertEquals(response, entry);
+        assertEquals(entry.hashCode(), response.hashCode());
+        assertEquals(response.getPath(), entry.getPath());
+        assertEquals(response.getType(), entry.getType());
+    }
+
+    public void comparesEntriesByAttributes() {
+        final MantaListingEntry entry = file("file.txt").toObject(DIR);
+
+        assertEquals(entry, file("file.txt").toObject(DIR + "/"));
+        assertFalse(entry.equals(file("other.txt").toObject(DIR)));
+        assertFalse(entry.equals(directory("file.txt").toObject(DIR)));
+    }
+
+    public void survivesSerialization() {
+        final MantaListingEntry entry = file("file.txt").toObject(DIR);
+        entry.getHttpHeaders();
+
+        final MantaListingEntry copy = SerializationUtils.roundtrip(entry);
+
+        assertEquals(copy, entry);
+        assertEquals(copy.getPath(), entry.getPath());
+        assertEquals(copy.getHttpHeaders().getETag(), entry.getEtag());
+    }
+
+    public void rejectsIncompleteRecords() {
+        final DirectoryListingRecord record = file("file.txt");
+        record.setType(null);
+
+        expectThrows(NullPointerException.class, () -> record.toObject(DIR));
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.http.HttpHelper;
+import com.joyent.manta.http.MantaHttpRequestFactory;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.message.BasicHeader;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static com.joyent.manta.util.UnitTestConstants.UNIT_TEST_URL;
+import static org.apache.http.HttpHeaders.CONTENT_TYPE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class MantaListingSpliteratorTest {
+    private static final String DIR = "/usr/stor/dir";
+
+    private final List<String> names = new ArrayList<>();
+
+    private HttpHelper httpHelper;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        names.clear();
+        for (int i = 0; i < 95; i++) {
+            names.add(String.format("object-%03d", i));
+        }
+
+        final Header contentTypeHeader = new BasicHeader(CONTENT_TYPE,
+                MantaObjectResponse.DIRECTORY_RESPONSE_CONTENT_TYPE);
+
+        httpHelper = mock(HttpHelper.class);
+        when(httpHelper.getRequestFactory()).thenReturn(new MantaHttpRequestFactory(UNIT_TEST_URL));
+        when(httpHelper.executeRequest(any(), any())).thenAnswer(invocation -> {
+            final HttpGet request = invocation.getArgument(0);
+            int limit = 0;
+            String marker = null;
+
+            for (NameValuePair param : URLEncodedUtils.parse(request.getURI(), StandardCharsets.UTF_8)) {
+                if (param.getName().equals("limit")) {
+                    limit = Integer.parseInt(param.getValue());
+                } else if (param.getName().equals("marker")) {
+                    marker = param.getValue();
+                }
+            }
+
+            final int start;
+            if (marker == null) {
+                start = 0;
+            } else {
+                start = names.indexOf(marker);
+            }
+
+            final StringBuilder page = new StringBuilder();
+            for (int i = start; i < Math.min(names.size(), start + limit); i++) {
+                page.append("{\"name\":\"").append(names.get(i))
+                        .append("\",\"type\":\"object\",\"mtime\":\"2017-04-16T23:20:12.393Z\"}\n");
+            }
+
+            final CloseableHttpResponse pageResponse = mock(CloseableHttpResponse.class);
+            final HttpEntity pageEntity = mock(HttpEntity.class);
+            when(pageResponse.getEntity()).thenReturn(pageEntity);
+            when(pageEntity.getContentType()).thenReturn(contentTypeHeader);
+            when(pageEntity.getContent()).thenReturn(IOUtils.toInputStream(page, StandardCharsets.UTF_8));
+
+            return pageResponse;
+        });
+    }
+
+    @DataProvider
+    public Object[][] modes() {
+        return new Object[][] {{false}, {true}};
+    }
+
+    private static String name(final MantaObject object) {
+        return object.getPath().substring(DIR.length() + 1);
+    }
+
+    @Test(dataProvider = "modes")
+    public void listsAllEntriesInOrder(final boolean pipelined) {
+        try (MantaDirectoryListingIterator itr = new MantaDirectoryListingIterator(DIR, httpHelper, 10, pipelined)) {
+            final List<String> listed = StreamSupport.stream(new MantaListingSpliterator(itr, DIR), false)
+                    .map(MantaListingSpliteratorTest::name)
+                    .collect(Collectors.toList());
+
+            assertEquals(listed, names);
+        }
+    }
+
+    @Test(dataProvider = "modes")
+    public void listsAllEntriesInOrderInParallel(final boolean pipelined) {
+        try (MantaDirectoryListingIterator itr = new MantaDirectoryListingIterator(DIR, httpHelper, 10, pipelined)) {
+            final List<String> listed = StreamSupport.stream(new MantaListingSpliterator(itr, DIR), true)
+                    .map(MantaListingSpliteratorTest::name)
+                    .collect(Collectors.toList());
+
+            assertEquals(listed, names);
+        }
+    }
+
+    public void splitsOffWholePages() {
+        try (MantaDirectoryListingIterator itr = new MantaDirectoryListingIterator(DIR, httpHelper, 10)) {
+            final MantaListingSpliterator spliterator = new MantaListingSpliterator(itr, DIR);
+
+            final Spliterator<MantaObject> first = spliterator.trySplit();
+            assertNotNull(first);
+            assertTrue(first.hasCharacteristics(Spliterator.SIZED));
+            assertEquals(first.estimateSize(), 10);
+
+            /* Later pages start with the marker, which isn't listed twice. */
+            final Spliterator<MantaObject> second = spliterator.trySplit();
+            assertNotNull(second);
+            assertEquals(second.estimateSize(), 9);
+            assertTrue(second.tryAdvance(object -> assertEquals(name(object), "object-010")));
+
+            long remaining = 0;
+            Spliterator<MantaObject> batch;
+            while ((batch = spliterator.trySplit()) != null) {
+                remaining += batch.estimateSize();
+            }
+
+            assertEquals(10 + 9 + remaining, names.size());
+            assertFalse(spliterator.tryAdvance(object -> { }));
+        }
+    }
+
+    public void splitsOffRestOfCurrentPage() {
+        try (MantaDirectoryListingIterator itr = new MantaDirectoryListingIterator(DIR, httpHelper, 10)) {
+            final MantaListingSpliterator spliterator = new MantaListingSpliterator(itr, DIR);
+
+            assertTrue(spliterator.tryAdvance(object -> assertEquals(name(object), "object-000")));
+            assertTrue(spliterator.tryAdvance(object -> assertEquals(name(object), "object-001")));
+
+            final Spliterator<MantaObject> rest = spliterator.trySplit();
+            assertNotNull(rest);
+            assertEquals(rest.estimateSize(), 8);
+            assertTrue(rest.tryAdvance(object -> assertEquals(name(object), "object-002")));
+
+            assertTrue(spliterator.tryAdvance(object -> assertEquals(name(object), "object-010")));
+        }
+    }
+
+    public void returnsNoBatchForEmptyListing() {
+        names.clear();
+
+        try (MantaDirectoryListingIterator itr = new MantaDirectoryListingIterator(DIR, httpHelper, 10)) {
+            final MantaListingSpliterator spliterator = new MantaListingSpliterator(itr, DIR);
+
+            assertNull(spliterator.trySplit());
+            assertFalse(spliterator.tryAdvance(object -> { }));
+        }
+    }
+}
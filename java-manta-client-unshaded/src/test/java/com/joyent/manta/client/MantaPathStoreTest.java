@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.http.MantaHttpHeaders;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class MantaPathStoreTest {
+    private static final String ROOT = "/user/stor/ingest/2020/05/20/";
+
+    @DataProvider
+    public Object[][] stores() {
+        return new Object[][] {{"heap"}, {"direct"}, {"mapped"}};
+    }
+
+    private static MantaPathStore open(final String kind, final Path directory) throws IOException {
+        switch (kind) {
+            case "direct":
+                return MantaPathStore.offHeap();
+            case "mapped":
+                return MantaPathStore.mapped(directory);
+            default:
+                return MantaPathStore.onHeap();
+        }
+    }
+
+    private static long countFiles(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static String path(final int i) {
+        return String.format("%shour-%02d/part-%08d-with-a-fairly-long-suffix.json", ROOT, i % 24, i);
+    }
+
+    @Test(dataProvider = "stores")
+    public void storesPathsAndAttributesAcrossBuffers(final String kind) throws IOException {
+        final Path directory = Files.createTempDirectory("manta-path-store");
+        final int entries = 120_000;
+        final byte[] md5 = DigestUtils.md5("content");
+
+        try (MantaPathStore store = open(kind, directory)) {
+            for (int i = 0; i < entries; i++) {
+                final byte[] checksum;
+
+                if (i % 3 == 0) {
+                    checksum = md5;
+                } else {
+                    checksum = null;
+                }
+
+                assertEquals(store.add(path(i), i % 10 == 0, i, 1_000_000L + i, checksum), i);
+            }
+
+            assertEquals(store.size(), entries);
+            assertTrue(store.getStorageBytes() > 1 << 22, "Entries should span several buffers");
+
+            // Random access in reverse order decodes from the nearest full path
+            for (int i = entries - 1; i >= 0; i -= 7) {
+                assertEquals(store.getPath(i), path(i));
+                assertEquals(store.isDirectory(i), i % 10 == 0);
+                assertEquals(store.getContentLength(i), i);
+                assertEquals(store.getMtime(i), 1_000_000L + i);
+
+                if (i % 3 == 0) {
+                    assertEquals(store.getMd5Bytes(i), md5);
+                } else {
+                    assertNull(store.getMd5Bytes(i));
+                }
+            }
+
+            final List<String> paths = store.paths().collect(Collectors.toList());
+            assertEquals(paths.size(), entries);
+            assertEquals(paths.get(entries - 1), path(entries - 1));
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    public void compressesSharedPrefixes() throws IOException {
+        long raw = 0;
+
+        try (MantaPathStore store = MantaPathStore.onHeap()) {
+            // Entries of a directory listing share everything up to their name
+            for (int i = 0; i < 10_000; i++) {
+                final String path = String.format("%shour-00/part-%08d.json", ROOT, i);
+                store.add(path, false, i, i, null);
+                raw += path.getBytes(StandardCharsets.UTF_8).length;
+            }
+
+            // Including the attributes, the store is smaller than the paths alone
+            assertTrue(store.getStorageBytes() < raw * 2 / 3,
+                    "Store used " + store.getStorageBytes() + " bytes for " + raw + " bytes of paths");
+        }
+    }
+
+    public void looksUpPathsAddedBeforeAndAfterFirstLookup() throws IOException {
+        try (MantaPathStore store = MantaPathStore.onHeap()) {
+            for (int i = 0; i < 100; i++) {
+                store.add(path(i), false, i, i, null);
+            }
+
+            assertEquals(store.indexOf(path(42)), 42);
+            assertEquals(store.indexOf(ROOT + "missing"), -1);
+
+            // Adding enough entries to grow the hash table several times
+            for (int i = 100; i < 5_000; i++) {
+                store.add(path(i), false, i, i, null);
+            }
+
+            for (int i = 0; i < 5_000; i += 13) {
+                assertEquals(store.indexOf(path(i)), i);
+            }
+
+            assertFalse(store.contains(ROOT + "missing"));
+        }
+    }
+
+    public void addsObjectAttributes() throws IOException {
+        final MantaHttpHeaders headers = new MantaHttpHeaders();
+        headers.setContentLength(12L);
+        headers.setContentMD5(Base64.encodeBase64String(DigestUtils.md5("hello world!")));
+        headers.setLastModified("Sun, 16 Apr 2017 23:20:12 GMT");
+        final MantaObjectResponse file = new MantaObjectResponse(ROOT + "file.txt", headers);
+
+        final MantaHttpHeaders dirHeaders = new MantaHttpHeaders();
+        dirHeaders.setContentType(MantaObjectResponse.DIRECTORY_RESPONSE_CONTENT_TYPE);
+        final MantaObjectResponse dir = new MantaObjectResponse(ROOT + "dir", dirHeaders);
+
+        try (MantaPathStore store = MantaPathStore.onHeap()) {
+            store.add(file);
+            store.add("dir", dir);
+
+            assertEquals(store.getPath(0), ROOT + "file.txt");
+            assertFalse(store.isDirectory(0));
+            assertEquals(store.getContentLength(0), 12L);
+            assertEquals(store.getMtime(0), 1492384812000L);
+            assertEquals(store.getMd5Bytes(0), DigestUtils.md5("hello world!"));
+
+            assertEquals(store.getPath(1), "dir");
+            assertTrue(store.isDirectory(1));
+            assertEquals(store.getContentLength(1), MantaPathStore.UNKNOWN);
+            assertEquals(store.getMtime(1), MantaPathStore.UNKNOWN);
+            assertNull(store.getMd5Bytes(1));
+        }
+    }
+
+    public void deletesMappedFileOnClose() throws IOException {
+        final Path directory = Files.createTempDirectory("manta-path-store");
+
+        try {
+            final MantaPathStore store = MantaPathStore.mapped(directory);
+            store.add(path(1), false, 1, 1, null);
+            assertEquals(countFiles(directory), 1);
+
+            store.close();
+
+            assertEquals(countFiles(directory), 0);
+            expectThrows(IllegalStateException.class, () -> store.add(path(2), false, 2, 2, null));
+            expectThrows(IndexOutOfBoundsException.class, () -> store.getPath(0));
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    public void rejectsInvalidChecksums() throws IOException {
+        try (MantaPathStore store = MantaPathStore.onHeap()) {
+            expectThrows(IllegalArgumentException.class, () -> store.add(path(1), false, 1, 1, new byte[3]));
+            assertEquals(store.size(), 0);
+        }
+    }
+}
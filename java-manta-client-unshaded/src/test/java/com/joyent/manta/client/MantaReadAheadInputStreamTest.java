@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.http.MantaHttpHeaders;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.lang3.RandomUtils;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class MantaReadAheadInputStreamTest {
+
+    private static MantaObjectInputStream objectStream(final InputStream content) {
+        final MantaObjectResponse response = new MantaObjectResponse("/user/stor/object", new MantaHttpHeaders());
+        return new MantaObjectInputStream(response, null, content);
+    }
+
+    public void readsAllContentInOrder() throws IOException {
+        final byte[] content = RandomUtils.nextBytes(50_000);
+
+        try (MantaReadAheadInputStream in = new MantaReadAheadInputStream(
+                objectStream(new ByteArrayInputStream(content)), 3, 1000)) {
+            assertEquals(in.read(), content[0] & 0xff);
+            assertEquals(in.skip(2500), 2500L);
+
+            final byte[] some = new byte[10];
+            assertEquals(in.read(some), 10);
+            assertEquals(some, Arrays.copyOfRange(content, 2501, 2511));
+
+            final byte[] rest = IOUtils.toByteArray(in);
+            assertEquals(rest, Arrays.copyOfRange(content, 2511, content.length));
+            assertEquals(in.read(), -1);
+        }
+    }
+
+    public void fillsBuffersAheadOfConsumer() throws Exception {
+        final CountingInputStream source = new CountingInputStream(
+                new ByteArrayInputStream(RandomUtils.nextBytes(100_000)));
+
+        try (MantaReadAheadInputStream in = new MantaReadAheadInputStream(objectStream(source), 4, 1000)) {
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+            while (source.getByteCount() < 4000 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            /* All buffers are filled, but no more than that. */
+            Thread.sleep(50);
+            assertEquals(source.getByteCount(), 4000);
+
+            assertEquals(IOUtils.toByteArray(in).length, 100_000);
+        }
+    }
+
+    public void propagatesErrorsAfterBufferedData() throws IOException {
+        final byte[] content = RandomUtils.nextBytes(1500);
+        final InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                return read();
+            }
+        };
+
+        try (MantaReadAheadInputStream in = new MantaReadAheadInputStream(
+                objectStream(new SequenceInputStream(new ByteArrayInputStream(content), failing)), 2, 1000)) {
+            final byte[] buffer = new byte[content.length];
+            IOUtils.readFully(in, buffer, 0, 1000);
+
+            final IOException e = expectThrows(IOException.class, () -> IOUtils.readFully(in, buffer, 1000, 500));
+            assertEquals(e.getMessage(), "connection reset");
+            expectThrows(IOException.class, in::read);
+        }
+    }
+
+    public void readsFailAfterClose() throws IOException {
+        final MantaReadAheadInputStream in = new MantaReadAheadInputStream(
+                objectStream(new ByteArrayInputStream(RandomUtils.nextBytes(10_000))), 2, 1000);
+        in.close();
+
+        expectThrows(IOException.class, in::read);
+        assertEquals(in.available(), 0);
+        assertTrue(!in.markSupported());
+    }
+
+    public void drainsConnectionWhenReaderIsIdle() throws IOException {
+        final RecordingStream wrapped = new RecordingStream(new ByteArrayInputStream(RandomUtils.nextBytes(500)));
+
+        final MantaReadAheadInputStream in = new MantaReadAheadInputStream(wrapped, 2, 1000);
+        assertEquals(IOUtils.toByteArray(in).length, 500);
+        in.close();
+
+        assertTrue(wrapped.closed.get());
+        assertFalse(wrapped.aborted.get());
+    }
+
+    public void abortsConnectionWhenClosedDuringBlockedRead() throws Exception {
+        final CountDownLatch reading = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+
+        /* Like a socket read, this read ignores interrupts and only returns
+         * once the connection is aborted. */
+        final InputStream blocking = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                reading.countDown();
+                boolean interrupted = false;
+
+                while (released.getCount() > 0) {
+                    try {
+                        released.await();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+
+                throw new IOException("connection aborted");
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                return read();
+            }
+        };
+
+        final RecordingStream wrapped = new RecordingStream(blocking) {
+            @Override
+            public void abortConnection() throws IOException {
+                super.abortConnection();
+                released.countDown();
+            }
+        };
+
+        final MantaReadAheadInputStream in = new MantaReadAheadInputStream(wrapped, 2, 1000);
+        assertTrue(reading.await(10, TimeUnit.SECONDS));
+        in.close();
+
+        assertTrue(wrapped.aborted.get());
+        assertFalse(wrapped.closed.get());
+    }
+
+    /**
+     * Object stream that records whether it was closed or aborted.
+     */
+    private static class RecordingStream extends MantaObjectInputStream {
+        private static final long serialVersionUID = 1L;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private final AtomicBoolean aborted = new AtomicBoolean();
+
+        RecordingStream(final InputStream content) {
+            super(new MantaObjectResponse("/user/stor/object", new MantaHttpHeaders()), null, content);
+        }
+
+        @Override
+        public void close() {
+            closed.set(true);
+        }
+
+        @Override
+        public void abortConnection() throws IOException {
+            aborted.set(true);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class MantaTreeIndexTest {
+    private static final String ROOT = "/user/stor/root";
+
+    private static FakeMantaTree tree() {
+        final FakeMantaTree tree = new FakeMantaTree();
+        tree.add(ROOT, true);
+        tree.add(ROOT + "/a", true);
+        tree.add(ROOT + "/a/x.txt", false);
+        tree.add(ROOT + "/a/sub", true);
+        tree.add(ROOT + "/a/sub/y.txt", false);
+        tree.add(ROOT + "/a-b", false);
+        tree.add(ROOT + "/a.txt", false);
+        tree.add(ROOT + "/b", true);
+
+        for (int i = 0; i < 150; i++) {
+            tree.add(ROOT + "/b/f" + i, false);
+        }
+
+        return tree;
+    }
+
+    private static List<String> list(final MantaTreeIndex index, final String directory) {
+        return index.list(directory).map(MantaTreeIndexEntry::getPath).collect(Collectors.toList());
+    }
+
+    public void answersQueriesFromIndex() throws IOException {
+        final MantaTreeIndex index = MantaTreeIndex.build(tree().client(), ROOT + "/");
+
+        assertEquals(index.getRoot(), ROOT);
+        assertEquals(index.size(), 1 + 7 + 150);
+        assertTrue(index.exists(ROOT + "/a/sub/y.txt"));
+        assertTrue(index.get(ROOT + "/a/sub/").isDirectory());
+        assertEquals(index.get(ROOT + "/a.txt").getContentLength(), Long.valueOf(3L));
+        assertFalse(index.exists(ROOT + "/c"));
+        assertNull(index.get(ROOT + "/a/missing"));
+
+        assertEquals(list(index, ROOT), Arrays.asList(ROOT + "/a", ROOT + "/a-b", ROOT + "/a.txt", ROOT + "/b"));
+        assertEquals(list(index, ROOT + "/a"), Arrays.asList(ROOT + "/a/sub", ROOT + "/a/x.txt"));
+        assertEquals(list(index, ROOT + "/b").size(), 150);
+        assertTrue(list(index, ROOT + "/a.txt").isEmpty());
+
+        assertEquals(index.findByPrefix(ROOT + "/a").count(), 6L);
+        assertEquals(index.findByPrefix(ROOT + "/b/f1").count(), 61L);
+
+        final MantaTreeIndexSummary summary = index.summarize(ROOT);
+        assertEquals(summary.getDirectories(), 3L);
+        assertEquals(summary.getObjects(), 154L);
+        assertEquals(summary.getBytes(), 154L * 3);
+        assertEquals(index.summarize(ROOT + "/a").getObjects(), 2L);
+    }
+
+    public void savesAndLoadsIndex() throws IOException {
+        final MantaTreeIndex index = MantaTreeIndex.build(tree().client(), ROOT);
+        final Path file = Files.createTempFile("manta-index", ".idx");
+
+        try {
+            index.save(file);
+            final MantaTreeIndex loaded = MantaTreeIndex.load(file);
+
+            assertEquals(loaded.getRoot(), ROOT);
+            assertEquals(loaded.size(), index.size());
+            assertEquals(loaded.findByPrefix(ROOT).collect(Collectors.toList()),
+                    index.findByPrefix(ROOT).collect(Collectors.toList()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public void rejectsFilesThatAreNotIndexes() throws IOException {
+        final Path file = Files.createTempFile("manta-index", ".idx");
+
+        try {
+            expectThrows(IOException.class, () -> MantaTreeIndex.load(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public void refreshListsOnlyChangedDirectories() throws IOException {
+        final FakeMantaTree tree = tree();
+        final MantaClient client = tree.client();
+        final MantaTreeIndex index = MantaTreeIndex.build(client, ROOT);
+
+        int listings = tree.getListings();
+        index.refresh(client, 4);
+
+        assertEquals(tree.getListings(), listings, "Unchanged tree was listed");
+        assertEquals(index.size(), 1 + 7 + 150);
+
+        tree.add(ROOT + "/a/sub/new.txt", false);
+        client.delete(ROOT + "/b/f7");
+
+        listings = tree.getListings();
+        index.refresh(client, 4);
+
+        assertEquals(tree.listedSince(listings), new TreeSet<>(Arrays.asList(ROOT + "/a/sub", ROOT + "/b")));
+        assertTrue(index.exists(ROOT + "/a/sub/new.txt"));
+        assertFalse(index.exists(ROOT + "/b/f7"));
+        assertEquals(index.summarize(ROOT).getObjects(), 154L);
+    }
+
+    public void refreshReplacesRemovedAndRetypedEntries() throws IOException {
+        final FakeMantaTree tree = tree();
+        final MantaClient client = tree.client();
+        final MantaTreeIndex index = MantaTreeIndex.build(client, ROOT);
+
+        // a/sub becomes an object and a.txt becomes a directory
+        client.delete(ROOT + "/a/sub/y.txt");
+        client.delete(ROOT + "/a/sub");
+        tree.add(ROOT + "/a/sub", false);
+        client.delete(ROOT + "/a.txt");
+        tree.add(ROOT + "/a.txt", true);
+        tree.add(ROOT + "/a.txt/inner", false);
+
+        index.refresh(client, 2);
+
+        assertFalse(index.get(ROOT + "/a/sub").isDirectory());
+        assertFalse(index.exists(ROOT + "/a/sub/y.txt"));
+        assertTrue(index.get(ROOT + "/a.txt").isDirectory());
+        assertTrue(index.exists(ROOT + "/a.txt/inner"));
+    }
+
+    public void failedRefreshIsCompletedByTheNextOne() throws IOException {
+        final FakeMantaTree tree = tree();
+        final MantaClient client = tree.client();
+        final MantaTreeIndex index = MantaTreeIndex.build(client, ROOT);
+
+        tree.add(ROOT + "/a/new", true);
+        tree.add(ROOT + "/a/new/deep.txt", false);
+        tree.add(ROOT + "/a/sub/z.txt", false);
+        tree.breakPath(ROOT + "/a/new");
+
+        expectThrows(IOException.class, () -> index.refresh(client, 2));
+        assertFalse(index.exists(ROOT + "/a/new/deep.txt"));
+
+        tree.repairPath(ROOT + "/a/new");
+        index.refresh(client, 2);
+
+        assertTrue(index.exists(ROOT + "/a/new/deep.txt"));
+        assertTrue(index.exists(ROOT + "/a/sub/z.txt"));
+    }
+}
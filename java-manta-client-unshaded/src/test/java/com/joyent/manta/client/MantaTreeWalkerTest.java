@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.http.HttpHelper;
+import com.joyent.manta.http.MantaHttpRequestFactory;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.message.BasicHeader;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.joyent.manta.util.UnitTestConstants.UNIT_TEST_URL;
+import static org.apache.http.HttpHeaders.CONTENT_TYPE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class MantaTreeWalkerTest {
+    private static final String ROOT = "/user/stor/root";
+
+    /**
+     * Directory tree served by a mocked {@link HttpHelper}, keyed by directory
+     * path and then by entry name.
+     */
+    private final Map<String, TreeMap<String, Boolean>> tree = new ConcurrentHashMap<>();
+
+    private final Set<String> broken = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeMethod
+    public void setup() {
+        tree.clear();
+        broken.clear();
+        requests.set(0);
+    }
+
+    private void add(final String path, final boolean directory) {
+        final int separator = path.lastIndexOf('/');
+        tree.computeIfAbsent(path.substring(0, separator), k -> new TreeMap<>())
+                .put(path.substring(separator + 1), directory);
+
+        if (directory) {
+            tree.computeIfAbsent(path, k -> new TreeMap<>());
+        }
+    }
+
+    private MantaClient client() throws IOException {
+        final HttpHelper httpHelper = mock(HttpHelper.class);
+        final Header contentType = new BasicHeader(CONTENT_TYPE, MantaObjectResponse.DIRECTORY_RESPONSE_CONTENT_TYPE);
+
+        when(httpHelper.getRequestFactory()).thenReturn(new MantaHttpRequestFactory(UNIT_TEST_URL));
+        when(httpHelper.executeRequest(any(), any())).thenAnswer(invocation -> {
+            final HttpGet request = invocation.getArgument(0);
+            final String dir = request.getURI().getPath();
+            requests.incrementAndGet();
+
+            if (broken.contains(dir)) {
+                throw new IOException("listing failed for " + dir);
+            }
+
+            int limit = 0;
+            String marker = "";
+
+            for (NameValuePair param : URLEncodedUtils.parse(request.getURI(), StandardCharsets.UTF_8)) {
+                if (param.getName().equals("limit")) {
+                    limit = Integer.parseInt(param.getValue());
+                } else if (param.getName().equals("marker")) {
+                    marker = param.getValue();
+                }
+            }
+
+            final StringBuilder page = new StringBuilder();
+            int count = 0;
+
+            for (Map.Entry<String, Boolean> entry : tree.get(dir).tailMap(marker, true).entrySet()) {
+                if (count++ == limit) {
+                    break;
+                }
+
+                final String type;
+                if (entry.getValue()) {
+                    type = "directory";
+                } else {
+                    type = "object";
+                }
+
+                page.append("{\"name\":\"").append(entry.getKey()).append("\",\"type\":\"").append(type)
+                        .append("\",\"mtime\":\"2017-04-16T23:20:12.393Z\"}\n");
+            }
+
+            final CloseableHttpResponse response = mock(CloseableHttpResponse.class);
+            final HttpEntity entity = mock(HttpEntity.class);
+            when(response.getEntity()).thenReturn(entity);
+            when(entity.getContentType()).thenReturn(contentType);
+            when(entity.getContent()).thenReturn(IOUtils.toInputStream(page, StandardCharsets.UTF_8));
+
+            return response;
+        });
+
+        final MantaClient client = mock(MantaClient.class);
+        when(client.streamingIterator(anyString())).thenAnswer(invocation ->
+                new MantaDirectoryListingIterator(invocation.getArgument(0), httpHelper, 100));
+
+        return client;
+    }
+
+    private static Set<String> walk(final MantaTreeWalker walker) {
+        final Set<String> paths = new HashSet<>();
+
+        try (MantaTreeWalker w = walker) {
+            while (w.hasNext()) {
+                final String path = w.next().getPath();
+                assertFalse(!paths.add(path), "Duplicate result: " + path);
+            }
+        }
+
+        return paths;
+    }
+
+    public void walksWideTreeWithSmallQueues() throws IOException {
+        final Set<String> expected = new HashSet<>();
+
+        for (int i = 0; i < 1300; i++) {
+            final String dir = String.format("%s/d%04d", ROOT, i);
+            add(dir, true);
+            expected.add(dir);
+
+            for (int j = 0; j < 2; j++) {
+                final String file = dir + "/f" + j;
+                add(file, false);
+                expected.add(file);
+            }
+        }
+
+        add(ROOT + "/d0005/nested", true);
+        add(ROOT + "/d0005/nested/deep.txt", false);
+        expected.add(ROOT + "/d0005/nested");
+        expected.add(ROOT + "/d0005/nested/deep.txt");
+
+        final Set<String> found = walk(new MantaTreeWalker(client(), ROOT, new FindOptions(), 2, 1, 8));
+
+        assertEquals(found, expected);
+    }
+
+    public void filterPrunesDirectories() throws IOException {
+        add(ROOT + "/keep", true);
+        add(ROOT + "/keep/a.txt", false);
+        add(ROOT + "/skip", true);
+        add(ROOT + "/skip/b.txt", false);
+        broken.add(ROOT + "/skip");
+
+        final FindOptions options = new FindOptions()
+                .setFilter(obj -> !obj.getPath().endsWith("/skip"))
+                .setPrune(obj -> obj.getPath().endsWith("/skip"));
+        final Set<String> found = walk(new MantaTreeWalker(client(), ROOT, options, 3, 4, 4));
+
+        final Set<String> expected = new HashSet<>();
+        expected.add(ROOT + "/keep");
+        expected.add(ROOT + "/keep/a.txt");
+
+        assertEquals(found, expected);
+    }
+
+    public void reportsListingFailuresToConsumer() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            add(ROOT + "/dir" + i, true);
+            add(ROOT + "/dir" + i + "/file", false);
+        }
+
+        broken.add(ROOT + "/dir7");
+
+        final MantaTreeWalker walker = new MantaTreeWalker(client(), ROOT, new FindOptions(), 2, 2, 2);
+        final List<MantaObject> results = new ArrayList<>();
+
+        expectThrows(UncheckedIOException.class, () -> walker.forEachRemaining(results::add));
+        assertFalse(walker.hasNext());
+    }
+
+    public void stopsAtMaximumDepth() throws IOException {
+        add(ROOT + "/a", true);
+        add(ROOT + "/a/b", true);
+        add(ROOT + "/a/b/c", true);
+        add(ROOT + "/a/b/c/file", false);
+        broken.add(ROOT + "/a/b");
+
+        final Set<String> found = walk(new MantaTreeWalker(client(), ROOT,
+                new FindOptions().setMaxDepth(2), 2, 4, 4));
+
+        final Set<String> expected = new HashSet<>();
+        expected.add(ROOT + "/a");
+        expected.add(ROOT + "/a/b");
+
+        assertEquals(found, expected);
+    }
+
+    public void stopsWalkingWhenLimitIsReached() throws IOException {
+        for (int i = 0; i < 200; i++) {
+            add(ROOT + "/dir" + i, true);
+            add(ROOT + "/dir" + i + "/file.txt", false);
+        }
+
+        final FindOptions options = new FindOptions()
+                .setNameGlob("*.txt")
+                .setLimit(3L);
+        final Set<String> found = walk(new MantaTreeWalker(client(), ROOT, options, 1, 4, 2));
+
+        assertEquals(found.size(), 3);
+        for (String path : found) {
+            assertTrue(path.endsWith("/file.txt"), path);
+        }
+
+        assertTrue(requests.get() < 20, "Too many listings requested: " + requests.get());
+    }
+
+    public void reportsMissingStartingDirectoryImmediately() {
+        final MantaClient client = mock(MantaClient.class);
+        final MantaDirectoryListingIterator itr = mock(MantaDirectoryListingIterator.class);
+        when(client.streamingIterator(ROOT)).thenReturn(itr);
+        when(itr.hasNext()).thenThrow(new UncheckedIOException(new IOException("not found")));
+
+        expectThrows(UncheckedIOException.class, () -> new MantaTreeWalker(client, ROOT, new FindOptions(), 2, 2, 2));
+        verify(itr).close();
+    }
+}
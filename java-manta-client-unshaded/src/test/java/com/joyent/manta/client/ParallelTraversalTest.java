@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.exception.MantaClientHttpResponseException;
+import com.joyent.manta.exception.MantaErrorCode;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.message.BasicStatusLine;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class ParallelTraversalTest {
+
+    public void waitsForTasksSubmittedByTasks() throws Exception {
+        final AtomicInteger completed = new AtomicInteger();
+
+        try (ParallelTraversal traversal = new ParallelTraversal()) {
+            final ParallelTraversal.Pool pool = traversal.pool("test-traversal-%d", 2);
+
+            traversal.execute(pool, new TreeTask(traversal, pool, completed, 3));
+            traversal.await("testing");
+        }
+
+        assertEquals(completed.get(), 16);
+    }
+
+    public void rethrowsFirstFailureAndSkipsQueuedTasks() throws Exception {
+        final IOException failure = new IOException("listing failed");
+        final CountDownLatch failed = new CountDownLatch(1);
+        final AtomicInteger started = new AtomicInteger();
+
+        try (ParallelTraversal traversal = new ParallelTraversal()) {
+            final ParallelTraversal.Pool pool = traversal.pool("test-traversal-%d", 1);
+
+            traversal.execute(pool, () -> {
+                failed.countDown();
+                throw failure;
+            });
+            traversal.execute(pool, started::incrementAndGet);
+
+            failed.await();
+            assertSame(expectThrows(IOException.class, () -> traversal.await("testing")), failure);
+        }
+
+        assertEquals(started.get(), 0);
+    }
+
+    public void detectsMissingPaths() {
+        final CloseableHttpResponse notFound = mock(CloseableHttpResponse.class);
+        when(notFound.getStatusLine()).thenReturn(
+                new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_NOT_FOUND, "Not Found"));
+
+        assertTrue(ParallelTraversal.isNotFound(new MantaClientHttpResponseException(
+                new HttpHead("http://localhost/user/stor/dir"), notFound, "/user/stor/dir")));
+        assertTrue(ParallelTraversal.isNotFound(new MantaClientHttpResponseException("missing")
+                .setServerCode(MantaErrorCode.RESOURCE_NOT_FOUND_ERROR)));
+        assertFalse(ParallelTraversal.isNotFound(new MantaClientHttpResponseException("not empty")
+                .setServerCode(MantaErrorCode.DIRECTORY_NOT_EMPTY_ERROR)));
+        assertFalse(ParallelTraversal.isNotFound(new IOException("missing")));
+    }
+
+    /**
+     * Task that submits the specified number of child tasks, each of which
+     * submits one fewer, down to leaf tasks.
+     */
+    private static final class TreeTask implements Callable<Void> {
+        private final ParallelTraversal traversal;
+        private final ParallelTraversal.Pool pool;
+        private final AtomicInteger completed;
+        private final int children;
+
+        TreeTask(final ParallelTraversal traversal, final ParallelTraversal.Pool pool,
+                 final AtomicInteger completed, final int children) {
+            this.traversal = traversal;
+            this.pool = pool;
+            this.completed = completed;
+            this.children = children;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            for (int i = 0; i < children; i++) {
+                traversal.execute(pool, new TreeTask(traversal, pool, completed, children - 1));
+            }
+
+            completed.incrementAndGet();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.exception.MantaIOException;
+import com.joyent.manta.http.HttpRange;
+import com.joyent.manta.http.MantaHttpHeaders;
+import org.apache.commons.lang3.RandomUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class RangeReadStrategyTest {
+    private static final String PATH = "/user/stor/index.bin";
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterClass
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Creates a client that serves bounded ranged GETs of the specified
+     * object, changing the etag after the specified number of requests.
+     */
+    private static MantaClient client(final byte[] object, final int changeAfter) throws IOException {
+        final MantaClient client = mock(MantaClient.class);
+        final AtomicInteger requests = new AtomicInteger();
+
+        when(client.getAsInputStream(eq(PATH), any())).thenAnswer(invocation -> {
+            final MantaHttpHeaders request = invocation.getArgument(1);
+            final String[] bounds = request.getRange().substring("bytes=".length()).split("-", 2);
+            final int start = Integer.parseInt(bounds[0]);
+            final int end = Math.min(object.length - 1, Integer.parseInt(bounds[1]));
+
+            final MantaHttpHeaders headers = new MantaHttpHeaders();
+
+            if (requests.incrementAndGet() > changeAfter) {
+                headers.setETag("changed");
+            } else {
+                headers.setETag("original");
+            }
+
+            return new MantaObjectInputStream(new MantaObjectResponse(PATH, headers), null,
+                    new ByteArrayInputStream(Arrays.copyOfRange(object, start, end + 1)));
+        });
+
+        return client;
+    }
+
+    private static ByteBuffer expected(final byte[] object, final int start, final int end) {
+        return ByteBuffer.wrap(Arrays.copyOfRange(object, start, end + 1));
+    }
+
+    public void mergesOverlappingAndNearbyRanges() {
+        final List<HttpRange.BoundedRequest> ranges = Arrays.asList(
+                new HttpRange.BoundedRequest(1000, 1099),
+                new HttpRange.BoundedRequest(0, 99),
+                new HttpRange.BoundedRequest(50, 149),
+                new HttpRange.BoundedRequest(160, 199));
+
+        final List<RangeReadStrategy.Span> spans = RangeReadStrategy.merge(ranges, 10);
+
+        assertEquals(spans.size(), 2);
+        assertEquals(spans.get(0).getStart(), 0);
+        assertEquals(spans.get(0).getEnd(), 199);
+        assertEquals(spans.get(0).getMembers(), Arrays.asList(1, 2, 3));
+        assertEquals(spans.get(1).getStart(), 1000);
+        assertEquals(spans.get(1).getMembers(), Arrays.asList(0));
+    }
+
+    public void readsRangesWithMinimumRequests() throws IOException {
+        final byte[] object = RandomUtils.nextBytes(100_000);
+        final MantaClient client = client(object, Integer.MAX_VALUE);
+
+        final List<ByteBuffer> buffers = RangeReadStrategy.read(client, PATH, Arrays.asList(
+                new HttpRange.BoundedRequest(90_000, 90_009),
+                new HttpRange.BoundedRequest(10, 19),
+                new HttpRange.BoundedRequest(15, 30),
+                new HttpRange.BoundedRequest(500, 599),
+                new HttpRange.BoundedRequest(50_000, 50_000)), 1024, 4, executor);
+
+        verify(client, times(3)).getAsInputStream(eq(PATH), any());
+        assertEquals(buffers.size(), 5);
+        assertEquals(buffers.get(0), expected(object, 90_000, 90_009));
+        assertEquals(buffers.get(1), expected(object, 10, 19));
+        assertEquals(buffers.get(2), expected(object, 15, 30));
+        assertEquals(buffers.get(3), expected(object, 500, 599));
+        assertEquals(buffers.get(4), expected(object, 50_000, 50_000));
+        assertTrue(buffers.get(0).isReadOnly());
+    }
+
+    public void rejectsDataFromDifferentVersions() throws IOException {
+        final byte[] object = RandomUtils.nextBytes(10_000);
+        final MantaClient client = client(object, 1);
+
+        expectThrows(MantaIOException.class, () -> RangeReadStrategy.read(client, PATH, Arrays.asList(
+                new HttpRange.BoundedRequest(0, 9),
+                new HttpRange.BoundedRequest(9_000, 9_009)), 0, 2, executor));
+    }
+
+    public void failsWhenRangeIsPastEndOfObject() throws IOException {
+        final byte[] object = RandomUtils.nextBytes(100);
+        final MantaClient client = client(object, Integer.MAX_VALUE);
+
+        expectThrows(EOFException.class, () -> RangeReadStrategy.read(client, PATH, Arrays.asList(
+                new HttpRange.BoundedRequest(0, 9),
+                new HttpRange.BoundedRequest(90, 199)), 0, 2, executor));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.exception.MantaClientHttpResponseException;
+import com.joyent.manta.exception.MantaErrorCode;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class RecursiveDeleteStrategyTest {
+    private static final String ROOT = "/user/stor/root";
+
+    public void deletesTreeInSinglePass() throws IOException {
+        final FakeMantaTree tree = new FakeMantaTree();
+        tree.add(ROOT, true);
+        int entries = 0;
+
+        for (int i = 0; i < 30; i++) {
+            final String dir = ROOT + "/d" + i;
+            tree.add(dir, true);
+            tree.add(dir + "/nested", true);
+            tree.add(dir + "/nested/deep.txt", false);
+            entries += 3;
+
+            for (int j = 0; j < 150; j++) {
+                tree.add(dir + "/f" + j, false);
+                entries++;
+            }
+        }
+
+        final MantaClient client = tree.client();
+        RecursiveDeleteStrategy.deleteRecursive(client, ROOT, 8);
+
+        assertFalse(tree.exists(ROOT));
+        // Every entry and the starting directory are deleted exactly once
+        assertEquals(tree.getDeletes(), entries + 1);
+        // Only the starting directory is deleted with the configured pruning
+        verify(client).delete(ROOT);
+        verify(client, never()).delete(ROOT, null, 0);
+    }
+
+    public void listsDirectoryAgainWhenModifiedDuringDelete() throws IOException {
+        final FakeMantaTree tree = new FakeMantaTree();
+        tree.add(ROOT, true);
+        tree.add(ROOT + "/dir", true);
+        tree.add(ROOT + "/dir/a.txt", false);
+        tree.add(ROOT + "/dir/b.txt", false);
+
+        final AtomicBoolean added = new AtomicBoolean();
+        tree.beforeDelete(path -> {
+            if (path.endsWith("/a.txt") && added.compareAndSet(false, true)) {
+                tree.add(ROOT + "/dir/late.txt", false);
+            }
+        });
+
+        RecursiveDeleteStrategy.deleteRecursive(tree.client(), ROOT, 2);
+
+        assertTrue(added.get());
+        assertFalse(tree.exists(ROOT + "/dir/late.txt"));
+        assertFalse(tree.exists(ROOT));
+    }
+
+    public void givesUpWhenDirectoryKeepsBeingModified() throws IOException {
+        final FakeMantaTree tree = new FakeMantaTree();
+        tree.add(ROOT, true);
+        tree.add(ROOT + "/dir", true);
+        tree.add(ROOT + "/dir/file", false);
+        tree.beforeDelete(path -> {
+            if (path.startsWith(ROOT + "/dir/")) {
+                tree.add(path + "x", false);
+            }
+        });
+
+        final MantaClient client = tree.client();
+
+        expectThrows(IOException.class, () -> RecursiveDeleteStrategy.deleteRecursive(client, ROOT, 2));
+        assertTrue(tree.exists(ROOT + "/dir"));
+    }
+
+    public void propagatesDeleteFailures() throws IOException {
+        final FakeMantaTree tree = new FakeMantaTree();
+        tree.add(ROOT, true);
+
+        for (int i = 0; i < 20; i++) {
+            tree.add(ROOT + "/dir" + i, true);
+            tree.add(ROOT + "/dir" + i + "/file", false);
+        }
+
+        tree.breakPath(ROOT + "/dir13/file");
+
+        final IOException e = expectThrows(IOException.class, () ->
+                RecursiveDeleteStrategy.deleteRecursive(tree.client(), ROOT, 4));
+
+        assertTrue(e.getMessage().contains("/dir13/file"), e.getMessage());
+        assertTrue(tree.exists(ROOT + "/dir13"));
+        assertTrue(tree.exists(ROOT));
+    }
+
+    public void reportsMissingStartingDirectory() throws IOException {
+        final FakeMantaTree tree = new FakeMantaTree();
+
+        final MantaClientHttpResponseException e = expectThrows(MantaClientHttpResponseException.class, () ->
+                RecursiveDeleteStrategy.deleteRecursive(tree.client(), ROOT, 4));
+
+        assertEquals(e.getServerCode(), MantaErrorCode.RESOURCE_NOT_FOUND_ERROR);
+    }
+}
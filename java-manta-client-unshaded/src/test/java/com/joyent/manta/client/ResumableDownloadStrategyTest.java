@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.exception.MantaClientHttpResponseException;
+import com.joyent.manta.http.MantaHttpHeaders;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.message.BasicStatusLine;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+
+@Test
+public class ResumableDownloadStrategyTest {
+
+    private static final String PATH = "/user/stor/object";
+
+    private static final String ETAG = "a1b2c3";
+
+    private Path dir;
+
+    private Path target;
+
+    private Path partial;
+
+    private Path checkpoint;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("resumable-download");
+        target = dir.resolve("object.bin");
+        partial = dir.resolve("object.bin" + ResumableDownloadStrategy.PARTIAL_SUFFIX);
+        checkpoint = dir.resolve("object.bin" + ResumableDownloadStrategy.PARTIAL_SUFFIX
+                + ResumableDownloadStrategy.CHECKPOINT_SUFFIX);
+    }
+
+    @AfterMethod
+    public void teardown() throws IOException {
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+
+    private static MantaObjectInputStream response(final byte[] body,
+                                                   final String etag,
+                                                   final String contentRange) {
+        final MantaHttpHeaders headers = new MantaHttpHeaders();
+        headers.setETag(etag);
+        headers.setContentLength((long) body.length);
+
+        if (contentRange != null) {
+            headers.setContentRange(contentRange);
+        }
+
+        return new MantaObjectInputStream(new MantaObjectResponse(PATH, headers), null,
+                new ByteArrayInputStream(body));
+    }
+
+    private void writeCheckpoint(final long completed, final long contentLength) throws IOException {
+        final Properties properties = new Properties();
+        properties.setProperty("path", PATH);
+        properties.setProperty("etag", ETAG);
+        properties.setProperty("bytesCompleted", Long.toString(completed));
+        properties.setProperty("contentLength", Long.toString(contentLength));
+
+        try (OutputStream out = Files.newOutputStream(checkpoint)) {
+            properties.store(out, null);
+        }
+    }
+
+    public void downloadsWholeObjectWithoutCheckpoint() throws IOException {
+        final byte[] content = RandomUtils.nextBytes(4096);
+        final MantaClient client = mock(MantaClient.class);
+        when(client.getAsInputStream(eq(PATH), any())).thenReturn(response(content, ETAG, null));
+
+        final long transferred = ResumableDownloadStrategy.download(client, PATH, target);
+
+        assertEquals(transferred, content.length);
+        assertEquals(Files.readAllBytes(target), content);
+        assertFalse(Files.exists(partial));
+        assertFalse(Files.exists(checkpoint));
+    }
+
+    public void resumesFromCheckpointWithConditionalRangeRequest() throws IOException {
+        final byte[] content = RandomUtils.nextBytes(4096);
+        final int completed = 1000;
+
+        /* Simulate a previous process that wrote more data than it was able
+         * to checkpoint before it died. */
+        Files.write(partial, Arrays.copyOf(content, completed + 500));
+        writeCheckpoint(completed, content.length);
+
+        final MantaClient client = mock(MantaClient.class);
+        final String contentRange = String.format("bytes %d-%d/%d", completed, content.length - 1, content.length);
+        when(client.getAsInputStream(eq(PATH), any())).thenReturn(
+                response(Arrays.copyOfRange(content, completed, content.length), ETAG, contentRange));
+
+        final long transferred = ResumableDownloadStrategy.download(client, PATH, target);
+
+        final ArgumentCaptor<MantaHttpHeaders> headers = ArgumentCaptor.forClass(MantaHttpHeaders.class);
+        verify(client).getAsInputStream(eq(PATH), headers.capture());
+        assertEquals(headers.getValue().getIfMatch(), ETAG);
+        assertEquals(headers.getValue().getRange(), "bytes=" + completed + "-");
+
+        assertEquals(transferred, content.length - completed);
+        assertEquals(Files.readAllBytes(target), content);
+        assertFalse(Files.exists(checkpoint));
+    }
+
+    public void restartsWhenObjectChangedSinceCheckpoint() throws IOException {
+        final byte[] content = RandomUtils.nextBytes(2048);
+        Files.write(partial, RandomUtils.nextBytes(100));
+        writeCheckpoint(100, 5000);
+
+        final CloseableHttpResponse preconditionFailed = mock(CloseableHttpResponse.class);
+        when(preconditionFailed.getStatusLine()).thenReturn(
+                new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_PRECONDITION_FAILED, "Precondition Failed"));
+
+        final MantaClientHttpResponseException changed = new MantaClientHttpResponseException(
+                new HttpGet("http://localhost" + PATH), preconditionFailed, PATH);
+
+        final MantaClient client = mock(MantaClient.class);
+        when(client.getAsInputStream(eq(PATH), any()))
+                .thenThrow(changed)
+                .thenReturn(response(content, "d4e5f6", null));
+
+        final long transferred = ResumableDownloadStrategy.download(client, PATH, target);
+
+        verify(client, times(2)).getAsInputStream(eq(PATH), any());
+        assertEquals(transferred, content.length);
+        assertEquals(Files.readAllBytes(target), content);
+    }
+
+    public void ignoresCheckpointForDifferentPath() throws IOException {
+        Files.write(partial, new byte[10]);
+        writeCheckpoint(10, 20);
+
+        assertNull(ResumableDownloadStrategy.readCheckpoint(checkpoint, partial, "/user/stor/other"));
+        assertEquals(ResumableDownloadStrategy.readCheckpoint(checkpoint, partial, PATH).getBytesCompleted(), 10L);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.exception.MantaClientHttpResponseException;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class SubtreeSummaryStrategyTest {
+    private static final String ROOT = "/user/stor/root";
+
+    public void totalsTreeWithBreakdownAndHistograms() throws IOException {
+        final FakeMantaTree tree = new FakeMantaTree();
+        tree.add(ROOT, true);
+        tree.add(ROOT + "/top.bin", 5000L);
+        tree.add(ROOT + "/logs", true);
+
+        for (int i = 0; i < 250; i++) {
+            tree.add(ROOT + "/logs/day" + (i % 5), true);
+            tree.add(ROOT + "/logs/day" + (i % 5) + "/part" + i, 10L);
+        }
+
+        final Instant cutoff = tree.mtime(ROOT + "/logs/day4/part249");
+
+        tree.add(ROOT + "/images", true);
+        tree.add(ROOT + "/images/raw", true);
+        tree.add(ROOT + "/images/raw/big.tiff", 2_000_000L);
+        tree.add(ROOT + "/images/thumb.png", 100L);
+        tree.add(ROOT + "/empty", true);
+
+        final SummaryOptions options = new SummaryOptions()
+                .setConcurrency(4)
+                .setSizeBuckets(100L, 1_000_000L)
+                .setMtimeBuckets(cutoff);
+
+        final SubtreeSummary summary = SubtreeSummaryStrategy.summarize(tree.client(), ROOT, options);
+
+        assertEquals(summary.getPath(), ROOT);
+        assertEquals(summary.getObjects(), 253L);
+        assertEquals(summary.getBytes(), 5000L + 2500L + 2_000_000L + 100L);
+        assertEquals(summary.getDirectories(), 3L + 5L + 1L);
+        assertEquals(summary.getSizeHistogram(), new long[] {250, 2, 1});
+        assertEquals(summary.getMtimeHistogram(), new long[] {250, 3});
+
+        assertEquals(summary.getChildren().keySet(), new TreeSet<>(Arrays.asList("empty", "images", "logs")));
+
+        final SubtreeSummary logs = summary.getChildren().get("logs");
+        assertEquals(logs.getPath(), ROOT + "/logs");
+        assertEquals(logs.getObjects(), 250L);
+        assertEquals(logs.getBytes(), 2500L);
+        assertEquals(logs.getDirectories(), 5L);
+        assertEquals(logs.getSizeHistogram(), new long[] {250, 0, 0});
+        assertEquals(logs.getChildren().size(), 0);
+
+        final SubtreeSummary images = summary.getChildren().get("images");
+        assertEquals(images.getObjects(), 2L);
+        assertEquals(images.getDirectories(), 1L);
+        assertEquals(images.getSizeHistogram(), new long[] {0, 1, 1});
+
+        assertEquals(summary.getChildren().get("empty").getObjects(), 0L);
+    }
+
+    public void omitsHistogramsByDefault() throws IOException {
+        final FakeMantaTree tree = new FakeMantaTree();
+        tree.add(ROOT, true);
+        tree.add(ROOT + "/file", false);
+
+        final SubtreeSummary summary = SubtreeSummaryStrategy.summarize(tree.client(), ROOT,
+                new SummaryOptions().setConcurrency(1));
+
+        assertEquals(summary.getObjects(), 1L);
+        assertNull(summary.getSizeHistogram());
+        assertNull(summary.getMtimeHistogram());
+    }
+
+    public void failsWhenListingFails() throws IOException {
+        final FakeMantaTree tree = new FakeMantaTree();
+        tree.add(ROOT, true);
+
+        for (int i = 0; i < 10; i++) {
+            tree.add(ROOT + "/dir" + i, true);
+            tree.add(ROOT + "/dir" + i + "/file", false);
+        }
+
+        tree.breakPath(ROOT + "/dir6");
+
+        expectThrows(IOException.class, () ->
+                SubtreeSummaryStrategy.summarize(tree.client(), ROOT, new SummaryOptions().setConcurrency(3)));
+        expectThrows(MantaClientHttpResponseException.class, () ->
+                SubtreeSummaryStrategy.summarize(tree.client(), ROOT + "/missing", new SummaryOptions()));
+    }
+
+    public void rejectsUnorderedBuckets() {
+        expectThrows(IllegalArgumentException.class, () -> new SummaryOptions().setSizeBuckets(10L, 10L));
+        expectThrows(IllegalArgumentException.class, () ->
+                new SummaryOptions().setMtimeBuckets(Instant.ofEpochSecond(5), Instant.ofEpochSecond(1)));
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.config.StandardConfigContext;
+import com.joyent.manta.exception.MantaClientHttpResponseException;
+import com.joyent.manta.http.MantaHttpHeaders;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.message.BasicStatusLine;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class SyncStrategyTest {
+    private static final String REMOTE = "/user/stor/site";
+
+    private Path local;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        local = Files.createTempDirectory("manta-sync");
+    }
+
+    @AfterMethod
+    public void teardown() throws IOException {
+        FileUtils.deleteDirectory(local.toFile());
+    }
+
+    private void write(final String relative, final String content) throws IOException {
+        final Path file = local.resolve(relative);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MantaClient client(final boolean encrypted) {
+        final MantaClient client = mock(MantaClient.class);
+        when(client.getContext()).thenReturn(new StandardConfigContext().setClientEncryptionEnabled(encrypted));
+        return client;
+    }
+
+    private static MantaObjectResponse directory(final String path) {
+        final MantaHttpHeaders headers = new MantaHttpHeaders();
+        headers.setContentType(MantaObjectResponse.DIRECTORY_RESPONSE_CONTENT_TYPE);
+        return new MantaObjectResponse(path, headers);
+    }
+
+    private static MantaObjectResponse file(final String path, final String content, final boolean withMd5) {
+        final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        final MantaHttpHeaders headers = new MantaHttpHeaders();
+        headers.setContentLength((long) bytes.length);
+
+        if (withMd5) {
+            headers.setContentMD5(Base64.encodeBase64String(DigestUtils.md5(bytes)));
+        }
+
+        return new MantaObjectResponse(path, headers);
+    }
+
+    public void uploadsOnlyMissingAndChangedFiles() throws IOException {
+        write("same.txt", "unchanged");
+        write("resized.txt", "longer than before");
+        write("edited.txt", "abc");
+        write("nested/dir/new.txt", "new");
+
+        final MantaClient client = client(false);
+        when(client.head(REMOTE)).thenReturn(directory(REMOTE));
+        when(client.find(REMOTE)).thenReturn(Stream.of(
+                file(REMOTE + "/same.txt", "unchanged", true),
+                file(REMOTE + "/resized.txt", "short", true),
+                file(REMOTE + "/edited.txt", "xyz", true),
+                directory(REMOTE + "/nested")));
+
+        final SyncResult result = SyncStrategy.sync(client, local, REMOTE + "/",
+                new SyncOptions().setConcurrency(3));
+
+        assertTrue(result.isSuccessful(), result.getFailures().toString());
+        assertEquals(result.getFilesUploaded(), 3);
+        assertEquals(result.getFilesUnchanged(), 1);
+        assertEquals(result.getDirectoriesCreated(), 1);
+        assertEquals(result.getBytesUploaded(), "longer than before".length() + "abc".length() + "new".length());
+
+        verify(client).putDirectory(REMOTE + "/nested/dir");
+        verify(client, never()).putDirectory(REMOTE + "/nested");
+        verify(client).put(eq(REMOTE + "/resized.txt"), any(File.class));
+        verify(client).put(eq(REMOTE + "/edited.txt"), any(File.class));
+        verify(client).put(eq(REMOTE + "/nested/dir/new.txt"), any(File.class));
+        verify(client, never()).put(eq(REMOTE + "/same.txt"), any(File.class));
+    }
+
+    public void fetchesChecksumWhenListingLacksIt() throws IOException {
+        write("same.txt", "unchanged");
+
+        final MantaClient client = client(false);
+        when(client.head(REMOTE)).thenReturn(directory(REMOTE));
+        when(client.find(REMOTE)).thenReturn(Stream.of(file(REMOTE + "/same.txt", "unchanged", false)));
+        when(client.head(REMOTE + "/same.txt")).thenReturn(file(REMOTE + "/same.txt", "unchanged", true));
+
+        final SyncResult result = SyncStrategy.sync(client, local, REMOTE, new SyncOptions().setConcurrency(1));
+
+        assertEquals(result.getFilesUnchanged(), 1);
+        verify(client, never()).put(anyString(), any(File.class));
+    }
+
+    public void comparesFileNamesContainingPercentSigns() throws IOException {
+        write("a%20b", "unchanged");
+
+        /* Listing entries carry decoded paths. */
+        final byte[] content = "unchanged".getBytes(StandardCharsets.UTF_8);
+        final MantaObject listed = mock(MantaObject.class);
+        when(listed.getPath()).thenReturn(REMOTE + "/a%20b");
+        when(listed.getContentLength()).thenReturn((long) content.length);
+        when(listed.getMd5Bytes()).thenReturn(DigestUtils.md5(content));
+
+        final MantaClient client = client(false);
+        when(client.head(REMOTE)).thenReturn(directory(REMOTE));
+        when(client.find(REMOTE)).thenReturn(Stream.of(listed));
+
+        final SyncResult result = SyncStrategy.sync(client, local, REMOTE, new SyncOptions().setConcurrency(1));
+
+        assertEquals(result.getFilesUnchanged(), 1);
+        verify(client, never()).put(anyString(), any(File.class));
+    }
+
+    public void uploadsEveryFileWhenEncryptionIsEnabled() throws IOException {
+        write("same.txt", "unchanged");
+
+        final MantaClient client = client(true);
+        when(client.head(REMOTE)).thenReturn(directory(REMOTE));
+        when(client.find(REMOTE)).thenReturn(Stream.of(file(REMOTE + "/same.txt", "unchanged", true)));
+
+        final SyncResult result = SyncStrategy.sync(client, local, REMOTE, new SyncOptions().setConcurrency(1));
+
+        assertEquals(result.getFilesUploaded(), 1);
+        assertEquals(result.getFilesUnchanged(), 0);
+        verify(client).put(eq(REMOTE + "/same.txt"), any(File.class));
+    }
+
+    public void dryRunAgainstMissingDirectoryMakesNoChanges() throws IOException {
+        write("a/b.txt", "b");
+        write("c.txt", "c");
+
+        final CloseableHttpResponse notFound = mock(CloseableHttpResponse.class);
+        when(notFound.getStatusLine()).thenReturn(
+                new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_NOT_FOUND, "Not Found"));
+        final MantaClientHttpResponseException missing = new MantaClientHttpResponseException(
+                new HttpHead("http://localhost" + REMOTE), notFound, REMOTE);
+
+        final MantaClient client = client(false);
+        when(client.head(REMOTE)).thenThrow(missing);
+
+        final SyncResult result = SyncStrategy.sync(client, local, REMOTE,
+                new SyncOptions().setConcurrency(2).setDryRun(true));
+
+        assertTrue(result.isDryRun());
+        assertEquals(result.getDirectoriesCreated(), 2);
+        assertEquals(result.getFilesUploaded(), 2);
+        verify(client, never()).putDirectory(anyString());
+        verify(client, never()).putDirectory(anyString(), eq(true));
+        verify(client, never()).put(anyString(), any(File.class));
+        verify(client, never()).find(anyString());
+    }
+
+    public void recordsFailuresWithoutAborting() throws IOException {
+        write("dir-on-remote", "x");
+        write("ok.txt", "ok");
+
+        final MantaClient client = client(false);
+        when(client.head(REMOTE)).thenReturn(directory(REMOTE));
+        when(client.find(REMOTE)).thenReturn(Stream.of(directory(REMOTE + "/dir-on-remote")));
+
+        final SyncResult result = SyncStrategy.sync(client, local, REMOTE, new SyncOptions().setConcurrency(2));
+
+        assertEquals(result.getFailures().keySet().iterator().next(), REMOTE + "/dir-on-remote");
+        assertEquals(result.getFilesUploaded(), 1);
+        verify(client).put(eq(REMOTE + "/ok.txt"), any(File.class));
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2017-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -501,6 +501,58 @@ abstract class AbstractMantaEncryptedObjectInputStreamTest {
         canReadObject(cipherDetails, ReadAndSkipPartialRead.class, false);
     }
 
+    /**
+     * Test that skips forward in an unauthenticated stream, that optionally
+     * starts at a plaintext offset, and verifies that the bytes read after
+     * each skip match the plaintext. Skips both land within the ciphertext
+     * already read and move past it.
+     */
+    protected void canSkipToPositionsUnauthenticated(SupportedCipherDetails cipherDetails,
+                                                     int startPosInclusive) throws IOException {
+        SecretKey key = SecretKeyUtils.generate(cipherDetails);
+        EncryptedFile encryptedFile = encryptedFile(key, cipherDetails, this.plaintextSize);
+        final MantaEncryptedObjectInputStream min;
+
+        if (startPosInclusive == 0) {
+            min = createEncryptedObjectInputStream(key, new FileInputStream(encryptedFile.file),
+                    encryptedFile.file.length(), cipherDetails, encryptedFile.cipher.getIV(),
+                    false, (long)this.plaintextSize);
+        } else {
+            ByteRangeConversion ranges = cipherDetails.translateByteRange(startPosInclusive, plaintextSize - 1);
+            final byte[] ciphertext = FileUtils.readFileToByteArray(encryptedFile.file);
+            final byte[] rangedBytes = Arrays.copyOfRange(ciphertext,
+                    toIntExact(ranges.getCiphertextStartPositionInclusive()), ciphertext.length);
+
+            min = createEncryptedObjectInputStream(key, new ByteArrayInputStream(rangedBytes),
+                    rangedBytes.length, cipherDetails, encryptedFile.cipher.getIV(), false,
+                    (long)this.plaintextSize, (long)startPosInclusive,
+                    (long)(plaintextSize - startPosInclusive), true);
+        }
+
+        try {
+            int position = startPosInclusive;
+            Assert.assertEquals(min.read(), plaintextBytes[position++] & 0xff);
+
+            /* The cipher stream reads ahead up to a few kilobytes of ciphertext,
+             * so the second skip is the one that moves past it. */
+            for (int skip : new int[] {3, 2100, 17, 400}) {
+                Assert.assertEquals(min.skip(skip), skip);
+                position += skip;
+
+                final byte[] actual = new byte[37];
+                Assert.assertEquals(IOUtils.read(min, actual), actual.length);
+                AssertJUnit.assertArrayEquals("Plaintext doesn't match after skipping to " + position,
+                        Arrays.copyOfRange(plaintextBytes, position, position + actual.length), actual);
+                position += actual.length;
+            }
+
+            Assert.assertEquals(min.skip(Long.MAX_VALUE), plaintextSize - position);
+            Assert.assertEquals(min.read(), -1);
+        } finally {
+            min.close();
+        }
+    }
+
 
 
     protected void canDecryptEntireObject(SupportedCipherDetails cipherDetails,
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2017-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -48,6 +48,8 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Predicate;
 
 @Test
@@ -108,6 +110,36 @@ public class EncryptingEntityTest {
         canBeWrittenIdempotently(AesCtrCipherDetails.INSTANCE_128_BIT);
     }
 
+    public void canEncryptInParallelInAesCtr() throws Exception {
+        final int chunkSize = ParallelCtrEncryptor.CHUNK_SIZE;
+
+        canEncryptInParallel(AesCtrCipherDetails.INSTANCE_128_BIT, chunkSize + 1, true);
+        canEncryptInParallel(AesCtrCipherDetails.INSTANCE_128_BIT, chunkSize * 3, true);
+        canEncryptInParallel(AesCtrCipherDetails.INSTANCE_128_BIT, chunkSize * 9 + 17, false);
+        canEncryptInParallel(AesCtrCipherDetails.INSTANCE_128_BIT, 0, false);
+    }
+
+    public void doesNotCloseSuppliedOutputStreamWhenParallelFailureOccurs() throws Exception {
+        final SupportedCipherDetails cipherDetails = AesCtrCipherDetails.INSTANCE_128_BIT;
+        final SecretKey secretKey = SecretKeyUtils.generate(cipherDetails);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            final EncryptingEntity encryptingEntity = new EncryptingEntity(
+                    secretKey,
+                    cipherDetails,
+                    new InputStreamEntity(new BrokenInputStream(new IOException("bad input"))),
+                    executor,
+                    2);
+
+            final OutputStream output = Mockito.mock(OutputStream.class);
+            Assert.assertThrows(IOException.class, () -> encryptingEntity.writeTo(output));
+            Mockito.verify(output, Mockito.never()).close();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /* AES-CBC-PKCS5Padding Tests */
 
     public void canEncryptAndDecryptToAndFromFileInAesCbc() throws Exception {
@@ -211,6 +243,44 @@ public class EncryptingEntityTest {
 
     /* Test helper methods */
 
+    private void canEncryptInParallel(final SupportedCipherDetails cipherDetails,
+                                      final int size,
+                                      final boolean knownLength) throws Exception {
+        final SecretKey secretKey = SecretKeyUtils.generate(cipherDetails);
+        final byte[] plaintext = RandomUtils.nextBytes(size);
+        final long contentLength;
+
+        if (knownLength) {
+            contentLength = size;
+        } else {
+            contentLength = EncryptingEntity.UNKNOWN_LENGTH;
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final EncryptingEntity encryptingEntity = new EncryptingEntity(
+                    secretKey,
+                    cipherDetails,
+                    new InputStreamEntity(new ByteArrayInputStream(plaintext), contentLength),
+                    executor,
+                    4);
+
+            final ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+            encryptingEntity.writeTo(encrypted);
+
+            Assert.assertEquals(encrypted.size(), cipherDetails.ciphertextSize(size));
+            validateCiphertext(
+                    cipherDetails,
+                    secretKey,
+                    plaintext,
+                    encryptingEntity.getCipher().getIV(),
+                    encrypted.toByteArray());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private void canCountBytesFromStreamWithUnknownLength(SupportedCipherDetails cipherDetails)
             throws Exception {
         final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
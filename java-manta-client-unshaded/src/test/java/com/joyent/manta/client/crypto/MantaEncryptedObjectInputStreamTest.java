@@ -250,6 +250,27 @@ public class MantaEncryptedObjectInputStreamTest extends AbstractMantaEncryptedO
         canSkipBytesUnauthenticated(AesCtrCipherDetails.INSTANCE_256_BIT);
     }
 
+    public void canSkipToPositionsUnauthenticatedAesCtr128() throws IOException {
+        canSkipToPositionsUnauthenticated(AesCtrCipherDetails.INSTANCE_128_BIT, 0);
+        canSkipToPositionsUnauthenticated(AesCtrCipherDetails.INSTANCE_128_BIT, 37);
+    }
+
+    @Test(groups = {"unlimited-crypto"})
+    public void canSkipToPositionsUnauthenticatedAesCtr192() throws IOException {
+        canSkipToPositionsUnauthenticated(AesCtrCipherDetails.INSTANCE_192_BIT, 0);
+        canSkipToPositionsUnauthenticated(AesCtrCipherDetails.INSTANCE_192_BIT, 37);
+    }
+
+    @Test(groups = {"unlimited-crypto"})
+    public void canSkipToPositionsUnauthenticatedAesCtr256() throws IOException {
+        canSkipToPositionsUnauthenticated(AesCtrCipherDetails.INSTANCE_256_BIT, 0);
+        canSkipToPositionsUnauthenticated(AesCtrCipherDetails.INSTANCE_256_BIT, 37);
+    }
+
+    public void canSkipToPositionsUnauthenticatedAesCbc128() throws IOException {
+        canSkipToPositionsUnauthenticated(AesCbcCipherDetails.INSTANCE_128_BIT, 0);
+    }
+
     public void canSkipBytesUnauthenticatedAesGcm128() throws IOException {
         canSkipBytesUnauthenticated(AesGcmCipherDetails.INSTANCE_128_BIT);
     }
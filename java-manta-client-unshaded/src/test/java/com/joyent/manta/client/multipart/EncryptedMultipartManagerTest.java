@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2017-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -22,6 +22,7 @@ import com.joyent.manta.config.ConfigContext;
 import com.joyent.manta.config.SettableConfigContext;
 import com.joyent.manta.config.StandardConfigContext;
 import com.joyent.manta.config.TestConfigContext;
+import com.joyent.manta.exception.MantaMultipartException;
 import com.joyent.manta.http.EncryptionHttpHelper;
 import com.joyent.manta.http.MantaConnectionContext;
 import com.joyent.manta.http.MantaHttpHeaders;
@@ -38,12 +39,21 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Stream;
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
@@ -129,6 +139,159 @@ public class EncryptedMultipartManagerTest {
             }
         }
 
+        assertDecryptsTo(upload, path, metadata, expected);
+    }
+
+    public void canDoConcurrentMultipartUpload() throws Exception {
+        final int partSize = cipherDetails.getBlockSizeInBytes() * 2;
+        final String path = "/user/stor/concurrent-testobject";
+        final MantaMetadata metadata = new MantaMetadata();
+        final EncryptedMultipartUpload<TestMultipartUpload> upload =
+                manager.initiateConcurrentUpload(path, partSize, metadata, new MantaHttpHeaders());
+
+        final byte[] plaintext = new byte[partSize * 5 + 7];
+        for (int i = 0; i < plaintext.length; i++) {
+            plaintext[i] = (byte) (i * 31);
+        }
+
+        final int fullParts = plaintext.length / partSize;
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<MantaMultipartUploadPart>> pending = new ArrayList<>();
+        final List<MantaMultipartUploadPart> parts = new ArrayList<>();
+
+        try {
+            for (int partNumber = fullParts; partNumber > 0; partNumber--) {
+                final int number = partNumber;
+                final byte[] part = Arrays.copyOfRange(plaintext, (number - 1) * partSize, number * partSize);
+                pending.add(executor.submit(() -> manager.uploadPart(upload, number, part)));
+            }
+
+            for (Future<MantaMultipartUploadPart> part : pending) {
+                parts.add(part.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        parts.add(manager.uploadPart(upload, fullParts + 1,
+                Arrays.copyOfRange(plaintext, fullParts * partSize, plaintext.length)));
+
+        manager.complete(upload, parts.stream());
+
+        assertDecryptsTo(upload, path, metadata, new String(plaintext, StandardCharsets.ISO_8859_1));
+    }
+
+    public void concurrentMultipartUploadAppendsHmacPartWhenSizeIsMultipleOfPartSize() throws Exception {
+        final int partSize = cipherDetails.getBlockSizeInBytes();
+        final String path = "/user/stor/concurrent-even-testobject";
+        final MantaMetadata metadata = new MantaMetadata();
+        final EncryptedMultipartUpload<TestMultipartUpload> upload =
+                manager.initiateConcurrentUpload(path, partSize, metadata, new MantaHttpHeaders());
+
+        final String expected = "0123456789ABCDEFGHIJKLMNOPQRSTUV";
+        final List<MantaMultipartUploadPart> parts = new ArrayList<>();
+        parts.add(manager.uploadPart(upload, 2, expected.substring(partSize)));
+        parts.add(manager.uploadPart(upload, 1, expected.substring(0, partSize)));
+
+        manager.complete(upload, parts.stream());
+
+        assertDecryptsTo(upload, path, metadata, expected);
+        Assert.assertEquals(upload.getWrapped().getContents().length(),
+                expected.length() + cipherDetails.getAuthenticationTagOrHmacLengthInBytes());
+    }
+
+    public void concurrentMultipartUploadReservesPartNumberForHmac() throws Exception {
+        final int partSize = cipherDetails.getBlockSizeInBytes();
+        final String path = "/user/stor/concurrent-max-parts-testobject";
+        final MantaMetadata metadata = new MantaMetadata();
+        final EncryptedMultipartUpload<TestMultipartUpload> upload =
+                manager.initiateConcurrentUpload(path, partSize, metadata, new MantaHttpHeaders());
+        final String part = "0123456789ABCDEF";
+
+        Assert.expectThrows(IllegalArgumentException.class,
+                () -> manager.uploadPart(upload, manager.getMaxParts() + 1, part));
+
+        final StringBuilder expected = new StringBuilder();
+        final List<MantaMultipartUploadPart> parts = new ArrayList<>();
+
+        for (int partNumber = 1; partNumber <= manager.getMaxParts(); partNumber++) {
+            parts.add(manager.uploadPart(upload, partNumber, part));
+            expected.append(part);
+        }
+
+        /* Every part is full, so the HMAC takes the part number reserved for it. */
+        manager.complete(upload, parts.stream());
+
+        assertDecryptsTo(upload, path, metadata, expected.toString());
+    }
+
+    public void concurrentMultipartUploadOnlySpoolsPartsAheadOfNextPart() throws Exception {
+        final int partSize = cipherDetails.getBlockSizeInBytes();
+        final String path = "/user/stor/concurrent-spooled-testobject";
+        final MantaMetadata metadata = new MantaMetadata();
+        final Path spoolDirectory = Files.createTempDirectory("encrypted-parts");
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            final EncryptedMultipartUpload<TestMultipartUpload> upload = manager.initiateConcurrentUpload(
+                    path, partSize, metadata, new MantaHttpHeaders(), spoolDirectory, 1);
+            final String expected = "0123456789ABCDEFGHIJKLMNOPQRSTUVabcdefghijklmnopqrstuvwxyz!@#$%^&last";
+            final List<MantaMultipartUploadPart> parts = new ArrayList<>();
+
+            parts.add(manager.uploadPart(upload, 1, expected.substring(0, partSize)));
+            Assert.assertEquals(spoolDirectory.toFile().list().length, 0);
+
+            parts.add(manager.uploadPart(upload, 3, expected.substring(partSize * 2, partSize * 3)));
+            Assert.assertEquals(spoolDirectory.toFile().list().length, 1);
+
+            /* Only one part may wait in the spool directory, so part 4 waits for part 2. */
+            final Future<MantaMultipartUploadPart> fourth = executor.submit(() ->
+                    manager.uploadPart(upload, 4, expected.substring(partSize * 3, partSize * 4)));
+            Assert.expectThrows(TimeoutException.class, () -> fourth.get(200, TimeUnit.MILLISECONDS));
+
+            parts.add(manager.uploadPart(upload, 2, expected.substring(partSize, partSize * 2)));
+            parts.add(fourth.get());
+            Assert.assertEquals(spoolDirectory.toFile().list().length, 0);
+
+            parts.add(manager.uploadPart(upload, 5, expected.substring(partSize * 4)));
+            manager.complete(upload, parts.stream());
+
+            assertDecryptsTo(upload, path, metadata, expected);
+        } finally {
+            executor.shutdownNow();
+            FileUtils.deleteDirectory(spoolDirectory.toFile());
+        }
+    }
+
+    public void concurrentMultipartUploadRejectsLastPartBeforeEarlierParts() throws Exception {
+        final int partSize = cipherDetails.getBlockSizeInBytes();
+        final EncryptedMultipartUpload<TestMultipartUpload> upload = manager.initiateConcurrentUpload(
+                "/user/stor/concurrent-early-last-part", partSize, new MantaMetadata(), new MantaHttpHeaders());
+
+        Assert.expectThrows(MantaMultipartException.class, () -> manager.uploadPart(upload, 2, "short"));
+
+        manager.uploadPart(upload, 1, "0123456789ABCDEF");
+        manager.uploadPart(upload, 2, "short");
+    }
+
+    public void concurrentMultipartUploadRejectsPartLongerThanPartSize() throws Exception {
+        final int partSize = cipherDetails.getBlockSizeInBytes();
+        final EncryptedMultipartUpload<TestMultipartUpload> upload = manager.initiateConcurrentUpload(
+                "/user/stor/concurrent-long-part", partSize, new MantaMetadata(), new MantaHttpHeaders());
+
+        Assert.expectThrows(IllegalArgumentException.class,
+                () -> manager.uploadPart(upload, 1, "0123456789ABCDEF+"));
+        Assert.expectThrows(MantaMultipartException.class, () -> manager.uploadPart(upload, 1,
+                new ByteArrayInputStream("0123456789ABCDEF+".getBytes(StandardCharsets.US_ASCII))));
+    }
+
+    // TEST UTILITY METHODS
+
+    private void assertDecryptsTo(final EncryptedMultipartUpload<TestMultipartUpload> upload,
+                                  final String path,
+                                  final MantaMetadata metadata,
+                                  final String expected) throws Exception {
+        TestMultipartUpload actualUpload = upload.getWrapped();
         EncryptionContext encryptionContext = upload.getEncryptionState().getEncryptionContext();
 
         MantaHttpHeaders responseHttpHeaders = new MantaHttpHeaders();
@@ -153,14 +316,12 @@ public class EncryptedMultipartManagerTest {
              EofSensorInputStream eofIn = new EofSensorInputStream(fin, null);
              MantaObjectInputStream objIn = new MantaObjectInputStream(response, httpResponse, eofIn);
              InputStream in = new MantaEncryptedObjectInputStream(objIn, cipherDetails, secretKey, true)) {
-            String actual = IOUtils.toString(in, StandardCharsets.UTF_8);
+            String actual = IOUtils.toString(in, StandardCharsets.ISO_8859_1);
 
             Assert.assertEquals(actual, expected);
         }
     }
 
-    // TEST UTILITY METHODS
-
     private SettableConfigContext<BaseChainedConfigContext> testConfigContext(SecretKey key) {
         StandardConfigContext settable = new StandardConfigContext();
         settable.setMantaUser("test");
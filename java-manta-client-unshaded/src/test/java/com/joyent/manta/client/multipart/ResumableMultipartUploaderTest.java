@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client.multipart;
+
+import com.joyent.manta.exception.MantaMultipartException;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class ResumableMultipartUploaderTest {
+    private static final String PATH = "/user/stor/dataset.bin";
+
+    private static final int PART_SIZE = 10;
+
+    private final ServerSideMultipartUploadStateCodec codec = new ServerSideMultipartUploadStateCodec();
+
+    private final ServerSideMultipartUpload upload = new ServerSideMultipartUpload(
+            UUID.randomUUID(), PATH, "/user/uploads/a/abc");
+
+    private Path dir;
+
+    private Path journalFile;
+
+    private File source;
+
+    private byte[] content;
+
+    private MantaMultipartManager<ServerSideMultipartUpload, MantaMultipartUploadPart> manager;
+
+    /**
+     * Data received by the mocked manager keyed by part number.
+     */
+    private Map<Integer, byte[]> uploaded;
+
+    @BeforeMethod
+    @SuppressWarnings("unchecked")
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("resumable-mpu");
+        journalFile = dir.resolve("upload.journal");
+        source = dir.resolve("source.bin").toFile();
+        content = RandomUtils.nextBytes(PART_SIZE * 3 - 4);
+        Files.write(source.toPath(), content);
+        uploaded = new HashMap<>();
+
+        manager = mock(MantaMultipartManager.class);
+        when(manager.getMinimumPartSize()).thenReturn(PART_SIZE);
+        when(manager.getMaxParts()).thenReturn(10_000);
+        when(manager.initiateUpload(eq(PATH), anyLong(), any(), any())).thenReturn(upload);
+        when(manager.getStatus(upload)).thenReturn(MantaMultipartStatus.CREATED);
+        when(manager.uploadPart(eq(upload), anyInt(), anyLong(), any(InputStream.class))).thenAnswer(invocation -> {
+            final int partNumber = invocation.getArgument(1);
+            final byte[] data = IOUtils.toByteArray((InputStream) invocation.getArgument(3));
+            assertEquals(data.length, (long) invocation.getArgument(2));
+            uploaded.put(partNumber, data);
+            return new MantaMultipartUploadPart(partNumber, PATH, etag(partNumber));
+        });
+    }
+
+    @AfterMethod
+    public void teardown() throws IOException {
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+
+    private static String etag(final int partNumber) {
+        return "etag-" + partNumber;
+    }
+
+    private void journal(final int... partNumbers) throws IOException {
+        final MultipartUploadJournal journal = new MultipartUploadJournal(journalFile);
+        journal.begin(new MultipartUploadJournal.Header(PATH, upload.getId(), content.length, PART_SIZE,
+                codec.encode(upload)));
+
+        for (int partNumber : partNumbers) {
+            journal.append(new MultipartUploadJournal.Entry(partNumber, PART_SIZE, etag(partNumber),
+                    codec.encode(upload)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MantaMultipartUploadTuple> completedParts() throws IOException {
+        final ArgumentCaptor<Iterable<? extends MantaMultipartUploadTuple>> captor =
+                ArgumentCaptor.forClass(Iterable.class);
+        verify(manager).complete(eq(upload), captor.capture());
+
+        final List<MantaMultipartUploadTuple> parts = new ArrayList<>();
+        captor.getValue().forEach(parts::add);
+        return parts;
+    }
+
+    public void uploadsAllPartsAndRemovesJournal() throws IOException {
+        new ResumableMultipartUploader<>(manager, codec, journalFile).upload(PATH, source, PART_SIZE);
+
+        assertEquals(uploaded.keySet(), new HashSet<>(Arrays.asList(1, 2, 3)));
+        assertEquals(uploaded.get(3), Arrays.copyOfRange(content, PART_SIZE * 2, content.length));
+        assertEquals(completedParts().size(), 3);
+        assertFalse(Files.exists(journalFile));
+    }
+
+    public void uploadsOnlyPartsMissingFromServer() throws IOException {
+        journal(1, 2);
+
+        /* Part 2 was journaled but the server has a different copy of it. */
+        when(manager.listParts(upload)).thenReturn(Stream.of(
+                new MantaMultipartUploadPart(1, PATH, etag(1)),
+                new MantaMultipartUploadPart(2, PATH, "stale")));
+
+        new ResumableMultipartUploader<>(manager, codec, journalFile).upload(PATH, source, PART_SIZE);
+
+        verify(manager, never()).initiateUpload(any(), anyLong(), any(), any());
+        assertEquals(uploaded.keySet(), new HashSet<>(Arrays.asList(2, 3)));
+        assertEquals(uploaded.get(2), Arrays.copyOfRange(content, PART_SIZE, PART_SIZE * 2));
+        assertEquals(completedParts().size(), 3);
+        assertFalse(Files.exists(journalFile));
+    }
+
+    public void abortsJournaledUploadWithoutParts() throws IOException {
+        journal();
+
+        new ResumableMultipartUploader<>(manager, codec, journalFile).upload(PATH, source, PART_SIZE);
+
+        verify(manager).abort(upload);
+        verify(manager).initiateUpload(eq(PATH), anyLong(), any(), any());
+        assertEquals(uploaded.keySet(), new HashSet<>(Arrays.asList(1, 2, 3)));
+        assertFalse(Files.exists(journalFile));
+    }
+
+    public void ignoresTornJournalRecord() throws IOException {
+        journal(1);
+        Files.write(journalFile, "part\t2\t10\tetag-".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        final List<MultipartUploadJournal.Entry> entries = new MultipartUploadJournal(journalFile).readEntries();
+
+        assertEquals(entries.size(), 1);
+        assertEquals(entries.get(0).getPartNumber(), 1);
+        assertEquals(codec.decode(entries.get(0).getState()), upload);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void skipsUploadThatWasAlreadyCommitted() throws IOException {
+        journal(1, 2, 3);
+        when(manager.getStatus(upload)).thenReturn(MantaMultipartStatus.COMPLETED);
+
+        new ResumableMultipartUploader<>(manager, codec, journalFile).upload(PATH, source, PART_SIZE);
+
+        assertTrue(uploaded.isEmpty());
+        verify(manager, never()).complete(any(), any(Iterable.class));
+        assertFalse(Files.exists(journalFile));
+    }
+
+    public void rejectsJournalForDifferentUpload() throws IOException {
+        journal(1);
+
+        final ResumableMultipartUploader<ServerSideMultipartUpload> uploader =
+                new ResumableMultipartUploader<>(manager, codec, journalFile);
+
+        expectThrows(MantaMultipartException.class, () ->
+                uploader.upload("/user/stor/other.bin", source, PART_SIZE));
+        assertTrue(Files.exists(journalFile));
+    }
+}
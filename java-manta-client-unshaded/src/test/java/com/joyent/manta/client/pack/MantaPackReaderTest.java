@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client.pack;
+
+import com.joyent.manta.client.MantaClient;
+import com.joyent.manta.client.MantaObjectInputStream;
+import com.joyent.manta.client.MantaObjectResponse;
+import com.joyent.manta.exception.MantaIOException;
+import com.joyent.manta.http.MantaHttpHeaders;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class MantaPackReaderTest {
+    private static final String PATH = "/user/stor/small-objects.pack";
+
+    private static final String ETAG = "5c1fa8e2";
+
+    private static byte[] pack(final Map<String, byte[]> entries) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (MantaPackWriter writer = new MantaPackWriter(out)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                writer.add(entry.getKey(), new ByteArrayInputStream(entry.getValue()));
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Creates a client that serves ranged GETs of the specified object.
+     */
+    private static MantaClient client(final byte[] object) throws IOException {
+        final MantaClient client = mock(MantaClient.class);
+
+        when(client.getAsInputStream(eq(PATH), any())).thenAnswer(invocation -> {
+            final MantaHttpHeaders request = invocation.getArgument(1);
+            final String range = request.getRange().substring("bytes=".length());
+            final int start;
+            final int end;
+
+            if (range.startsWith("-")) {
+                start = Math.max(0, object.length - Integer.parseInt(range.substring(1)));
+                end = object.length - 1;
+            } else {
+                final String[] bounds = range.split("-", 2);
+                start = Integer.parseInt(bounds[0]);
+                end = Integer.parseInt(bounds[1]);
+            }
+
+            final MantaHttpHeaders headers = new MantaHttpHeaders();
+            headers.setETag(ETAG);
+
+            return new MantaObjectInputStream(new MantaObjectResponse(PATH, headers), null,
+                    new ByteArrayInputStream(Arrays.copyOfRange(object, start, end + 1)));
+        });
+
+        return client;
+    }
+
+    public void canReadEntriesWithSingleRequests() throws IOException {
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("a.json", RandomUtils.nextBytes(2048));
+        entries.put("empty", new byte[0]);
+        entries.put("b/c.json", RandomUtils.nextBytes(20_000));
+
+        final MantaClient client = client(pack(entries));
+        final MantaPackReader reader = MantaPackReader.open(client, PATH);
+        verify(client, times(1)).getAsInputStream(eq(PATH), any());
+
+        assertEquals(reader.getEntries().size(), 3);
+        assertNull(reader.getEntry("missing"));
+        assertEquals(reader.getAsByteArray("b/c.json"), entries.get("b/c.json"));
+        assertEquals(reader.getAsByteArray("empty"), new byte[0]);
+        assertEquals(IOUtils.toByteArray(reader.getAsInputStream("a.json")), entries.get("a.json"));
+
+        /* One request for the index and one for each non-empty entry. */
+        verify(client, times(3)).getAsInputStream(eq(PATH), any());
+    }
+
+    public void canReadIndexLargerThanTail() throws IOException {
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+
+        for (int i = 0; i < 5000; i++) {
+            entries.put(String.format("objects/%08d.json", i), new byte[] {(byte) i});
+        }
+
+        final byte[] object = pack(entries);
+        final MantaClient client = client(object);
+        final MantaPackReader reader = MantaPackReader.open(client, PATH);
+
+        verify(client, times(2)).getAsInputStream(eq(PATH), any());
+        assertEquals(reader.getEntries().size(), entries.size());
+        assertEquals(reader.getAsByteArray("objects/00004242.json"), new byte[] {(byte) 4242});
+    }
+
+    public void rejectsObjectsThatAreNotPacks() throws IOException {
+        final MantaClient client = client(RandomUtils.nextBytes(4096));
+
+        expectThrows(MantaIOException.class, () -> MantaPackReader.open(client, PATH));
+    }
+
+    public void rejectsUnknownEntries() throws IOException {
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("a", new byte[] {1});
+        final MantaPackReader reader = MantaPackReader.open(client(pack(entries)), PATH);
+
+        expectThrows(MantaIOException.class, () -> reader.getAsByteArray("b"));
+    }
+
+    public void writerRejectsDuplicateNames() throws IOException {
+        try (MantaPackWriter writer = new MantaPackWriter(new ByteArrayOutputStream())) {
+            writer.add("a", new byte[] {1});
+
+            expectThrows(IllegalArgumentException.class, () -> writer.add("a", new byte[] {2}));
+        }
+    }
+
+    public void writerRejectsNamesTooLongForIndex() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (MantaPackWriter writer = new MantaPackWriter(out)) {
+            final String name = StringUtils.repeat('\u00e9', MantaPackFormat.MAX_NAME_BYTES / 2 + 1);
+
+            expectThrows(IllegalArgumentException.class, () -> writer.add(name, new byte[] {1}));
+            assertEquals(out.size(), 0);
+
+            writer.add("a", new byte[] {1});
+        }
+
+        assertEquals(MantaPackReader.open(client(out.toByteArray()), PATH).getAsByteArray("a"), new byte[] {1});
+    }
+
+    public void writerDoesNotWriteIndexAfterFailedEntry() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final MantaPackWriter writer = new MantaPackWriter(out);
+        writer.add("a", new byte[] {1});
+
+        final InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("read failed");
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                return read();
+            }
+        };
+
+        expectThrows(IOException.class, () -> writer.add("b", failing));
+        expectThrows(IllegalStateException.class, () -> writer.add("c", new byte[] {1}));
+        expectThrows(MantaIOException.class, writer::close);
+
+        assertEquals(out.size(), 1);
+        expectThrows(MantaIOException.class, () -> MantaPackReader.open(client(out.toByteArray()), PATH));
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, Joyent, Inc. All rights reserved.
+ * Copyright (c) 2017-2020, Joyent, Inc. All rights reserved.
  *
  * This Source Code Form is subject to the terms of the Mozilla Public
  * License, v. 2.0. If a copy of the MPL was not distributed with this
@@ -8,14 +8,23 @@
 package com.joyent.manta.http;
 
 import com.joyent.manta.client.crypto.AesCbcCipherDetails;
+import com.joyent.manta.client.crypto.AesCtrCipherDetails;
 import com.joyent.manta.client.crypto.AesGcmCipherDetails;
+import com.joyent.manta.client.crypto.EncryptingEntity;
 import com.joyent.manta.client.crypto.SecretKeyUtils;
 import com.joyent.manta.client.crypto.SupportedCipherDetails;
+import com.joyent.manta.client.crypto.SupportedHmacsLookupMap;
+import com.joyent.manta.config.EncryptionAuthenticationMode;
 import com.joyent.manta.config.StandardConfigContext;
+import com.joyent.manta.exception.MantaClientEncryptionCiphertextAuthenticationException;
 import com.joyent.manta.exception.MantaClientEncryptionException;
 import com.joyent.manta.util.UnitTestConstants;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.Header;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
 import org.apache.http.HttpStatus;
 import org.apache.http.HttpVersion;
 import org.apache.http.StatusLine;
@@ -23,18 +32,40 @@ import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.conn.EofSensorInputStream;
 import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.message.BasicStatusLine;
+import org.apache.http.protocol.HttpContext;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import javax.crypto.SecretKey;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.joyent.manta.config.DefaultsConfigContext.DEFAULT_MANTA_URL;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.expectThrows;
 
 
 @Test
@@ -86,6 +117,251 @@ public class EncryptedHttpHelperTest {
                 + "configured cipher and object cipher differ");
     }
 
+    public void canDownloadAesCtrObjectInParallel() throws Exception {
+        final byte[] plaintext = randomBytes(ParallelRangeDownloader.RANGE_SIZE * 2 + 1001);
+        final SecretKey key = SecretKeyUtils.generate(AesCtrCipherDetails.INSTANCE_128_BIT);
+        final EncryptedObject object = encrypt(key, plaintext);
+
+        final byte[] downloaded = downloadParallel(key, object, EncryptionAuthenticationMode.Mandatory);
+
+        Assert.assertTrue(Arrays.equals(downloaded, plaintext), "Downloaded plaintext differs");
+        Assert.assertTrue(object.ranges.size() >= 4,
+                "Expected a ranged GET per range and for the HMAC, but got " + object.ranges);
+    }
+
+    public void canDownloadEmptyAesCtrObjectInParallel() throws Exception {
+        final SecretKey key = SecretKeyUtils.generate(AesCtrCipherDetails.INSTANCE_128_BIT);
+        final EncryptedObject object = encrypt(key, new byte[0]);
+
+        assertEquals(downloadParallel(key, object, EncryptionAuthenticationMode.Mandatory).length, 0);
+    }
+
+    public void parallelDownloadFailsWhenCiphertextIsTampered() throws Exception {
+        final byte[] plaintext = randomBytes(ParallelRangeDownloader.RANGE_SIZE + 33);
+        final SecretKey key = SecretKeyUtils.generate(AesCtrCipherDetails.INSTANCE_128_BIT);
+        final EncryptedObject object = encrypt(key, plaintext);
+        object.ciphertext[7] = (byte) (object.ciphertext[7] ^ 1);
+
+        expectThrows(MantaClientEncryptionCiphertextAuthenticationException.class,
+                () -> downloadParallel(key, object, EncryptionAuthenticationMode.Mandatory));
+    }
+
+    public void parallelDownloadSkipsAuthenticationWhenVerificationIsDisabled() throws Exception {
+        final byte[] plaintext = randomBytes(ParallelRangeDownloader.RANGE_SIZE + 33);
+        final SecretKey key = SecretKeyUtils.generate(AesCtrCipherDetails.INSTANCE_128_BIT);
+        final EncryptedObject object = encrypt(key, plaintext);
+        object.ciphertext[7] = (byte) (object.ciphertext[7] ^ 1);
+
+        final byte[] downloaded = downloadParallel(key, object, EncryptionAuthenticationMode.VerificationDisabled);
+
+        assertEquals(downloaded.length, plaintext.length);
+        assertEquals(downloaded[7], (byte) (plaintext[7] ^ 1));
+        Assert.assertTrue(object.ranges.stream().noneMatch(range -> range.startsWith("bytes=" + plaintext.length)),
+                "HMAC was fetched even though verification is disabled");
+    }
+
+    public void sendsPlaintextLengthOfSmallStreamWithObject() throws Exception {
+        final int size = 1000;
+        final List<HttpRequest> requests = putWithAesCbc(size);
+
+        assertEquals(requests.size(), 1, "Expected a single PUT request");
+        assertEquals(requests.get(0).getFirstHeader(
+                MantaHttpHeaders.ENCRYPTION_PLAINTEXT_CONTENT_LENGTH).getValue(), String.valueOf(size));
+    }
+
+    public void updatesPlaintextLengthOfLargeStreamAfterUpload() throws Exception {
+        final int size = EncryptionHttpHelper.PLAINTEXT_LENGTH_BUFFER_SIZE + 1;
+        final List<HttpRequest> requests = putWithAesCbc(size);
+
+        assertEquals(requests.size(), 2, "Expected a PUT request followed by a metadata update");
+        assertNull(requests.get(0).getFirstHeader(MantaHttpHeaders.ENCRYPTION_PLAINTEXT_CONTENT_LENGTH));
+        assertEquals(requests.get(1).getFirstHeader(
+                MantaHttpHeaders.ENCRYPTION_PLAINTEXT_CONTENT_LENGTH).getValue(), String.valueOf(size));
+    }
+
+    /**
+     * Uploads a stream of unknown length encrypted with AES/CBC, whose
+     * plaintext length can't be calculated from its ciphertext length.
+     */
+    private static List<HttpRequest> putWithAesCbc(final int size) throws IOException {
+        final SupportedCipherDetails cipherDetails = AesCbcCipherDetails.INSTANCE_128_BIT;
+        final List<HttpRequest> requests = new ArrayList<>();
+        final ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+
+        final CloseableHttpResponse response = mock(CloseableHttpResponse.class);
+        when(response.getStatusLine()).thenReturn(
+                new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_NO_CONTENT, "No Content"));
+        when(response.getAllHeaders()).thenReturn(new Header[] {
+                new BasicHeader(HttpHeaders.ETAG, "etag"),
+                new BasicHeader(HttpHeaders.LAST_MODIFIED, "Wed, 21 Oct 2015 07:28:00 GMT")
+        });
+
+        final MantaConnectionContext connectionContext = mock(MantaConnectionContext.class);
+        when(connectionContext.getHttpClient()).thenReturn(new FakeCloseableHttpClient(response) {
+            @Override
+            protected CloseableHttpResponse doExecute(final HttpHost target,
+                                                      final HttpRequest request,
+                                                      final HttpContext context) throws IOException {
+                requests.add(request);
+
+                if (request instanceof HttpEntityEnclosingRequest) {
+                    ((HttpEntityEnclosingRequest) request).getEntity().writeTo(uploaded);
+                }
+
+                return super.doExecute(target, request, context);
+            }
+        });
+
+        final StandardConfigContext config = new StandardConfigContext();
+        config.setClientEncryptionEnabled(true)
+                .setEncryptionPrivateKeyBytes(SecretKeyUtils.generate(cipherDetails).getEncoded())
+                .setEncryptionAlgorithm(cipherDetails.getCipherId())
+                .setVerifyUploads(false);
+
+        final EncryptionHttpHelper httpHelper = new EncryptionHttpHelper(connectionContext,
+                new MantaHttpRequestFactory(UnitTestConstants.UNIT_TEST_URL), config);
+
+        httpHelper.httpPut("/user/stor/encrypted-object", null,
+                new InputStreamEntity(new ByteArrayInputStream(randomBytes(size))), null);
+
+        assertEquals(uploaded.size(), cipherDetails.ciphertextSize(size));
+        return requests;
+    }
+
+    private static byte[] randomBytes(final long length) {
+        final byte[] bytes = new byte[(int) length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static EncryptedObject encrypt(final SecretKey key, final byte[] plaintext) throws IOException {
+        final SupportedCipherDetails cipherDetails = AesCtrCipherDetails.INSTANCE_128_BIT;
+        final EncryptingEntity entity = new EncryptingEntity(key, cipherDetails,
+                new ByteArrayEntity(plaintext));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entity.writeTo(out);
+
+        final String hmacName = SupportedHmacsLookupMap.hmacNameFromInstance(
+                cipherDetails.getAuthenticationHmac());
+
+        return new EncryptedObject(out.toByteArray(), new Header[] {
+                new BasicHeader(MantaHttpHeaders.ENCRYPTION_CIPHER, cipherDetails.getCipherId()),
+                new BasicHeader(MantaHttpHeaders.ENCRYPTION_IV,
+                        Base64.getEncoder().encodeToString(entity.getCipher().getIV())),
+                new BasicHeader(MantaHttpHeaders.ENCRYPTION_HMAC_TYPE, hmacName),
+                new BasicHeader(HttpHeaders.ETAG, "etag")
+        });
+    }
+
+    private static byte[] downloadParallel(final SecretKey key,
+                                           final EncryptedObject object,
+                                           final EncryptionAuthenticationMode mode) throws IOException {
+        final MantaConnectionContext connectionContext = mock(MantaConnectionContext.class);
+        when(connectionContext.getHttpClient()).thenReturn(new RangeServingHttpClient(object));
+
+        final StandardConfigContext config = new StandardConfigContext();
+        config.setClientEncryptionEnabled(true)
+                .setEncryptionPrivateKeyBytes(key.getEncoded())
+                .setEncryptionAlgorithm(AesCtrCipherDetails.INSTANCE_128_BIT.getCipherId())
+                .setEncryptionAuthenticationMode(mode);
+
+        final EncryptionHttpHelper httpHelper = new EncryptionHttpHelper(connectionContext,
+                new MantaHttpRequestFactory(UnitTestConstants.UNIT_TEST_URL), config);
+        final Path file = Files.createTempFile("encrypted-download", ".tmp");
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long size = httpHelper.httpGetToChannel("/user/stor/encrypted-object", channel, 4, executor);
+            final byte[] downloaded = Files.readAllBytes(file);
+            assertEquals(size, downloaded.length);
+            return downloaded;
+        } finally {
+            executor.shutdownNow();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Ciphertext and metadata of an encrypted object along with the ranges
+     * requested from it.
+     */
+    private static final class EncryptedObject {
+        private final byte[] ciphertext;
+        private final Header[] headers;
+        private final List<String> ranges = new ArrayList<>();
+
+        private EncryptedObject(final byte[] ciphertext, final Header[] headers) {
+            this.ciphertext = ciphertext;
+            this.headers = headers;
+        }
+    }
+
+    /**
+     * Fake HTTP client that answers HEAD requests and ranged GET requests
+     * for a single object.
+     */
+    private static final class RangeServingHttpClient extends CloseableHttpClient {
+        private final EncryptedObject object;
+
+        private RangeServingHttpClient(final EncryptedObject object) {
+            this.object = object;
+        }
+
+        @Override
+        protected CloseableHttpResponse doExecute(final HttpHost target,
+                                                  final HttpRequest request,
+                                                  final HttpContext context) {
+            final List<Header> headers = new ArrayList<>(Arrays.asList(object.headers));
+            final CloseableHttpResponse response = mock(CloseableHttpResponse.class);
+            final Header range = request.getFirstHeader(HttpHeaders.RANGE);
+
+            if (range == null) {
+                headers.add(new BasicHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(object.ciphertext.length)));
+                when(response.getStatusLine()).thenReturn(
+                        new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK"));
+            } else {
+                synchronized (object.ranges) {
+                    object.ranges.add(range.getValue());
+                }
+
+                final String bounds = range.getValue().substring("bytes=".length());
+                final int separator = bounds.indexOf('-');
+                final int start = Integer.parseInt(bounds.substring(0, separator));
+                final int end = Math.min(Integer.parseInt(bounds.substring(separator + 1)),
+                        object.ciphertext.length - 1);
+                final BasicHttpEntity entity = new BasicHttpEntity();
+                entity.setContent(new ByteArrayInputStream(object.ciphertext, start, end - start + 1));
+                entity.setContentLength(end - start + 1);
+
+                headers.add(new BasicHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(end - start + 1)));
+                headers.add(new BasicHeader(HttpHeaders.CONTENT_RANGE,
+                        String.format("bytes %d-%d/%d", start, end, object.ciphertext.length)));
+                when(response.getStatusLine()).thenReturn(
+                        new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_PARTIAL_CONTENT, "Partial Content"));
+                when(response.getEntity()).thenReturn(entity);
+            }
+
+            when(response.getAllHeaders()).thenReturn(headers.toArray(new Header[0]));
+            return response;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Deprecated
+        @Override
+        public org.apache.http.params.HttpParams getParams() {
+            return null;
+        }
+
+        @Deprecated
+        @Override
+        public org.apache.http.conn.ClientConnectionManager getConnectionManager() {
+            return null;
+        }
+    }
+
     /**
      * Builds a fully mocked {@link EncryptionHttpHelper} that is setup to
      * be configured for one cipher/mode and executes requests in another
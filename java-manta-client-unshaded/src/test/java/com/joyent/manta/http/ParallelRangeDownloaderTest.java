@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.http;
+
+import com.joyent.manta.exception.MantaIOException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.joyent.manta.http.ParallelRangeDownloader.RANGE_SIZE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class ParallelRangeDownloaderTest {
+    private static final String PATH = "/user/stor/object";
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterClass
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    private List<long[]> ranges(final long size, final int concurrency) throws IOException {
+        final List<long[]> ranges = Collections.synchronizedList(new ArrayList<>());
+
+        ParallelRangeDownloader.download(PATH, size, concurrency, executor,
+                (start, end) -> ranges.add(new long[] {start, end}));
+
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+        return ranges;
+    }
+
+    public void splitsObjectIntoContiguousRanges() throws IOException {
+        final long size = RANGE_SIZE * 3 + 17;
+
+        for (int concurrency : new int[] {1, 2, 8}) {
+            final List<long[]> ranges = ranges(size, concurrency);
+
+            assertEquals(ranges.size(), 4);
+
+            long expectedStart = 0;
+            for (long[] range : ranges) {
+                assertEquals(range[0], expectedStart);
+                assertTrue(range[1] - range[0] + 1 <= RANGE_SIZE);
+                expectedStart = range[1] + 1;
+            }
+
+            assertEquals(expectedStart, size);
+        }
+    }
+
+    public void downloadsNothingForEmptyObject() throws IOException {
+        assertEquals(ranges(0, 4).size(), 0);
+    }
+
+    public void downloadsSmallObjectAsSingleRange() throws IOException {
+        final List<long[]> ranges = ranges(10, 4);
+
+        assertEquals(ranges.size(), 1);
+        assertEquals(ranges.get(0)[0], 0);
+        assertEquals(ranges.get(0)[1], 9);
+    }
+
+    public void propagatesFirstFailure() {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final MantaIOException thrown = expectThrows(MantaIOException.class, () ->
+                ParallelRangeDownloader.download(PATH, RANGE_SIZE * 4, 4, executor, (start, end) -> {
+                    attempts.incrementAndGet();
+
+                    if (start == RANGE_SIZE) {
+                        throw new MantaIOException("range failed");
+                    }
+                }));
+
+        assertTrue(thrown.getMessage().startsWith("range failed"));
+        assertTrue(attempts.get() >= 2);
+    }
+
+    public void limitsConcurrentRanges() throws IOException {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final List<Integer> ranges = new ArrayList<>();
+
+        for (int i = 0; i < 32; i++) {
+            ranges.add(i);
+        }
+
+        ParallelRangeDownloader.download(PATH, ranges, 3, executor, range -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+    public void copiesStreamToPosition() throws IOException {
+        final Path file = Files.createTempFile("range-download", ".tmp");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final byte[] data = new byte[ParallelRangeDownloader.COPY_BUFFER_SIZE * 2 + 5];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) i;
+            }
+
+            final long copied = ParallelRangeDownloader.copy(new ByteArrayInputStream(data), channel, 3);
+            assertEquals(copied, data.length);
+            assertEquals(channel.size(), data.length + 3);
+
+            final ByteBuffer written = ByteBuffer.allocate(data.length);
+            channel.read(written, 3);
+            assertEquals(written.array(), data);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public void rejectsShortRange() {
+        expectThrows(MantaIOException.class, () -> ParallelRangeDownloader.validateLength(0, 10, 9));
+    }
+}
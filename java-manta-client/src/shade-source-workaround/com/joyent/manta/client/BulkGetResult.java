@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Result of fetching a single object as part of
+ * {@link MantaClient#getAll(java.util.Collection, BulkOptions)}. A result
+ * either contains the object's metadata and data or the exception that
+ * prevented the object from being fetched.
+ *
+ * @since 3.5.1
+ */
+public final class BulkGetResult {
+    /**
+     * Path of the object as requested.
+     */
+    private final String path;
+
+    /**
+     * Metadata of the object or null if it couldn't be fetched.
+     */
+    private final MantaObjectResponse object;
+
+    /**
+     * Contents of the object or null if it couldn't be fetched.
+     */
+    private final byte[] data;
+
+    /**
+     * Exception thrown while fetching the object or null if it was fetched.
+     */
+    private final Exception error;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param path path of the object as requested
+     * @param object metadata of the object
+     * @param data contents of the object
+     * @param error exception thrown while fetching the object
+     */
+    private BulkGetResult(final String path,
+                          final MantaObjectResponse object,
+                          final byte[] data,
+                          final Exception error) {
+        this.path = path;
+        this.object = object;
+        this.data = data;
+        this.error = error;
+    }
+
+    /**
+     * @param path path of the object as requested
+     * @param object metadata of the object
+     * @param data contents of the object
+     * @return successful result
+     */
+    static BulkGetResult success(final String path, final MantaObjectResponse object, final byte[] data) {
+        return new BulkGetResult(path, object, data, null);
+    }
+
+    /**
+     * @param path path of the object as requested
+     * @param error exception thrown while fetching the object
+     * @return failed result
+     */
+    static BulkGetResult failure(final String path, final Exception error) {
+        return new BulkGetResult(path, null, null, error);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return metadata of the object or null if it couldn't be fetched
+     */
+    public MantaObjectResponse getObject() {
+        return object;
+    }
+
+    /**
+     * @return contents of the object or null if it couldn't be fetched
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * @return exception thrown while fetching the object or null if it was fetched
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    /**
+     * @return true if the object was fetched
+     */
+    public boolean isSuccessful() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        final ToStringBuilder builder = new ToStringBuilder(this)
+                .append("path", path);
+
+        if (isSuccessful()) {
+            builder.append("length", data.length);
+        } else {
+            builder.append("error", error);
+        }
+
+        return builder.toString();
+    }
+}
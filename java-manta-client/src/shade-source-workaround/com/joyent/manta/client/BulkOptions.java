@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Options for bulk operations such as {@link MantaClient#getAll(java.util.Collection, BulkOptions)}.
+ * Setters return this instance so that calls can be chained.
+ *
+ * @since 3.5.1
+ */
+public class BulkOptions {
+    /**
+     * Maximum number of concurrent requests or null to derive it from the
+     * maximum connections setting.
+     */
+    private Integer concurrency;
+
+    /**
+     * Maximum number of completed results buffered before workers wait for
+     * the consumer, or null to use the concurrency value.
+     */
+    private Integer resultBufferSize;
+
+    /**
+     * Maximum size in bytes of an object that will be read into memory.
+     */
+    private long maxObjectSize = Integer.MAX_VALUE;
+
+    /**
+     * Flag indicating that the MD5 checksum of each object is verified.
+     */
+    private boolean verifyChecksums = false;
+
+    public Integer getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @param concurrency maximum number of concurrent requests or null to
+     *                    use half of the maximum connections setting
+     * @return this instance
+     */
+    public BulkOptions setConcurrency(final Integer concurrency) {
+        Validate.isTrue(concurrency == null || concurrency > 0,
+                "Concurrency must be greater than zero");
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public Integer getResultBufferSize() {
+        return resultBufferSize;
+    }
+
+    /**
+     * @param resultBufferSize maximum number of completed results buffered
+     *                         before workers wait for the consumer or null
+     *                         to use the concurrency value
+     * @return this instance
+     */
+    public BulkOptions setResultBufferSize(final Integer resultBufferSize) {
+        Validate.isTrue(resultBufferSize == null || resultBufferSize > 0,
+                "Result buffer size must be greater than zero");
+        this.resultBufferSize = resultBufferSize;
+        return this;
+    }
+
+    public long getMaxObjectSize() {
+        return maxObjectSize;
+    }
+
+    /**
+     * @param maxObjectSize maximum size in bytes of an object that will be
+     *                      read into memory, larger objects are reported as errors
+     * @return this instance
+     */
+    public BulkOptions setMaxObjectSize(final long maxObjectSize) {
+        Validate.inclusiveBetween(0L, (long) Integer.MAX_VALUE, maxObjectSize,
+                "Maximum object size must be between 0 and Integer.MAX_VALUE");
+        this.maxObjectSize = maxObjectSize;
+        return this;
+    }
+
+    public boolean isVerifyChecksums() {
+        return verifyChecksums;
+    }
+
+    /**
+     * @param verifyChecksums true to verify the MD5 checksum of each object
+     * @return this instance
+     */
+    public BulkOptions setVerifyChecksums(final boolean verifyChecksums) {
+        this.verifyChecksums = verifyChecksums;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("concurrency", concurrency)
+                .append("resultBufferSize", resultBufferSize)
+                .append("maxObjectSize", maxObjectSize)
+                .append("verifyChecksums", verifyChecksums)
+                .toString();
+    }
+}
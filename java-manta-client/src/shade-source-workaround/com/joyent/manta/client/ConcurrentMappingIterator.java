@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.config.ConfigContext;
+import com.joyent.manta.exception.MantaException;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>Iterator that applies a function to a sequence of inputs using a fixed
+ * number of worker threads and returns the results in the order that they
+ * complete. Inputs are pulled from the source iterator only when a worker is
+ * free and completed results are held in a bounded queue, so neither the
+ * number of requests in flight nor the number of buffered results can grow
+ * beyond the configured limits when the consumer is slower than the
+ * workers.</p>
+ *
+ * <p>The mapping function should capture expected failures in its result.
+ * An unexpected {@link RuntimeException} thrown by the function is rethrown
+ * to the consumer from {@link #hasNext()}.</p>
+ *
+ * <p>Instances must be closed if they are not consumed fully in order to
+ * stop the worker threads.</p>
+ *
+ * @param <I> input type
+ * @param <O> result type
+ * @since 3.5.1
+ */
+final class ConcurrentMappingIterator<I, O> implements Iterator<O>, AutoCloseable {
+    /**
+     * Percent of maximum connections that are reserved so that they are not
+     * used by the worker threads and remain available to other operations.
+     */
+    private static final double PERCENT_OF_RESERVED_CONNECTIONS = 0.5;
+
+    /**
+     * Marker placed on the result queue when all workers have finished.
+     */
+    private static final Object END = new Object();
+
+    /**
+     * Source of inputs, guarded by its own monitor.
+     */
+    private final Iterator<? extends I> inputs;
+
+    /**
+     * Function applied to each input by the workers.
+     */
+    private final Function<? super I, ? extends O> mapper;
+
+    /**
+     * Bounded queue of completed results.
+     */
+    private final BlockingQueue<Object> results;
+
+    /**
+     * Worker threads.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Number of workers that haven't finished yet.
+     */
+    private final AtomicInteger runningWorkers;
+
+    /**
+     * Next result to return or null if it hasn't been taken from the queue.
+     */
+    private Object next;
+
+    /**
+     * Flag indicating that all results have been returned or the iterator was closed.
+     */
+    private volatile boolean finished = false;
+
+    /**
+     * Creates a new instance and starts the worker threads.
+     *
+     * @param inputs source of inputs, read by the worker threads
+     * @param mapper function applied to each input
+     * @param concurrency number of worker threads
+     * @param capacity maximum number of completed results held before workers block
+     * @param threadNamePrefix prefix for the names of the worker threads
+     */
+    ConcurrentMappingIterator(final Iterator<? extends I> inputs,
+                              final Function<? super I, ? extends O> mapper,
+                              final int concurrency,
+                              final int capacity,
+                              final String threadNamePrefix) {
+        Validate.isTrue(concurrency > 0, "Concurrency must be greater than zero");
+        Validate.isTrue(capacity > 0, "Capacity must be greater than zero");
+
+        this.inputs = Validate.notNull(inputs, "Inputs must not be null");
+        this.mapper = Validate.notNull(mapper, "Mapping function must not be null");
+        this.results = new ArrayBlockingQueue<>(capacity);
+        this.runningWorkers = new AtomicInteger(concurrency);
+        this.executor = Executors.newFixedThreadPool(concurrency, new BasicThreadFactory.Builder()
+                .namingPattern(threadNamePrefix + "-%d")
+                .daemon(true)
+                .build());
+
+        for (int i = 0; i < concurrency; i++) {
+            executor.execute(this::work);
+        }
+
+        executor.shutdown();
+    }
+
+    /**
+     * Calculates the default number of concurrent requests for bulk
+     * operations based on the size of the HTTP connection pool. Half of
+     * the connections are reserved so that bulk operations don't starve
+     * other requests made with the same client.
+     *
+     * @param config Manta configuration context object
+     * @return number of concurrent requests, at least one
+     */
+    static int defaultConcurrency(final ConfigContext config) {
+        final Integer maximumConnections = config.getMaximumConnections();
+
+        if (maximumConnections == null || maximumConnections < 1) {
+            return 1;
+        }
+
+        final long reserved = Math.round(maximumConnections * PERCENT_OF_RESERVED_CONNECTIONS);
+        return Math.max(1, Math.toIntExact(maximumConnections - reserved));
+    }
+
+    /**
+     * Worker loop that maps inputs until they are exhausted or the iterator is closed.
+     */
+    private void work() {
+        try {
+            while (!finished) {
+                final I input;
+
+                synchronized (inputs) {
+                    if (!inputs.hasNext()) {
+                        break;
+                    }
+
+                    input = inputs.next();
+                }
+
+                Object result;
+
+                try {
+                    result = mapper.apply(input);
+                } catch (RuntimeException e) {
+                    result = new Failure(e);
+                }
+
+                results.put(result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (runningWorkers.decrementAndGet() == 0) {
+                try {
+                    results.put(END);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+
+        if (finished) {
+            return false;
+        }
+
+        try {
+            next = results.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new MantaException("Interrupted while waiting for results", e);
+        }
+
+        if (next == END) {
+            next = null;
+            finished = true;
+            return false;
+        }
+
+        if (next instanceof Failure) {
+            final RuntimeException cause = ((Failure) next).cause;
+            next = null;
+            close();
+            throw cause;
+        }
+
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public O next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final O result = (O) next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * Stops the worker threads and discards any results that haven't been returned.
+     */
+    @Override
+    public void close() {
+        finished = true;
+        executor.shutdownNow();
+        results.clear();
+    }
+
+    /**
+     * @return a sequential stream of the results that closes this iterator when it is closed
+     */
+    Stream<O> stream() {
+        final int characteristics = Spliterator.NONNULL | Spliterator.CONCURRENT;
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, characteristics), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Wrapper for an unexpected exception thrown by the mapping function.
+     */
+    private static final class Failure {
+        /**
+         * Exception thrown by the mapping function.
+         */
+        private final RuntimeException cause;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param cause exception thrown by the mapping function
+         */
+        Failure(final RuntimeException cause) {
+            this.cause = cause;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Options for {@link MantaClient#copyDirectory(String, String, DirectoryCopyOptions)}
+ * and {@link MantaClient#moveDirectory(String, String, DirectoryCopyOptions)}.
+ * Setters return this instance so that calls can be chained.
+ *
+ * @since 3.5.1
+ */
+public class DirectoryCopyOptions {
+    /**
+     * Default minimum time between two progress reports.
+     */
+    static final Duration DEFAULT_PROGRESS_INTERVAL = Duration.ofSeconds(1);
+
+    /**
+     * Maximum number of concurrent requests or null to derive it from the
+     * maximum connections setting.
+     */
+    private Integer concurrency;
+
+    /**
+     * Callback receiving progress reports or null.
+     */
+    private Consumer<? super DirectoryCopyProgress> progressListener;
+
+    /**
+     * Minimum time between two progress reports.
+     */
+    private Duration progressInterval = DEFAULT_PROGRESS_INTERVAL;
+
+    public Integer getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @param concurrency maximum number of concurrent requests or null to use
+     *                    half of the maximum connections setting
+     * @return this instance
+     */
+    public DirectoryCopyOptions setConcurrency(final Integer concurrency) {
+        Validate.isTrue(concurrency == null || concurrency > 0,
+                "Concurrency must be greater than zero");
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public Consumer<? super DirectoryCopyProgress> getProgressListener() {
+        return progressListener;
+    }
+
+    /**
+     * @param progressListener callback receiving progress reports from worker
+     *                         threads, one at a time, or null. A final report
+     *                         is always sent when the copy completes.
+     * @return this instance
+     */
+    public DirectoryCopyOptions setProgressListener(final Consumer<? super DirectoryCopyProgress> progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    public Duration getProgressInterval() {
+        return progressInterval;
+    }
+
+    /**
+     * @param progressInterval minimum time between two progress reports
+     * @return this instance
+     */
+    public DirectoryCopyOptions setProgressInterval(final Duration progressInterval) {
+        Validate.notNull(progressInterval, "Progress interval must not be null");
+        Validate.isTrue(!progressInterval.isNegative(), "Progress interval must not be negative");
+        this.progressInterval = progressInterval;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("concurrency", concurrency)
+                .append("progressInterval", progressInterval)
+                .toString();
+    }
+}
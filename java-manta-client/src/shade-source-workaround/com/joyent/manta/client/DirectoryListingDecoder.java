@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joyent.manta.exception.MantaIOException;
+import com.joyent.manta.util.NotThreadSafe;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * <p>Decodes the body of a directory listing response using Jackson's
+ * streaming {@link JsonParser}. A listing is a sequence of JSON objects
+ * separated by newlines, one per entry. Each object is read token by token
+ * directly into a {@link DirectoryListingRecord}, so no intermediate line
+ * {@link String} or {@link java.util.Map} is created per entry.</p>
+ *
+ * <p><strong>This class is not thread-safe.</strong></p>
+ *
+ * @since 3.5.1
+ */
+@NotThreadSafe
+final class DirectoryListingDecoder implements Closeable {
+    /**
+     * Mapper used to create the parser and to read properties of unknown types.
+     */
+    private static final ObjectMapper MAPPER = MantaObjectMapper.INSTANCE;
+
+    /**
+     * Parser reading the response body.
+     */
+    private final JsonParser parser;
+
+    /**
+     * Creates a new instance that reads from the specified stream. The
+     * stream is closed when the decoder is closed.
+     *
+     * @param in response body of a directory listing
+     * @throws IOException thrown when the parser can't be created
+     */
+    DirectoryListingDecoder(final InputStream in) throws IOException {
+        this.parser = MAPPER.getFactory().createParser(in);
+    }
+
+    /**
+     * Reads the next entry of the listing.
+     *
+     * @return the next entry or null at the end of the listing
+     * @throws IOException thrown when the listing can't be read or is malformed
+     */
+    DirectoryListingRecord next() throws IOException {
+        final JsonToken start = parser.nextToken();
+
+        if (start == null) {
+            return null;
+        }
+
+        if (start != JsonToken.START_OBJECT) {
+            throw malformed(start);
+        }
+
+        final DirectoryListingRecord record = new DirectoryListingRecord();
+        JsonToken token;
+
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            final JsonToken value = parser.nextToken();
+
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+
+            switch (field) {
+                case DirectoryListingRecord.NAME_FIELD_KEY:
+                    record.setName(parser.getValueAsString());
+                    break;
+                case DirectoryListingRecord.MTIME_FIELD_KEY:
+                    record.setMtime(parser.getValueAsString());
+                    break;
+                case DirectoryListingRecord.TYPE_FIELD_KEY:
+                    record.setType(parser.getValueAsString());
+                    break;
+                case DirectoryListingRecord.CONTENT_TYPE_FIELD_KEY:
+                    record.setContentType(parser.getValueAsString());
+                    break;
+                case DirectoryListingRecord.ETAG_FIELD_KEY:
+                    record.setEtag(parser.getValueAsString());
+                    break;
+                case DirectoryListingRecord.SIZE_FIELD_KEY:
+                    record.setSize(parser.getValueAsLong());
+                    break;
+                case DirectoryListingRecord.DURABILITY_FIELD_KEY:
+                    record.setDurability(parser.getValueAsInt());
+                    break;
+                case DirectoryListingRecord.CONTENT_MD5_FIELD_KEY:
+                    record.setContentMd5(parser.getValueAsString());
+                    break;
+                default:
+                    record.setOther(field, MAPPER.readValue(parser, Object.class));
+            }
+        }
+
+        if (token != JsonToken.END_OBJECT) {
+            throw malformed(token);
+        }
+
+        return record;
+    }
+
+    /**
+     * Builds the exception thrown when the listing contains something other
+     * than a sequence of JSON objects.
+     *
+     * @param token unexpected token
+     * @return exception to throw
+     */
+    private MantaIOException malformed(final JsonToken token) {
+        MantaIOException e = new MantaIOException("Unexpected content in directory listing");
+        e.setContextValue("token", token);
+        e.setContextValue("location", parser.getCurrentLocation());
+        return e;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.joyent.manta.client.MantaClient.SEPARATOR;
+
+/**
+ * Compact representation of a single entry of a directory listing. Known
+ * properties are stored in fields so that entries can be decoded without
+ * building a {@link Map} per entry. Any properties that this class doesn't
+ * know about are retained so that they can be returned by {@link #toMap(String)}.
+ *
+ * @since 3.5.1
+ */
+final class DirectoryListingRecord {
+    /**
+     * Key for name property in directory listing results.
+     */
+    static final String NAME_FIELD_KEY = "name";
+
+    /**
+     * Key for modification time property in directory listing results.
+     */
+    static final String MTIME_FIELD_KEY = "mtime";
+
+    /**
+     * Key for object type (dir / file) property in directory listing results.
+     */
+    static final String TYPE_FIELD_KEY = "type";
+
+    /**
+     * Key for injecting the path to the object in the results returned from
+     * {@link #toMap(String)}.
+     */
+    static final String PATH_FIELD_KEY = "path";
+
+    /**
+     * Key for content-type property in directory listing results.
+     */
+    static final String CONTENT_TYPE_FIELD_KEY = "contentType";
+
+    /**
+     * Key for e-tag property in directory listing results.
+     */
+    static final String ETAG_FIELD_KEY = "etag";
+
+    /**
+     * Key for object size property in directory listing results.
+     */
+    static final String SIZE_FIELD_KEY = "size";
+
+    /**
+     * Key for durability (number of copies) property in directory listing results.
+     */
+    static final String DURABILITY_FIELD_KEY = "durability";
+
+    /**
+     * Key for content-md5 property in directory listing results.
+     */
+    static final String CONTENT_MD5_FIELD_KEY = "contentMD5";
+
+    /**
+     * Name of the entry within its directory.
+     */
+    private String name;
+
+    /**
+     * Modification time as sent by Manta.
+     */
+    private String mtime;
+
+    /**
+     * Entry type (directory or object).
+     */
+    private String type;
+
+    /**
+     * Content type or null if not sent.
+     */
+    private String contentType;
+
+    /**
+     * Etag or null if not sent.
+     */
+    private String etag;
+
+    /**
+     * Size in bytes or null if not sent.
+     */
+    private Long size;
+
+    /**
+     * Durability level or null if not sent.
+     */
+    private Integer durability;
+
+    /**
+     * Base64 encoded MD5 checksum or null if not sent.
+     */
+    private String contentMd5;
+
+    /**
+     * Properties that aren't stored in fields or null if there are none.
+     */
+    private Map<String, Object> other;
+
+    /**
+     * Creates a record from a listing entry that was deserialized into a map.
+     *
+     * @param item listing entry
+     * @return record containing the values of the entry
+     */
+    static DirectoryListingRecord fromMap(final Map<String, Object> item) {
+        final DirectoryListingRecord record = new DirectoryListingRecord();
+
+        for (Map.Entry<String, Object> entry : item.entrySet()) {
+            final Object value = entry.getValue();
+
+            switch (entry.getKey()) {
+                case NAME_FIELD_KEY:
+                    record.name = Objects.toString(value, null);
+                    break;
+                case MTIME_FIELD_KEY:
+                    record.mtime = Objects.toString(value, null);
+                    break;
+                case TYPE_FIELD_KEY:
+                    record.type = Objects.toString(value, null);
+                    break;
+                case CONTENT_TYPE_FIELD_KEY:
+                    record.contentType = Objects.toString(value, null);
+                    break;
+                case ETAG_FIELD_KEY:
+                    record.etag = Objects.toString(value);
+                    break;
+                case SIZE_FIELD_KEY:
+                    record.size = Long.parseLong(Objects.toString(value));
+                    break;
+                case DURABILITY_FIELD_KEY:
+                    if (value != null) {
+                        record.durability = Integer.parseInt(value.toString());
+                    }
+                    break;
+                case CONTENT_MD5_FIELD_KEY:
+                    record.contentMd5 = Objects.toString(value, null);
+                    break;
+                case PATH_FIELD_KEY:
+                    // the path is supplied when converting the record
+                    break;
+                default:
+                    record.setOther(entry.getKey(), value);
+            }
+        }
+
+        return record;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getMtime() {
+        return mtime;
+    }
+
+    String getType() {
+        return type;
+    }
+
+    String getContentType() {
+        return contentType;
+    }
+
+    String getEtag() {
+        return etag;
+    }
+
+    Long getSize() {
+        return size;
+    }
+
+    Integer getDurability() {
+        return durability;
+    }
+
+    String getContentMd5() {
+        return contentMd5;
+    }
+
+    void setName(final String name) {
+        this.name = name;
+    }
+
+    void setMtime(final String mtime) {
+        this.mtime = mtime;
+    }
+
+    void setType(final String type) {
+        this.type = type;
+    }
+
+    void setContentType(final String contentType) {
+        this.contentType = contentType;
+    }
+
+    void setEtag(final String etag) {
+        this.etag = etag;
+    }
+
+    void setSize(final Long size) {
+        this.size = size;
+    }
+
+    void setDurability(final Integer durability) {
+        this.durability = durability;
+    }
+
+    void setContentMd5(final String contentMd5) {
+        this.contentMd5 = contentMd5;
+    }
+
+    /**
+     * Retains a property that isn't stored in a field.
+     *
+     * @param key property name
+     * @param value property value
+     */
+    void setOther(final String key, final Object value) {
+        if (other == null) {
+            other = new LinkedHashMap<>();
+        }
+
+        other.put(key, value);
+    }
+
+    /**
+     * Converts this record to a {@link MantaObject}.
+     *
+     * @param directory path of the directory that was listed
+     * @return object representing the entry
+     */
+    MantaListingEntry toObject(final String directory) {
+        return new MantaListingEntry(directory, this);
+    }
+
+    /**
+     * Converts this record to the map representation returned by
+     * {@link MantaDirectoryListingIterator#next()}.
+     *
+     * @param directory path of the directory that was listed
+     * @return map of property names to values
+     */
+    Map<String, Object> toMap(final String directory) {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        putIfNotNull(map, NAME_FIELD_KEY, name);
+        putIfNotNull(map, ETAG_FIELD_KEY, etag);
+        putIfNotNull(map, TYPE_FIELD_KEY, type);
+        putIfNotNull(map, CONTENT_TYPE_FIELD_KEY, contentType);
+        putIfNotNull(map, CONTENT_MD5_FIELD_KEY, contentMd5);
+        putIfNotNull(map, MTIME_FIELD_KEY, mtime);
+        putIfNotNull(map, DURABILITY_FIELD_KEY, durability);
+
+        /* Sizes are returned as the narrowest type, as they would be when
+         * deserialized by Jackson. */
+        if (size != null) {
+            if (size.intValue() == size) {
+                map.put(SIZE_FIELD_KEY, size.intValue());
+            } else {
+                map.put(SIZE_FIELD_KEY, size);
+            }
+        }
+
+        if (other != null) {
+            map.putAll(other);
+        }
+
+        map.put(PATH_FIELD_KEY, directory);
+
+        return map;
+    }
+
+    /**
+     * Joins a directory path and an entry name.
+     *
+     * @param directory path of the directory
+     * @param name name of the entry
+     * @return path of the entry
+     */
+    static String childPath(final String directory, final String name) {
+        final int dirEnd;
+
+        if (directory.endsWith(SEPARATOR)) {
+            dirEnd = directory.length() - SEPARATOR.length();
+        } else {
+            dirEnd = directory.length();
+        }
+
+        final int nameStart;
+
+        if (name.startsWith(SEPARATOR)) {
+            nameStart = SEPARATOR.length();
+        } else {
+            nameStart = 0;
+        }
+
+        return new StringBuilder(dirEnd + 1 + name.length() - nameStart)
+                .append(directory, 0, dirEnd)
+                .append(SEPARATOR)
+                .append(name, nameStart, name.length())
+                .toString();
+    }
+
+    /**
+     * Adds a value to a map unless it is null.
+     *
+     * @param map map to add to
+     * @param key key to add
+     * @param value value to add
+     */
+    private static void putIfNotNull(final Map<String, Object> map, final String key, final Object value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+}
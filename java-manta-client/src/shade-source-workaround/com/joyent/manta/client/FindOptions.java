@@ -0,0 +1,430 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static com.joyent.manta.client.MantaClient.SEPARATOR;
+
+/**
+ * <p>Options for {@link MantaClient#find(String, FindOptions)}. Setters return
+ * this instance so that calls can be chained.</p>
+ *
+ * <p>Options are evaluated against each entry as it is read from a directory
+ * listing. The name, modification time, size and filter options only decide
+ * which entries are returned; directories that don't match are still walked.
+ * The maximum depth and the prune predicate decide which directories are
+ * walked, so that whole subtrees are skipped before they are listed. The
+ * limit stops the walk as soon as enough results have been returned.</p>
+ *
+ * @since 3.5.1
+ */
+public class FindOptions {
+    /**
+     * Maximum number of concurrent listing requests or null to derive it
+     * from the maximum connections setting.
+     */
+    private Integer concurrency;
+
+    /**
+     * Maximum depth of the entries returned relative to the starting
+     * directory or null for no limit.
+     */
+    private Integer maxDepth;
+
+    /**
+     * Maximum number of results returned or null for no limit.
+     */
+    private Long limit;
+
+    /**
+     * Pattern that entry names must match in their entirety or null.
+     */
+    private Pattern namePattern;
+
+    /**
+     * Time that entries must have been modified after or null.
+     */
+    private Instant modifiedAfter;
+
+    /**
+     * Time that entries must have been modified before or null.
+     */
+    private Instant modifiedBefore;
+
+    /**
+     * Minimum size in bytes of the objects returned or null.
+     */
+    private Long minSize;
+
+    /**
+     * Maximum size in bytes of the objects returned or null.
+     */
+    private Long maxSize;
+
+    /**
+     * Additional predicate that entries must match to be returned or null.
+     */
+    private Predicate<? super MantaObject> filter;
+
+    /**
+     * Predicate matching directories that shouldn't be walked or null.
+     */
+    private Predicate<? super MantaObject> prune;
+
+    public Integer getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @param concurrency maximum number of concurrent listing requests or null
+     *                    to use half of the maximum connections setting
+     * @return this instance
+     */
+    public FindOptions setConcurrency(final Integer concurrency) {
+        Validate.isTrue(concurrency == null || concurrency > 0,
+                "Concurrency must be greater than zero");
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public Integer getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @param maxDepth maximum depth of the entries returned, where the
+     *                 contents of the starting directory are at depth 1,
+     *                 or null for no limit
+     * @return this instance
+     */
+    public FindOptions setMaxDepth(final Integer maxDepth) {
+        Validate.isTrue(maxDepth == null || maxDepth > 0,
+                "Maximum depth must be greater than zero");
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    public Long getLimit() {
+        return limit;
+    }
+
+    /**
+     * @param limit maximum number of results, after which the walk is
+     *              stopped, or null for no limit
+     * @return this instance
+     */
+    public FindOptions setLimit(final Long limit) {
+        Validate.isTrue(limit == null || limit > 0,
+                "Limit must be greater than zero");
+        this.limit = limit;
+        return this;
+    }
+
+    public Pattern getNamePattern() {
+        return namePattern;
+    }
+
+    /**
+     * @param namePattern regular expression that entry names must match in
+     *                    their entirety or null to match all names
+     * @return this instance
+     */
+    public FindOptions setNamePattern(final Pattern namePattern) {
+        this.namePattern = namePattern;
+        return this;
+    }
+
+    /**
+     * Sets a glob that entry names must match. Globs support <code>*</code>,
+     * <code>?</code>, character classes such as <code>[a-z]</code>,
+     * <code>[!a-z]</code> or <code>[^a-z]</code> where a <code>]</code>
+     * directly after the opening bracket is matched literally, alternatives such as <code>{jpg,png}</code> and
+     * <code>\</code> to escape the next character.
+     *
+     * @param glob glob that entry names must match or null to match all names
+     * @return this instance
+     */
+    public FindOptions setNameGlob(final String glob) {
+        if (glob == null) {
+            this.namePattern = null;
+        } else {
+            this.namePattern = globToPattern(glob);
+        }
+
+        return this;
+    }
+
+    public Instant getModifiedAfter() {
+        return modifiedAfter;
+    }
+
+    /**
+     * @param modifiedAfter time that entries must have been modified after or null
+     * @return this instance
+     */
+    public FindOptions setModifiedAfter(final Instant modifiedAfter) {
+        this.modifiedAfter = modifiedAfter;
+        return this;
+    }
+
+    public Instant getModifiedBefore() {
+        return modifiedBefore;
+    }
+
+    /**
+     * @param modifiedBefore time that entries must have been modified before or null
+     * @return this instance
+     */
+    public FindOptions setModifiedBefore(final Instant modifiedBefore) {
+        this.modifiedBefore = modifiedBefore;
+        return this;
+    }
+
+    public Long getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * @param minSize minimum size in bytes of the objects returned or null.
+     *                Directories aren't returned when a size bound is set.
+     * @return this instance
+     */
+    public FindOptions setMinSize(final Long minSize) {
+        Validate.isTrue(minSize == null || minSize >= 0,
+                "Minimum size must not be negative");
+        Validate.isTrue(minSize == null || maxSize == null || minSize <= maxSize,
+                "Minimum size must not be greater than maximum size");
+        this.minSize = minSize;
+        return this;
+    }
+
+    public Long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @param maxSize maximum size in bytes of the objects returned or null.
+     *                Directories aren't returned when a size bound is set.
+     * @return this instance
+     */
+    public FindOptions setMaxSize(final Long maxSize) {
+        Validate.isTrue(maxSize == null || maxSize >= 0,
+                "Maximum size must not be negative");
+        Validate.isTrue(maxSize == null || minSize == null || minSize <= maxSize,
+                "Maximum size must not be less than minimum size");
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    public Predicate<? super MantaObject> getFilter() {
+        return filter;
+    }
+
+    /**
+     * @param filter additional predicate that entries must match to be
+     *               returned or null
+     * @return this instance
+     */
+    public FindOptions setFilter(final Predicate<? super MantaObject> filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    public Predicate<? super MantaObject> getPrune() {
+        return prune;
+    }
+
+    /**
+     * @param prune predicate matching directories whose contents shouldn't be
+     *              walked or null to walk all directories. Pruned directories
+     *              are still returned if they match the other options.
+     * @return this instance
+     */
+    public FindOptions setPrune(final Predicate<? super MantaObject> prune) {
+        this.prune = prune;
+        return this;
+    }
+
+    /**
+     * Determines if an entry should be returned.
+     *
+     * @param obj entry read from a directory listing
+     * @return true if the entry matches all of the options
+     */
+    boolean matches(final MantaObject obj) {
+        if (namePattern != null && !namePattern.matcher(name(obj)).matches()) {
+            return false;
+        }
+
+        if (modifiedAfter != null || modifiedBefore != null) {
+            final Date lastModified = obj.getLastModifiedTime();
+
+            if (lastModified == null) {
+                return false;
+            }
+
+            final Instant mtime = lastModified.toInstant();
+
+            if (modifiedAfter != null && !mtime.isAfter(modifiedAfter)) {
+                return false;
+            }
+
+            if (modifiedBefore != null && !mtime.isBefore(modifiedBefore)) {
+                return false;
+            }
+        }
+
+        if (minSize != null || maxSize != null) {
+            final Long size = obj.getContentLength();
+
+            if (obj.isDirectory() || size == null) {
+                return false;
+            }
+
+            if (minSize != null && size < minSize) {
+                return false;
+            }
+
+            if (maxSize != null && size > maxSize) {
+                return false;
+            }
+        }
+
+        return filter == null || filter.test(obj);
+    }
+
+    /**
+     * Determines if the contents of a directory should be walked.
+     *
+     * @param directory directory read from a directory listing
+     * @param depth depth of the directory relative to the starting directory
+     * @return true if the directory should be listed
+     */
+    boolean shouldDescend(final MantaObject directory, final int depth) {
+        if (maxDepth != null && depth >= maxDepth) {
+            return false;
+        }
+
+        return prune == null || !prune.test(directory);
+    }
+
+    /**
+     * @param obj entry read from a directory listing
+     * @return the last element of the path of the entry
+     */
+    private static String name(final MantaObject obj) {
+        final String path = obj.getPath();
+        return path.substring(path.lastIndexOf(SEPARATOR) + 1);
+    }
+
+    /**
+     * Converts a glob to an equivalent regular expression.
+     *
+     * @param glob glob to convert
+     * @return pattern matching the same names as the glob
+     */
+    static Pattern globToPattern(final String glob) {
+        final StringBuilder regex = new StringBuilder(glob.length() * 2);
+        boolean inClass = false;
+        boolean inGroup = false;
+
+        for (int i = 0; i < glob.length(); i++) {
+            final char c = glob.charAt(i);
+
+            if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                } else if (c == '\\' || c == '[' || c == '&' || c == '^') {
+                    regex.append('\\');
+                }
+
+                regex.append(c);
+                continue;
+            }
+
+            switch (c) {
+                case '*':
+                    regex.append(".*");
+                    break;
+                case '?':
+                    regex.append('.');
+                    break;
+                case '[':
+                    inClass = true;
+                    regex.append('[');
+
+                    if (i + 1 < glob.length() && (glob.charAt(i + 1) == '!' || glob.charAt(i + 1) == '^')) {
+                        regex.append('^');
+                        i++;
+                    }
+
+                    /* A closing bracket at the start of a class is part of the class. */
+                    if (i + 1 < glob.length() && glob.charAt(i + 1) == ']') {
+                        regex.append("\\]");
+                        i++;
+                    }
+                    break;
+                case '{':
+                    Validate.isTrue(!inGroup, "Nested alternatives are not supported in globs: %s", glob);
+                    inGroup = true;
+                    regex.append("(?:");
+                    break;
+                case '}':
+                    if (inGroup) {
+                        inGroup = false;
+                        regex.append(')');
+                    } else {
+                        regex.append("\\}");
+                    }
+                    break;
+                case ',':
+                    if (inGroup) {
+                        regex.append('|');
+                    } else {
+                        regex.append(',');
+                    }
+                    break;
+                case '\\':
+                    Validate.isTrue(i + 1 < glob.length(), "Glob must not end with an escape: %s", glob);
+                    regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+                    break;
+                default:
+                    if (Character.isLetterOrDigit(c)) {
+                        regex.append(c);
+                    } else {
+                        regex.append('\\').append(c);
+                    }
+            }
+        }
+
+        Validate.isTrue(!inClass && !inGroup, "Unterminated character class or alternative in glob: %s", glob);
+
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("concurrency", concurrency)
+                .append("maxDepth", maxDepth)
+                .append("limit", limit)
+                .append("namePattern", namePattern)
+                .append("modifiedAfter", modifiedAfter)
+                .append("modifiedBefore", modifiedBefore)
+                .append("minSize", minSize)
+                .append("maxSize", maxSize)
+                .toString();
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.http.MantaHttpHeaders;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Bounded cache of the directories that a client has created or found to
+ * exist, used to avoid sending a PUT for every parent directory each time
+ * directories are created recursively.</p>
+ *
+ * <p>Directories are remembered for a fixed time after they were last
+ * confirmed and the least recently used ones are forgotten first when the
+ * cache is full. Directories deleted through the client are forgotten
+ * immediately. Concurrent requests to create the same directory are
+ * coalesced into a single PUT whose result is shared by all callers.</p>
+ *
+ * @since 3.5.1
+ */
+final class KnownDirectoryCache {
+    /**
+     * Initial capacity of the map of known directories.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Load factor of the map of known directories.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * Expiry times in {@link System#nanoTime()} of the known directories, in
+     * access order.
+     */
+    private final LinkedHashMap<String, Long> known;
+
+    /**
+     * Number of nanoseconds a directory is remembered after being confirmed.
+     */
+    private final long ttlNanos;
+
+    /**
+     * Directories being created, completed with the result of the PUT.
+     */
+    private final ConcurrentMap<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param capacity maximum number of directories remembered
+     * @param ttlMillis number of milliseconds a directory is remembered
+     */
+    KnownDirectoryCache(final int capacity, final long ttlMillis) {
+        Validate.isTrue(capacity > 0, "Capacity must be greater than zero");
+        Validate.isTrue(ttlMillis > 0, "TTL must be greater than zero");
+
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.known = new LinkedHashMap<String, Long>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            private static final long serialVersionUID = 4573412094387124526L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Long> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @param path directory path
+     * @return true if the directory is known to exist
+     */
+    synchronized boolean contains(final String path) {
+        return isLive(path, System.nanoTime());
+    }
+
+    /**
+     * Finds the deepest directory of a list of nested directories that is
+     * known to exist.
+     *
+     * @param paths directory paths, each one the parent of the next
+     * @return number of leading directories that can be assumed to exist
+     */
+    synchronized int knownPrefixes(final String[] paths) {
+        final long now = System.nanoTime();
+
+        for (int i = paths.length - 1; i >= 0; i--) {
+            if (isLive(paths[i], now)) {
+                return i + 1;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Remembers that a directory exists.
+     *
+     * @param path directory path
+     */
+    synchronized void add(final String path) {
+        known.put(path, System.nanoTime() + ttlNanos);
+    }
+
+    /**
+     * Forgets a directory.
+     *
+     * @param path directory path
+     */
+    synchronized void remove(final String path) {
+        known.remove(path);
+    }
+
+    /**
+     * Forgets a directory and all of its parents.
+     *
+     * @param path directory path
+     */
+    synchronized void removeWithParents(final String path) {
+        for (int end = path.length(); end > 0; end = path.lastIndexOf(MantaClient.SEPARATOR, end - 1)) {
+            known.remove(path.substring(0, end));
+        }
+    }
+
+    /**
+     * @return number of directories remembered, including expired ones
+     */
+    synchronized int size() {
+        return known.size();
+    }
+
+    /**
+     * Creates a directory and remembers it. If the same directory is already
+     * being created by another thread, waits for that request instead of
+     * sending another one, and only sends its own if that request failed.
+     *
+     * @param client client used to create the directory
+     * @param path directory path
+     * @param headers headers of the PUT request or null
+     * @return true if the directory was created by this call
+     * @throws IOException thrown when the directory can't be created
+     */
+    boolean putDirectory(final MantaClient client, final String path, final MantaHttpHeaders headers)
+            throws IOException {
+        final CompletableFuture<Boolean> flight = new CompletableFuture<>();
+        final CompletableFuture<Boolean> leader = inFlight.putIfAbsent(path, flight);
+
+        if (leader != null) {
+            try {
+                leader.get();
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for directory " + path);
+            } catch (ExecutionException e) {
+                // The failure may not apply to our request, so we try it ourselves
+                final boolean created = client.putDirectory(path, headers);
+                add(path);
+                return created;
+            }
+        }
+
+        try {
+            // Another thread may have finished creating it before we got here
+            if (contains(path)) {
+                flight.complete(false);
+                return false;
+            }
+
+            final boolean created = client.putDirectory(path, headers);
+            add(path);
+            flight.complete(created);
+            return created;
+        } catch (IOException | RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(path, flight);
+        }
+    }
+
+    /**
+     * Checks if a directory is remembered and hasn't expired, forgetting it
+     * if it has. Must be called while holding the lock.
+     *
+     * @param path directory path
+     * @param now current {@link System#nanoTime()}
+     * @return true if the directory is known to exist
+     */
+    private boolean isLive(final String path, final long now) {
+        final Long expiry = known.get(path);
+
+        if (expiry == null) {
+            return false;
+        }
+
+        if (expiry - now <= 0) {
+            known.remove(path);
+            return false;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * <p>{@link Spliterator} over the entries of a directory listing that takes
+ * entries from the underlying {@link MantaDirectoryListingIterator} a page at
+ * a time, so that the iterator's lock is taken once per page instead of once
+ * per entry.</p>
+ *
+ * <p>When the stream is parallel, each split hands over a whole page as a
+ * sized batch that can be processed by another thread while the next page is
+ * read.</p>
+ *
+ * @since 3.5.1
+ */
+final class MantaListingSpliterator implements Spliterator<MantaObject> {
+    /**
+     * Characteristics of the listing.
+     */
+    static final int CHARACTERISTICS = Spliterator.CONCURRENT
+            | Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT;
+
+    /**
+     * Characteristics of the batches split from the listing, in addition to
+     * being sized.
+     */
+    private static final int BATCH_CHARACTERISTICS = Spliterator.IMMUTABLE
+            | Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT;
+
+    /**
+     * Iterator the pages are taken from.
+     */
+    private final MantaDirectoryListingIterator iterator;
+
+    /**
+     * Path of the directory being listed.
+     */
+    private final String directory;
+
+    /**
+     * Page being consumed by this spliterator.
+     */
+    private List<DirectoryListingRecord> page = Collections.emptyList();
+
+    /**
+     * Position of the next entry within {@link #page}.
+     */
+    private int index;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param iterator iterator the pages are taken from
+     * @param directory path of the directory being listed
+     */
+    MantaListingSpliterator(final MantaDirectoryListingIterator iterator, final String directory) {
+        Validate.notNull(iterator, "Iterator must not be null");
+        Validate.notNull(directory, "Directory must not be null");
+
+        this.iterator = iterator;
+        this.directory = directory;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super MantaObject> action) {
+        Validate.notNull(action, "Action must not be null");
+
+        if (index == page.size()) {
+            page = iterator.nextPage();
+            index = 0;
+
+            if (page.isEmpty()) {
+                return false;
+            }
+        }
+
+        action.accept(page.get(index++).toObject(directory));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super MantaObject> action) {
+        Validate.notNull(action, "Action must not be null");
+
+        while (true) {
+            for (; index < page.size(); index++) {
+                action.accept(page.get(index).toObject(directory));
+            }
+
+            page = iterator.nextPage();
+            index = 0;
+
+            if (page.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Splits off the rest of the page being consumed or, if it has been
+     * consumed, the next page of the listing.
+     *
+     * @return sized spliterator over a page or null if there are no more entries
+     */
+    @Override
+    public Spliterator<MantaObject> trySplit() {
+        final List<DirectoryListingRecord> batch;
+
+        if (index < page.size()) {
+            batch = page.subList(index, page.size());
+        } else {
+            batch = iterator.nextPage();
+        }
+
+        page = Collections.emptyList();
+        index = 0;
+
+        if (batch.isEmpty()) {
+            return null;
+        }
+
+        final Object[] entries = new Object[batch.size()];
+
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = batch.get(i).toObject(directory);
+        }
+
+        return Spliterators.spliterator(entries, BATCH_CHARACTERISTICS);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+}
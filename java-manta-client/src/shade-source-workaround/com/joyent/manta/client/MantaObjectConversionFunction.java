@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2017-2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Function class that provides the conversion method for mapping a {@link Map}
+ * to a {@link MantaObject}.
+ *
+ * @author <a href="https://github.com/dekobon">Elijah Zupancic</a>
+ * @since 3.1.7
+ */
+public class MantaObjectConversionFunction implements Function<Map<String, Object>, MantaObject> {
+    /**
+     * Static instance to be used as a singleton.
+     */
+    public static final MantaObjectConversionFunction INSTANCE = new MantaObjectConversionFunction();
+
+    @Override
+    public MantaObject apply(final Map<String, Object> item) {
+        final Object path = item.get(DirectoryListingRecord.PATH_FIELD_KEY);
+        Validate.notNull(path, "Path is null");
+
+        return DirectoryListingRecord.fromMap(item).toObject(path.toString());
+    }
+}
@@ -0,0 +1,789 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * <p>Compact append-only store of the paths and attributes of a large number
+ * of objects and directories, such as the results of
+ * {@link MantaClient#find(String, FindOptions)}.</p>
+ *
+ * <p>Each entry is identified by the order in which it was added. Paths are
+ * prefix compressed against the previous path, with a full path every
+ * {@value #RESTART_INTERVAL} entries so that any entry can be decoded
+ * quickly, and written together with the optional MD5 checksums into large
+ * buffers that can be on the heap, off the heap or in a memory-mapped
+ * temporary file. Sizes, modification times and flags are kept in primitive
+ * arrays. An entry of a tree with long common prefixes takes a few dozen
+ * bytes instead of the kilobytes of a {@link MantaObject}.</p>
+ *
+ * <p>Paths can be looked up with {@link #indexOf(String)}, which builds a
+ * hash table of the entries the first time it is used. All methods are
+ * synchronized. The store must be closed to release a memory-mapped file.</p>
+ *
+ * @since 3.5.1
+ */
+public final class MantaPathStore implements AutoCloseable {
+    /**
+     * Value of an attribute that isn't known.
+     */
+    public static final long UNKNOWN = -1;
+
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(MantaPathStore.class);
+
+    /**
+     * Number of entries between two entries that store their full path.
+     */
+    private static final int RESTART_INTERVAL = 16;
+
+    /**
+     * Size of each buffer holding paths.
+     */
+    private static final int CHUNK_SIZE = 1 << 22;
+
+    /**
+     * Initial capacity of the attribute arrays.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Length of an MD5 checksum in bytes.
+     */
+    private static final int MD5_LENGTH = 16;
+
+    /**
+     * Maximum length of an encoded variable length integer.
+     */
+    private static final int MAX_VARINT_LENGTH = 5;
+
+    /**
+     * Bits of a byte holding the value in a variable length integer.
+     */
+    private static final int VARINT_MASK = 0x7F;
+
+    /**
+     * Bit of a byte indicating that a variable length integer continues.
+     */
+    private static final int VARINT_MORE = 0x80;
+
+    /**
+     * Number of value bits in each byte of a variable length integer.
+     */
+    private static final int VARINT_SHIFT = 7;
+
+    /**
+     * Flag of an entry that is a directory.
+     */
+    private static final byte FLAG_DIRECTORY = 1;
+
+    /**
+     * Flag of an entry that has an MD5 checksum.
+     */
+    private static final byte FLAG_MD5 = 2;
+
+    /**
+     * Memory-mapped file holding the paths or null.
+     */
+    private final Path file;
+
+    /**
+     * Channel of the memory-mapped file or null.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Buffers holding the encoded paths.
+     */
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+
+    /**
+     * Whether buffers are allocated outside of the heap.
+     */
+    private final boolean direct;
+
+    /**
+     * Sizes in bytes of the entries.
+     */
+    private long[] sizes = new long[INITIAL_CAPACITY];
+
+    /**
+     * Modification times in milliseconds of the entries.
+     */
+    private long[] mtimes = new long[INITIAL_CAPACITY];
+
+    /**
+     * Hash codes of the paths of the entries.
+     */
+    private int[] hashes = new int[INITIAL_CAPACITY];
+
+    /**
+     * Flags of the entries.
+     */
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+
+    /**
+     * Positions of the entries that store their full path.
+     */
+    private long[] restarts = new long[INITIAL_CAPACITY / RESTART_INTERVAL];
+
+    /**
+     * Open addressing table of entry indexes plus one, or null until the
+     * first lookup.
+     */
+    private int[] table;
+
+    /**
+     * Number of entries.
+     */
+    private int count;
+
+    /**
+     * Encoded path of the last entry added.
+     */
+    private byte[] lastAdded = new byte[0];
+
+    /**
+     * Index of the last entry decoded or -1.
+     */
+    private int decodedIndex = -1;
+
+    /**
+     * Position after the last entry decoded.
+     */
+    private long decodedEnd;
+
+    /**
+     * Position of the MD5 checksum of the last entry decoded.
+     */
+    private long decodedMd5;
+
+    /**
+     * Encoded path of the last entry decoded.
+     */
+    private byte[] decoded = new byte[0];
+
+    /**
+     * Length of the encoded path of the last entry decoded.
+     */
+    private int decodedLength;
+
+    /**
+     * Whether the store has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param direct whether buffers are allocated outside of the heap
+     * @param file memory-mapped file holding the paths or null
+     * @param channel channel of the memory-mapped file or null
+     */
+    private MantaPathStore(final boolean direct, final Path file, final FileChannel channel) {
+        this.direct = direct;
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * @return new store keeping everything on the heap
+     */
+    public static MantaPathStore onHeap() {
+        return new MantaPathStore(false, null, null);
+    }
+
+    /**
+     * @return new store keeping paths in direct buffers outside of the heap
+     */
+    public static MantaPathStore offHeap() {
+        return new MantaPathStore(true, null, null);
+    }
+
+    /**
+     * Creates a store keeping paths in a temporary file that is mapped into
+     * memory, so that they can be paged out when memory is short. The file
+     * is deleted when the store is closed.
+     *
+     * @param directory directory to create the temporary file in
+     * @return new store
+     * @throws IOException thrown when the file can't be created
+     */
+    public static MantaPathStore mapped(final Path directory) throws IOException {
+        Validate.notNull(directory, "Directory must not be null");
+
+        final Path file = Files.createTempFile(directory, "manta-paths-", ".tmp");
+
+        try {
+            final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            return new MantaPathStore(false, file, channel);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Adds an object or directory.
+     *
+     * @param obj object or directory to add
+     * @return index of the new entry
+     */
+    public int add(final MantaObject obj) {
+        Validate.notNull(obj, "Object must not be null");
+
+        return add(obj.getPath(), obj);
+    }
+
+    /**
+     * Adds an object or directory under another path, such as its decoded
+     * path or its path relative to a directory.
+     *
+     * @param path path of the entry
+     * @param obj object or directory whose attributes are added
+     * @return index of the new entry
+     */
+    public int add(final String path, final MantaObject obj) {
+        Validate.notNull(obj, "Object must not be null");
+
+        final Long size = obj.getContentLength();
+        final Date mtime = obj.getLastModifiedTime();
+        final byte[] md5 = obj.getMd5Bytes();
+
+        final long sizeValue;
+        final long mtimeValue;
+
+        if (size == null) {
+            sizeValue = UNKNOWN;
+        } else {
+            sizeValue = size;
+        }
+
+        if (mtime == null) {
+            mtimeValue = UNKNOWN;
+        } else {
+            mtimeValue = mtime.getTime();
+        }
+
+        return add(path, obj.isDirectory(), sizeValue, mtimeValue, md5);
+    }
+
+    /**
+     * Adds an entry.
+     *
+     * @param path path of the entry
+     * @param directory whether the entry is a directory
+     * @param size size in bytes or {@link #UNKNOWN}
+     * @param mtime modification time in milliseconds or {@link #UNKNOWN}
+     * @param md5 MD5 checksum or null
+     * @return index of the new entry
+     * @throws IllegalArgumentException thrown when the path is too long or the
+     *                                  checksum isn't an MD5 checksum
+     * @throws IllegalStateException thrown when the store is closed or full
+     * @throws UncheckedIOException thrown when the memory-mapped file can't be extended
+     */
+    public synchronized int add(final String path, final boolean directory, final long size,
+                                final long mtime, final byte[] md5) {
+        Validate.notNull(path, "Path must not be null");
+        Validate.isTrue(md5 == null || md5.length == 0 || md5.length == MD5_LENGTH,
+                "Checksum must be an MD5 checksum");
+        Validate.validState(!closed, "Path store is closed");
+        Validate.validState(count < Integer.MAX_VALUE, "Path store is full");
+
+        final byte[] encoded = path.getBytes(StandardCharsets.UTF_8);
+        final boolean restart = count % RESTART_INTERVAL == 0;
+        final boolean hasMd5 = md5 != null && md5.length == MD5_LENGTH;
+
+        int shared = 0;
+
+        if (!restart) {
+            final int max = Math.min(encoded.length, lastAdded.length);
+
+            while (shared < max && encoded[shared] == lastAdded[shared]) {
+                shared++;
+            }
+        }
+
+        final int suffix = encoded.length - shared;
+        int needed = MAX_VARINT_LENGTH * 2 + suffix;
+
+        if (hasMd5) {
+            needed += MD5_LENGTH;
+        }
+
+        Validate.isTrue(needed <= CHUNK_SIZE, "Path is too long: %s", path);
+
+        final ByteBuffer chunk = writableChunk(needed);
+        final long position = (long) (chunks.size() - 1) * CHUNK_SIZE + chunk.position();
+
+        writeVarint(chunk, shared);
+        writeVarint(chunk, suffix);
+        chunk.put(encoded, shared, suffix);
+
+        if (hasMd5) {
+            chunk.put(md5);
+        }
+
+        ensureCapacity(count + 1);
+
+        if (restart) {
+            restarts[count / RESTART_INTERVAL] = position;
+        }
+
+        sizes[count] = size;
+        mtimes[count] = mtime;
+        hashes[count] = path.hashCode();
+
+        byte flag = 0;
+
+        if (directory) {
+            flag |= FLAG_DIRECTORY;
+        }
+
+        if (hasMd5) {
+            flag |= FLAG_MD5;
+        }
+
+        flags[count] = flag;
+        lastAdded = encoded;
+        count++;
+
+        if (table != null) {
+            if (count * 2 > table.length) {
+                rehash(table.length * 2);
+            } else {
+                insert(count - 1);
+            }
+        }
+
+        return count - 1;
+    }
+
+    /**
+     * @return number of entries
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * @param index index of the entry
+     * @return path of the entry
+     */
+    public synchronized String getPath(final int index) {
+        decode(index);
+        return new String(decoded, 0, decodedLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param index index of the entry
+     * @return true if the entry is a directory
+     */
+    public synchronized boolean isDirectory(final int index) {
+        checkIndex(index);
+        return (flags[index] & FLAG_DIRECTORY) != 0;
+    }
+
+    /**
+     * @param index index of the entry
+     * @return size in bytes or {@link #UNKNOWN}
+     */
+    public synchronized long getContentLength(final int index) {
+        checkIndex(index);
+        return sizes[index];
+    }
+
+    /**
+     * @param index index of the entry
+     * @return modification time in milliseconds or {@link #UNKNOWN}
+     */
+    public synchronized long getMtime(final int index) {
+        checkIndex(index);
+        return mtimes[index];
+    }
+
+    /**
+     * @param index index of the entry
+     * @return MD5 checksum or null if it isn't known
+     */
+    public synchronized byte[] getMd5Bytes(final int index) {
+        checkIndex(index);
+
+        if ((flags[index] & FLAG_MD5) == 0) {
+            return null;
+        }
+
+        decode(index);
+
+        final byte[] md5 = new byte[MD5_LENGTH];
+
+        for (int i = 0; i < MD5_LENGTH; i++) {
+            md5[i] = byteAt(decodedMd5 + i);
+        }
+
+        return md5;
+    }
+
+    /**
+     * Finds the first entry with a path. The first lookup builds a hash table
+     * of the entries, which is then kept up to date as entries are added.
+     *
+     * @param path path to look up
+     * @return index of the entry or -1 if there is none
+     */
+    public synchronized int indexOf(final String path) {
+        Validate.notNull(path, "Path must not be null");
+
+        if (table == null) {
+            rehash(tableSize(count));
+        }
+
+        final int hash = path.hashCode();
+        final int mask = table.length - 1;
+
+        for (int slot = spread(hash) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            final int index = table[slot] - 1;
+
+            if (hashes[index] == hash && path.equals(getPath(index))) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @param path path to look up
+     * @return true if there is an entry with the path
+     */
+    public boolean contains(final String path) {
+        return indexOf(path) >= 0;
+    }
+
+    /**
+     * Streams the paths in the order they were added. Entries added while
+     * the stream is consumed may or may not be included.
+     *
+     * @return stream of paths
+     */
+    public Stream<String> paths() {
+        return IntStream.range(0, size()).mapToObj(this::getPath);
+    }
+
+    /**
+     * @return approximate number of bytes used by the entries, excluding
+     *         unused capacity and the hash table
+     */
+    public synchronized long getStorageBytes() {
+        long bytes = 0;
+
+        if (!chunks.isEmpty()) {
+            bytes = (long) (chunks.size() - 1) * CHUNK_SIZE + chunks.get(chunks.size() - 1).position();
+        }
+
+        return bytes + (long) count * (Long.BYTES * 2 + Integer.BYTES + 1);
+    }
+
+    /**
+     * Releases the buffers and deletes the memory-mapped file.
+     *
+     * @throws IOException thrown when the memory-mapped file can't be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        chunks.clear();
+        sizes = new long[0];
+        mtimes = new long[0];
+        hashes = new int[0];
+        flags = new byte[0];
+        restarts = new long[0];
+        table = null;
+        count = 0;
+
+        if (channel != null) {
+            channel.close();
+
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                /* Some platforms don't delete files that are still mapped,
+                 * which only happens until the buffers are collected. */
+                LOG.debug("Unable to delete path store file {}: {}", file, e.getMessage());
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Returns the buffer to write the next entry to, allocating a new one if
+     * the current buffer doesn't have enough room.
+     *
+     * @param needed maximum number of bytes of the entry
+     * @return buffer positioned at the end of the last entry
+     */
+    private ByteBuffer writableChunk(final int needed) {
+        if (!chunks.isEmpty()) {
+            final ByteBuffer last = chunks.get(chunks.size() - 1);
+
+            if (last.remaining() >= needed) {
+                return last;
+            }
+        }
+
+        final ByteBuffer chunk;
+
+        if (channel != null) {
+            try {
+                chunk = channel.map(FileChannel.MapMode.READ_WRITE, (long) chunks.size() * CHUNK_SIZE, CHUNK_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else if (direct) {
+            chunk = ByteBuffer.allocateDirect(CHUNK_SIZE);
+        } else {
+            chunk = ByteBuffer.allocate(CHUNK_SIZE);
+        }
+
+        chunks.add(chunk);
+        return chunk;
+    }
+
+    /**
+     * Grows the attribute arrays.
+     *
+     * @param capacity minimum number of entries
+     */
+    private void ensureCapacity(final int capacity) {
+        if (capacity <= sizes.length) {
+            return;
+        }
+
+        final int grown = (int) Math.min(Integer.MAX_VALUE, (long) sizes.length * 2);
+
+        sizes = Arrays.copyOf(sizes, grown);
+        mtimes = Arrays.copyOf(mtimes, grown);
+        hashes = Arrays.copyOf(hashes, grown);
+        flags = Arrays.copyOf(flags, grown);
+        restarts = Arrays.copyOf(restarts, grown / RESTART_INTERVAL + 1);
+    }
+
+    /**
+     * Decodes the path of an entry, continuing from the last entry decoded
+     * when it precedes the entry since the last full path.
+     *
+     * @param index index of the entry
+     */
+    private void decode(final int index) {
+        checkIndex(index);
+
+        if (index == decodedIndex) {
+            return;
+        }
+
+        int current;
+        long position;
+
+        if (decodedIndex >= 0 && decodedIndex < index
+                && decodedIndex / RESTART_INTERVAL == index / RESTART_INTERVAL) {
+            current = decodedIndex + 1;
+            position = decodedEnd;
+        } else {
+            current = index - index % RESTART_INTERVAL;
+            position = restarts[current / RESTART_INTERVAL];
+        }
+
+        for (;; current++) {
+            /* Entries are never split between buffers, so an entry that
+             * doesn't start in the same buffer as its predecessor ended
+             * starts at the beginning of the next one. */
+            if (!startsInChunk(position)) {
+                position = (position / CHUNK_SIZE + 1) * CHUNK_SIZE;
+            }
+
+            final int shared = readVarint(position);
+            position += varintLength(shared);
+            final int suffix = readVarint(position);
+            position += varintLength(suffix);
+
+            if (decoded.length < shared + suffix) {
+                decoded = Arrays.copyOf(decoded, Math.max(shared + suffix, decoded.length * 2));
+            }
+
+            for (int i = 0; i < suffix; i++) {
+                decoded[shared + i] = byteAt(position + i);
+            }
+
+            position += suffix;
+            decodedLength = shared + suffix;
+            decodedMd5 = position;
+
+            if ((flags[current] & FLAG_MD5) != 0) {
+                position += MD5_LENGTH;
+            }
+
+            if (current == index) {
+                break;
+            }
+        }
+
+        decodedIndex = index;
+        decodedEnd = position;
+    }
+
+    /**
+     * @param position position of the next byte after an entry
+     * @return true if the next entry starts at the position
+     */
+    private boolean startsInChunk(final long position) {
+        final int chunk = (int) (position / CHUNK_SIZE);
+        final int offset = (int) (position % CHUNK_SIZE);
+
+        return chunk < chunks.size() && offset < chunks.get(chunk).position();
+    }
+
+    /**
+     * @param position position of a byte
+     * @return byte at the position
+     */
+    private byte byteAt(final long position) {
+        return chunks.get((int) (position / CHUNK_SIZE)).get((int) (position % CHUNK_SIZE));
+    }
+
+    /**
+     * @param position position of a variable length integer
+     * @return value of the integer
+     */
+    private int readVarint(final long position) {
+        int value = 0;
+
+        for (int i = 0;; i++) {
+            final int b = byteAt(position + i);
+            value |= (b & VARINT_MASK) << (VARINT_SHIFT * i);
+
+            if ((b & VARINT_MORE) == 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * @param value non-negative value
+     * @return number of bytes of the encoded value
+     */
+    private static int varintLength(final int value) {
+        int length = 1;
+
+        for (int remaining = value >>> VARINT_SHIFT; remaining != 0; remaining >>>= VARINT_SHIFT) {
+            length++;
+        }
+
+        return length;
+    }
+
+    /**
+     * @param buffer buffer to write to
+     * @param value non-negative value to write
+     */
+    private static void writeVarint(final ByteBuffer buffer, final int value) {
+        int remaining = value;
+
+        while ((remaining & ~VARINT_MASK) != 0) {
+            buffer.put((byte) ((remaining & VARINT_MASK) | VARINT_MORE));
+            remaining >>>= VARINT_SHIFT;
+        }
+
+        buffer.put((byte) remaining);
+    }
+
+    /**
+     * @param index index of an entry
+     * @throws IndexOutOfBoundsException thrown when there is no such entry
+     */
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + count);
+        }
+    }
+
+    /**
+     * Rebuilds the hash table with all entries.
+     *
+     * @param size number of slots, a power of two
+     */
+    private void rehash(final int size) {
+        table = new int[size];
+
+        for (int index = 0; index < count; index++) {
+            insert(index);
+        }
+    }
+
+    /**
+     * Adds an entry to the hash table.
+     *
+     * @param index index of the entry
+     */
+    private void insert(final int index) {
+        final int mask = table.length - 1;
+        int slot = spread(hashes[index]) & mask;
+
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+
+        table[slot] = index + 1;
+    }
+
+    /**
+     * @param entries number of entries
+     * @return number of slots of a hash table for the entries
+     */
+    private static int tableSize(final int entries) {
+        int size = INITIAL_CAPACITY;
+
+        while (size < (long) entries * 2) {
+            size *= 2;
+        }
+
+        return size;
+    }
+
+    /**
+     * @param hash hash code of a path
+     * @return hash code with the high bits mixed into the low bits
+     */
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> (Integer.SIZE / 2));
+    }
+}
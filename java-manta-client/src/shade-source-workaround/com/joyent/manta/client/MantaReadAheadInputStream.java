@@ -0,0 +1,454 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.util.NotThreadSafe;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>{@link InputStream} implementation that wraps a {@link MantaObjectInputStream}
+ * and reads ahead of the consumer on a background thread. Up to a fixed
+ * number of buffers are kept filled from the network while the consumer
+ * processes previously read data, so that time spent waiting on the network
+ * overlaps with time spent processing the data. Buffers are recycled once
+ * the consumer has read them, so memory use is bounded by
+ * <code>bufferCount * bufferSize</code>.</p>
+ *
+ * <p>Reading ahead starts as soon as the stream is created. Errors that
+ * occur on the background thread are thrown to the consumer once it has
+ * read all of the data that was buffered before the error. Closing this
+ * stream stops the background thread and closes the wrapped stream. If the
+ * background thread is still reading from the network, the connection is
+ * aborted rather than drained, because a blocked read can't be interrupted
+ * and the connection can't be read from two threads at once.</p>
+ *
+ * <p>This is only worthwhile when the consumer does significant work
+ * between reads. The stream is intended to be consumed by a single thread.</p>
+ *
+ * <p><strong>This class is not thread-safe.</strong></p>
+ *
+ * @since 3.5.1
+ */
+@NotThreadSafe
+public class MantaReadAheadInputStream extends MantaObjectInputStream {
+    private static final long serialVersionUID = -3180519716428934025L;
+
+    /**
+     * Default number of buffers kept filled ahead of the consumer.
+     */
+    public static final int DEFAULT_BUFFER_COUNT = 4;
+
+    /**
+     * Default size in bytes of each read-ahead buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 128 * 1024;
+
+    /**
+     * End of file marker for streams.
+     */
+    private static final int EOF = -1;
+
+    /**
+     * Number of milliseconds to wait on close for the background task to
+     * stop before the wrapped stream is aborted instead of closed.
+     */
+    private static final long STOP_TIMEOUT_MILLIS = 100L;
+
+    /**
+     * Stream that data is read from on the background thread.
+     */
+    private final transient MantaObjectInputStream wrapped;
+
+    /**
+     * Buffers that have been filled and are waiting to be consumed, followed
+     * by a single terminal chunk marking the end of the stream or an error.
+     */
+    private final transient BlockingQueue<Chunk> filled;
+
+    /**
+     * Buffers that have been consumed and can be filled again.
+     */
+    private final transient BlockingQueue<byte[]> free;
+
+    /**
+     * Executor running the background read-ahead task.
+     */
+    private final transient ExecutorService executor;
+
+    /**
+     * Result of the background read-ahead task.
+     */
+    private final transient Future<?> reader;
+
+    /**
+     * Chunk currently being consumed or null if a new chunk is needed.
+     */
+    private transient Chunk current;
+
+    /**
+     * Position of the next byte to be consumed in the current chunk.
+     */
+    private int position;
+
+    /**
+     * Exception thrown by the background task, rethrown on every read after
+     * it has been reached.
+     */
+    private transient Exception failure;
+
+    /**
+     * Flag indicating that the consumer has reached the end of the stream.
+     */
+    private boolean finished = false;
+
+    /**
+     * Flag indicating that the stream was closed.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a new instance that reads ahead using the default number and
+     * size of buffers.
+     *
+     * @param wrapped stream to read ahead of
+     */
+    public MantaReadAheadInputStream(final MantaObjectInputStream wrapped) {
+        this(wrapped, DEFAULT_BUFFER_COUNT, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a new instance and starts reading ahead.
+     *
+     * @param wrapped stream to read ahead of
+     * @param bufferCount number of buffers kept filled ahead of the consumer
+     * @param bufferSize size in bytes of each buffer
+     */
+    public MantaReadAheadInputStream(final MantaObjectInputStream wrapped,
+                                     final int bufferCount,
+                                     final int bufferSize) {
+        super(Validate.notNull(wrapped, "Wrapped stream must not be null"));
+        Validate.isTrue(bufferCount > 0, "Buffer count must be greater than zero");
+        Validate.isTrue(bufferSize > 0, "Buffer size must be greater than zero");
+
+        this.wrapped = wrapped;
+        this.free = new ArrayBlockingQueue<>(bufferCount);
+        /* There is room for the terminal chunk in addition to all of the
+         * buffers, so the background task never blocks when finishing. */
+        this.filled = new ArrayBlockingQueue<>(bufferCount + 1);
+
+        for (int i = 0; i < bufferCount; i++) {
+            free.add(new byte[bufferSize]);
+        }
+
+        this.executor = Executors.newSingleThreadExecutor(new BasicThreadFactory.Builder()
+                .namingPattern("manta-read-ahead-%d")
+                .daemon(true)
+                .build());
+        this.reader = this.executor.submit(this::readAhead);
+        this.executor.shutdown();
+    }
+
+    /**
+     * Background task that fills free buffers until the end of the wrapped
+     * stream is reached, an error occurs or this stream is closed.
+     */
+    private void readAhead() {
+        try {
+            while (!closed) {
+                final byte[] buffer = free.take();
+                int length = 0;
+                int read = 0;
+
+                while (length < buffer.length
+                        && (read = wrapped.read(buffer, length, buffer.length - length)) != EOF) {
+                    length += read;
+                }
+
+                if (length > 0) {
+                    filled.put(new Chunk(buffer, length, null));
+                }
+
+                if (read == EOF) {
+                    filled.put(Chunk.END);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            if (!closed) {
+                filled.offer(new Chunk(null, EOF, e));
+            }
+        }
+    }
+
+    /**
+     * Makes sure that there is unread data in the current chunk, waiting for
+     * the background task if necessary.
+     *
+     * @return true if there is data to read, false at the end of the stream
+     * @throws IOException thrown when the stream is closed or the background task failed
+     */
+    private boolean ensureData() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+
+        if (current != null && position < current.length) {
+            return true;
+        }
+
+        if (current != null) {
+            free.offer(current.data);
+            current = null;
+        }
+
+        if (failure != null) {
+            throw rethrow(failure);
+        }
+
+        if (finished) {
+            return false;
+        }
+
+        final Chunk chunk;
+
+        try {
+            chunk = filled.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for data to be read ahead");
+        }
+
+        if (chunk.error != null) {
+            failure = chunk.error;
+            throw rethrow(failure);
+        }
+
+        if (chunk == Chunk.END) {
+            finished = true;
+            return false;
+        }
+
+        current = chunk;
+        position = 0;
+
+        return true;
+    }
+
+    /**
+     * Converts an exception thrown by the background task so that it can be
+     * thrown to the consumer.
+     *
+     * @param e exception thrown by the background task
+     * @return the exception if it is an {@link IOException}
+     */
+    private static IOException rethrow(final Exception e) {
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+
+        return (IOException) e;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return EOF;
+        }
+
+        return Byte.toUnsignedInt(current.data[position++]);
+    }
+
+    @Override
+    public int read(final byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (len == 0) {
+            return 0;
+        }
+
+        if (!ensureData()) {
+            return EOF;
+        }
+
+        final int count = Math.min(len, current.length - position);
+        System.arraycopy(current.data, position, b, off, count);
+        position += count;
+
+        return count;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        long remaining = n;
+
+        while (remaining > 0 && ensureData()) {
+            final int count = (int) Math.min(remaining, current.length - position);
+            position += count;
+            remaining -= count;
+        }
+
+        return Math.max(0, n - remaining);
+    }
+
+    /**
+     * @return the number of bytes that can be read without waiting on the network
+     */
+    @Override
+    public int available() {
+        if (current == null || closed) {
+            return 0;
+        }
+
+        return current.length - position;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(final int readlimit) {
+        // mark isn't supported because consumed buffers are recycled
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("mark/reset is not supported by read-ahead streams");
+    }
+
+    @Override
+    public InputStream getBackingStream() {
+        return wrapped;
+    }
+
+    /**
+     * Stops reading ahead and closes the wrapped stream. The wrapped stream
+     * is only closed normally once the background task has stopped, otherwise
+     * its connection is aborted so that it isn't drained on this thread while
+     * the background task is reading from it.
+     *
+     * @throws IOException thrown when unable to close the wrapped stream
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        final boolean idle = reader.isDone();
+        stop();
+
+        if (idle || awaitReader()) {
+            wrapped.close();
+        } else {
+            wrapped.abortConnection();
+        }
+    }
+
+    /**
+     * Stops reading ahead and aborts the wrapped stream.
+     *
+     * @throws IOException thrown when unable to abort the wrapped stream
+     */
+    @Override
+    public void abortConnection() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        stop();
+        wrapped.abortConnection();
+    }
+
+    /**
+     * Marks the stream as closed, stops the background task and releases
+     * the buffers.
+     */
+    private void stop() {
+        closed = true;
+        executor.shutdownNow();
+        filled.clear();
+        free.clear();
+        current = null;
+    }
+
+    /**
+     * Waits briefly for the interrupted background task to stop. A task
+     * waiting on a buffer stops immediately, while one blocked reading from
+     * the network doesn't.
+     *
+     * @return true if the background task has stopped
+     */
+    private boolean awaitReader() {
+        try {
+            return executor.awaitTermination(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Buffer filled by the background task.
+     */
+    private static final class Chunk {
+        /**
+         * Marker placed on the queue when the end of the wrapped stream is reached.
+         */
+        private static final Chunk END = new Chunk(null, EOF, null);
+
+        /**
+         * Buffer containing the data.
+         */
+        private final byte[] data;
+
+        /**
+         * Number of bytes of data in the buffer.
+         */
+        private final int length;
+
+        /**
+         * Exception thrown by the background task or null.
+         */
+        private final Exception error;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param data buffer containing the data
+         * @param length number of bytes of data in the buffer
+         * @param error exception thrown by the background task or null
+         */
+        Chunk(final byte[] data, final int length, final Exception error) {
+            this.data = data;
+            this.length = length;
+            this.error = error;
+        }
+    }
+}
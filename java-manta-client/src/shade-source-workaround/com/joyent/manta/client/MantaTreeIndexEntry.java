@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Immutable entry of a {@link MantaTreeIndex} describing a remote object or
+ * directory as it was last listed.
+ *
+ * @since 3.5.1
+ */
+public final class MantaTreeIndexEntry {
+    /**
+     * Value stored for unknown sizes and modification times.
+     */
+    static final long UNKNOWN = -1L;
+
+    /**
+     * Decoded path of the entry.
+     */
+    private final String path;
+
+    /**
+     * Flag indicating that the entry is a directory.
+     */
+    private final boolean directory;
+
+    /**
+     * Size in bytes or {@link #UNKNOWN}.
+     */
+    private final long size;
+
+    /**
+     * Modification time in milliseconds since the epoch or {@link #UNKNOWN}.
+     */
+    private final long mtime;
+
+    /**
+     * Etag of the object or null.
+     */
+    private final String etag;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param path decoded path of the entry
+     * @param directory true if the entry is a directory
+     * @param size size in bytes or {@link #UNKNOWN}
+     * @param mtime modification time in milliseconds since the epoch or {@link #UNKNOWN}
+     * @param etag etag of the object or null
+     */
+    MantaTreeIndexEntry(final String path, final boolean directory, final long size,
+                        final long mtime, final String etag) {
+        this.path = path;
+        this.directory = directory;
+        this.size = size;
+        this.mtime = mtime;
+        this.etag = etag;
+    }
+
+    /**
+     * Creates an entry from an object read from a listing or a HEAD request.
+     *
+     * @param path decoded path of the entry
+     * @param obj object describing the entry
+     * @return new entry
+     */
+    static MantaTreeIndexEntry of(final String path, final MantaObject obj) {
+        final Long contentLength = obj.getContentLength();
+        final Date lastModified = obj.getLastModifiedTime();
+        final long size;
+        final long mtime;
+
+        if (contentLength == null || obj.isDirectory()) {
+            size = UNKNOWN;
+        } else {
+            size = contentLength;
+        }
+
+        if (lastModified == null) {
+            mtime = UNKNOWN;
+        } else {
+            mtime = lastModified.getTime();
+        }
+
+        return new MantaTreeIndexEntry(path, obj.isDirectory(), size, mtime, obj.getEtag());
+    }
+
+    /**
+     * @param newMtime modification time in milliseconds since the epoch or {@link #UNKNOWN}
+     * @return copy of this entry with a different modification time
+     */
+    MantaTreeIndexEntry withMtime(final long newMtime) {
+        return new MantaTreeIndexEntry(path, directory, size, newMtime, etag);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public boolean isDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return size in bytes of the object or null for directories and unknown sizes
+     */
+    public Long getContentLength() {
+        if (size == UNKNOWN) {
+            return null;
+        }
+
+        return size;
+    }
+
+    /**
+     * @return modification time or null if it is unknown
+     */
+    public Instant getLastModified() {
+        if (mtime == UNKNOWN) {
+            return null;
+        }
+
+        return Instant.ofEpochMilli(mtime);
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * @return size in bytes or {@link #UNKNOWN}
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * @return modification time in milliseconds since the epoch or {@link #UNKNOWN}
+     */
+    long mtime() {
+        return mtime;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final MantaTreeIndexEntry that = (MantaTreeIndexEntry) o;
+        return directory == that.directory
+                && size == that.size
+                && mtime == that.mtime
+                && path.equals(that.path)
+                && Objects.equals(etag, that.etag);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, directory, size, mtime, etag);
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("path", path)
+                .append("directory", directory)
+                .append("size", getContentLength())
+                .append("lastModified", getLastModified())
+                .append("etag", etag)
+                .toString();
+    }
+}
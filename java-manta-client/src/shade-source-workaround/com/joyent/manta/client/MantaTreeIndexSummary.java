@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Totals of the entries below a directory of a {@link MantaTreeIndex}.
+ *
+ * @since 3.5.1
+ */
+public final class MantaTreeIndexSummary {
+    /**
+     * Number of objects below the directory.
+     */
+    private final long objects;
+
+    /**
+     * Number of directories below the directory.
+     */
+    private final long directories;
+
+    /**
+     * Total size in bytes of the objects below the directory.
+     */
+    private final long bytes;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param objects number of objects below the directory
+     * @param directories number of directories below the directory
+     * @param bytes total size in bytes of the objects below the directory
+     */
+    MantaTreeIndexSummary(final long objects, final long directories, final long bytes) {
+        this.objects = objects;
+        this.directories = directories;
+        this.bytes = bytes;
+    }
+
+    public long getObjects() {
+        return objects;
+    }
+
+    public long getDirectories() {
+        return directories;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("objects", objects)
+                .append("directories", directories)
+                .append("bytes", bytes)
+                .toString();
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2017-2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.exception.MantaClientHttpResponseException;
+import com.joyent.manta.exception.MantaErrorCode;
+import com.joyent.manta.http.MantaHttpHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+import static com.joyent.manta.util.MantaUtils.writeablePrefixPaths;
+
+/**
+ * Utility class for recursive directory creation strategies.
+ *
+ * @author <a href="https://github.com/tjcelaya">Tomas Celayac</a>
+ * @since 3.1.7
+ */
+final class RecursiveDirectoryCreationStrategy {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RecursiveDirectoryCreationStrategy.class);
+
+    private RecursiveDirectoryCreationStrategy() {
+    }
+
+    /**
+     * Creates a directory and its parents, assuming that a number of parents
+     * exist and skipping the parents known to exist.
+     *
+     * @param client client used to create directories
+     * @param rawPath path of the directory to create
+     * @param headers headers of the PUT requests or null
+     * @param skipDepth number of writeable parents assumed to exist
+     * @param knownDirectories directories known to exist or null
+     * @return number of directories that were created or confirmed
+     * @throws IOException thrown when a directory can't be created
+     */
+    static long createWithSkipDepth(final MantaClient client,
+                                    final String rawPath,
+                                    final MantaHttpHeaders headers,
+                                    final int skipDepth,
+                                    final KnownDirectoryCache knownDirectories) throws IOException {
+        final String[] paths = writeablePrefixPaths(rawPath);
+
+        if (paths.length <= skipDepth
+                || (knownDirectories != null && knownDirectories.knownPrefixes(paths) >= skipDepth)) {
+            return createCompletely(client, rawPath, headers, knownDirectories);
+        }
+
+        final String assumedExistingDirectory = paths[skipDepth - 1];
+        final String maybeNewDirectory = paths[skipDepth];
+
+        LOG.debug("ASSUME {}", assumedExistingDirectory);
+
+        final Boolean redundantPut = createNewDirectory(client, maybeNewDirectory, headers, rawPath,
+                knownDirectories);
+        long ops = 1;
+
+        if (redundantPut == null) {
+            LOG.debug("FAILED {}", maybeNewDirectory);
+
+            // failed to create directory at the skip depth, proceed normally
+            return ops + createCompletely(client, rawPath, headers, knownDirectories);
+        }
+
+        for (int idx = skipDepth + 1; idx < paths.length; idx++) {
+            putDirectory(client, paths[idx], headers, knownDirectories);
+            ops++;
+        }
+
+        return ops;
+    }
+
+    static long createCompletely(final MantaClient client,
+                                 final String rawPath,
+                                 final MantaHttpHeaders headers) throws IOException {
+        long ops = 0;
+        for (final String path : writeablePrefixPaths(rawPath)) {
+            client.putDirectory(path, headers);
+            ops++;
+        }
+
+        return ops;
+    }
+
+    /**
+     * Creates a directory and its parents, skipping the parents known to
+     * exist. If a parent that was known to exist has been removed by someone
+     * else, the parents are forgotten and all of them are created again.
+     *
+     * @param client client used to create directories
+     * @param rawPath path of the directory to create
+     * @param headers headers of the PUT requests or null
+     * @param knownDirectories directories known to exist or null
+     * @return number of directories that were created or confirmed
+     * @throws IOException thrown when a directory can't be created
+     */
+    static long createCompletely(final MantaClient client,
+                                 final String rawPath,
+                                 final MantaHttpHeaders headers,
+                                 final KnownDirectoryCache knownDirectories) throws IOException {
+        if (knownDirectories == null) {
+            return createCompletely(client, rawPath, headers);
+        }
+
+        final String[] paths = writeablePrefixPaths(rawPath);
+        final int known = knownDirectories.knownPrefixes(paths);
+        long ops = 0;
+
+        for (int idx = known; idx < paths.length; idx++) {
+            try {
+                knownDirectories.putDirectory(client, paths[idx], headers);
+                ops++;
+            } catch (final MantaClientHttpResponseException mchre) {
+                if (known == 0 || !MantaErrorCode.DIRECTORY_DOES_NOT_EXIST_ERROR.equals(mchre.getServerCode())) {
+                    throw mchre;
+                }
+
+                LOG.debug("STALE  {}", paths[known - 1]);
+
+                knownDirectories.removeWithParents(paths[known - 1]);
+
+                for (final String path : paths) {
+                    knownDirectories.putDirectory(client, path, headers);
+                    ops++;
+                }
+
+                return ops;
+            }
+        }
+
+        if (known > 0) {
+            LOG.debug("KNOWN  {}", paths[known - 1]);
+        }
+
+        return ops;
+    }
+
+    /**
+     * Creates a directory through the cache of known directories if there is one.
+     *
+     * @param client client used to create the directory
+     * @param path directory path
+     * @param headers headers of the PUT request or null
+     * @param knownDirectories directories known to exist or null
+     * @return whether or not the directory was actually new
+     */
+    private static boolean putDirectory(final MantaClient client,
+                                        final String path,
+                                        final MantaHttpHeaders headers,
+                                        final KnownDirectoryCache knownDirectories) throws IOException {
+        if (knownDirectories == null) {
+            return client.putDirectory(path, headers);
+        }
+
+        return knownDirectories.putDirectory(client, path, headers);
+    }
+
+    /**
+     * Try to create a directory and unpack the error. The Boolean is intentional and acts as a tri-state variable.
+     *
+     * NULL  = creation failed.
+     * TRUE  = a new directory was actually created
+     * FALSE = the directory already existed
+     *
+     * @return whether or not the directory was actually new, or null if it failed to be created
+     */
+    private static Boolean createNewDirectory(final MantaClient client,
+                                              final String path,
+                                              final MantaHttpHeaders headers,
+                                              final String targetPath,
+                                              final KnownDirectoryCache knownDirectories) throws IOException {
+        try {
+            return putDirectory(client, path, headers, knownDirectories);
+        } catch (final MantaClientHttpResponseException mchre) {
+            if (mchre.getServerCode().equals(MantaErrorCode.DIRECTORY_DOES_NOT_EXIST_ERROR)) {
+                return null;
+            } else {
+                mchre.setContextValue("recursiveDirectoryCreationTarget", targetPath);
+                throw mchre;
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Collections;
+import java.util.SortedMap;
+
+/**
+ * Usage of a remote directory tree as returned by
+ * {@link MantaClient#summarize(String, SummaryOptions)}. Counts don't
+ * include the summarized directory itself.
+ *
+ * @since 3.5.1
+ */
+public final class SubtreeSummary {
+    /**
+     * Decoded path of the summarized directory.
+     */
+    private final String path;
+
+    /**
+     * Number of objects below the directory.
+     */
+    private final long objects;
+
+    /**
+     * Total size in bytes of the objects below the directory.
+     */
+    private final long bytes;
+
+    /**
+     * Number of directories below the directory.
+     */
+    private final long directories;
+
+    /**
+     * Object counts by size bucket or null.
+     */
+    private final long[] sizeHistogram;
+
+    /**
+     * Object counts by modification time bucket or null.
+     */
+    private final long[] mtimeHistogram;
+
+    /**
+     * Summaries of the subdirectories keyed by name.
+     */
+    private final SortedMap<String, SubtreeSummary> children;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param path decoded path of the summarized directory
+     * @param objects number of objects below the directory
+     * @param bytes total size in bytes of the objects below the directory
+     * @param directories number of directories below the directory
+     * @param sizeHistogram object counts by size bucket or null
+     * @param mtimeHistogram object counts by modification time bucket or null
+     * @param children summaries of the subdirectories keyed by name
+     */
+    SubtreeSummary(final String path, final long objects, final long bytes, final long directories,
+                   final long[] sizeHistogram, final long[] mtimeHistogram,
+                   final SortedMap<String, SubtreeSummary> children) {
+        this.path = path;
+        this.objects = objects;
+        this.bytes = bytes;
+        this.directories = directories;
+        this.sizeHistogram = sizeHistogram;
+        this.mtimeHistogram = mtimeHistogram;
+        this.children = Collections.unmodifiableSortedMap(children);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getObjects() {
+        return objects;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getDirectories() {
+        return directories;
+    }
+
+    /**
+     * @return copy of the object counts by size bucket, with one more bucket
+     *         than there are boundaries in {@link SummaryOptions#getSizeBuckets()},
+     *         or null if no size buckets were set
+     */
+    public long[] getSizeHistogram() {
+        if (sizeHistogram == null) {
+            return null;
+        }
+
+        return sizeHistogram.clone();
+    }
+
+    /**
+     * @return copy of the object counts by modification time bucket, with one
+     *         more bucket than there are boundaries in
+     *         {@link SummaryOptions#getMtimeBuckets()}, or null if no
+     *         modification time buckets were set
+     */
+    public long[] getMtimeHistogram() {
+        if (mtimeHistogram == null) {
+            return null;
+        }
+
+        return mtimeHistogram.clone();
+    }
+
+    /**
+     * @return summaries of the directories directly in the summarized
+     *         directory keyed by name, empty for the summaries of the
+     *         directories themselves
+     */
+    public SortedMap<String, SubtreeSummary> getChildren() {
+        return children;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("path", path)
+                .append("objects", objects)
+                .append("bytes", bytes)
+                .append("directories", directories)
+                .append("sizeHistogram", sizeHistogram)
+                .append("mtimeHistogram", mtimeHistogram)
+                .append("children", children.size())
+                .toString();
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.joyent.manta.client.MantaClient.SEPARATOR;
+
+/**
+ * <p>Utility class that totals the usage of a directory tree by listing its
+ * directories in parallel.</p>
+ *
+ * <p>Each directory is listed by a worker that totals its entries into a
+ * local accumulator while reading the listing, and then merges the
+ * accumulator into the totals of the child of the starting directory that
+ * it belongs to. Entries are dropped as soon as they have been counted, so
+ * the memory used depends on the number of children of the starting
+ * directory and not on the size of the tree.</p>
+ *
+ * @since 3.5.1
+ */
+final class SubtreeSummaryStrategy {
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(SubtreeSummaryStrategy.class);
+
+    /**
+     * Client used to list directories.
+     */
+    private final MantaClient client;
+
+    /**
+     * Size histogram boundaries or null.
+     */
+    private final long[] sizeBuckets;
+
+    /**
+     * Modification time histogram boundaries or null.
+     */
+    private final long[] mtimeBuckets;
+
+    /**
+     * Traversal tracking the listings and their failures.
+     */
+    private final ParallelTraversal traversal = new ParallelTraversal();
+
+    /**
+     * Workers listing directories.
+     */
+    private final ParallelTraversal.Pool workers;
+
+    /**
+     * Totals of the entries directly in the starting directory.
+     */
+    private final Accumulator top;
+
+    /**
+     * Totals of the subtree of each child directory of the starting
+     * directory, keyed by name.
+     */
+    private final Map<String, Accumulator> children = new ConcurrentSkipListMap<>();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param client client used to list directories
+     * @param options options of the summary
+     */
+    private SubtreeSummaryStrategy(final MantaClient client, final SummaryOptions options) {
+        this.client = client;
+        this.sizeBuckets = options.sizeBuckets();
+        this.mtimeBuckets = options.mtimeBuckets();
+        this.top = new Accumulator(sizeBuckets, mtimeBuckets);
+
+        final int concurrency;
+
+        if (options.getConcurrency() == null) {
+            concurrency = ConcurrentMappingIterator.defaultConcurrency(client.getContext());
+        } else {
+            concurrency = options.getConcurrency();
+        }
+
+        this.workers = traversal.pool("manta-summary-%d", concurrency);
+    }
+
+    /**
+     * Totals the usage of a directory and everything below it.
+     *
+     * @param client client used to list directories
+     * @param path path of the directory to summarize
+     * @param options options of the summary
+     * @return totals of the directory and of each of its child directories
+     * @throws IOException thrown when a listing fails
+     */
+    static SubtreeSummary summarize(final MantaClient client, final String path,
+                                    final SummaryOptions options) throws IOException {
+        final SubtreeSummaryStrategy strategy = new SubtreeSummaryStrategy(client, options);
+
+        try {
+            return strategy.run(path);
+        } finally {
+            strategy.traversal.close();
+        }
+    }
+
+    /**
+     * Walks the tree and waits for completion.
+     *
+     * @param path path of the directory to summarize
+     * @return totals of the directory and of each of its child directories
+     * @throws IOException thrown when a listing fails
+     */
+    private SubtreeSummary run(final String path) throws IOException {
+        final long start = System.nanoTime();
+
+        try {
+            submit(path, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while summarizing " + path);
+        }
+
+        traversal.await("summarizing " + path);
+
+        final Accumulator total = new Accumulator(sizeBuckets, mtimeBuckets);
+        final SortedMap<String, SubtreeSummary> childSummaries = new TreeMap<>();
+
+        total.merge(top);
+
+        for (Map.Entry<String, Accumulator> child : children.entrySet()) {
+            total.merge(child.getValue());
+            childSummaries.put(child.getKey(),
+                    child.getValue().toSummary(path + SEPARATOR + child.getKey(), new TreeMap<>()));
+        }
+
+        final SubtreeSummary summary = total.toSummary(path, childSummaries);
+
+        LOG.debug("Summarized {} in {} ms: {}", path,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), summary);
+
+        return summary;
+    }
+
+    /**
+     * Queues a directory to be listed.
+     *
+     * @param path path of the directory
+     * @param totals totals of the child of the starting directory that the
+     *               directory belongs to or null for the starting directory
+     * @throws InterruptedException thrown when interrupted while queuing the listing
+     */
+    private void submit(final String path, final Accumulator totals) throws InterruptedException {
+        traversal.execute(workers, () -> {
+            list(path, totals);
+            return null;
+        });
+    }
+
+    /**
+     * Lists a directory, totalling its entries and queuing its subdirectories.
+     *
+     * @param path path of the directory
+     * @param totals totals of the child of the starting directory that the
+     *               directory belongs to or null for the starting directory
+     * @throws IOException thrown when the listing fails
+     * @throws InterruptedException thrown when interrupted while queuing a subdirectory
+     */
+    private void list(final String path, final Accumulator totals) throws IOException, InterruptedException {
+        final Accumulator local = new Accumulator(sizeBuckets, mtimeBuckets);
+
+        try (MantaDirectoryListingIterator itr = client.streamingIterator(path)) {
+            while (!traversal.hasFailed() && itr.hasNext()) {
+                final MantaObject obj = itr.nextObject();
+
+                if (obj.isDirectory()) {
+                    local.directories++;
+
+                    if (totals == null) {
+                        final String name = obj.getPath().substring(obj.getPath().lastIndexOf(SEPARATOR) + 1);
+                        final Accumulator child = new Accumulator(sizeBuckets, mtimeBuckets);
+                        children.put(name, child);
+                        submit(obj.getPath(), child);
+                    } else {
+                        submit(obj.getPath(), totals);
+                    }
+                } else {
+                    local.add(obj);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            /* A subdirectory that was removed after it was listed has
+             * nothing left to count. */
+            if (totals == null || !ParallelTraversal.isNotFound(e.getCause())) {
+                throw e.getCause();
+            }
+        }
+
+        if (totals == null) {
+            top.merge(local);
+        } else {
+            totals.merge(local);
+        }
+    }
+
+    /**
+     * Mutable totals of a set of entries. Accumulators are filled by a single
+     * thread and merged into shared accumulators, which synchronize merges.
+     */
+    private static final class Accumulator {
+        /**
+         * Size histogram boundaries or null.
+         */
+        private final long[] sizeBuckets;
+
+        /**
+         * Modification time histogram boundaries or null.
+         */
+        private final long[] mtimeBuckets;
+
+        /**
+         * Object counts by size bucket or null.
+         */
+        private final long[] sizeCounts;
+
+        /**
+         * Object counts by modification time bucket or null.
+         */
+        private final long[] mtimeCounts;
+
+        /**
+         * Number of objects.
+         */
+        private long objects;
+
+        /**
+         * Total size of the objects in bytes.
+         */
+        private long bytes;
+
+        /**
+         * Number of directories.
+         */
+        private long directories;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param sizeBuckets size histogram boundaries or null
+         * @param mtimeBuckets modification time histogram boundaries or null
+         */
+        Accumulator(final long[] sizeBuckets, final long[] mtimeBuckets) {
+            this.sizeBuckets = sizeBuckets;
+            this.mtimeBuckets = mtimeBuckets;
+
+            if (sizeBuckets == null) {
+                this.sizeCounts = null;
+            } else {
+                this.sizeCounts = new long[sizeBuckets.length + 1];
+            }
+
+            if (mtimeBuckets == null) {
+                this.mtimeCounts = null;
+            } else {
+                this.mtimeCounts = new long[mtimeBuckets.length + 1];
+            }
+        }
+
+        /**
+         * Counts an object.
+         *
+         * @param obj object read from a listing
+         */
+        void add(final MantaObject obj) {
+            objects++;
+
+            final Long size = obj.getContentLength();
+
+            if (size != null) {
+                bytes += size;
+
+                if (sizeCounts != null) {
+                    sizeCounts[bucket(sizeBuckets, size)]++;
+                }
+            }
+
+            if (mtimeCounts != null) {
+                final Date mtime = obj.getLastModifiedTime();
+
+                if (mtime != null) {
+                    mtimeCounts[bucket(mtimeBuckets, mtime.getTime())]++;
+                }
+            }
+        }
+
+        /**
+         * Adds the totals of another accumulator to this one.
+         *
+         * @param other accumulator to add, which isn't modified concurrently
+         */
+        synchronized void merge(final Accumulator other) {
+            objects += other.objects;
+            bytes += other.bytes;
+            directories += other.directories;
+
+            for (int i = 0; sizeCounts != null && i < sizeCounts.length; i++) {
+                sizeCounts[i] += other.sizeCounts[i];
+            }
+
+            for (int i = 0; mtimeCounts != null && i < mtimeCounts.length; i++) {
+                mtimeCounts[i] += other.mtimeCounts[i];
+            }
+        }
+
+        /**
+         * @param path decoded path of the summarized directory
+         * @param children summaries of the subdirectories keyed by name
+         * @return immutable summary of the totals
+         */
+        synchronized SubtreeSummary toSummary(final String path, final SortedMap<String, SubtreeSummary> children) {
+            final long[] sizes;
+            final long[] mtimes;
+
+            if (sizeCounts == null) {
+                sizes = null;
+            } else {
+                sizes = sizeCounts.clone();
+            }
+
+            if (mtimeCounts == null) {
+                mtimes = null;
+            } else {
+                mtimes = mtimeCounts.clone();
+            }
+
+            return new SubtreeSummary(path, objects, bytes, directories, sizes, mtimes, children);
+        }
+
+        /**
+         * @param boundaries strictly ascending bucket boundaries
+         * @param value value to bucket
+         * @return index of the bucket holding the value
+         */
+        private static int bucket(final long[] boundaries, final long value) {
+            final int index = Arrays.binarySearch(boundaries, value);
+
+            if (index >= 0) {
+                return index + 1;
+            }
+
+            return -(index + 1);
+        }
+    }
+}
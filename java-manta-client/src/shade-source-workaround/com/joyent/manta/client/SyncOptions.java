@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Options for {@link MantaClient#sync(java.nio.file.Path, String, SyncOptions)}.
+ * Setters return this instance so that calls can be chained.
+ *
+ * @since 3.5.1
+ */
+public class SyncOptions {
+    /**
+     * Maximum number of concurrent requests or null to derive it from the
+     * maximum connections setting.
+     */
+    private Integer concurrency;
+
+    /**
+     * Flag indicating that changes are only reported and not made.
+     */
+    private boolean dryRun = false;
+
+    /**
+     * Flag indicating that files of the same size are compared by MD5 checksum.
+     */
+    private boolean compareChecksums = true;
+
+    public Integer getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @param concurrency maximum number of concurrent requests or null to
+     *                    use half of the maximum connections setting
+     * @return this instance
+     */
+    public SyncOptions setConcurrency(final Integer concurrency) {
+        Validate.isTrue(concurrency == null || concurrency > 0,
+                "Concurrency must be greater than zero");
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    /**
+     * @param dryRun true to report the changes that would be made without
+     *               creating directories or uploading files
+     * @return this instance
+     */
+    public SyncOptions setDryRun(final boolean dryRun) {
+        this.dryRun = dryRun;
+        return this;
+    }
+
+    public boolean isCompareChecksums() {
+        return compareChecksums;
+    }
+
+    /**
+     * @param compareChecksums true to compare files of the same size by MD5
+     *                         checksum, false to treat them as unchanged
+     * @return this instance
+     */
+    public SyncOptions setCompareChecksums(final boolean compareChecksums) {
+        this.compareChecksums = compareChecksums;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("concurrency", concurrency)
+                .append("dryRun", dryRun)
+                .append("compareChecksums", compareChecksums)
+                .toString();
+    }
+}
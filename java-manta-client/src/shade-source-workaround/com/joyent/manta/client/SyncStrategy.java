@@ -0,0 +1,530 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client;
+
+import com.joyent.manta.exception.MantaClientException;
+import com.joyent.manta.exception.MantaClientHttpResponseException;
+import com.twmacinta.util.FastMD5Digest;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.http.HttpStatus;
+import org.bouncycastle.crypto.Digest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.joyent.manta.client.MantaClient.SEPARATOR;
+
+/**
+ * <p>Utility class that makes a remote directory match a local directory
+ * tree by uploading only the files that are missing or have changed.</p>
+ *
+ * <p>The remote tree is listed once using {@link MantaClient#find(String)}
+ * and compared with a walk of the local tree. A file is considered
+ * unchanged when the remote object has the same size and, unless disabled,
+ * the same MD5 checksum. The checksum is taken from the listing when Manta
+ * provides it and from a HEAD request otherwise, and the local checksum is
+ * only calculated when the sizes match. Etags are not compared because they
+ * don't describe the content of an object.</p>
+ *
+ * <p>Missing directories are created level by level so that parents always
+ * exist before their children, with the directories at each level created
+ * concurrently. Files are then compared and uploaded concurrently. Failures
+ * are recorded in the {@link SyncResult} rather than aborting the sync.</p>
+ *
+ * <p>When client-side encryption is enabled, the sizes and checksums stored
+ * by Manta describe the ciphertext, so they can't be compared with the
+ * local files and every file is uploaded.</p>
+ *
+ * @since 3.5.1
+ */
+final class SyncStrategy {
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(SyncStrategy.class);
+
+    /**
+     * Size of the buffer used when calculating the checksum of a local file.
+     */
+    private static final int DIGEST_BUFFER_SIZE = 8192;
+
+    /**
+     * Private constructor for class only containing static methods.
+     */
+    private SyncStrategy() {
+    }
+
+    /**
+     * Syncs a local directory tree to a remote directory.
+     *
+     * @param client Manta client used to list and upload
+     * @param localDir local directory to sync from
+     * @param remoteDir remote directory to sync to, created if it doesn't exist
+     * @param options sync options
+     * @return summary of the changes made
+     * @throws IOException thrown when the remote or local tree can't be listed
+     */
+    static SyncResult sync(final MantaClient client,
+                           final Path localDir,
+                           final String remoteDir,
+                           final SyncOptions options) throws IOException {
+        Validate.isTrue(Files.isDirectory(localDir), "Local path must be a directory: %s", localDir);
+        final String remoteRoot = StringUtils.removeEnd(remoteDir, SEPARATOR);
+        Validate.notBlank(remoteRoot, "Remote directory must not be the root directory");
+
+        final int concurrency;
+
+        if (options.getConcurrency() == null) {
+            concurrency = ConcurrentMappingIterator.defaultConcurrency(client.getContext());
+        } else {
+            concurrency = options.getConcurrency();
+        }
+
+        final SyncResult result = new SyncResult(options.isDryRun());
+        final boolean encrypted = BooleanUtils.isTrue(client.getContext().isClientEncryptionEnabled());
+
+        final List<Path> localDirs = new ArrayList<>();
+        final List<Path> localFiles = new ArrayList<>();
+
+        try (Stream<Path> walk = Files.walk(localDir)) {
+            walk.filter(path -> !path.equals(localDir)).forEach(path -> {
+                if (Files.isDirectory(path)) {
+                    localDirs.add(localDir.relativize(path));
+                } else if (Files.isRegularFile(path)) {
+                    localFiles.add(localDir.relativize(path));
+                }
+            });
+        }
+
+        try (MantaPathStore remote = MantaPathStore.onHeap()) {
+            if (!listRemote(client, remoteRoot, remote)) {
+                LOG.debug("Remote directory [{}] doesn't exist, creating it", remoteRoot);
+
+                if (!options.isDryRun()) {
+                    client.putDirectory(remoteRoot, true);
+                }
+
+                result.directoryCreated();
+            }
+
+            LOG.debug("Syncing {} directories and {} files from [{}] to [{}] against {} remote entries",
+                    localDirs.size(), localFiles.size(), localDir, remoteRoot, remote.size());
+
+            createDirectories(client, remoteRoot, localDirs, remote, options, concurrency, result);
+
+            final List<FileSync> files = new ArrayList<>(localFiles.size());
+
+            for (Path relative : localFiles) {
+                final String remotePath = remoteRoot + SEPARATOR + toRemoteRelative(relative);
+                files.add(new FileSync(localDir.resolve(relative), remotePath, remote, remote.indexOf(remotePath)));
+            }
+
+            runConcurrently(files, file -> syncFile(client, file, encrypted, options), concurrency,
+                    "manta-sync-upload", result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Lists the remote tree into a compact store, so that only the attributes
+     * needed to compare files are held for each remote entry.
+     *
+     * @param client Manta client used to list
+     * @param remoteRoot remote directory without a trailing separator
+     * @param remote store to add the remote entries to, keyed by decoded path
+     * @return false if the remote directory doesn't exist
+     * @throws IOException thrown when the remote directory can't be listed
+     */
+    private static boolean listRemote(final MantaClient client,
+                                      final String remoteRoot,
+                                      final MantaPathStore remote) throws IOException {
+        final MantaObjectResponse root;
+
+        try {
+            root = client.head(remoteRoot);
+        } catch (MantaClientHttpResponseException e) {
+            if (e.getStatusCode() == HttpStatus.SC_NOT_FOUND) {
+                return false;
+            }
+
+            throw e;
+        }
+
+        if (!root.isDirectory()) {
+            MantaClientException e = new MantaClientException("Remote sync path is not a directory");
+            e.setContextValue("path", remoteRoot);
+            throw e;
+        }
+
+        final String prefix = remoteRoot + SEPARATOR;
+
+        /* The stream returned by find() may be parallel, which the store
+         * allows since it is synchronized. */
+        try (Stream<MantaObject> objects = client.find(remoteRoot)) {
+            objects.forEach(obj -> {
+                final String path = obj.getPath();
+
+                if (path.startsWith(prefix)) {
+                    remote.add(path, obj);
+                }
+            });
+        }
+
+        return true;
+    }
+
+    /**
+     * Creates the remote directories that don't exist, one level of the tree
+     * at a time so that parents are created before their children.
+     *
+     * @param client Manta client used to create directories
+     * @param remoteRoot remote directory without a trailing separator
+     * @param localDirs local directories relative to the local root
+     * @param remote remote entries keyed by decoded path
+     * @param options sync options
+     * @param concurrency maximum number of concurrent requests
+     * @param result summary to record changes in
+     */
+    private static void createDirectories(final MantaClient client,
+                                          final String remoteRoot,
+                                          final Collection<Path> localDirs,
+                                          final MantaPathStore remote,
+                                          final SyncOptions options,
+                                          final int concurrency,
+                                          final SyncResult result) {
+        final SortedMap<Integer, List<String>> levels = new TreeMap<>();
+
+        for (Path relative : localDirs) {
+            final String remotePath = remoteRoot + SEPARATOR + toRemoteRelative(relative);
+            final int existing = remote.indexOf(remotePath);
+
+            if (existing < 0) {
+                levels.computeIfAbsent(relative.getNameCount(), depth -> new ArrayList<>()).add(remotePath);
+            } else if (!remote.isDirectory(existing)) {
+                MantaClientException e = new MantaClientException("Remote path is an object, not a directory");
+                e.setContextValue("path", remotePath);
+                result.failed(remotePath, e);
+            }
+        }
+
+        for (List<String> level : levels.values()) {
+            runConcurrently(level, remotePath -> {
+                try {
+                    if (!options.isDryRun()) {
+                        client.putDirectory(remotePath);
+                    }
+
+                    return Outcome.directoryCreated(remotePath);
+                } catch (IOException | RuntimeException e) {
+                    return Outcome.failed(remotePath, e);
+                }
+            }, concurrency, "manta-sync-mkdir", result);
+        }
+    }
+
+    /**
+     * Compares a single file with its remote counterpart and uploads it if
+     * it is missing or has changed.
+     *
+     * @param client Manta client used to upload
+     * @param file file to sync
+     * @param encrypted true if client-side encryption is enabled
+     * @param options sync options
+     * @return outcome of the sync
+     */
+    private static Outcome syncFile(final MantaClient client,
+                                    final FileSync file,
+                                    final boolean encrypted,
+                                    final SyncOptions options) {
+        try {
+            final long size = Files.size(file.local);
+
+            if (file.remote >= 0) {
+                if (file.entries.isDirectory(file.remote)) {
+                    MantaClientException e = new MantaClientException("Remote path is a directory, not an object");
+                    e.setContextValue("path", file.remotePath);
+                    return Outcome.failed(file.remotePath, e);
+                }
+
+                if (!encrypted && isUnchanged(client, file, size, options)) {
+                    return Outcome.unchanged(file.remotePath);
+                }
+            }
+
+            if (!options.isDryRun()) {
+                LOG.debug("Uploading [{}] to [{}]", file.local, file.remotePath);
+                client.put(file.remotePath, file.local.toFile());
+            }
+
+            return Outcome.uploaded(file.remotePath, size);
+        } catch (IOException | RuntimeException e) {
+            return Outcome.failed(file.remotePath, e);
+        }
+    }
+
+    /**
+     * Determines if a local file matches the remote object.
+     *
+     * @param client Manta client used to look up the remote checksum
+     * @param file file to compare
+     * @param size size of the local file in bytes
+     * @param options sync options
+     * @return true if the file doesn't need to be uploaded
+     * @throws IOException thrown when the local file or remote checksum can't be read
+     */
+    private static boolean isUnchanged(final MantaClient client,
+                                       final FileSync file,
+                                       final long size,
+                                       final SyncOptions options) throws IOException {
+        final long remoteSize = file.entries.getContentLength(file.remote);
+
+        if (remoteSize == MantaPathStore.UNKNOWN || remoteSize != size) {
+            return false;
+        }
+
+        if (!options.isCompareChecksums()) {
+            return true;
+        }
+
+        byte[] remoteMd5 = file.entries.getMd5Bytes(file.remote);
+
+        if (remoteMd5 == null || remoteMd5.length == 0) {
+            remoteMd5 = client.head(file.remotePath).getMd5Bytes();
+        }
+
+        if (remoteMd5 == null || remoteMd5.length == 0) {
+            return false;
+        }
+
+        return Arrays.equals(remoteMd5, md5(file.local));
+    }
+
+    /**
+     * Calculates the MD5 checksum of a local file.
+     *
+     * @param file file to checksum
+     * @return checksum bytes
+     * @throws IOException thrown when the file can't be read
+     */
+    private static byte[] md5(final Path file) throws IOException {
+        final Digest digest = new FastMD5Digest();
+        final byte[] buffer = new byte[DIGEST_BUFFER_SIZE];
+
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        final byte[] checksum = new byte[digest.getDigestSize()];
+        digest.doFinal(checksum, 0);
+
+        return checksum;
+    }
+
+    /**
+     * Applies a function to inputs concurrently and records the outcomes.
+     *
+     * @param inputs inputs to process
+     * @param function function that processes a single input
+     * @param concurrency maximum number of concurrent requests
+     * @param threadNamePrefix prefix for the names of the worker threads
+     * @param result summary to record outcomes in
+     * @param <T> input type
+     */
+    private static <T> void runConcurrently(final Collection<T> inputs,
+                                            final Function<T, Outcome> function,
+                                            final int concurrency,
+                                            final String threadNamePrefix,
+                                            final SyncResult result) {
+        if (inputs.isEmpty()) {
+            return;
+        }
+
+        final int workers = Math.min(inputs.size(), concurrency);
+
+        try (ConcurrentMappingIterator<T, Outcome> itr = new ConcurrentMappingIterator<>(
+                inputs.iterator(), function, workers, workers, threadNamePrefix)) {
+            while (itr.hasNext()) {
+                itr.next().recordIn(result);
+            }
+        }
+    }
+
+    /**
+     * Converts a local relative path to a relative remote path.
+     *
+     * @param relative path relative to the local root
+     * @return path relative to the remote root using the remote separator
+     */
+    private static String toRemoteRelative(final Path relative) {
+        final StringBuilder builder = new StringBuilder();
+
+        for (Path name : relative) {
+            if (builder.length() > 0) {
+                builder.append(SEPARATOR);
+            }
+
+            builder.append(name.toString());
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Local file paired with its remote counterpart.
+     */
+    private static final class FileSync {
+        /**
+         * Path to the local file.
+         */
+        private final Path local;
+
+        /**
+         * Remote path of the file.
+         */
+        private final String remotePath;
+
+        /**
+         * Remote entries.
+         */
+        private final MantaPathStore entries;
+
+        /**
+         * Index of the remote entry at the remote path or -1 if there is none.
+         */
+        private final int remote;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param local path to the local file
+         * @param remotePath remote path of the file
+         * @param entries remote entries
+         * @param remote index of the remote entry at the remote path or -1 if there is none
+         */
+        FileSync(final Path local, final String remotePath, final MantaPathStore entries, final int remote) {
+            this.local = local;
+            this.remotePath = remotePath;
+            this.entries = entries;
+            this.remote = remote;
+        }
+    }
+
+    /**
+     * Outcome of syncing a single file or directory.
+     */
+    private static final class Outcome {
+        /**
+         * Remote path of the file or directory.
+         */
+        private final String remotePath;
+
+        /**
+         * Number of bytes uploaded or -1 if nothing was uploaded.
+         */
+        private final long bytesUploaded;
+
+        /**
+         * Flag indicating that a directory was created.
+         */
+        private final boolean directoryCreated;
+
+        /**
+         * Exception that prevented the sync or null.
+         */
+        private final Exception error;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param remotePath remote path of the file or directory
+         * @param bytesUploaded number of bytes uploaded or -1 if nothing was uploaded
+         * @param directoryCreated true if a directory was created
+         * @param error exception that prevented the sync or null
+         */
+        private Outcome(final String remotePath,
+                        final long bytesUploaded,
+                        final boolean directoryCreated,
+                        final Exception error) {
+            this.remotePath = remotePath;
+            this.bytesUploaded = bytesUploaded;
+            this.directoryCreated = directoryCreated;
+            this.error = error;
+        }
+
+        /**
+         * @param remotePath remote path of the directory
+         * @return outcome of a created directory
+         */
+        static Outcome directoryCreated(final String remotePath) {
+            return new Outcome(remotePath, -1L, true, null);
+        }
+
+        /**
+         * @param remotePath remote path of the file
+         * @param bytes number of bytes uploaded
+         * @return outcome of an uploaded file
+         */
+        static Outcome uploaded(final String remotePath, final long bytes) {
+            return new Outcome(remotePath, bytes, false, null);
+        }
+
+        /**
+         * @param remotePath remote path of the file
+         * @return outcome of an unchanged file
+         */
+        static Outcome unchanged(final String remotePath) {
+            return new Outcome(remotePath, -1L, false, null);
+        }
+
+        /**
+         * @param remotePath remote path of the file or directory
+         * @param error exception that prevented the sync
+         * @return outcome of a failed sync
+         */
+        static Outcome failed(final String remotePath, final Exception error) {
+            return new Outcome(remotePath, -1L, false, error);
+        }
+
+        /**
+         * Records this outcome in a sync summary.
+         *
+         * @param result summary to record the outcome in
+         */
+        void recordIn(final SyncResult result) {
+            if (error != null) {
+                LOG.debug("Unable to sync [{}]", remotePath, error);
+                result.failed(remotePath, error);
+            } else if (directoryCreated) {
+                result.directoryCreated();
+            } else if (bytesUploaded >= 0) {
+                result.fileUploaded(bytesUploaded);
+            } else {
+                result.fileUnchanged();
+            }
+        }
+    }
+}
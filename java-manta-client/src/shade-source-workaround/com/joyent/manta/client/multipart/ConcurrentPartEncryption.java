@@ -0,0 +1,784 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client.multipart;
+
+import com.joyent.manta.client.crypto.EncryptingEntityHelper;
+import com.joyent.manta.client.crypto.EncryptionContext;
+import com.joyent.manta.client.crypto.SupportedCipherDetails;
+import com.joyent.manta.exception.MantaClientEncryptionException;
+import com.joyent.manta.exception.MantaIOException;
+import com.joyent.manta.exception.MantaMultipartException;
+import com.joyent.manta.http.MantaContentTypes;
+import com.joyent.manta.util.Cloner;
+import com.joyent.manta.util.HmacCloner;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.message.BasicHeader;
+import org.bouncycastle.crypto.macs.HMac;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>State of an encrypted multipart upload whose parts have a fixed size, so
+ * that they can be encrypted and uploaded concurrently and in any order. This
+ * is only possible with ciphers that support random access (AES/CTR): part
+ * <code>n</code> starts at plaintext position <code>(n - 1) * partSize</code>
+ * and is encrypted by its own cipher initialized with the counter of that
+ * position.</p>
+ *
+ * <p>The object's HMAC is computed over the plaintext in order, just as for
+ * serial uploads, so the object can be read by any client. A part that
+ * directly follows the parts authenticated so far updates a copy of the HMAC
+ * while it is encrypted, which replaces the HMAC once the part is uploaded. A
+ * part that arrives ahead of that part also writes its ciphertext to a
+ * temporary file. Once the parts before it are uploaded, it is decrypted from
+ * its file into the HMAC and the file is deleted. Only ciphertext is written
+ * to disk.</p>
+ *
+ * <p>At most <code>maxPendingParts</code> parts are kept in temporary files
+ * at a time. A part that would need another file waits until the parts before
+ * it have been uploaded, so the part following the authenticated parts must be
+ * uploaded by another thread.</p>
+ *
+ * <p>A part shorter than the part size is the last part and the HMAC is
+ * appended to it, so it can only be uploaded after all of the parts before it.
+ * When the object's size is a multiple of the part size, the HMAC is uploaded
+ * as an additional part when the upload is completed.</p>
+ *
+ * @since 3.5.1
+ */
+final class ConcurrentPartEncryption {
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentPartEncryption.class);
+
+    /**
+     * Size of the buffer used to encrypt and authenticate parts.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Content type to store encrypted content as.
+     */
+    private static final Header CRYPTO_CONTENT_TYPE = new BasicHeader(
+            HttpHeaders.CONTENT_TYPE, MantaContentTypes.ENCRYPTED_OBJECT.toString());
+
+    /**
+     * {@link HMac} cloning helper object.
+     */
+    private static final Cloner<HMac> CLONER_HMAC = new HmacCloner();
+
+    /**
+     * Secret key used for encryption.
+     */
+    private final SecretKey secretKey;
+
+    /**
+     * Cipher/mode properties object.
+     */
+    private final SupportedCipherDetails cipherDetails;
+
+    /**
+     * IV of the encrypted object.
+     */
+    private final byte[] iv;
+
+    /**
+     * Number of plaintext bytes in every part but the last.
+     */
+    private final long partSize;
+
+    /**
+     * Directory holding the ciphertext files of parts uploaded ahead of the
+     * parts before them or null for the default temporary-file directory.
+     */
+    private final Path spoolDirectory;
+
+    /**
+     * Maximum number of parts kept in ciphertext files at a time.
+     */
+    private final int maxPendingParts;
+
+    /**
+     * Lock guarding the authentication state.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signaled when parts are authenticated or ciphertext files are deleted.
+     */
+    private final Condition partsAuthenticated = lock.newCondition();
+
+    /**
+     * Ciphertext files of uploaded parts that can't be authenticated until
+     * the parts before them are uploaded, keyed by part number.
+     */
+    private final Map<Integer, Path> pendingParts = new TreeMap<>();
+
+    /**
+     * Numbers of the parts that have been uploaded.
+     */
+    private final Set<Integer> uploadedParts = new HashSet<>();
+
+    /**
+     * HMAC updated with the IV and the plaintext of every part before
+     * {@link #nextPartNumber}.
+     */
+    private HMac hmac;
+
+    /**
+     * Number of the next part to be authenticated.
+     */
+    private int nextPartNumber = 1;
+
+    /**
+     * Number of parts being written to or kept in ciphertext files.
+     */
+    private int spooledParts = 0;
+
+    /**
+     * Indicates if the HMAC has been uploaded.
+     */
+    private boolean authenticationUploaded = false;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param encryptionContext encryption context holding the key, cipher and IV of the upload
+     * @param partSize number of plaintext bytes in every part but the last
+     * @param spoolDirectory directory holding the ciphertext of parts uploaded ahead of
+     *                       the parts before them or null for the default temporary-file directory
+     * @param maxPendingParts maximum number of parts kept in ciphertext files at a time
+     */
+    ConcurrentPartEncryption(final EncryptionContext encryptionContext,
+                             final long partSize,
+                             final Path spoolDirectory,
+                             final int maxPendingParts) {
+        Validate.notNull(encryptionContext, "Encryption context must not be null");
+        Validate.isTrue(maxPendingParts > 0, "Maximum pending parts must be greater than zero");
+
+        this.secretKey = encryptionContext.getSecretKey();
+        this.cipherDetails = encryptionContext.getCipherDetails();
+
+        Validate.isTrue(cipherDetails.supportsRandomAccess() && !cipherDetails.isAEADCipher(),
+                "Cipher [%s] can't be used for concurrent part uploads", cipherDetails.getCipherId());
+        Validate.isTrue(partSize > 0 && partSize % cipherDetails.getBlockSizeInBytes() == 0,
+                "Part size [%d] must be a positive multiple of the cipher block size", partSize);
+
+        this.partSize = partSize;
+        this.spoolDirectory = spoolDirectory;
+        this.maxPendingParts = maxPendingParts;
+        this.iv = encryptionContext.getCipher().getIV();
+        this.hmac = EncryptingEntityHelper.makeHmac(encryptionContext);
+    }
+
+    long getPartSize() {
+        return partSize;
+    }
+
+    /**
+     * Creates an entity that encrypts a part. A part ahead of the next part
+     * to be authenticated waits while the maximum number of parts are kept
+     * in ciphertext files.
+     *
+     * @param partNumber number of the part
+     * @param source entity holding the plaintext of the part
+     * @return entity writing the ciphertext of the part
+     * @throws MantaMultipartException thrown when the part can no longer be uploaded
+     * @throws InterruptedIOException thrown when interrupted while waiting for the parts before it
+     */
+    PartEntity encryptPart(final int partNumber, final HttpEntity source) throws IOException {
+        Validate.notNull(source, "Source entity must not be null");
+        Validate.isTrue(source.getContentLength() <= partSize,
+                "Part [%d] is [%d] bytes, which is more than the part size of [%d] bytes",
+                partNumber, source.getContentLength(), partSize);
+
+        lock.lock();
+        try {
+            while (true) {
+                if (authenticationUploaded) {
+                    throw illegalState("The last part of the upload has already been uploaded", partNumber);
+                }
+
+                if (uploadedParts.contains(partNumber)) {
+                    throw illegalState("Part has already been uploaded", partNumber);
+                }
+
+                if (partNumber == nextPartNumber) {
+                    return new PartEntity(partNumber, source, CLONER_HMAC.createClone(hmac));
+                }
+
+                if (spooledParts < maxPendingParts) {
+                    spooledParts++;
+                    return new PartEntity(partNumber, source, null);
+                }
+
+                LOGGER.debug("Part {} is waiting for part {} to be uploaded", partNumber, nextPartNumber);
+
+                try {
+                    partsAuthenticated.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for part "
+                            + nextPartNumber + " to be uploaded");
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that a part has been uploaded and authenticates every part that
+     * can now be authenticated in order.
+     *
+     * @param part entity of the uploaded part
+     * @throws IOException thrown when the ciphertext of a part can't be read
+     */
+    void uploaded(final PartEntity part) throws IOException {
+        lock.lock();
+        try {
+            uploadedParts.add(part.partNumber);
+
+            if (part.trailer != null) {
+                if (!pendingParts.isEmpty()) {
+                    throw illegalState("Parts were uploaded after the last part", part.partNumber);
+                }
+
+                hmac = null;
+                authenticationUploaded = true;
+                part.discard();
+                partsAuthenticated.signalAll();
+                return;
+            }
+
+            if (part.running != null) {
+                if (nextPartNumber != part.partNumber) {
+                    throw illegalState("Part has already been uploaded", part.partNumber);
+                }
+
+                hmac = part.running;
+                part.running = null;
+                nextPartNumber++;
+            } else {
+                /* The part's spool slot is handed over with its file. */
+                pendingParts.put(part.partNumber, part.ciphertext);
+                part.ciphertext = null;
+                part.holdsSlot = false;
+            }
+
+            Path ciphertext;
+
+            while ((ciphertext = pendingParts.get(nextPartNumber)) != null) {
+                final HMac updated = CLONER_HMAC.createClone(hmac);
+                authenticate(updated, nextPartNumber, ciphertext);
+                hmac = updated;
+
+                pendingParts.remove(nextPartNumber);
+                spooledParts--;
+                Files.deleteIfExists(ciphertext);
+                nextPartNumber++;
+            }
+
+            partsAuthenticated.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the HMAC of the object if it still needs to be uploaded as an
+     * additional part, which is numbered {@link #getNextPartNumber()}.
+     *
+     * @return the HMAC or null if it was appended to the last part
+     * @throws MantaMultipartException thrown when a part before an uploaded part is missing
+     */
+    byte[] remainingAuthentication() throws MantaMultipartException {
+        lock.lock();
+        try {
+            if (!pendingParts.isEmpty()) {
+                throw illegalState("Part hasn't been uploaded", nextPartNumber);
+            }
+
+            if (authenticationUploaded) {
+                return null;
+            }
+
+            final HMac finished = CLONER_HMAC.createClone(hmac);
+            final byte[] hmacBytes = new byte[finished.getMacSize()];
+            finished.doFinal(hmacBytes, 0);
+
+            return hmacBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of the part following the parts authenticated so far
+     */
+    int getNextPartNumber() {
+        lock.lock();
+        try {
+            return nextPartNumber;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that the HMAC returned by {@link #remainingAuthentication()}
+     * has been uploaded.
+     */
+    void authenticationUploaded() {
+        lock.lock();
+        try {
+            hmac = null;
+            authenticationUploaded = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the ciphertext files of parts that haven't been authenticated.
+     */
+    void discardPendingParts() {
+        lock.lock();
+        try {
+            for (Path ciphertext : pendingParts.values()) {
+                deleteQuietly(ciphertext);
+            }
+
+            spooledParts -= pendingParts.size();
+            pendingParts.clear();
+            partsAuthenticated.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Computes the HMAC to append to the last part.
+     *
+     * @param part entity of the last part, which has been encrypted
+     * @return the HMAC of the object
+     * @throws IOException thrown when there are parts missing before the last part or it can't be read
+     */
+    private byte[] authenticateLastPart(final PartEntity part) throws IOException {
+        lock.lock();
+        try {
+            if (authenticationUploaded || nextPartNumber != part.partNumber || !pendingParts.isEmpty()) {
+                throw illegalState("A part shorter than the part size is the last part and "
+                        + "must be uploaded after all of the parts before it", part.partNumber);
+            }
+
+            final HMac finished;
+
+            if (part.running != null) {
+                finished = CLONER_HMAC.createClone(part.running);
+            } else {
+                finished = CLONER_HMAC.createClone(hmac);
+                authenticate(finished, part.partNumber, part.ciphertext);
+            }
+
+            final byte[] hmacBytes = new byte[finished.getMacSize()];
+            finished.doFinal(hmacBytes, 0);
+
+            return hmacBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the spool slot of a part that won't be authenticated from its
+     * ciphertext file.
+     */
+    private void releaseSpoolSlot() {
+        lock.lock();
+        try {
+            spooledParts--;
+            partsAuthenticated.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Creates the file holding the ciphertext of a part.
+     *
+     * @return path to the new file
+     * @throws IOException thrown when the file can't be created
+     */
+    private Path createSpoolFile() throws IOException {
+        if (spoolDirectory == null) {
+            return Files.createTempFile("manta-encrypted-part-", ".bin");
+        }
+
+        return Files.createTempFile(spoolDirectory, "manta-encrypted-part-", ".bin");
+    }
+
+    /**
+     * Updates an HMAC with the plaintext of a part.
+     *
+     * @param mac HMAC to update
+     * @param partNumber number of the part
+     * @param ciphertext file holding the ciphertext of the part
+     * @throws IOException thrown when the file can't be read
+     */
+    private void authenticate(final HMac mac, final int partNumber, final Path ciphertext) throws IOException {
+        final Cipher cipher = initCipher(Cipher.DECRYPT_MODE, partNumber);
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        final byte[] plaintext = new byte[cipher.getOutputSize(BUFFER_SIZE)];
+
+        try (InputStream in = Files.newInputStream(ciphertext)) {
+            int read;
+
+            while ((read = in.read(buffer)) != -1) {
+                final int decrypted = cipher.update(buffer, 0, read, plaintext, 0);
+                mac.update(plaintext, 0, decrypted);
+            }
+
+            final int decrypted = cipher.doFinal(plaintext, 0);
+            mac.update(plaintext, 0, decrypted);
+        } catch (GeneralSecurityException e) {
+            throw cipherException("Unable to decrypt part", partNumber, e);
+        }
+    }
+
+    /**
+     * Creates a cipher for a part.
+     *
+     * @param mode {@link Cipher#ENCRYPT_MODE} or {@link Cipher#DECRYPT_MODE}
+     * @param partNumber number of the part
+     * @return cipher initialized at the position of the part
+     * @throws MantaClientEncryptionException thrown when the cipher can't be initialized
+     */
+    private Cipher initCipher(final int mode, final int partNumber) {
+        final Cipher cipher = cipherDetails.getCipher();
+        final long position = (partNumber - 1L) * partSize;
+
+        try {
+            cipher.init(mode, secretKey, cipherDetails.getEncryptionParameterSpec(iv, position));
+        } catch (GeneralSecurityException e) {
+            throw cipherException("Unable to initialize cipher", partNumber, e);
+        }
+
+        return cipher;
+    }
+
+    /**
+     * Creates an exception for a cipher failure.
+     *
+     * @param message description of the failure
+     * @param partNumber number of the part being processed
+     * @param cause cause of the failure
+     * @return the exception
+     */
+    private MantaClientEncryptionException cipherException(final String message,
+                                                           final int partNumber,
+                                                           final GeneralSecurityException cause) {
+        final MantaClientEncryptionException mcee = new MantaClientEncryptionException(message, cause);
+        mcee.setContextValue("cipherId", cipherDetails.getCipherId());
+        mcee.setContextValue("partNumber", partNumber);
+        return mcee;
+    }
+
+    /**
+     * Creates an exception for a part that can't be uploaded in the current
+     * state of the upload.
+     *
+     * @param message description of the problem
+     * @param partNumber number of the part
+     * @return the exception
+     */
+    private static MantaMultipartException illegalState(final String message, final int partNumber) {
+        final MantaMultipartException mme = new MantaMultipartException(new IllegalStateException(message));
+        mme.setContextValue("partNumber", partNumber);
+        return mme;
+    }
+
+    /**
+     * Deletes a file, logging instead of throwing when that fails.
+     *
+     * @param file file to delete
+     */
+    private static void deleteQuietly(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to delete encrypted part file: {}", file, e);
+        }
+    }
+
+    /**
+     * Entity encrypting a single part and either authenticating it while it
+     * is encrypted or keeping its ciphertext until the parts before it are
+     * authenticated.
+     */
+    final class PartEntity implements HttpEntity {
+        /**
+         * Number of the part.
+         */
+        private final int partNumber;
+
+        /**
+         * Entity holding the plaintext of the part.
+         */
+        private final HttpEntity source;
+
+        /**
+         * HMAC of the parts before this part when it was created or null if
+         * it is ahead of them and its ciphertext is kept in a file.
+         */
+        private final HMac preceding;
+
+        /**
+         * HMAC updated with the plaintext of the part while it is encrypted
+         * or null if its ciphertext is kept in a file.
+         */
+        private HMac running;
+
+        /**
+         * File holding the ciphertext of the part or null once it has been
+         * handed over or deleted.
+         */
+        private Path ciphertext;
+
+        /**
+         * Indicates if the part counts against the maximum number of parts
+         * kept in ciphertext files.
+         */
+        private boolean holdsSlot;
+
+        /**
+         * HMAC appended to the part if it is the last part.
+         */
+        private byte[] trailer;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param partNumber number of the part
+         * @param source entity holding the plaintext of the part
+         * @param preceding HMAC of the parts before this part or null if they haven't been authenticated
+         */
+        private PartEntity(final int partNumber, final HttpEntity source, final HMac preceding) {
+            this.partNumber = partNumber;
+            this.source = source;
+            this.preceding = preceding;
+            this.holdsSlot = preceding == null;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public boolean isChunked() {
+            return getContentLength() < 0;
+        }
+
+        @Override
+        public long getContentLength() {
+            final long plaintextLength = source.getContentLength();
+
+            if (plaintextLength < 0 || plaintextLength == partSize) {
+                return plaintextLength;
+            }
+
+            return plaintextLength + cipherDetails.getAuthenticationTagOrHmacLengthInBytes();
+        }
+
+        @Override
+        public Header getContentType() {
+            return CRYPTO_CONTENT_TYPE;
+        }
+
+        @Override
+        public Header getContentEncoding() {
+            return null;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return source.getContent();
+        }
+
+        @Override
+        public void writeTo(final OutputStream httpOut) throws IOException {
+            Validate.notNull(httpOut, "HttpOut stream must not be null");
+
+            deleteCiphertext();
+            trailer = null;
+
+            final long plaintextLength;
+
+            if (preceding != null) {
+                running = CLONER_HMAC.createClone(preceding);
+
+                try (InputStream in = source.getContent()) {
+                    Validate.notNull(in, "Content input stream must not be null");
+                    plaintextLength = encrypt(in, httpOut, null);
+                }
+            } else {
+                ciphertext = createSpoolFile();
+
+                try (InputStream in = source.getContent();
+                     OutputStream spool = new BufferedOutputStream(Files.newOutputStream(ciphertext))) {
+                    Validate.notNull(in, "Content input stream must not be null");
+                    plaintextLength = encrypt(in, httpOut, spool);
+                }
+            }
+
+            if (source.getContentLength() >= 0 && source.getContentLength() != plaintextLength) {
+                MantaIOException e = new MantaIOException("Bytes copied doesn't equal the "
+                        + "specified content length");
+                e.setContextValue("partNumber", partNumber);
+                e.setContextValue("specifiedContentLength", source.getContentLength());
+                e.setContextValue("actualContentLength", plaintextLength);
+                throw e;
+            }
+
+            if (plaintextLength < partSize) {
+                LOGGER.debug("Detected part {} as last part based on size", partNumber);
+                trailer = authenticateLastPart(this);
+                httpOut.write(trailer);
+            }
+
+            httpOut.flush();
+        }
+
+        /**
+         * Encrypts the plaintext of the part, writing the ciphertext to the
+         * HTTP stream and either updating the running HMAC with the plaintext
+         * or writing the ciphertext to the part's ciphertext file.
+         *
+         * @param in plaintext of the part
+         * @param httpOut HTTP stream
+         * @param spool stream writing the ciphertext file or null when the HMAC is updated
+         * @return number of plaintext bytes encrypted
+         * @throws IOException thrown when reading or writing fails or the part is too long
+         */
+        private long encrypt(final InputStream in,
+                             final OutputStream httpOut,
+                             final OutputStream spool) throws IOException {
+            final Cipher cipher = initCipher(Cipher.ENCRYPT_MODE, partNumber);
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            final byte[] encrypted = new byte[cipher.getOutputSize(BUFFER_SIZE)];
+            long plaintextLength = 0L;
+
+            try {
+                int read;
+
+                while ((read = IOUtils.read(in, buffer, 0,
+                        (int) Math.min(BUFFER_SIZE, partSize - plaintextLength))) > 0) {
+                    final int length = cipher.update(buffer, 0, read, encrypted, 0);
+                    httpOut.write(encrypted, 0, length);
+                    spoolOrAuthenticate(spool, buffer, read, encrypted, length);
+                    plaintextLength += read;
+                }
+
+                if (plaintextLength == partSize && in.read() != -1) {
+                    throw illegalState(String.format("Part is longer than the part size of [%d] bytes",
+                            partSize), partNumber);
+                }
+
+                final int length = cipher.doFinal(encrypted, 0);
+                httpOut.write(encrypted, 0, length);
+                spoolOrAuthenticate(spool, buffer, 0, encrypted, length);
+            } catch (GeneralSecurityException e) {
+                throw cipherException("Unable to encrypt part", partNumber, e);
+            }
+
+            return plaintextLength;
+        }
+
+        /**
+         * Writes ciphertext to the part's ciphertext file or updates the
+         * running HMAC with the plaintext it was encrypted from.
+         *
+         * @param spool stream writing the ciphertext file or null when the HMAC is updated
+         * @param plaintext plaintext bytes
+         * @param plaintextLength number of plaintext bytes
+         * @param encrypted ciphertext bytes
+         * @param encryptedLength number of ciphertext bytes
+         * @throws IOException thrown when the file can't be written
+         */
+        private void spoolOrAuthenticate(final OutputStream spool,
+                                         final byte[] plaintext,
+                                         final int plaintextLength,
+                                         final byte[] encrypted,
+                                         final int encryptedLength) throws IOException {
+            if (spool == null) {
+                running.update(plaintext, 0, plaintextLength);
+            } else {
+                spool.write(encrypted, 0, encryptedLength);
+            }
+        }
+
+        /**
+         * Deletes the ciphertext file of the part unless it has been handed
+         * over to be authenticated.
+         */
+        private void deleteCiphertext() {
+            if (ciphertext != null) {
+                deleteQuietly(ciphertext);
+                ciphertext = null;
+            }
+        }
+
+        /**
+         * Deletes the ciphertext file of the part and releases its place
+         * among the parts kept in files unless it has been handed over to be
+         * authenticated.
+         */
+        void discard() {
+            deleteCiphertext();
+
+            if (holdsSlot) {
+                holdsSlot = false;
+                releaseSpoolSlot();
+            }
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return source.isStreaming();
+        }
+
+        @SuppressWarnings("deprecation")
+        @Override
+        public void consumeContent() throws IOException {
+            source.consumeContent();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client.multipart;
+
+/**
+ * Interface representing a strategy for converting the state of an in-progress
+ * multipart upload to and from bytes, so that it can be persisted by a
+ * {@link ResumableMultipartUploader} and restored after a restart.
+ *
+ * @param <UPLOAD> type of multipart upload that is encoded
+ * @since 3.5.1
+ */
+public interface MultipartUploadStateCodec<UPLOAD extends MantaMultipartUpload> {
+    /**
+     * Encodes the current state of an upload. This method is invoked after
+     * each part is successfully uploaded, so the encoded state must reflect
+     * all of the parts uploaded so far.
+     *
+     * @param upload upload to encode
+     * @return binary representation of the upload state
+     */
+    byte[] encode(UPLOAD upload);
+
+    /**
+     * Restores an upload from a binary representation created by
+     * {@link #encode(MantaMultipartUpload)}.
+     *
+     * @param state binary representation of the upload state
+     * @return upload object that can be used to continue uploading parts
+     */
+    UPLOAD decode(byte[] state);
+}
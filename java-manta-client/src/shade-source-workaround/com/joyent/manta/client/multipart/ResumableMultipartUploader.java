@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client.multipart;
+
+import com.joyent.manta.client.MantaMetadata;
+import com.joyent.manta.exception.MantaClientHttpResponseException;
+import com.joyent.manta.exception.MantaMultipartException;
+import com.joyent.manta.http.MantaHttpHeaders;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.lang3.Validate;
+import org.apache.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>Coordinator that uploads a local file using a {@link MantaMultipartManager}
+ * and records its progress in a local journal so that an upload interrupted
+ * by a crash can be continued rather than aborted and started over.</p>
+ *
+ * <p>The journal records the upload id and initial state and, for every
+ * part that completes, its part number, size, etag and the encoded upload
+ * state. A journaled upload without any completed parts is aborted before
+ * a new upload is started. When
+ * {@link #upload(String, File, long)} is invoked and a journal for the same
+ * object, source size and part size exists, the journaled parts are verified
+ * against {@link MantaMultipartManager#listParts(MantaMultipartUpload)} and
+ * only the parts that are missing or whose etag doesn't match are uploaded
+ * before the upload is completed. The journal is deleted once the upload
+ * is completed.</p>
+ *
+ * <p>Encrypted multipart uploads must upload parts serially because the
+ * cipher state carries over from one part to the next. When used with an
+ * {@link EncryptedMultipartManager}, the upload resumes from the state
+ * recorded after the last part of the longest verified run of parts
+ * starting at part one. The encryption state can be encoded using the
+ * <code>EncryptedMultipartUploadStateCodec</code> found in the
+ * <code>java-manta-client-kryo-serialization</code> module.</p>
+ *
+ * <p>Instances of this class are not thread-safe and each instance should
+ * only be used for a single upload at a time.</p>
+ *
+ * @param <UPLOAD> type of multipart upload used by the manager
+ * @since 3.5.1
+ */
+public class ResumableMultipartUploader<UPLOAD extends MantaMultipartUpload> {
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResumableMultipartUploader.class);
+
+    /**
+     * Manager used to perform the multipart upload operations.
+     */
+    private final MantaMultipartManager<UPLOAD, ? extends MantaMultipartUploadPart> manager;
+
+    /**
+     * Codec used to persist the upload state in the journal.
+     */
+    private final MultipartUploadStateCodec<UPLOAD> codec;
+
+    /**
+     * Local journal of completed parts.
+     */
+    private final MultipartUploadJournal journal;
+
+    /**
+     * Flag indicating that parts must be uploaded serially and in order.
+     */
+    private final boolean sequential;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param manager multipart manager used to upload parts
+     * @param codec codec used to persist the upload state in the journal
+     * @param journalFile local file used to journal the progress of the upload
+     */
+    public ResumableMultipartUploader(final MantaMultipartManager<UPLOAD, ? extends MantaMultipartUploadPart> manager,
+                                      final MultipartUploadStateCodec<UPLOAD> codec,
+                                      final Path journalFile) {
+        this.manager = Validate.notNull(manager, "Multipart manager must not be null");
+        this.codec = Validate.notNull(codec, "Upload state codec must not be null");
+        this.journal = new MultipartUploadJournal(
+                Validate.notNull(journalFile, "Journal file must not be null"));
+        this.sequential = manager instanceof EncryptedMultipartManager;
+    }
+
+    /**
+     * Uploads a local file to the specified path, continuing a previously
+     * interrupted upload recorded in the journal if there is one.
+     *
+     * @param path path to the final object
+     * @param source local file to upload
+     * @param partSize size in bytes of every part except the last
+     * @throws IOException thrown when there is a problem uploading or journaling
+     */
+    public void upload(final String path, final File source, final long partSize) throws IOException {
+        upload(path, source, partSize, null, null);
+    }
+
+    /**
+     * Uploads a local file to the specified path, continuing a previously
+     * interrupted upload recorded in the journal if there is one. The
+     * metadata and headers are only used when a new upload is initiated.
+     *
+     * @param path path to the final object
+     * @param source local file to upload
+     * @param partSize size in bytes of every part except the last
+     * @param metadata metadata to associate with the object, may be null
+     * @param headers HTTP headers to associate with the object, may be null
+     * @throws IOException thrown when there is a problem uploading or journaling
+     */
+    public void upload(final String path,
+                       final File source,
+                       final long partSize,
+                       final MantaMetadata metadata,
+                       final MantaHttpHeaders headers) throws IOException {
+        Validate.notBlank(path, "Path to object must not be blank");
+        Validate.notNull(source, "Source file must not be null");
+        Validate.isTrue(source.isFile(), "Source must be a readable file");
+        Validate.isTrue(partSize >= manager.getMinimumPartSize(),
+                "Part size must be at least %d bytes", manager.getMinimumPartSize());
+
+        final long sourceLength = source.length();
+        final int partCount = Math.max(1, (int) ((sourceLength + partSize - 1) / partSize));
+
+        Validate.isTrue(partCount <= manager.getMaxParts(),
+                "Part size is too small to upload the file in %d parts", manager.getMaxParts());
+
+        final SortedMap<Integer, MantaMultipartUploadTuple> completed = new TreeMap<>();
+        final MultipartUploadJournal.Header header = journal.readHeader();
+        UPLOAD upload = null;
+
+        if (header != null) {
+            validateJournal(header, path, sourceLength, partSize);
+            final List<MultipartUploadJournal.Entry> entries = journal.readEntries();
+
+            if (entries.isEmpty()) {
+                LOGGER.info("No parts of multipart upload [{}] were journaled, "
+                        + "aborting it and starting a new upload", header.getUploadId());
+                abortQuietly(codec.decode(header.getState()));
+            } else {
+                final UPLOAD latest = codec.decode(entries.get(entries.size() - 1).getState());
+                final MantaMultipartStatus status = manager.getStatus(latest);
+
+                if (status.equals(MantaMultipartStatus.COMPLETED)
+                        || status.equals(MantaMultipartStatus.COMMITTING)) {
+                    LOGGER.info("Multipart upload [{}] to {} was already committed", latest.getId(), path);
+                    journal.delete();
+                    return;
+                } else if (status.equals(MantaMultipartStatus.CREATED)) {
+                    upload = resume(latest, entries, completed);
+                } else {
+                    LOGGER.info("Multipart upload [{}] is in state {}, starting a new upload",
+                            latest.getId(), status);
+                }
+            }
+        }
+
+        if (upload == null) {
+            completed.clear();
+            upload = manager.initiateUpload(path, sourceLength, metadata, headers);
+            journal.begin(new MultipartUploadJournal.Header(path, upload.getId(), sourceLength, partSize,
+                    codec.encode(upload)));
+            LOGGER.debug("Started journaled multipart upload [{}] to {}", upload.getId(), path);
+        } else if (completed.size() == partCount) {
+            LOGGER.debug("All parts of multipart upload [{}] were already uploaded", upload.getId());
+        } else {
+            LOGGER.info("Resuming multipart upload [{}] to {} with {} of {} parts already uploaded",
+                    upload.getId(), path, completed.size(), partCount);
+        }
+
+        for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+            if (completed.containsKey(partNumber)) {
+                continue;
+            }
+
+            final long offset = (partNumber - 1) * partSize;
+            final long size = Math.min(partSize, sourceLength - offset);
+            final MantaMultipartUploadPart part = uploadPart(upload, partNumber, source, offset, size);
+
+            journal.append(new MultipartUploadJournal.Entry(partNumber, size, part.getEtag(),
+                    codec.encode(upload)));
+            completed.put(partNumber, part);
+        }
+
+        manager.complete(upload, completed.values());
+        journal.delete();
+    }
+
+    /**
+     * Uploads a single slice of the source file.
+     *
+     * @param upload upload to add a part to
+     * @param partNumber part number
+     * @param source local file to upload
+     * @param offset position in the file of the first byte of the part
+     * @param size number of bytes in the part
+     * @return uploaded part
+     * @throws IOException thrown when the part can't be read or uploaded
+     */
+    private MantaMultipartUploadPart uploadPart(final UPLOAD upload,
+                                                final int partNumber,
+                                                final File source,
+                                                final long offset,
+                                                final long size) throws IOException {
+        try (FileInputStream fin = new FileInputStream(source)) {
+            fin.getChannel().position(offset);
+            final InputStream in = new BoundedInputStream(fin, size);
+
+            return manager.uploadPart(upload, partNumber, size, in);
+        }
+    }
+
+    /**
+     * Verifies that an existing journal describes the requested upload.
+     *
+     * @param header journal header
+     * @param path path to the final object
+     * @param sourceLength size of the local source file
+     * @param partSize size in bytes of every part except the last
+     */
+    private void validateJournal(final MultipartUploadJournal.Header header,
+                                 final String path,
+                                 final long sourceLength,
+                                 final long partSize) {
+        if (Objects.equals(header.getPath(), path)
+                && header.getSourceLength() == sourceLength
+                && header.getPartSize() == partSize) {
+            return;
+        }
+
+        String msg = "Multipart upload journal describes a different upload. "
+                + "Remove the journal to start a new upload.";
+        MantaMultipartException e = new MantaMultipartException(msg);
+        e.setContextValue("journal", journal.getFile());
+        e.setContextValue("journalUploadId", header.getUploadId());
+        e.setContextValue("journalPath", header.getPath());
+        e.setContextValue("journalSourceLength", header.getSourceLength());
+        e.setContextValue("journalPartSize", header.getPartSize());
+        e.setContextValue("path", path);
+        e.setContextValue("sourceLength", sourceLength);
+        e.setContextValue("partSize", partSize);
+        throw e;
+    }
+
+    /**
+     * Verifies the journaled parts against the parts stored on the server and
+     * restores the upload state to continue from.
+     *
+     * @param latest upload decoded from the most recent journal record
+     * @param entries parts recorded in the journal
+     * @param completed map populated with the verified parts
+     * @return the restored upload or null when a new upload must be started
+     * @throws IOException thrown when there is a problem reading the server state
+     */
+    private UPLOAD resume(final UPLOAD latest,
+                          final List<MultipartUploadJournal.Entry> entries,
+                          final Map<Integer, MantaMultipartUploadTuple> completed) throws IOException {
+        /* Parts may have been uploaded more than once, so the last record wins. */
+        final SortedMap<Integer, MultipartUploadJournal.Entry> journaled = new TreeMap<>();
+
+        for (MultipartUploadJournal.Entry entry : entries) {
+            journaled.put(entry.getPartNumber(), entry);
+        }
+
+        final Map<Integer, String> serverEtags = listServerEtags(latest);
+
+        if (serverEtags == null) {
+            return null;
+        }
+
+        for (MultipartUploadJournal.Entry entry : journaled.values()) {
+            final int partNumber = entry.getPartNumber();
+            final boolean verified = Objects.equals(serverEtags.get(partNumber), entry.getEtag());
+
+            if (!verified) {
+                LOGGER.debug("Journaled part {} of upload [{}] was not found on the server",
+                        partNumber, latest.getId());
+
+                if (sequential) {
+                    break;
+                }
+
+                continue;
+            }
+
+            if (sequential && partNumber != completed.size() + 1) {
+                break;
+            }
+
+            completed.put(partNumber, new MantaMultipartUploadTuple(partNumber, entry.getEtag()));
+        }
+
+        if (!sequential) {
+            return latest;
+        }
+
+        /* Cipher state carries over between parts, so we can only continue
+         * from the state recorded after the last verified part. */
+        if (completed.isEmpty()) {
+            LOGGER.info("No journaled parts of encrypted upload [{}] were verified, "
+                    + "aborting it and starting a new upload", latest.getId());
+            abortQuietly(latest);
+            return null;
+        }
+
+        final int lastVerified = completed.size();
+        return codec.decode(journaled.get(lastVerified).getState());
+    }
+
+    /**
+     * Lists the etags of the parts stored on the server.
+     *
+     * @param upload upload to list the parts of
+     * @return map of part numbers to etags or null if the upload no longer exists
+     * @throws IOException thrown when the parts can't be listed
+     */
+    private Map<Integer, String> listServerEtags(final UPLOAD upload) throws IOException {
+        try (Stream<? extends MantaMultipartUploadPart> parts = manager.listParts(upload)) {
+            return parts.collect(Collectors.toMap(MantaMultipartUploadTuple::getPartNumber,
+                    MantaMultipartUploadTuple::getEtag, (a, b) -> b, HashMap::new));
+        } catch (MantaClientHttpResponseException e) {
+            if (e.getStatusCode() == HttpStatus.SC_NOT_FOUND) {
+                LOGGER.info("Multipart upload [{}] no longer exists, starting a new upload",
+                        upload.getId());
+                return null;
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Aborts an upload that is being replaced, logging any failure.
+     *
+     * @param upload upload to abort
+     */
+    private void abortQuietly(final UPLOAD upload) {
+        try {
+            manager.abort(upload);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Unable to abort multipart upload [{}]", upload.getId(), e);
+        }
+    }
+}
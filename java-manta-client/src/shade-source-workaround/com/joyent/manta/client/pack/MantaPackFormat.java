@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.client.pack;
+
+import com.joyent.manta.exception.MantaIOException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * <p>Binary layout of a pack. A pack is laid out as:</p>
+ *
+ * <pre>
+ * [entry data][index][trailer]
+ *
+ * index   := entry count (int) followed by, for each entry,
+ *            name (modified UTF-8), offset (long), length (long)
+ * trailer := index offset (long), index length (int),
+ *            index CRC-32 (int), version (int), magic (int)
+ * </pre>
+ *
+ * <p>All numbers are big-endian. The trailer has a fixed size so that it
+ * can always be found at the end of the object.</p>
+ *
+ * @since 3.5.1
+ */
+final class MantaPackFormat {
+    /**
+     * Magic number identifying a pack ("MPAK").
+     */
+    static final int MAGIC = 0x4D50414B;
+
+    /**
+     * Version of the pack layout.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size in bytes of the trailer.
+     */
+    static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES * 4;
+
+    /**
+     * Maximum size in bytes of an entry name encoded as modified UTF-8.
+     */
+    static final int MAX_NAME_BYTES = 0xFFFF;
+
+    /**
+     * Largest character that is encoded as a single byte in modified UTF-8.
+     */
+    private static final char MAX_ONE_BYTE_CHAR = 0x7F;
+
+    /**
+     * Largest character that is encoded as two bytes in modified UTF-8.
+     */
+    private static final char MAX_TWO_BYTE_CHAR = 0x7FF;
+
+    /**
+     * Private constructor for class only containing static methods.
+     */
+    private MantaPackFormat() {
+    }
+
+    /**
+     * Calculates the size of a name encoded as modified UTF-8, the encoding
+     * used for names in the index.
+     *
+     * @param name entry name
+     * @return number of bytes in the encoded name
+     */
+    static long encodedNameLength(final String name) {
+        long length = 0;
+
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+
+            length++;
+
+            if (c == 0 || c > MAX_ONE_BYTE_CHAR) {
+                length++;
+            }
+
+            if (c > MAX_TWO_BYTE_CHAR) {
+                length++;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Serializes an index.
+     *
+     * @param entries entries in the order they were written
+     * @return serialized index
+     * @throws IOException thrown when an entry can't be serialized
+     */
+    static byte[] writeIndex(final Collection<MantaPackEntry> entries) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeInt(entries.size());
+
+            for (MantaPackEntry entry : entries) {
+                out.writeUTF(entry.getName());
+                out.writeLong(entry.getOffset());
+                out.writeLong(entry.getLength());
+            }
+        }
+
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Serializes a trailer.
+     *
+     * @param indexOffset position of the index within the pack
+     * @param index serialized index
+     * @return serialized trailer
+     */
+    static byte[] writeTrailer(final long indexOffset, final byte[] index) {
+        final ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+        trailer.putLong(indexOffset);
+        trailer.putInt(index.length);
+        trailer.putInt(crc32(index, 0, index.length));
+        trailer.putInt(VERSION);
+        trailer.putInt(MAGIC);
+
+        return trailer.array();
+    }
+
+    /**
+     * Parses the trailer found at the end of the specified buffer.
+     *
+     * @param path path to the pack, used for error reporting
+     * @param tail buffer containing the end of the pack
+     * @return parsed trailer
+     * @throws MantaIOException thrown when the buffer doesn't end with a valid trailer
+     */
+    static Trailer readTrailer(final String path, final byte[] tail) throws MantaIOException {
+        if (tail.length < TRAILER_SIZE) {
+            throw corrupt(path, "Object is too small to be a pack");
+        }
+
+        final ByteBuffer trailer = ByteBuffer.wrap(tail, tail.length - TRAILER_SIZE, TRAILER_SIZE);
+        final long indexOffset = trailer.getLong();
+        final int indexLength = trailer.getInt();
+        final int indexCrc = trailer.getInt();
+        final int version = trailer.getInt();
+        final int magic = trailer.getInt();
+
+        if (magic != MAGIC) {
+            throw corrupt(path, "Object is not a pack");
+        }
+
+        if (version != VERSION) {
+            MantaIOException e = corrupt(path, "Unsupported pack version");
+            e.setContextValue("version", version);
+            throw e;
+        }
+
+        if (indexOffset < 0 || indexLength < Integer.BYTES) {
+            throw corrupt(path, "Pack trailer is corrupt");
+        }
+
+        return new Trailer(indexOffset, indexLength, indexCrc);
+    }
+
+    /**
+     * Parses and verifies a serialized index.
+     *
+     * @param path path to the pack, used for error reporting
+     * @param trailer trailer describing the index
+     * @param buffer buffer containing the index
+     * @param start position of the index within the buffer
+     * @return map of entry names to entries in the order they were written
+     * @throws IOException thrown when the index is corrupt
+     */
+    static Map<String, MantaPackEntry> readIndex(final String path,
+                                                 final Trailer trailer,
+                                                 final byte[] buffer,
+                                                 final int start) throws IOException {
+        final int length = trailer.getIndexLength();
+
+        if (crc32(buffer, start, length) != trailer.getIndexCrc()) {
+            throw corrupt(path, "Pack index failed checksum verification");
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer, start, length))) {
+            final int count = in.readInt();
+
+            if (count < 0) {
+                throw corrupt(path, "Pack index is corrupt");
+            }
+
+            final Map<String, MantaPackEntry> entries = new LinkedHashMap<>(count * 4 / 3 + 1);
+
+            for (int i = 0; i < count; i++) {
+                final MantaPackEntry entry = new MantaPackEntry(in.readUTF(), in.readLong(), in.readLong());
+
+                if (entry.getOffset() < 0 || entry.getLength() < 0
+                        || entry.getOffset() + entry.getLength() > trailer.getIndexOffset()) {
+                    MantaIOException e = corrupt(path, "Pack index entry is out of bounds");
+                    e.setContextValue("entry", entry);
+                    throw e;
+                }
+
+                entries.put(entry.getName(), entry);
+            }
+
+            return entries;
+        }
+    }
+
+    /**
+     * Calculates the CRC-32 of a slice of a buffer.
+     *
+     * @param buffer buffer to checksum
+     * @param offset position of the first byte to checksum
+     * @param length number of bytes to checksum
+     * @return CRC-32 value
+     */
+    private static int crc32(final byte[] buffer, final int offset, final int length) {
+        final CRC32 crc = new CRC32();
+        crc.update(buffer, offset, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Builds an exception describing a malformed pack.
+     *
+     * @param path path to the pack
+     * @param msg description of the problem
+     * @return exception to throw
+     */
+    private static MantaIOException corrupt(final String path, final String msg) {
+        MantaIOException e = new MantaIOException(msg);
+        e.setContextValue("path", path);
+        return e;
+    }
+
+    /**
+     * Parsed pack trailer.
+     */
+    static final class Trailer {
+        /**
+         * Position of the index within the pack.
+         */
+        private final long indexOffset;
+
+        /**
+         * Size in bytes of the index.
+         */
+        private final int indexLength;
+
+        /**
+         * CRC-32 of the index.
+         */
+        private final int indexCrc;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param indexOffset position of the index within the pack
+         * @param indexLength size in bytes of the index
+         * @param indexCrc CRC-32 of the index
+         */
+        Trailer(final long indexOffset, final int indexLength, final int indexCrc) {
+            this.indexOffset = indexOffset;
+            this.indexLength = indexLength;
+            this.indexCrc = indexCrc;
+        }
+
+        long getIndexOffset() {
+            return indexOffset;
+        }
+
+        int getIndexLength() {
+            return indexLength;
+        }
+
+        int getIndexCrc() {
+            return indexCrc;
+        }
+    }
+}
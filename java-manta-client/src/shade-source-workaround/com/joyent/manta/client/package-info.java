@@ -0,0 +1,14 @@
+/*
+ * Copyright (c) 2014-2017, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+/**
+ * Manta Java client package.
+ *
+ * @author Yunong Xiao
+ */
+package com.joyent.manta.client;
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2020, Joyent, Inc. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.joyent.manta.http;
+
+import com.joyent.manta.exception.MantaIOException;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+
+/**
+ * <p>Utility class that downloads ranges of an object concurrently on an
+ * executor supplied by the caller. How each range is requested and where its
+ * bytes are written is left to the caller, so that plaintext downloads,
+ * encrypted downloads and reads of many small ranges share the same
+ * scheduling.</p>
+ *
+ * <p>A fixed number of tasks is run on the executor and each task downloads
+ * ranges until none remain, so the number of concurrent requests never
+ * exceeds the requested concurrency. The first failing range aborts the
+ * download and cancels the remaining tasks.</p>
+ *
+ * @since 3.5.1
+ */
+public final class ParallelRangeDownloader {
+    /**
+     * Number of bytes requested by a single ranged GET. This is a multiple of
+     * the block size of every supported cipher.
+     */
+    static final long RANGE_SIZE = 8L * 1024 * 1024;
+
+    /**
+     * Size of the buffer used to copy a range to a file.
+     */
+    static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Downloads a single range of an object.
+     *
+     * @param <T> type describing a range
+     */
+    @FunctionalInterface
+    public interface RangeTask<T> {
+        /**
+         * Downloads a range of an object.
+         *
+         * @param range range to download
+         * @throws IOException thrown when the range can't be downloaded
+         */
+        void download(T range) throws IOException;
+    }
+
+    /**
+     * Downloads a single range of an object identified by its bounds.
+     */
+    @FunctionalInterface
+    interface RangeDownload {
+        /**
+         * Downloads a range of an object.
+         *
+         * @param startInclusive position of the first byte of the range
+         * @param endInclusive position of the last byte of the range
+         * @throws IOException thrown when the range can't be downloaded
+         */
+        void download(long startInclusive, long endInclusive) throws IOException;
+    }
+
+    /**
+     * Private constructor for utility class.
+     */
+    private ParallelRangeDownloader() {
+    }
+
+    /**
+     * Downloads ranges of an object and waits for all of them to complete.
+     * A single range, or a concurrency of 1, is downloaded on the calling
+     * thread.
+     *
+     * @param <T> type describing a range
+     * @param path path of the object, used for error context
+     * @param ranges ranges to download
+     * @param concurrency maximum number of ranges downloaded at a time
+     * @param executor executor that runs the concurrent downloads
+     * @param task function downloading a single range
+     * @throws IOException thrown when any range fails to download
+     */
+    public static <T> void download(final String path,
+                                    final List<T> ranges,
+                                    final int concurrency,
+                                    final Executor executor,
+                                    final RangeTask<? super T> task) throws IOException {
+        Validate.notNull(ranges, "Ranges must not be null");
+        Validate.isTrue(concurrency > 0, "Concurrency must be greater than 0");
+        Validate.notNull(executor, "Executor must not be null");
+        Validate.notNull(task, "Range task must not be null");
+
+        if (ranges.size() <= 1 || concurrency == 1) {
+            for (T range : ranges) {
+                task.download(range);
+            }
+
+            return;
+        }
+
+        final int workers = Math.min(concurrency, ranges.size());
+        final Iterator<T> remaining = ranges.iterator();
+        final CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+        final List<Future<Void>> tasks = new ArrayList<>(workers);
+
+        try {
+            for (int i = 0; i < workers; i++) {
+                tasks.add(completion.submit(() -> {
+                    T range;
+
+                    while (!Thread.currentThread().isInterrupted() && (range = next(remaining)) != null) {
+                        task.download(range);
+                    }
+
+                    return null;
+                }));
+            }
+
+            for (int i = 0; i < workers; i++) {
+                completion.take().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while downloading ranges of " + path);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            MantaIOException mio = new MantaIOException("Unable to download range", cause);
+            mio.setContextValue("path", path);
+            throw mio;
+        } finally {
+            for (Future<Void> pending : tasks) {
+                pending.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Splits an object into ranges of {@link #RANGE_SIZE} bytes, downloads
+     * them and waits for all of them to complete.
+     *
+     * @param path path of the object, used for error context
+     * @param size number of bytes to download
+     * @param concurrency maximum number of ranges downloaded at a time
+     * @param executor executor that runs the concurrent downloads
+     * @param download function downloading a single range
+     * @throws IOException thrown when any range fails to download
+     */
+    static void download(final String path,
+                         final long size,
+                         final int concurrency,
+                         final Executor executor,
+                         final RangeDownload download) throws IOException {
+        Validate.isTrue(size >= 0, "Size must be 0 or greater");
+        Validate.notNull(download, "Range download must not be null");
+
+        final List<HttpRange.BoundedRequest> ranges = new ArrayList<>();
+
+        for (long start = 0; start < size; start += RANGE_SIZE) {
+            ranges.add(new HttpRange.BoundedRequest(start, Math.min(size, start + RANGE_SIZE) - 1));
+        }
+
+        download(path, ranges, concurrency, executor,
+                range -> download.download(range.getStartInclusive(), range.getEndInclusive()));
+    }
+
+    /**
+     * Copies a stream to a file starting at the given position.
+     *
+     * @param in stream to copy
+     * @param target file to write to
+     * @param position position in the file of the first byte
+     * @return number of bytes copied
+     * @throws IOException thrown when reading or writing fails
+     */
+    static long copy(final InputStream in,
+                     final FileChannel target,
+                     final long position) throws IOException {
+        final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        long copied = 0L;
+        int read;
+
+        while ((read = in.read(buffer)) != -1) {
+            write(target, position + copied, buffer, read);
+            copied += read;
+        }
+
+        return copied;
+    }
+
+    /**
+     * Writes a buffer to a file at the given position.
+     *
+     * @param target file to write to
+     * @param position position in the file of the first byte
+     * @param buffer bytes to write
+     * @param length number of bytes of the buffer to write
+     * @throws IOException thrown when writing fails
+     */
+    static void write(final FileChannel target,
+                      final long position,
+                      final byte[] buffer,
+                      final int length) throws IOException {
+        final ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, length);
+
+        while (bytes.hasRemaining()) {
+            target.write(bytes, position + bytes.position());
+        }
+    }
+
+    /**
+     * Validates that a range had the expected length.
+     *
+     * @param position position of the range
+     * @param expectedLength number of bytes expected
+     * @param actualLength number of bytes received
+     * @throws MantaIOException thrown when the lengths differ
+     */
+    static void validateLength(final long position,
+                               final long expectedLength,
+                               final long actualLength) throws MantaIOException {
+        if (actualLength != expectedLength) {
+            MantaIOException e = new MantaIOException("Range length doesn't equal the requested length");
+            e.setContextValue("rangeStart", position);
+            e.setContextValue("expectedLength", expectedLength);
+            e.setContextValue("actualLength", actualLength);
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the next range to download.
+     *
+     * @param <T> type describing a range
+     * @param remaining ranges that haven't been downloaded, shared by the tasks
+     * @return the next range or null if none remain
+     */
+    private static <T> T next(final Iterator<T> remaining) {
+        synchronized (remaining) {
+            if (remaining.hasNext()) {
+                return remaining.next();
+            }
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package com.joyent.manta.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>The class to which this annotation is applied is not thread-safe.
+ * This annotation primarily exists for clarifying the non-thread-safety of a
+ * class that might otherwise be assumed to be thread-safe, despite the fact
+ * that it is a bad idea to assume a class is thread-safe without good reason.</p>
+ *
+ * <p>Based on code developed by Brian Goetz and Tim Peierls and concepts
+ * published in 'Java Concurrency in Practice' by Brian Goetz, Tim Peierls,
+ * Joshua Bloch, Joseph Bowbeer, David Holmes and Doug Lea.</p>
+ *
+ * <p>The only modifications to this class from its original is this block
+ * comment and the package name</p>
+ *
+ * @see <a href="http://svn.apache.org/repos/asf/httpcomponents/httpcore/tags/4.4.4/httpcore/src/main/java/org/apache/http/annotation/NotThreadSafe.java">Apache httpcore Implementation</a>
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS) // The original version used RUNTIME
+public @interface NotThreadSafe {
+}